@@ -0,0 +1,120 @@
+package com.parkinglot.lld.bench;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.IAllocationJournal;
+import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.managers.impl.CompactSlotManager;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.IAllocationStratergy;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * allocate/reserve paired with release, so the free ratio stays where the trial put
+ * it. Every operation uses a fresh context and misses the idempotency index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class AllocationBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int lotSize;
+
+    @Param({ "1.0", "0.5", "0.01" })
+    public double freeRatio;
+
+    @Param({ "SLOT_MANAGER", "COMPACT" })
+    public String manager;
+
+    @Param({ "RANDOMIZED" })
+    public String stratergy;
+
+    @Param({ "IN_MEMORY" })
+    public String journal;
+
+    private ParkingLot lot;
+    private ISlotManager slotManager;
+
+    @Setup(Level.Trial)
+    public void buildLot() {
+        lot = Lots.medium(lotSize, freeRatio);
+    }
+
+    @Setup(Level.Iteration)
+    public void buildManager() {
+        // tickets are never evicted, a fresh manager per iteration keeps the heap flat
+        final TicketManager ticketManager = new TicketManager(Duration.ofSeconds(30));
+        slotManager = switch (manager) {
+            case "SLOT_MANAGER" -> new SlotManager(lot, stratergy(), journal(), ticketManager);
+            case "COMPACT" -> new CompactSlotManager(lot, journal(), ticketManager);
+            default -> throw new IllegalArgumentException("Unknown manager: " + manager);
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        private static final AtomicInteger GATES = new AtomicInteger();
+        final Vehicle vehicle = new Vehicle("GATE-" + GATES.incrementAndGet(), VehicleType.CAR);
+        private int sequence;
+
+        String nextCtx() {
+            return Integer.toString(sequence++);
+        }
+
+        int nextStart() {
+            return sequence++;
+        }
+    }
+
+    @Benchmark
+    public Optional<Ticket> allocateRelease(final Gate gate) {
+        final Optional<Ticket> ticket = slotManager.allocate(gate.vehicle, gate.nextCtx());
+        ticket.ifPresent(t -> slotManager.release(t.getSlotId()));
+        return ticket;
+    }
+
+    @Benchmark
+    public Optional<Ticket> reserveRelease(final Gate gate) {
+        final Optional<Ticket> ticket = slotManager.reserve(gate.vehicle, gate.nextStart());
+        ticket.ifPresent(t -> slotManager.release(t.getSlotId()));
+        return ticket;
+    }
+
+    private IAllocationStratergy stratergy() {
+        return switch (stratergy) {
+            case "RANDOMIZED" -> new RandomizedStratergy();
+            default -> throw new IllegalArgumentException("Unknown stratergy: " + stratergy);
+        };
+    }
+
+    private IAllocationJournal journal() {
+        return switch (journal) {
+            case "IN_MEMORY" -> new InMemoryJournal(Duration.ofSeconds(30));
+            default -> throw new IllegalArgumentException("Unknown journal: " + journal);
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.parkinglot.lld.bench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+
+/**
+ * Latency targets for the allocation path:
+ * 1. p99 of every sampled operation stays under 50 ms
+ * 2. mean latency grows at most logarithmically with lotSize: going from the smallest
+ *    to the largest lot may cost at most {@link #LOG_SLACK} times log2(max)/log2(min)
+ */
+final class BenchmarkBudget {
+
+    static final long P99_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    static final double LOG_SLACK = 4.0;
+    private static final String LOT_SIZE = "lotSize";
+
+    private BenchmarkBudget() {
+    }
+
+    record Violation(String benchmark, String params, int threads, String rule, double actual, double limit) {
+        @Override
+        public String toString() {
+            return String.format("%s %s threads=%d %s: %.1f > %.1f", benchmark, params, threads, rule, actual, limit);
+        }
+    }
+
+    static List<Violation> check(final Collection<RunResult> results) {
+        final List<RunResult> sampled = results.stream()
+                .filter(result -> result.getParams().getMode() == Mode.SampleTime)
+                .toList();
+        final List<Violation> violations = new ArrayList<>();
+        for (final RunResult result : sampled) {
+            final double p99 = nanos(result, result.getPrimaryResult().getStatistics().getPercentile(99));
+            if (p99 > P99_BUDGET_NANOS) {
+                violations.add(violation(result, "p99Nanos", p99, P99_BUDGET_NANOS));
+            }
+        }
+        // compare each series across lot sizes with all other parameters fixed
+        final Map<String, List<RunResult>> series = sampled.stream()
+                .filter(result -> result.getParams().getParamsKeys().contains(LOT_SIZE))
+                .collect(Collectors.groupingBy(BenchmarkBudget::seriesKey, LinkedHashMap::new, Collectors.toList()));
+        for (final List<RunResult> points : series.values()) {
+            if (points.size() < 2) {
+                continue;
+            }
+            final RunResult smallest = points.stream().min(Comparator.comparingLong(BenchmarkBudget::lotSize)).get();
+            final RunResult largest = points.stream().max(Comparator.comparingLong(BenchmarkBudget::lotSize)).get();
+            final double growth = mean(largest) / Math.max(mean(smallest), 1);
+            final double limit = LOG_SLACK * log2(lotSize(largest)) / log2(lotSize(smallest));
+            if (growth > limit) {
+                violations.add(violation(largest, "logGrowth", growth, limit));
+            }
+        }
+        return violations;
+    }
+
+    static String toJson(final List<Violation> violations) {
+        if (violations.isEmpty()) {
+            return "{\"violations\":[]}\n";
+        }
+        return violations.stream()
+                .map(v -> String.format(
+                        "{\"benchmark\":\"%s\",\"params\":\"%s\",\"threads\":%d,\"rule\":\"%s\",\"actual\":%.1f,\"limit\":%.1f}",
+                        v.benchmark(), v.params(), v.threads(), v.rule(), v.actual(), v.limit()))
+                .collect(Collectors.joining(",\n  ", "{\"violations\":[\n  ", "\n]}\n"));
+    }
+
+    private static Violation violation(final RunResult result, final String rule, final double actual,
+            final double limit) {
+        final BenchmarkParams params = result.getParams();
+        return new Violation(params.getBenchmark(), params(params), params.getThreads(), rule, actual, limit);
+    }
+
+    private static String seriesKey(final RunResult result) {
+        final BenchmarkParams params = result.getParams();
+        return params.getBenchmark() + "|" + params.getThreads() + "|" + params.getParamsKeys().stream()
+                .filter(key -> !key.equals(LOT_SIZE))
+                .map(key -> key + "=" + params.getParam(key))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String params(final BenchmarkParams params) {
+        return params.getParamsKeys().stream()
+                .map(key -> key + "=" + params.getParam(key))
+                .collect(Collectors.joining(","));
+    }
+
+    private static long lotSize(final RunResult result) {
+        return Long.parseLong(result.getParams().getParam(LOT_SIZE));
+    }
+
+    private static double mean(final RunResult result) {
+        return nanos(result, result.getPrimaryResult().getStatistics().getMean());
+    }
+
+    private static double nanos(final RunResult result, final double value) {
+        return value * result.getParams().getTimeUnit().toNanos(1);
+    }
+
+    private static double log2(final long value) {
+        return Math.log(Math.max(value, 2)) / Math.log(2);
+    }
+}
@@ -0,0 +1,62 @@
+package com.parkinglot.lld.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the suite once per thread count, writes the raw JMH results as JSON and checks
+ * them against {@link BenchmarkBudget}. Exits non-zero when a budget is exceeded so a
+ * CI job can fail on regressions.
+ *
+ * System properties: bench.include (regex), bench.threads (comma separated),
+ * bench.output (directory).
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException, IOException {
+        final String include = System.getProperty("bench.include", "com.parkinglot.lld.bench.*");
+        final Path output = Path.of(System.getProperty("bench.output", "target/jmh"));
+        final int[] threads = Arrays.stream(System.getProperty("bench.threads", "1,4,16,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Files.createDirectories(output);
+
+        final List<RunResult> results = new ArrayList<>();
+        for (final int threadCount : threads) {
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .forks(1)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(output.resolve("results-t" + threadCount + ".json").toString())
+                    .build();
+            final Collection<RunResult> run = new Runner(options).run();
+            results.addAll(run);
+        }
+
+        final List<BenchmarkBudget.Violation> violations = BenchmarkBudget.check(results);
+        Files.writeString(output.resolve("budget.json"), BenchmarkBudget.toJson(violations));
+        violations.forEach(violation -> System.out.println("BUDGET EXCEEDED " + violation));
+        if (!violations.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.parkinglot.lld.bench;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.BitBoard;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+
+/**
+ * Random games played to their first line or a full board: the object board rebuilt for every game, the
+ * object board reused by unmaking its moves, and the bit board, likewise reused. The primary score is
+ * games; the {@code moves} counter reports moves per microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardBenchmark {
+
+    private static final int GAMES = 64;
+
+    @Param({ "3:3", "7:4", "15:5" })
+    public String shape;
+
+    private int size;
+    private int winLength;
+    private int[][] games;
+    private Piece x;
+    private Piece o;
+    private Board reusedBoard;
+    private Move[][] moves;
+    private BitBoard bitBoard;
+
+    @Setup
+    public void setup() {
+        final String[] parts = shape.split(":");
+        size = Integer.parseInt(parts[0]);
+        winLength = Integer.parseInt(parts[1]);
+        x = new Piece(PieceType.X);
+        o = new Piece(PieceType.O);
+        reusedBoard = new Board(size, winLength, Set.of(x, o));
+        bitBoard = BitBoard.create(size, winLength, 2);
+        final Random random = new Random(42);
+        games = new int[GAMES][];
+        moves = new Move[GAMES][];
+        for (int g = 0; g < GAMES; g++) {
+            final int[] cells = new int[size * size];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = i;
+            }
+            for (int i = cells.length - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1);
+                final int t = cells[i];
+                cells[i] = cells[j];
+                cells[j] = t;
+            }
+            games[g] = cells;
+            moves[g] = new Move[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                moves[g][i] = new Move(cells[i] / size, cells[i] % size, i % 2 == 0 ? x : o);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            moves = 0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int objectBoard(final Moves counter) {
+        int moves = 0;
+        for (final int[] game : games) {
+            final Board board = new Board(size, winLength, Set.of(x, o));
+            for (int i = 0; i < game.length; i++) {
+                final Move move = new Move(game[i] / size, game[i] % size, i % 2 == 0 ? x : o);
+                board.applyMove(move);
+                moves++;
+                if (board.hasWinner(move)) {
+                    break;
+                }
+            }
+        }
+        counter.moves += moves;
+        return moves;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int reusedObjectBoard(final Moves counter) {
+        int moves = 0;
+        for (final Move[] game : this.moves) {
+            int played = 0;
+            while (played < game.length) {
+                reusedBoard.applyMove(game[played]);
+                if (reusedBoard.hasWinner(game[played++])) {
+                    break;
+                }
+            }
+            for (int i = played - 1; i >= 0; i--) {
+                reusedBoard.unmakeMove(game[i]);
+            }
+            moves += played;
+        }
+        counter.moves += moves;
+        return moves;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int bitBoard(final Moves counter) {
+        int moves = 0;
+        for (final int[] game : games) {
+            int played = 0;
+            while (played < game.length) {
+                final boolean won = bitBoard.make(game[played] / size, game[played] % size, played % 2);
+                played++;
+                if (won) {
+                    break;
+                }
+            }
+            for (int i = played - 1; i >= 0; i--) {
+                bitBoard.unmake(game[i] / size, game[i] % size, i % 2);
+            }
+            moves += played;
+        }
+        counter.moves += moves;
+        return moves;
+    }
+}
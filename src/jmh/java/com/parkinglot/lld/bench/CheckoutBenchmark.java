@@ -0,0 +1,96 @@
+package com.parkinglot.lld.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.CheckoutManager;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TariffTable;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.Receipt;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Exit gates at the evening peak: every operation parks a car and checks it out. LEGACY
+ * closes the ticket and releases the slot as two unrelated calls, CHECKOUT goes through
+ * the journaled pipeline; rescanPercent of exits scan their ticket a second time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class CheckoutBenchmark {
+
+    @Param({ "CHECKOUT", "LEGACY" })
+    public String exit;
+
+    @Param({ "0", "10" })
+    public int rescanPercent;
+
+    @Param({ "10000" })
+    public int lotSize;
+
+    // nearly full, as at the evening peak
+    @Param({ "0.02" })
+    public double freeRatio;
+
+    private TicketManager ticketManager;
+    private SlotManager slotManager;
+    private CheckoutManager checkoutManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ticketManager = new TicketManager();
+        slotManager = new SlotManager(Lots.medium(lotSize, freeRatio), new RandomizedStratergy(), new InMemoryJournal(),
+                ticketManager);
+        checkoutManager = new CheckoutManager(ticketManager, slotManager, new InMemoryJournal(),
+                TariffTable.standard());
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        long next;
+        String prefix;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            prefix = "V" + Thread.currentThread().getId() + "-";
+        }
+    }
+
+    @Benchmark
+    public Object parkAndExit(final Gate gate) {
+        final long n = gate.next++;
+        final Ticket ticket = slotManager.allocate(new Vehicle(gate.prefix + n, VehicleType.CAR), "ENTRY")
+                .orElse(null);
+        if (ticket == null) {
+            return null;
+        }
+        if (exit.equals("LEGACY")) {
+            ticketManager.closeTicket(ticket.getTicketId());
+            slotManager.release(ticket.getSlotId());
+            return ticket;
+        }
+        Receipt receipt = checkoutManager.checkout(ticket.getTicketId());
+        if (n % 100 < rescanPercent) {
+            receipt = checkoutManager.checkout(ticket.getTicketId());
+        }
+        return receipt;
+    }
+}
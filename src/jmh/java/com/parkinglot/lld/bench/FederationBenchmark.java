@@ -0,0 +1,133 @@
+package com.parkinglot.lld.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.federation.impl.ConsistentHashRing;
+import com.parkinglot.lld.federation.impl.FederationRouter;
+import com.parkinglot.lld.federation.impl.LocalLotNode;
+import com.parkinglot.lld.federation.impl.LotNodeServer;
+import com.parkinglot.lld.federation.impl.LoopbackLotNode;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.FederatedTicket;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Routing overhead and spillover latency of the federation router. DIRECT calls the
+ * gate's home lot without the router, HOME routes to a home lot with room, and
+ * SPILLOVER routes from a full home lot to its neighbour. LOOPBACK puts every lot
+ * behind a socket on this machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class FederationBenchmark {
+
+    private static final String GATE = "GATE-0";
+
+    @Param({ "LOCAL", "LOOPBACK" })
+    public String transport;
+
+    @Param({ "DIRECT", "HOME", "SPILLOVER" })
+    public String routing;
+
+    @Param({ "4" })
+    public int lots;
+
+    @Param({ "1000" })
+    public int lotSize;
+
+    private FederationRouter router;
+    private ILotNode home;
+    private final List<LotNodeServer> servers = new ArrayList<>();
+    private final List<LoopbackLotNode> clients = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>(id -> id);
+        for (int l = 0; l < lots; l++) {
+            ring.add("LOT" + l);
+        }
+        final String homeId = ring.preference(GATE, 1).get(0);
+        router = new FederationRouter();
+        for (int l = 0; l < lots; l++) {
+            final String lotId = "LOT" + l;
+            final double freeRatio = routing.equals("SPILLOVER") && lotId.equals(homeId) ? 0.0 : 1.0;
+            ILotNode node = new LocalLotNode(lotId, new SlotManager(Lots.medium(lotSize, freeRatio),
+                    new RandomizedStratergy(), new InMemoryJournal(), new TicketManager()));
+            if (transport.equals("LOOPBACK")) {
+                final LotNodeServer server = new LotNodeServer(node);
+                servers.add(server);
+                final LoopbackLotNode client = new LoopbackLotNode(server.getPort());
+                clients.add(client);
+                node = client;
+            }
+            router.addLot(node);
+            if (lotId.equals(homeId)) {
+                home = node;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (final LoopbackLotNode client : clients) {
+            client.close();
+        }
+        for (final LotNodeServer server : servers) {
+            server.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Driver {
+        long next;
+        String prefix;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            prefix = "V" + Thread.currentThread().getId() + "-";
+        }
+
+        Vehicle nextVehicle() {
+            return new Vehicle(prefix + next++, VehicleType.CAR);
+        }
+    }
+
+    @Benchmark
+    public boolean allocateRelease(final Driver driver) {
+        final Vehicle vehicle = driver.nextVehicle();
+        if (routing.equals("DIRECT")) {
+            final Optional<Ticket> ticket = home.allocate(vehicle, "ENTRY");
+            ticket.ifPresent(t -> home.release(t.getSlotId()));
+            return ticket.isPresent();
+        }
+        final Optional<FederatedTicket> ticket = router.allocate(GATE, vehicle, "ENTRY");
+        ticket.ifPresent(router::release);
+        return ticket.isPresent();
+    }
+}
@@ -0,0 +1,117 @@
+package com.parkinglot.lld.bench;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import com.tictok.lld.enums.GameStatus;
+import com.tictok.lld.enums.GameType;
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Game;
+import com.tictok.lld.models.HumanPlayer;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+import com.tictok.lld.models.Player;
+import com.tictok.lld.services.GameService;
+import com.tictok.lld.stratergy.impl.FifoPlayerStratergy;
+
+/**
+ * Moves per second with {@code games} 3x3 games live at once. Each invocation submits the next ply to every
+ * game and waits for all of them; the ninth ply draws every game, and the next invocation starts a fresh
+ * set outside the timed region. A million games need about -Xmx3g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 9)
+@Measurement(iterations = 18)
+public class GameServiceBenchmark {
+
+    private static final int[][] DRAW = { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 1 }, { 1, 0 }, { 1, 2 }, { 2, 1 },
+            { 2, 0 }, { 2, 2 } };
+
+    @Param({ "100000", "1000000" })
+    public int games;
+
+    private final Player p1 = new HumanPlayer("P1", "Alice", "a@test.com");
+    private final Player p2 = new HumanPlayer("P2", "Bob", "b@test.com");
+    private final Move[] moves = new Move[DRAW.length];
+    private GameService service;
+    private String[] ids;
+    private CompletableFuture<?>[] results;
+    private int ply;
+
+    @Setup(Level.Trial)
+    public void setup(final BenchmarkParams params) {
+        service = new GameService();
+        ids = new String[games];
+        results = new CompletableFuture<?>[games];
+        for (int i = 0; i < DRAW.length; i++) {
+            moves[i] = new Move(DRAW[i][0], DRAW[i][1], new Piece(i % 2 == 0 ? PieceType.X : PieceType.O));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() {
+        if (ply != 0) {
+            return;
+        }
+        for (int i = 0; i < games; i++) {
+            final Piece x = new Piece(PieceType.X);
+            final Piece o = new Piece(PieceType.O);
+            final Game game = new Game(new Board(3, 3, Set.of(x, o)), GameType.MULTIPLAYER, 2,
+                    new FifoPlayerStratergy());
+            game.addPlayer(p1, x);
+            game.addPlayer(p2, o);
+            service.registerGame(game);
+            results[i] = service.startGameAsync(game.getId());
+            ids[i] = game.getId();
+        }
+        for (final CompletableFuture<?> started : results) {
+            started.join();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void check() {
+        if (ply == 0 && service.activeGameCount() != 0) {
+            throw new IllegalStateException(service.activeGameCount() + " games did not finish");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    /** One ply across every game; divide {@code games} by the score for moves per millisecond. */
+    @Benchmark
+    public GameStatus ply() {
+        final String player = (ply % 2 == 0 ? p1 : p2).getPlayerId();
+        final Move move = moves[ply];
+        for (int i = 0; i < games; i++) {
+            results[i] = service.submitMoveAsync(ids[i], player, move);
+        }
+        GameStatus last = null;
+        for (final CompletableFuture<?> result : results) {
+            last = (GameStatus) result.join();
+        }
+        ply = (ply + 1) % DRAW.length;
+        return last;
+    }
+}
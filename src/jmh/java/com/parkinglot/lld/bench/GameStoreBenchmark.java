@@ -0,0 +1,148 @@
+package com.parkinglot.lld.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tictok.lld.enums.GameType;
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Game;
+import com.tictok.lld.models.HumanPlayer;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+import com.tictok.lld.models.Player;
+import com.tictok.lld.store.impl.FileGameStore;
+import com.tictok.lld.stratergy.impl.FifoPlayerStratergy;
+
+/**
+ * The game store with {@code games} started games of two moves each on disk: {@code recover} reopens it
+ * and restores one game, as the first request after a restart would; {@code commitMoves} appends one
+ * move for each of {@link #BATCH} games at once and waits for all of them to be durable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GameStoreBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    @Param({ "100000", "1000000" })
+    public int games;
+
+    private final Player p1 = new HumanPlayer("P1", "Alice", "a@test.com");
+    private final Player p2 = new HumanPlayer("P2", "Bob", "b@test.com");
+    private Path dir;
+    private String[] ids;
+    private FileGameStore recovered;
+    private FileGameStore writing;
+    private Game[] batch;
+    private Move move;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("game-store-bench");
+        ids = new String[games];
+        try (FileGameStore store = new FileGameStore(dir.resolve("recover"))) {
+            final List<CompletableFuture<Void>> written = new ArrayList<>();
+            for (int i = 0; i < games; i++) {
+                final Game game = game(15, 5);
+                ids[i] = game.getId();
+                written.add(store.started(game));
+                for (int ply = 0; ply < 2; ply++) {
+                    final Move next = new Move(7, 7 + ply, new Piece(ply == 0 ? PieceType.X : PieceType.O));
+                    game.playTurn(next);
+                    written.add(store.moved(game, next));
+                }
+                if (written.size() >= 30_000) {
+                    written.forEach(CompletableFuture::join);
+                    written.clear();
+                }
+            }
+            written.forEach(CompletableFuture::join);
+        }
+
+        writing = new FileGameStore(dir.resolve("write"));
+        batch = new Game[BATCH];
+        move = new Move(1, 1, new Piece(PieceType.O));
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = game(3, 3);
+            writing.started(batch[i]).join();
+            // one move on the board keeps every later append a plain move record
+            batch[i].playTurn(new Move(0, 0, new Piece(PieceType.X)));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeRecovered() throws IOException {
+        if (recovered != null) {
+            recovered.close();
+            recovered = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writing.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Game recover() throws IOException {
+        recovered = new FileGameStore(dir.resolve("recover"));
+        return recovered.load(ids[ThreadLocalRandom.current().nextInt(games)]).orElseThrow();
+    }
+
+    /** Per move; {@link FileGameStore#commits()} shows how many forces the batch took. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long commitMoves() {
+        final List<CompletableFuture<Void>> written = new ArrayList<>(BATCH);
+        for (final Game game : batch) {
+            written.add(writing.moved(game, move));
+        }
+        written.forEach(CompletableFuture::join);
+        return writing.commits();
+    }
+
+    private Game game(final int size, final int winLength) {
+        final Piece x = new Piece(PieceType.X);
+        final Piece o = new Piece(PieceType.O);
+        final Game game = new Game(new Board(size, winLength, Set.of(x, o)), GameType.MULTIPLAYER, 2,
+                new FifoPlayerStratergy());
+        game.addPlayer(p1, x);
+        game.addPlayer(p2, o);
+        game.start();
+        return game;
+    }
+}
@@ -0,0 +1,193 @@
+package com.parkinglot.lld.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.gateway.impl.GateClient;
+import com.parkinglot.lld.gateway.impl.GateServer;
+import com.parkinglot.lld.managers.impl.CheckoutManager;
+import com.parkinglot.lld.managers.impl.CompactSlotManager;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.ReservationCalendar;
+import com.parkinglot.lld.managers.impl.ReservationManager;
+import com.parkinglot.lld.managers.impl.TariffTable;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Gate round trips over loopback: each op enters {@code depth} vehicles and lets them
+ * out again. BINARY pipelines the whole burst over one {@link GateClient} connection
+ * per thread; JSON_HTTP sends the same calls one at a time as JSON over HTTP/1.1. The
+ * lot is a CompactSlotManager so transport, not allocation, dominates. Throughput and
+ * sample-time percentiles together give rate and tail latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class GateProtocolBenchmark {
+
+    static {
+        // without it the JDK server's split header/body writes hit the 40ms delayed-ACK stall
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Param({ "BINARY", "JSON_HTTP" })
+    public String transport;
+
+    @Param({ "1", "16" })
+    public int depth;
+
+    private final AtomicInteger gates = new AtomicInteger();
+    private final JsonMapper json = JsonMapper.builder().build();
+    private CompactSlotManager slotManager;
+    private GateServer gateServer;
+    private HttpServer httpServer;
+    private ExecutorService httpWorkers;
+    private HttpClient httpClient;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final ParkingLot lot = Lots.medium(100_000, 1.0);
+        final TicketManager ticketManager = new TicketManager();
+        slotManager = new CompactSlotManager(lot, new InMemoryJournal(), ticketManager);
+        final CheckoutManager checkoutManager = new CheckoutManager(ticketManager, slotManager,
+                new InMemoryJournal(), TariffTable.standard());
+        gateServer = new GateServer(slotManager, new ReservationManager(slotManager, new ReservationCalendar(lot)),
+                ticketManager, checkoutManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        httpWorkers = Executors.newFixedThreadPool(64);
+        httpServer.setExecutor(httpWorkers);
+        httpServer.createContext("/allocate", exchange -> {
+            final JsonNode request = json.readTree(exchange.getRequestBody());
+            final Optional<Ticket> ticket = slotManager.allocate(new Vehicle(request.get("licenseNumber").asString(),
+                    VehicleType.valueOf(request.get("vehicleType").asString())), request.get("ctx").asString());
+            reply(exchange, ticket.isPresent() ? 200 : 404, ticket.isPresent() ? ticket.get() : Map.of());
+        });
+        httpServer.createContext("/release", exchange -> {
+            slotManager.release(json.readTree(exchange.getRequestBody()).get("slotId").asString());
+            reply(exchange, 200, Map.of());
+        });
+        httpServer.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        gateServer.close();
+        httpServer.stop(0);
+        httpWorkers.shutdownNow();
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        GateClient client;
+        String prefix;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup(final GateProtocolBenchmark bench) throws IOException {
+            prefix = "G" + bench.gates.getAndIncrement() + "-";
+            client = new GateClient(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    bench.gateServer.getPort()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public int enterAndLeave(final Gate gate) throws Exception {
+        return transport.equals("BINARY") ? binary(gate) : jsonHttp(gate);
+    }
+
+    private int binary(final Gate gate) throws Exception {
+        final List<CompletableFuture<Optional<Ticket>>> entries = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            entries.add(gate.client.allocate(new Vehicle(gate.prefix + gate.next++, VehicleType.CAR), "ENTRY"));
+        }
+        final List<CompletableFuture<Void>> exits = new ArrayList<>(depth);
+        for (final CompletableFuture<Optional<Ticket>> entry : entries) {
+            exits.add(gate.client.release(entry.get().orElseThrow().getSlotId()));
+        }
+        for (final CompletableFuture<Void> exit : exits) {
+            exit.get();
+        }
+        return exits.size();
+    }
+
+    private int jsonHttp(final Gate gate) throws Exception {
+        final List<String> slotIds = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            final JsonNode ticket = post("/allocate", Map.of("licenseNumber", gate.prefix + gate.next++,
+                    "vehicleType", VehicleType.CAR.name(), "ctx", "ENTRY"));
+            slotIds.add(ticket.get("slotId").asString());
+        }
+        for (final String slotId : slotIds) {
+            post("/release", Map.of("slotId", slotId));
+        }
+        return slotIds.size();
+    }
+
+    private JsonNode post(final String path, final Object body) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + httpServer.getAddress().getPort() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                .build();
+        final HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body()) {
+            return json.readTree(in);
+        }
+    }
+
+    private void reply(final HttpExchange exchange, final int status, final Object body) throws IOException {
+        final byte[] bytes = json.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
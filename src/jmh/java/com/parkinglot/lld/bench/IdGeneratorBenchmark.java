@@ -0,0 +1,48 @@
+package com.parkinglot.lld.bench;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.idgen.impl.SnowflakeIdGenerator;
+
+/**
+ * ID generation throughput under 32 threads: time-ordered IDs, raw and as text, against
+ * {@link UUID#randomUUID()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public long snowflake() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeText() {
+        return generator.nextIdString();
+    }
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.parkinglot.lld.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.CompactSlotManager;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.LotFile;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Time to first allocation at startup. OBJECT_GRAPH builds the ParkingLot object graph
+ * and a SlotManager over it; LOT_FILE maps a lot file and starts a CompactSlotManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(1)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class LotLoadBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int lotSize;
+
+    @Param({ "OBJECT_GRAPH", "LOT_FILE" })
+    public String source;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("lot", ".plot");
+        LotFile.write(file, Lots.medium(lotSize, 0.9));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Optional<Ticket> startAndAllocate() throws IOException {
+        final Vehicle vehicle = new Vehicle("FIRST", VehicleType.CAR);
+        if (source.equals("OBJECT_GRAPH")) {
+            return new SlotManager(Lots.medium(lotSize, 0.9), new RandomizedStratergy(), new InMemoryJournal(),
+                    new TicketManager()).allocate(vehicle, "ENTRY");
+        }
+        final InMemoryJournal journal = new InMemoryJournal();
+        return new CompactSlotManager(LotFile.load(file, journal), journal, new TicketManager())
+                .allocate(vehicle, "ENTRY");
+    }
+}
@@ -0,0 +1,36 @@
+package com.parkinglot.lld.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.ParkingSlot;
+
+final class Lots {
+
+    static final int SLOTS_PER_LEVEL = 10_000;
+
+    private Lots() {
+    }
+
+    /** A lot of MEDIUM slots where the first {@code (1 - freeRatio) * size} slots are occupied. */
+    static ParkingLot medium(final int size, final double freeRatio) {
+        final int occupied = (int) Math.round(size * (1 - freeRatio));
+        final List<ParkingLevel> levels = new ArrayList<>();
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final SlotState state = i < occupied ? SlotState.OCCUPIED : SlotState.FREE;
+            slots.add(new ParkingSlot("S" + i, state == SlotState.OCCUPIED ? "PARKED-" + i : null, SlotType.MEDIUM,
+                    new AtomicReference<>(state)));
+            if (slots.size() == SLOTS_PER_LEVEL || i == size - 1) {
+                levels.add(new ParkingLevel("L" + levels.size(), slots));
+                slots = new ArrayList<>();
+            }
+        }
+        return new ParkingLot("BENCH", "Bench", levels);
+    }
+}
@@ -0,0 +1,66 @@
+package com.parkinglot.lld.bench;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+import com.tictok.lld.stratergy.impl.MctsStratergy;
+
+/** MCTS playouts per second on an opening 15x15 board as workers are added. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MctsBenchmark {
+
+    private static final int PLAYOUTS = 20_000;
+
+    @Param({ "1", "2", "4", "8" })
+    public int workers;
+
+    private ForkJoinPool pool;
+    private MctsStratergy engine;
+    private Board board;
+    private Piece piece;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(Math.max(1, workers - 1));
+        engine = new MctsStratergy(60_000, PLAYOUTS, workers, pool);
+        final Piece x = new Piece(PieceType.X);
+        piece = new Piece(PieceType.O);
+        board = new Board(15, 5, Set.of(x, piece));
+        board.applyMove(new Move(7, 7, x));
+        board.applyMove(new Move(7, 8, piece));
+        board.applyMove(new Move(8, 8, x));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLAYOUTS)
+    public Move playouts() {
+        return engine.makeMove(board, piece).orElseThrow();
+    }
+}
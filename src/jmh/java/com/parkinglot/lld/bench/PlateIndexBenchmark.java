@@ -0,0 +1,88 @@
+package com.parkinglot.lld.bench;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.managers.impl.PlateIndex;
+import com.parkinglot.lld.models.PlateLocation;
+import com.parkinglot.lld.models.PlateMatch;
+
+/**
+ * "Find my car" over a lot with up to a million parked vehicles: exact plate lookups,
+ * partial plates typed at a kiosk, and partial plates with one typo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class PlateIndexBenchmark {
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Param({ "100000", "1000000" })
+    public int parked;
+
+    private PlateIndex index;
+    private String[] plates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final SplittableRandom random = new SplittableRandom(42);
+        index = new PlateIndex();
+        plates = new String[parked];
+        for (int i = 0; i < parked; i++) {
+            // state code, district, series, number: KA01AB1234
+            plates[i] = "" + letter(random) + letter(random) + String.format("%02d", random.nextInt(100))
+                    + letter(random) + letter(random) + String.format("%04d", random.nextInt(10_000));
+            index.park(plates[i], "S" + i, "L" + (i / 10_000), "T" + i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Query {
+        final SplittableRandom random = new SplittableRandom();
+
+        String plate(final PlateIndexBenchmark benchmark) {
+            return benchmark.plates[random.nextInt(benchmark.plates.length)];
+        }
+    }
+
+    @Benchmark
+    public Optional<PlateLocation> exact(final Query query) {
+        return index.find(query.plate(this));
+    }
+
+    @Benchmark
+    public List<PlateMatch> partial(final Query query) {
+        // the series and number, as a driver remembers it
+        return index.search(query.plate(this).substring(4), 10, 0);
+    }
+
+    @Benchmark
+    public List<PlateMatch> mistyped(final Query query) {
+        final char[] partial = query.plate(this).substring(4).toCharArray();
+        partial[partial.length - 2] = partial[partial.length - 2] == '0' ? '1' : '0';
+        return index.search(new String(partial), 10, 1);
+    }
+
+    private static char letter(final SplittableRandom random) {
+        return LETTERS.charAt(random.nextInt(LETTERS.length()));
+    }
+}
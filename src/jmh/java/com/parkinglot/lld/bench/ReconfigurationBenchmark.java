@@ -0,0 +1,104 @@
+package com.parkinglot.lld.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Gate latency while an operator keeps adding and decommissioning levels. Compare the
+ * "gates" score of the reconfigure group with the steady group to see the cost of a
+ * topology change on allocation.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class ReconfigurationBenchmark {
+
+    private static final AtomicInteger GATES = new AtomicInteger();
+
+    @Param({ "1000" })
+    public int slotsPerLevel;
+
+    private SlotManager slotManager;
+    private final AtomicInteger nextLevel = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        nextLevel.set(0);
+        slotManager = new SlotManager(Lots.medium(slotsPerLevel * 4, 1.0), new RandomizedStratergy(),
+                new InMemoryJournal(), new TicketManager());
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        final Vehicle vehicle = new Vehicle("GATE-" + GATES.incrementAndGet(), VehicleType.CAR);
+        private int sequence;
+    }
+
+    @Benchmark
+    @Group("reconfigure")
+    @GroupThreads(3)
+    public Optional<Ticket> gates(final Gate gate) {
+        return allocateRelease(gate);
+    }
+
+    @Benchmark
+    @Group("reconfigure")
+    @GroupThreads(1)
+    public int operator() throws InterruptedException {
+        final int level = nextLevel.getAndIncrement();
+        final String levelId = "R" + level;
+        final List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < slotsPerLevel; i++) {
+            slots.add(new ParkingSlot(levelId + "-" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        slotManager.addLevel(new ParkingLevel(levelId, slots));
+        final int removed = level == 0 ? 0 : slotManager.removeLevel("R" + (level - 1));
+        TimeUnit.MILLISECONDS.sleep(1);
+        return removed;
+    }
+
+    @Benchmark
+    @Group("steady")
+    @GroupThreads(3)
+    public Optional<Ticket> steadyGates(final Gate gate) {
+        return allocateRelease(gate);
+    }
+
+    private Optional<Ticket> allocateRelease(final Gate gate) {
+        final Optional<Ticket> ticket = slotManager.allocate(gate.vehicle, Integer.toString(gate.sequence++));
+        ticket.ifPresent(t -> slotManager.release(t.getSlotId()));
+        return ticket;
+    }
+}
@@ -0,0 +1,92 @@
+package com.parkinglot.lld.bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.ReservationCalendar;
+import com.parkinglot.lld.managers.impl.ReservationManager;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.Reservation;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Cancelling a large event block: one bulk call that batches calendar releases per shard, against
+ * cancelling the same reservations one at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class ReservationBulkBenchmark {
+
+    private static final long NOW = Duration.ofDays(20_000).toMillis();
+    private static final long EVENT_START = NOW + Duration.ofDays(1).toMillis();
+    private static final long EVENT_END = EVENT_START + Duration.ofHours(4).toMillis();
+    private static final long ARRIVAL_STEP = Duration.ofMinutes(15).toMillis();
+
+    @Param({ "50000" })
+    public int lotSize;
+
+    @Param({ "20000" })
+    public int eventBookings;
+
+    private ParkingLot lot;
+    private ReservationManager reservationManager;
+    private List<Reservation> booked;
+
+    @Setup(Level.Trial)
+    public void lot() {
+        lot = Lots.medium(lotSize, 1.0);
+    }
+
+    @Setup(Level.Invocation)
+    public void book() {
+        final ReservationCalendar calendar = new ReservationCalendar(lot, ReservationCalendar.DEFAULT_BUCKET,
+                ReservationCalendar.DEFAULT_HORIZON, ReservationCalendar.DEFAULT_LOOKAHEAD, () -> NOW);
+        final SlotManager slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(),
+                new TicketManager(), calendar);
+        reservationManager = new ReservationManager(slotManager, calendar, () -> NOW);
+        booked = new ArrayList<>(eventBookings);
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < eventBookings; i++) {
+            // attendees pick one of eight arrival windows ahead of the doors opening
+            final long start = EVENT_START - random.nextInt(8) * ARRIVAL_STEP;
+            booked.add(reservationManager.reserve(new Vehicle("EV" + i, VehicleType.CAR), start, EVENT_END, null,
+                    "EVENT"));
+        }
+    }
+
+    @Benchmark
+    public int cancelEvent() {
+        return reservationManager.cancelEvent("EVENT");
+    }
+
+    @Benchmark
+    public int cancelOneByOne() {
+        for (final Reservation reservation : booked) {
+            reservationManager.cancelReservation(reservation);
+        }
+        return booked.size();
+    }
+}
@@ -0,0 +1,82 @@
+package com.parkinglot.lld.bench;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.managers.impl.ReservationCalendar;
+
+/** Booking and availability cost with a lot already holding a large number of bookings. */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class ReservationCalendarBenchmark {
+
+    private static final long NOW = Duration.ofDays(20_000).toMillis();
+    private static final long HORIZON = Duration.ofDays(29).toMillis();
+    private static final long STAY = Duration.ofHours(2).toMillis();
+
+    @Param({ "100000" })
+    public int lotSize;
+
+    @Param({ "1000000" })
+    public int bookings;
+
+    private ReservationCalendar calendar;
+
+    @Setup(Level.Trial)
+    public void preload() {
+        calendar = new ReservationCalendar(Lots.medium(lotSize, 1.0), ReservationCalendar.DEFAULT_BUCKET,
+                ReservationCalendar.DEFAULT_HORIZON, ReservationCalendar.DEFAULT_LOOKAHEAD, () -> NOW);
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < bookings; i++) {
+            final long start = NOW + random.nextLong(HORIZON);
+            calendar.book(SlotType.MEDIUM, start, start + STAY);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Window {
+        private final SplittableRandom random = new SplittableRandom();
+
+        long nextStart() {
+            return NOW + random.nextLong(HORIZON);
+        }
+    }
+
+    @Benchmark
+    public boolean bookRelease(final Window window) {
+        final long start = window.nextStart();
+        final boolean booked = calendar.book(SlotType.MEDIUM, start, start + STAY);
+        if (booked) {
+            calendar.release(SlotType.MEDIUM, start, start + STAY);
+        }
+        return booked;
+    }
+
+    @Benchmark
+    public int availableBetween(final Window window) {
+        final long start = window.nextStart();
+        return calendar.availableBetween(SlotType.MEDIUM, start, start + STAY);
+    }
+
+    @Benchmark
+    public int heldBack() {
+        return calendar.heldBack(SlotType.MEDIUM);
+    }
+}
@@ -0,0 +1,143 @@
+package com.parkinglot.lld.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.parkinglot.lld.LldApplication;
+import com.parkinglot.lld.metrics.LatencyHistogram;
+import com.parkinglot.lld.models.HistogramSnapshot;
+
+/**
+ * Loopback load test of the REST entry/exit endpoints. Starts the app on a random port
+ * and runs {@code clients} concurrent closed-loop clients, each entering a fresh
+ * vehicle and releasing its slot, then prints requests per second and latency
+ * percentiles. Run once per request thread model:
+ *
+ * <pre>
+ * java -cp ... com.parkinglot.lld.bench.RestLoadTest platform [clients] [seconds]
+ * java -cp ... com.parkinglot.lld.bench.RestLoadTest virtual  [clients] [seconds]
+ * </pre>
+ *
+ * "virtual" sets spring.threads.virtual.enabled, which Spring Boot only honours on Java
+ * 21+; on older runtimes both runs use the platform pool. Clients and server share the
+ * JVM, so 10k clients need about 20k file descriptors.
+ */
+public final class RestLoadTest {
+
+    private static final Pattern SLOT_ID = Pattern.compile("\"slotId\":\"([^\"]+)\"");
+
+    private RestLoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final boolean virtual = args.length > 0 && args[0].equals("virtual");
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        if (virtual && Runtime.version().feature() < 21) {
+            System.out.println("WARNING: Java " + Runtime.version().feature()
+                    + " has no virtual threads; this run uses the platform pool");
+        }
+
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(LldApplication.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.threads.max=200", "server.tomcat.max-connections=" + (clients + 1024),
+                        "parkinglot.levels=4", "parkinglot.slots-per-type=" + Math.max(25, clients))
+                .run();
+        final String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30)).build();
+
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final long warmupEnd = System.nanoTime() + Duration.ofSeconds(Math.min(5, seconds / 4 + 1)).toNanos();
+        final long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+        final Client[] running = new Client[clients];
+        for (int c = 0; c < clients; c++) {
+            running[c] = new Client(http, base, "C" + c, latencies, requests, failures, warmupEnd, end);
+            running[c].enter();
+        }
+        for (final Client client : running) {
+            client.done.join();
+        }
+
+        final HistogramSnapshot snapshot = latencies.snapshot();
+        System.out.printf("%s threads, %d clients, %ds: %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms,"
+                + " %d failures%n", virtual ? "virtual" : "platform", clients, seconds,
+                requests.get() / (double) seconds, snapshot.getP50Nanos() / 1e6, snapshot.getP99Nanos() / 1e6,
+                snapshot.getMaxNanos() / 1e6, failures.get());
+        context.close();
+        System.exit(0);
+    }
+
+    /** One closed-loop client: enter, release, repeat until the end time. */
+    private static final class Client {
+        private final HttpClient http;
+        private final String base;
+        private final String name;
+        private final LatencyHistogram latencies;
+        private final AtomicLong requests;
+        private final AtomicLong failures;
+        private final long warmupEnd;
+        private final long end;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int visit;
+
+        private Client(final HttpClient http, final String base, final String name, final LatencyHistogram latencies,
+                final AtomicLong requests, final AtomicLong failures, final long warmupEnd, final long end) {
+            this.http = http;
+            this.base = base;
+            this.name = name;
+            this.latencies = latencies;
+            this.requests = requests;
+            this.failures = failures;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        private void enter() {
+            if (System.nanoTime() >= end) {
+                done.complete(null);
+                return;
+            }
+            final String plate = name + "-" + visit++;
+            send(HttpRequest.newBuilder(URI.create(base + "/tickets?plate=" + plate + "&type=CAR"))
+                    .header("Idempotency-Key", plate).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    body -> {
+                        final Matcher slot = SLOT_ID.matcher(body);
+                        if (!slot.find()) {
+                            enter();
+                            return;
+                        }
+                        send(HttpRequest.newBuilder(URI.create(base + "/slots/" + slot.group(1) + "/release"))
+                                .POST(HttpRequest.BodyPublishers.noBody()).build(), released -> enter());
+                    });
+        }
+
+        private void send(final HttpRequest request, final Consumer<String> next) {
+            final long start = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                final long now = System.nanoTime();
+                if (now >= warmupEnd && now < end) {
+                    latencies.record(now - start);
+                    requests.incrementAndGet();
+                    if (failure != null || response.statusCode() >= 400) {
+                        failures.incrementAndGet();
+                    }
+                }
+                next.accept(failure == null ? response.body() : "");
+            });
+        }
+    }
+}
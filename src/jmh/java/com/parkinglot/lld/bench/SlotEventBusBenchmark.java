@@ -0,0 +1,74 @@
+package com.parkinglot.lld.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.observers.ISlotStateListener;
+import com.parkinglot.lld.observers.impl.CompositeSlotStateListener;
+import com.parkinglot.lld.observers.impl.OccupancyTracker;
+import com.parkinglot.lld.observers.impl.SlotEventBus;
+
+/**
+ * Cost the slot listeners add to an occupy/free pair on the allocation thread. Each
+ * benchmark thread flips its own slot, so the only shared state is the listeners'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+public class SlotEventBusBenchmark {
+
+    @Param({ "NONE", "EVENT_BUS", "OCCUPANCY", "BOTH" })
+    public String listeners;
+
+    private ISlotStateListener listener;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final CompositeSlotStateListener composite = new CompositeSlotStateListener();
+        if (listeners.equals("EVENT_BUS") || listeners.equals("BOTH")) {
+            composite.add(new SlotEventBus());
+        }
+        if (listeners.equals("OCCUPANCY") || listeners.equals("BOTH")) {
+            composite.add(new OccupancyTracker());
+        }
+        listener = listeners.equals("NONE") ? ISlotStateListener.NOOP : composite;
+    }
+
+    @State(Scope.Thread)
+    public static class Slot {
+        ParkingSlot slot;
+
+        @Setup(Level.Trial)
+        public void setup(final SlotEventBusBenchmark benchmark) {
+            slot = new ParkingSlot("S-" + Thread.currentThread().getId(), null, SlotType.MEDIUM,
+                    new AtomicReference<>(SlotState.FREE));
+            slot.setLevelId("L0");
+            benchmark.listener.onSlotAdded(slot);
+            slot.setListener(benchmark.listener);
+        }
+    }
+
+    @Benchmark
+    public boolean occupyFree(final Slot slot) {
+        final boolean occupied = slot.slot.occupy("CAR");
+        slot.slot.free();
+        return occupied;
+    }
+}
@@ -0,0 +1,58 @@
+package com.idgen;
+
+import java.util.Arrays;
+
+/**
+ * Text form of non-negative 64-bit IDs: 13 Crockford base32 characters, most significant
+ * first, so string order matches numeric order. Decoding is case-insensitive and reads
+ * the ambiguous I, L and O as 1, 1 and 0.
+ */
+public final class IdCodec {
+
+    public static final int LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+        VALUES['O'] = VALUES['o'] = 0;
+    }
+
+    private IdCodec() {
+    }
+
+    public static String encode(final long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("IDs are non-negative: " + id);
+        }
+        final char[] chars = new char[LENGTH];
+        long value = id;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(final String text) {
+        if (text.length() != LENGTH) {
+            throw new IllegalArgumentException("Not an ID: " + text);
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            final char c = text.charAt(i);
+            final int digit = c < 128 ? VALUES[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                throw new IllegalArgumentException("Not an ID: " + text);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+}
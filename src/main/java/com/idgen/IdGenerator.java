@@ -0,0 +1,14 @@
+package com.idgen;
+
+/**
+ * Source of unique, roughly time-ordered 64-bit IDs.
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    /** The next ID in its fixed-width, order-preserving text form. */
+    default String nextIdString() {
+        return IdCodec.encode(nextId());
+    }
+}
@@ -0,0 +1,105 @@
+package com.idgen.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.idgen.IdGenerator;
+
+/**
+ * Snowflake-style IDs: 41 bits of milliseconds since 2025-01-01, 10 node bits and a
+ * 12-bit sequence, so IDs sort by issue time and never collide across nodes.
+ *
+ * <p>
+ * The time and sequence bits form one "tick" counter per generator. A few stripes,
+ * picked by thread id, lease blocks of {@link #BLOCK} consecutive ticks from it and
+ * issue IDs from their block, so threads rarely touch the shared counter; a block is
+ * dropped once the clock passes it, so IDs are never more than a millisecond behind
+ * the wall clock. Stripes rather than thread locals keep a thread per request (virtual
+ * threads) from leasing and discarding a whole block per ID. The counter
+ * never moves backwards: a clock that steps back, or more than 4096 IDs in a
+ * millisecond, just keeps counting forward. To stay monotonic across restarts, pass
+ * the largest ID from the durable tail as {@code lastIssuedId}.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final int BLOCK = 64;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final SnowflakeIdGenerator SHARED = new SnowflakeIdGenerator(0);
+
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong cursor;
+    private final Stripe[] stripes;
+
+    public SnowflakeIdGenerator(final int node) {
+        this(node, System::currentTimeMillis, -1);
+    }
+
+    public SnowflakeIdGenerator(final int node, final LongSupplier clock, final long lastIssuedId) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node must be in [0, " + MAX_NODE + "]: " + node);
+        }
+        this.node = (long) node << SEQUENCE_BITS;
+        this.clock = clock;
+        this.cursor = new AtomicLong(lastIssuedId < 0 ? 0 : tickOf(lastIssuedId) + 1);
+        // a power of two, so a thread id masks onto a stripe
+        this.stripes = new Stripe[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /** Process-wide generator on node 0, for callers not wired with their own. */
+    public static SnowflakeIdGenerator shared() {
+        return SHARED;
+    }
+
+    @Override
+    public long nextId() {
+        // a thread always lands on the same stripe, so its own IDs keep increasing
+        final Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        final long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        final long tick;
+        synchronized (stripe) {
+            if (stripe.next >= stripe.end || now >= stripe.end) {
+                lease(stripe, now);
+            }
+            tick = stripe.next++;
+        }
+        return (tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node | (tick & SEQUENCE_MASK);
+    }
+
+    public static long timestampOf(final long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(final long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+
+    private void lease(final Stripe stripe, final long now) {
+        long start;
+        long current;
+        do {
+            current = cursor.get();
+            start = Math.max(current, now);
+        } while (!cursor.compareAndSet(current, start + BLOCK));
+        stripe.next = start;
+        stripe.end = start + BLOCK;
+    }
+
+    private static long tickOf(final long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) << SEQUENCE_BITS | (id & SEQUENCE_MASK);
+    }
+
+    /** A leased block of ticks, {@code [next, end)}; guarded by its own monitor. */
+    private static final class Stripe {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,179 @@
+package com.parkinglot.lld;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.idgen.IdGenerator;
+import com.idgen.impl.SnowflakeIdGenerator;
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.gateway.impl.GateServer;
+import com.parkinglot.lld.managers.impl.CheckoutManager;
+import com.parkinglot.lld.managers.impl.IdempotencyIndex;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.PlateIndex;
+import com.parkinglot.lld.managers.impl.ReservationCalendar;
+import com.parkinglot.lld.managers.impl.ReservationManager;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TariffTable;
+import com.parkinglot.lld.managers.impl.TicketArchive;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.metrics.AllocationMetrics;
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.observers.impl.OccupancyTracker;
+import com.parkinglot.lld.observers.impl.SlotEventBus;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+@Configuration
+public class ParkingLotConfig {
+
+    @Bean
+    public ParkingLot parkingLot(
+            @Value("${parkinglot.id:LOT1}") final String lotId,
+            @Value("${parkinglot.levels:2}") final int levels,
+            @Value("${parkinglot.slots-per-type:25}") final int slotsPerType) {
+        final List<ParkingLevel> parkingLevels = new ArrayList<>();
+        for (int l = 0; l < levels; l++) {
+            final String levelId = "L" + l;
+            final List<ParkingSlot> slots = new ArrayList<>();
+            for (final SlotType slotType : SlotType.values()) {
+                for (int s = 0; s < slotsPerType; s++) {
+                    slots.add(new ParkingSlot(levelId + "-" + slotType + "-" + s, null, slotType,
+                            new AtomicReference<>(SlotState.FREE)));
+                }
+            }
+            parkingLevels.add(new ParkingLevel(levelId, slots));
+        }
+        return new ParkingLot(lotId, lotId, parkingLevels);
+    }
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${parkinglot.node-id:0}") final int nodeId) {
+        return new SnowflakeIdGenerator(nodeId);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("parkinglot.archive.dir")
+    public TicketArchive ticketArchive(@Value("${parkinglot.archive.dir}") final String directory)
+            throws IOException {
+        return new TicketArchive(Path.of(directory));
+    }
+
+    @Bean
+    public TicketManager ticketManager(final IdGenerator idGenerator, final ObjectProvider<TicketArchive> archive) {
+        return new TicketManager(IdempotencyIndex.DEFAULT_RETRY_WINDOW, System::currentTimeMillis, idGenerator,
+                archive.getIfAvailable());
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService ticketArchiver(final TicketManager ticketManager) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ticket-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                ticketManager.archiveClosed();
+            } catch (RuntimeException e) {
+                // tickets stay hot and are retried on the next run
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+        return executor;
+    }
+
+    @Bean
+    public ReservationCalendar reservationCalendar(final ParkingLot parkingLot) {
+        return new ReservationCalendar(parkingLot);
+    }
+
+    @Bean
+    public OccupancyTracker occupancyTracker() {
+        return new OccupancyTracker();
+    }
+
+    @Bean
+    public SlotEventBus slotEventBus() {
+        return new SlotEventBus();
+    }
+
+    @Bean
+    public AllocationMetrics allocationMetrics() {
+        return new AllocationMetrics();
+    }
+
+    @Bean
+    public PlateIndex plateIndex() {
+        return new PlateIndex();
+    }
+
+    @Bean
+    public SlotManager slotManager(final ParkingLot parkingLot, final TicketManager ticketManager,
+            final ReservationCalendar reservationCalendar, final OccupancyTracker occupancyTracker,
+            final SlotEventBus slotEventBus, final AllocationMetrics allocationMetrics,
+            final PlateIndex plateIndex) {
+        final SlotManager slotManager = new SlotManager(parkingLot, new RandomizedStratergy(),
+                new InMemoryJournal(), ticketManager, reservationCalendar);
+        slotManager.addListener(occupancyTracker);
+        slotManager.addListener(slotEventBus);
+        slotManager.setMetrics(allocationMetrics);
+        slotManager.setPlateIndex(plateIndex);
+        return slotManager;
+    }
+
+    @Bean
+    public ReservationManager reservationManager(final SlotManager slotManager,
+            final ReservationCalendar reservationCalendar, final IdGenerator idGenerator) {
+        return new ReservationManager(slotManager, reservationCalendar, System::currentTimeMillis, idGenerator);
+    }
+
+    /** Releases ended bookings and no-shows, so the calendar ring and the reservation maps stay bounded. */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService reservationSweeper(final ReservationManager reservationManager,
+            @Value("${parkinglot.reservations.no-show-grace:PT30M}") final Duration noShowGrace) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "reservation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reservationManager.sweepNoShows(System.currentTimeMillis() - noShowGrace.toMillis());
+                reservationManager.expireReservations();
+            } catch (RuntimeException e) {
+                // whatever was not swept is picked up on the next run
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+        return executor;
+    }
+
+    @Bean
+    public CheckoutManager checkoutManager(final TicketManager ticketManager, final SlotManager slotManager) {
+        return new CheckoutManager(ticketManager, slotManager, new InMemoryJournal(), TariffTable.standard());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("parkinglot.gate.port")
+    public GateServer gateServer(@Value("${parkinglot.gate.port}") final int port, final SlotManager slotManager,
+            final ReservationManager reservationManager, final TicketManager ticketManager,
+            final CheckoutManager checkoutManager) throws IOException {
+        return new GateServer(slotManager, reservationManager, ticketManager, checkoutManager,
+                new InetSocketAddress(port));
+    }
+}
@@ -0,0 +1,7 @@
+package com.parkinglot.lld.enums;
+
+public enum AdmissionPriority {
+    MONTHLY_PASS,
+    RESERVATION,
+    WALK_IN
+}
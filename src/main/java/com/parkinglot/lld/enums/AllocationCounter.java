@@ -0,0 +1,7 @@
+package com.parkinglot.lld.enums;
+
+public enum AllocationCounter {
+    CAS_CONFLICT,
+    IDEMPOTENT_HIT,
+    EXHAUSTED
+}
@@ -0,0 +1,12 @@
+package com.parkinglot.lld.enums;
+
+public enum AllocationPhase {
+    ALLOCATE,
+    RESERVE,
+    RELEASE,
+    FIND_CANDIDATES,
+    STRATEGY,
+    JOURNAL,
+    OCCUPY,
+    TICKET
+}
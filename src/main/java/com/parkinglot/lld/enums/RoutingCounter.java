@@ -0,0 +1,10 @@
+package com.parkinglot.lld.enums;
+
+public enum RoutingCounter {
+    HOME_HIT,
+    SPILLOVER,
+    EXHAUSTED,
+    CACHE_REFRESH,
+    CACHE_SKIP,
+    REPLAY
+}
@@ -0,0 +1,8 @@
+package com.parkinglot.lld.enums;
+
+public enum RoutingPhase {
+    // router time outside lot calls
+    OVERHEAD,
+    HOME,
+    SPILLOVER
+}
@@ -0,0 +1,16 @@
+package com.parkinglot.lld.federation;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/** One lot as seen by the federation router, either in-process or behind a connection. */
+public interface ILotNode {
+    String lotId();
+    Optional<Ticket> allocate(final Vehicle vehicle, final String ctx);
+    void release(final String slotId);
+    Map<SlotType, Integer> freeCapacity();
+}
@@ -0,0 +1,13 @@
+package com.parkinglot.lld.federation;
+
+import java.util.Optional;
+
+import com.parkinglot.lld.models.FederatedTicket;
+import com.parkinglot.lld.models.Vehicle;
+
+public interface ILotRouter {
+    void addLot(final ILotNode node);
+    void removeLot(final String lotId);
+    Optional<FederatedTicket> allocate(final String gateId, final Vehicle vehicle, final String ctx);
+    void release(final FederatedTicket ticket);
+}
@@ -0,0 +1,85 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.parkinglot.lld.models.AllocationKey;
+
+/**
+ * Consistent-hash ring with virtual nodes. The ring is rebuilt on membership changes
+ * and published through a volatile field, so lookups never lock. Adding or removing a
+ * node only moves the keys that hashed to its points.
+ */
+public final class ConsistentHashRing<T> {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+    private final Function<T, String> idOf;
+    private volatile NavigableMap<Long, T> ring = Collections.emptyNavigableMap();
+
+    public ConsistentHashRing(final Function<T, String> idOf) {
+        this(DEFAULT_VIRTUAL_NODES, idOf);
+    }
+
+    public ConsistentHashRing(final int virtualNodes, final Function<T, String> idOf) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.idOf = idOf;
+    }
+
+    public synchronized void add(final T node) {
+        final String id = idOf.apply(node);
+        final TreeMap<Long, T> next = new TreeMap<>(ring);
+        if (next.values().stream().anyMatch(n -> idOf.apply(n).equals(id))) {
+            throw new IllegalArgumentException("Node already on the ring: " + id);
+        }
+        for (int v = 0; v < virtualNodes; v++) {
+            // a point collision keeps the earlier owner
+            next.putIfAbsent(AllocationKey.of(id, v).getHi(), node);
+        }
+        ring = Collections.unmodifiableNavigableMap(next);
+    }
+
+    public synchronized boolean remove(final String id) {
+        final TreeMap<Long, T> next = new TreeMap<>(ring);
+        final boolean removed = next.values().removeIf(n -> idOf.apply(n).equals(id));
+        ring = Collections.unmodifiableNavigableMap(next);
+        return removed;
+    }
+
+    /** Distinct nodes clockwise from the key: the owner first, then its ring neighbours. */
+    public List<T> preference(final String key, final int limit) {
+        final NavigableMap<Long, T> ring = this.ring;
+        final Set<T> nodes = new LinkedHashSet<>();
+        if (ring.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        final long hash = AllocationKey.of(key, "").getHi();
+        collect(ring.tailMap(hash, true), nodes, limit);
+        collect(ring.headMap(hash, false), nodes, limit);
+        return new ArrayList<>(nodes);
+    }
+
+    public int size() {
+        return (int) ring.values().stream().distinct().count();
+    }
+
+    private static <T> void collect(final Map<Long, T> points, final Set<T> nodes, final int limit) {
+        for (final T node : points.values()) {
+            if (nodes.size() == limit) {
+                return;
+            }
+            nodes.add(node);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import com.parkinglot.lld.enums.RoutingCounter;
+import com.parkinglot.lld.enums.RoutingPhase;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.federation.ILotRouter;
+import com.parkinglot.lld.metrics.RoutingMetrics;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.FederatedTicket;
+import com.parkinglot.lld.models.RoutingSnapshot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Routes allocations across lots. A gate's home lot is its owner on the consistent-hash
+ * ring; when the home lot is full the request spills to the next lots clockwise.
+ *
+ * Each lot's free capacity is cached for a short TTL. A lot known to be full is skipped
+ * without a call, a stale spillover candidate is refreshed with one capacity query, and
+ * a lot that turns a request away is marked full for the vehicle's slot types until the
+ * next refresh. Freed capacity therefore shows up within one TTL.
+ *
+ * Placements are remembered until release, so a retried request goes back to the lot
+ * that holds its ticket even if capacity has since moved.
+ */
+public class FederationRouter implements ILotRouter {
+
+    public static final int DEFAULT_SPILLOVER = 2;
+    public static final long DEFAULT_CACHE_TTL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final ConsistentHashRing<ILotNode> ring = new ConsistentHashRing<>(ILotNode::lotId);
+    private final Map<String, ILotNode> lots = new ConcurrentHashMap<>();
+    private final Map<String, CapacityCache> capacity = new ConcurrentHashMap<>();
+    private final Map<AllocationKey, String> placements = new ConcurrentHashMap<>();
+    private final RoutingMetrics metrics = new RoutingMetrics();
+    private final int spillover;
+    private final long cacheTtlNanos;
+    private final LongSupplier nanoClock;
+
+    public FederationRouter() {
+        this(DEFAULT_SPILLOVER, DEFAULT_CACHE_TTL_NANOS, System::nanoTime);
+    }
+
+    public FederationRouter(final int spillover, final long cacheTtlNanos, final LongSupplier nanoClock) {
+        this.spillover = spillover;
+        this.cacheTtlNanos = cacheTtlNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void addLot(final ILotNode node) {
+        if (lots.putIfAbsent(node.lotId(), node) != null) {
+            throw new IllegalArgumentException("Lot already federated: " + node.lotId());
+        }
+        capacity.put(node.lotId(), new CapacityCache());
+        ring.add(node);
+    }
+
+    @Override
+    public void removeLot(final String lotId) {
+        // tickets already issued by the lot stay releasable through it
+        ring.remove(lotId);
+    }
+
+    @Override
+    public Optional<FederatedTicket> allocate(final String gateId, final Vehicle vehicle, final String ctx) {
+        final long start = System.nanoTime();
+        long inLots = 0;
+        try {
+            final AllocationKey key = AllocationKey.of(vehicle.getLicenseNumber(), ctx);
+            final String placed = placements.get(key);
+            final List<ILotNode> candidates = ring.preference(gateId, spillover + 1);
+            if (placed != null) {
+                metrics.increment(RoutingCounter.REPLAY);
+                final ILotNode node = lots.get(placed);
+                final long t = System.nanoTime();
+                final Optional<Ticket> ticket = node.allocate(vehicle, ctx);
+                inLots += System.nanoTime() - t;
+                return ticket.map(issued -> new FederatedTicket(placed,
+                        issued, candidates.isEmpty() || !candidates.get(0).lotId().equals(placed)));
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                final ILotNode node = candidates.get(i);
+                final CapacityCache cache = capacity.get(node.lotId());
+                final boolean home = i == 0;
+                if (!home && !cache.fresh(vehicle)) {
+                    final long t = System.nanoTime();
+                    cache.refresh(node.freeCapacity());
+                    inLots += System.nanoTime() - t;
+                    metrics.increment(RoutingCounter.CACHE_REFRESH);
+                }
+                if (cache.fresh(vehicle) && cache.free(vehicle) == 0) {
+                    metrics.increment(RoutingCounter.CACHE_SKIP);
+                    continue;
+                }
+                final long t = System.nanoTime();
+                final Optional<Ticket> ticket = node.allocate(vehicle, ctx);
+                inLots += System.nanoTime() - t;
+                if (ticket.isEmpty()) {
+                    cache.markFull(vehicle);
+                    continue;
+                }
+                cache.taken(vehicle);
+                placements.put(key, node.lotId());
+                metrics.increment(home ? RoutingCounter.HOME_HIT : RoutingCounter.SPILLOVER);
+                metrics.record(home ? RoutingPhase.HOME : RoutingPhase.SPILLOVER, System.nanoTime() - start);
+                return Optional.of(new FederatedTicket(node.lotId(), ticket.get(), !home));
+            }
+            metrics.increment(RoutingCounter.EXHAUSTED);
+            return Optional.empty();
+        } finally {
+            metrics.record(RoutingPhase.OVERHEAD, System.nanoTime() - start - inLots);
+        }
+    }
+
+    @Override
+    public void release(final FederatedTicket ticket) {
+        final ILotNode node = lots.get(ticket.getLotId());
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown lot: " + ticket.getLotId());
+        }
+        node.release(ticket.getTicket().getSlotId());
+        if (ticket.getTicket().getAllocationKey() != null) {
+            placements.remove(ticket.getTicket().getAllocationKey(), ticket.getLotId());
+        }
+    }
+
+    public Optional<ILotNode> homeLot(final String gateId) {
+        return ring.preference(gateId, 1).stream().findFirst();
+    }
+
+    public RoutingSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    private final class CapacityCache {
+        private static final long NEVER = Long.MIN_VALUE;
+
+        private final AtomicIntegerArray free = new AtomicIntegerArray(SlotType.values().length);
+        // per slot type, since a refused request only tells us about the vehicle's types
+        private final AtomicLongArray refreshedAt = new AtomicLongArray(SlotType.values().length);
+
+        private CapacityCache() {
+            for (int i = 0; i < refreshedAt.length(); i++) {
+                refreshedAt.set(i, NEVER);
+            }
+        }
+
+        boolean fresh(final Vehicle vehicle) {
+            final long now = nanoClock.getAsLong();
+            for (final SlotType slotType : vehicle.getVehicleType().compatibleSlotTypes()) {
+                final long at = refreshedAt.get(slotType.ordinal());
+                if (at == NEVER || now - at >= cacheTtlNanos) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void refresh(final Map<SlotType, Integer> counts) {
+            final long now = nanoClock.getAsLong();
+            for (final SlotType slotType : SlotType.values()) {
+                free.set(slotType.ordinal(), counts.getOrDefault(slotType, 0));
+                refreshedAt.set(slotType.ordinal(), now);
+            }
+        }
+
+        int free(final Vehicle vehicle) {
+            int total = 0;
+            for (final SlotType slotType : vehicle.getVehicleType().compatibleSlotTypes()) {
+                total += free.get(slotType.ordinal());
+            }
+            return total;
+        }
+
+        void markFull(final Vehicle vehicle) {
+            final long now = nanoClock.getAsLong();
+            for (final SlotType slotType : vehicle.getVehicleType().compatibleSlotTypes()) {
+                free.set(slotType.ordinal(), 0);
+                refreshedAt.set(slotType.ordinal(), now);
+            }
+        }
+
+        void taken(final Vehicle vehicle) {
+            // the ticket does not say which type was used, so charge the roomiest one
+            int best = -1;
+            for (final SlotType slotType : vehicle.getVehicleType().compatibleSlotTypes()) {
+                if (best < 0 || free.get(slotType.ordinal()) > free.get(best)) {
+                    best = slotType.ordinal();
+                }
+            }
+            if (best >= 0 && free.get(best) > 0) {
+                free.decrementAndGet(best);
+            }
+        }
+    }
+}
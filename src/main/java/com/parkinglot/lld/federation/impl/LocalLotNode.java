@@ -0,0 +1,47 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/** A lot served by a slot manager in this process. */
+public class LocalLotNode implements ILotNode {
+
+    private final String lotId;
+    private final ISlotManager slotManager;
+
+    public LocalLotNode(final String lotId, final ISlotManager slotManager) {
+        this.lotId = lotId;
+        this.slotManager = slotManager;
+    }
+
+    @Override
+    public String lotId() {
+        return lotId;
+    }
+
+    @Override
+    public Optional<Ticket> allocate(final Vehicle vehicle, final String ctx) {
+        return slotManager.allocate(vehicle, ctx);
+    }
+
+    @Override
+    public void release(final String slotId) {
+        slotManager.release(slotId);
+    }
+
+    @Override
+    public Map<SlotType, Integer> freeCapacity() {
+        final Map<SlotType, Integer> free = new EnumMap<>(SlotType.class);
+        for (final SlotType slotType : SlotType.values()) {
+            free.put(slotType, slotManager.freeSlotCount(slotType));
+        }
+        return free;
+    }
+}
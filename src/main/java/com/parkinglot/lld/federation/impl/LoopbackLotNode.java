@@ -0,0 +1,144 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Client for a {@link LotNodeServer} on this machine. Connections are pooled, one per
+ * concurrent caller; a connection that fails mid-request is dropped rather than reused.
+ */
+public class LoopbackLotNode implements ILotNode, AutoCloseable {
+
+    private final int port;
+    private final String lotId;
+    private final Queue<Connection> idle = new ConcurrentLinkedQueue<>();
+
+    public LoopbackLotNode(final int port) {
+        this.port = port;
+        this.lotId = call(LotWire.LOT_ID, out -> {
+        }, in -> in.readUTF());
+    }
+
+    @Override
+    public String lotId() {
+        return lotId;
+    }
+
+    @Override
+    public Optional<Ticket> allocate(final Vehicle vehicle, final String ctx) {
+        return call(LotWire.ALLOCATE, out -> {
+            out.writeUTF(vehicle.getLicenseNumber());
+            out.writeByte(vehicle.getVehicleType().ordinal());
+            out.writeUTF(ctx);
+        }, in -> Optional.of(LotWire.readTicket(in)));
+    }
+
+    @Override
+    public void release(final String slotId) {
+        call(LotWire.RELEASE, out -> out.writeUTF(slotId), in -> null);
+    }
+
+    @Override
+    public Map<SlotType, Integer> freeCapacity() {
+        return call(LotWire.CAPACITY, out -> {
+        }, in -> {
+            final Map<SlotType, Integer> free = new EnumMap<>(SlotType.class);
+            final int entries = in.readByte();
+            for (int i = 0; i < entries; i++) {
+                free.put(SlotType.values()[in.readByte()], in.readInt());
+            }
+            return free;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T call(final byte op, final Writer request, final Reader<T> response) {
+        final Connection connection = borrow();
+        try {
+            connection.out.writeByte(op);
+            request.write(connection.out);
+            connection.out.flush();
+            final byte status = connection.in.readByte();
+            final T result = switch (status) {
+                case LotWire.OK -> response.read(connection.in);
+                case LotWire.EMPTY -> (T) Optional.empty();
+                case LotWire.ERROR -> throw new IllegalStateException(connection.in.readUTF());
+                default -> throw new IOException("Unknown status " + status);
+            };
+            idle.offer(connection);
+            return result;
+        } catch (IllegalStateException e) {
+            // the lot refused the request, the connection is still in step
+            idle.offer(connection);
+            throw e;
+        } catch (IOException e) {
+            connection.close();
+            throw new UncheckedIOException("Lot on port " + port + " unreachable", e);
+        }
+    }
+
+    private Connection borrow() {
+        final Connection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            return new Connection(new Socket(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lot on port " + port + " unreachable", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private Connection(final Socket socket) throws IOException {
+            socket.setTcpNoDelay(true);
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+    }
+}
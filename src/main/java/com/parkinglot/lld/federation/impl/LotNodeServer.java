@@ -0,0 +1,131 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Serves a lot node on a loopback port so a federation can be exercised as separate
+ * nodes on one machine. One thread per connection; requests on a connection are
+ * answered in order.
+ */
+public class LotNodeServer implements AutoCloseable {
+
+    private final ILotNode node;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "lot-node-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+
+    public LotNodeServer(final ILotNode node) throws IOException {
+        this.node = node;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        final Thread acceptor = new Thread(this::accept, "lot-node-" + node.lotId());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                open.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (socket;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                final byte op = in.readByte();
+                try {
+                    handle(op, in, out);
+                } catch (RuntimeException e) {
+                    out.writeByte(LotWire.ERROR);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // client went away
+        } catch (IOException e) {
+            // connection reset or server closed
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private void handle(final byte op, final DataInputStream in, final DataOutputStream out) throws IOException {
+        switch (op) {
+            case LotWire.LOT_ID -> {
+                out.writeByte(LotWire.OK);
+                out.writeUTF(node.lotId());
+            }
+            case LotWire.ALLOCATE -> {
+                final Vehicle vehicle = new Vehicle(in.readUTF(), VehicleType.values()[in.readByte()]);
+                final String ctx = in.readUTF();
+                final Optional<Ticket> ticket = node.allocate(vehicle, ctx);
+                if (ticket.isEmpty()) {
+                    out.writeByte(LotWire.EMPTY);
+                } else {
+                    out.writeByte(LotWire.OK);
+                    LotWire.writeTicket(out, ticket.get());
+                }
+            }
+            case LotWire.RELEASE -> {
+                node.release(in.readUTF());
+                out.writeByte(LotWire.OK);
+            }
+            case LotWire.CAPACITY -> {
+                final Map<SlotType, Integer> free = node.freeCapacity();
+                out.writeByte(LotWire.OK);
+                out.writeByte(free.size());
+                for (final Map.Entry<SlotType, Integer> entry : free.entrySet()) {
+                    out.writeByte(entry.getKey().ordinal());
+                    out.writeInt(entry.getValue());
+                }
+            }
+            default -> throw new IOException("Unknown op " + op);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (final Socket socket : open) {
+            socket.close();
+        }
+        connections.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package com.parkinglot.lld.federation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.parkinglot.lld.enums.TicketStatus;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Ticket;
+
+/** Request/response framing shared by {@link LotNodeServer} and {@link LoopbackLotNode}. */
+final class LotWire {
+
+    static final byte LOT_ID = 1;
+    static final byte ALLOCATE = 2;
+    static final byte RELEASE = 3;
+    static final byte CAPACITY = 4;
+
+    static final byte OK = 0;
+    static final byte EMPTY = 1;
+    static final byte ERROR = 2;
+
+    private LotWire() {
+    }
+
+    static void writeTicket(final DataOutputStream out, final Ticket ticket) throws IOException {
+        out.writeUTF(ticket.getTicketId());
+        out.writeUTF(ticket.getSlotId());
+        out.writeUTF(ticket.getVehicleId());
+        out.writeBoolean(ticket.getAllocationKey() != null);
+        if (ticket.getAllocationKey() != null) {
+            out.writeLong(ticket.getAllocationKey().getHi());
+            out.writeLong(ticket.getAllocationKey().getLo());
+        }
+        out.writeByte(ticket.getStatus() == null ? -1 : ticket.getStatus().ordinal());
+        out.writeByte(ticket.getVehicleType() == null ? -1 : ticket.getVehicleType().ordinal());
+        out.writeLong(ticket.getIssuedAt());
+        out.writeLong(ticket.getPaidAt());
+    }
+
+    static Ticket readTicket(final DataInputStream in) throws IOException {
+        final String ticketId = in.readUTF();
+        final String slotId = in.readUTF();
+        final String vehicleId = in.readUTF();
+        final AllocationKey key = in.readBoolean() ? new AllocationKey(in.readLong(), in.readLong()) : null;
+        final byte status = in.readByte();
+        final byte vehicleType = in.readByte();
+        return new Ticket(ticketId, slotId, vehicleId, key, status < 0 ? null : TicketStatus.values()[status],
+                vehicleType < 0 ? null : VehicleType.values()[vehicleType], in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,32 @@
+package com.parkinglot.lld.gateway.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Fixed-size direct buffers recycled across connections, so accepting a connection
+ * does not allocate off-heap memory once the pool is warm.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    public DirectBufferPool(final int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public ByteBuffer acquire() {
+        final ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(final ByteBuffer buffer) {
+        free.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
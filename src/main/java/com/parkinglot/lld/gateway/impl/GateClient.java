@@ -0,0 +1,177 @@
+package com.parkinglot.lld.gateway.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.parkinglot.lld.models.GateEntry;
+import com.parkinglot.lld.models.Receipt;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Pipelining client for {@link GateServer}, as used by gate controllers and load tests.
+ * Calls return immediately with a future; a reader thread completes them as responses
+ * arrive. Safe for concurrent use.
+ */
+public class GateClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer out;
+    private final ByteBuffer in;
+    private final Map<Integer, Pending<?>> pending = new ConcurrentHashMap<>();
+    private int nextRequestId;
+
+    public GateClient(final InetSocketAddress address) throws IOException {
+        this(address, GateServer.DEFAULT_BUFFER_SIZE);
+    }
+
+    public GateClient(final InetSocketAddress address, final int bufferSize) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.out = ByteBuffer.allocateDirect(bufferSize);
+        this.in = ByteBuffer.allocateDirect(bufferSize);
+        final Thread reader = new Thread(this::read, "gate-client-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public CompletableFuture<Optional<Ticket>> allocate(final Vehicle vehicle, final String ctx) {
+        return send(GateFrames.ALLOCATE, body -> {
+            putVehicle(body, vehicle);
+            GateFrames.putString(body, ctx);
+        }, GateClient::optionalTicket);
+    }
+
+    /** Completes with the reservation id. */
+    public CompletableFuture<String> reserve(final Vehicle vehicle, final long startTime, final long endTime) {
+        return send(GateFrames.RESERVE, body -> {
+            putVehicle(body, vehicle);
+            body.putLong(startTime).putLong(endTime);
+        }, GateFrames::getString);
+    }
+
+    public CompletableFuture<Void> release(final String slotId) {
+        return send(GateFrames.RELEASE, body -> GateFrames.putString(body, slotId), body -> null);
+    }
+
+    public CompletableFuture<Receipt> checkout(final String ticketId) {
+        return send(GateFrames.CHECKOUT, body -> GateFrames.putString(body, ticketId), GateFrames::getReceipt);
+    }
+
+    public CompletableFuture<Optional<Ticket>> ticket(final String ticketId) {
+        return send(GateFrames.TICKET, body -> GateFrames.putString(body, ticketId), GateClient::optionalTicket);
+    }
+
+    /** Replays buffered entries; the result lines up with {@code entries}. */
+    public CompletableFuture<List<Optional<Ticket>>> replay(final List<GateEntry> entries) {
+        if (entries.size() > 0xFFFF) {
+            throw new IllegalArgumentException("At most 65535 entries per batch");
+        }
+        return send(GateFrames.REPLAY_BATCH, body -> {
+            body.putShort((short) entries.size());
+            for (final GateEntry entry : entries) {
+                putVehicle(body, entry.getVehicle());
+                GateFrames.putString(body, entry.getCtx());
+            }
+        }, body -> {
+            final int count = body.getShort() & 0xFFFF;
+            final List<Optional<Ticket>> tickets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tickets.add(body.get() == GateFrames.OK ? Optional.of(GateFrames.getTicket(body)) : Optional.empty());
+            }
+            return tickets;
+        });
+    }
+
+    private synchronized <T> CompletableFuture<T> send(final byte op, final Consumer<ByteBuffer> request,
+            final Function<ByteBuffer, T> decoder) {
+        final int requestId = nextRequestId++;
+        final Pending<T> call = new Pending<>(decoder);
+        pending.put(requestId, call);
+        try {
+            out.clear();
+            final int start = GateFrames.begin(out, requestId, op);
+            request.accept(out);
+            GateFrames.end(out, start);
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            pending.remove(requestId);
+            call.future.completeExceptionally(e);
+        }
+        return call.future;
+    }
+
+    private void read() {
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+                    final int start = in.position();
+                    final int length = in.getInt(start);
+                    final Pending<?> call = pending.remove(in.getInt(start + 4));
+                    final byte status = in.get(start + 8);
+                    final ByteBuffer body = in.slice(start + GateFrames.HEADER, length + 4 - GateFrames.HEADER);
+                    in.position(start + 4 + length);
+                    if (call != null) {
+                        call.complete(status, body);
+                    }
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            // closed
+        }
+        final IOException closed = new IOException("Gate connection closed");
+        pending.values().forEach(call -> call.future.completeExceptionally(closed));
+        pending.clear();
+    }
+
+    private static void putVehicle(final ByteBuffer body, final Vehicle vehicle) {
+        GateFrames.putString(body, vehicle.getLicenseNumber());
+        body.put((byte) vehicle.getVehicleType().ordinal());
+    }
+
+    private static Optional<Ticket> optionalTicket(final ByteBuffer body) {
+        return body.hasRemaining() ? Optional.of(GateFrames.getTicket(body)) : Optional.empty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class Pending<T> {
+        private final Function<ByteBuffer, T> decoder;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Pending(final Function<ByteBuffer, T> decoder) {
+            this.decoder = decoder;
+        }
+
+        private void complete(final byte status, final ByteBuffer body) {
+            try {
+                if (status == GateFrames.ERROR) {
+                    future.completeExceptionally(new IllegalStateException(GateFrames.getString(body)));
+                } else {
+                    future.complete(decoder.apply(body));
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
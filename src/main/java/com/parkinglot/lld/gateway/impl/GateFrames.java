@@ -0,0 +1,121 @@
+package com.parkinglot.lld.gateway.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.enums.TicketStatus;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Receipt;
+import com.parkinglot.lld.models.Ticket;
+
+/**
+ * Gate protocol framing shared by {@link GateServer} and {@link GateClient}. Big-endian:
+ *
+ * <pre>
+ * request:  length i32, request id i32, op u8, body
+ * response: length i32, request id i32, status u8, body
+ * </pre>
+ *
+ * The length counts the bytes after itself. Strings are a u16 length and UTF-8 bytes.
+ * Responses on a connection come back in request order, so clients may pipeline.
+ */
+final class GateFrames {
+
+    static final int HEADER = 9;
+
+    static final byte ALLOCATE = 1;
+    static final byte RESERVE = 2;
+    static final byte RELEASE = 3;
+    static final byte CHECKOUT = 4;
+    static final byte REPLAY_BATCH = 5;
+    static final byte TICKET = 6;
+
+    static final byte OK = 0;
+    static final byte EMPTY = 1;
+    static final byte ERROR = 2;
+
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private GateFrames() {
+    }
+
+    /** Reserves the length field and writes the rest of the header; close with {@link #end}. */
+    static int begin(final ByteBuffer out, final int requestId, final byte opOrStatus) {
+        final int start = out.position();
+        out.putInt(0).putInt(requestId).put(opOrStatus);
+        return start;
+    }
+
+    static void end(final ByteBuffer out, final int start) {
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    static void putString(final ByteBuffer out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for the gate protocol");
+        }
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(final ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static VehicleType getVehicleType(final ByteBuffer in) {
+        return VEHICLE_TYPES[in.get()];
+    }
+
+    static SlotType getSlotType(final ByteBuffer in) {
+        return SLOT_TYPES[in.get()];
+    }
+
+    static void putTicket(final ByteBuffer out, final Ticket ticket) {
+        putString(out, ticket.getTicketId());
+        putString(out, ticket.getSlotId());
+        putString(out, ticket.getVehicleId());
+        final AllocationKey key = ticket.getAllocationKey();
+        out.put((byte) (key == null ? 0 : 1));
+        if (key != null) {
+            out.putLong(key.getHi()).putLong(key.getLo());
+        }
+        out.put((byte) (ticket.getStatus() == null ? -1 : ticket.getStatus().ordinal()));
+        out.put((byte) (ticket.getVehicleType() == null ? -1 : ticket.getVehicleType().ordinal()));
+        out.putLong(ticket.getIssuedAt());
+        out.putLong(ticket.getPaidAt());
+    }
+
+    static Ticket getTicket(final ByteBuffer in) {
+        final String ticketId = getString(in);
+        final String slotId = getString(in);
+        final String vehicleId = getString(in);
+        final AllocationKey key = in.get() == 1 ? new AllocationKey(in.getLong(), in.getLong()) : null;
+        final byte status = in.get();
+        final byte vehicleType = in.get();
+        return new Ticket(ticketId, slotId, vehicleId, key, status < 0 ? null : STATUSES[status],
+                vehicleType < 0 ? null : VEHICLE_TYPES[vehicleType], in.getLong(), in.getLong());
+    }
+
+    static void putReceipt(final ByteBuffer out, final Receipt receipt) {
+        putString(out, receipt.getTicketId());
+        putString(out, receipt.getSlotId());
+        putString(out, receipt.getVehicleId());
+        out.put((byte) (receipt.getVehicleType() == null ? -1 : receipt.getVehicleType().ordinal()));
+        out.putLong(receipt.getEntryTime()).putLong(receipt.getExitTime()).putLong(receipt.getFeeCents());
+    }
+
+    static Receipt getReceipt(final ByteBuffer in) {
+        final String ticketId = getString(in);
+        final String slotId = getString(in);
+        final String vehicleId = getString(in);
+        final byte vehicleType = in.get();
+        return new Receipt(ticketId, slotId, vehicleId, vehicleType < 0 ? null : VEHICLE_TYPES[vehicleType],
+                in.getLong(), in.getLong(), in.getLong());
+    }
+}
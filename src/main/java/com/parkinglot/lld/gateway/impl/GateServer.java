@@ -0,0 +1,340 @@
+package com.parkinglot.lld.gateway.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.parkinglot.lld.managers.ICheckoutManager;
+import com.parkinglot.lld.managers.IReservationManager;
+import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.managers.ITicketManager;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Receipt;
+import com.parkinglot.lld.models.Reservation;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Serves the binary gate protocol ({@link GateFrames}) on non-blocking sockets. An
+ * acceptor hands connections round-robin to a few reactor threads, each running one
+ * selector. A reactor decodes every complete frame in a connection's read buffer,
+ * runs it inline (the managers only do in-memory CAS work) and encodes the response
+ * into the connection's write buffer, so a pipelined burst costs one read and one
+ * write syscall. Both buffers come from a {@link DirectBufferPool}.
+ *
+ * <p>
+ * When a response does not fit in the write buffer, its encoder is parked and the
+ * connection stops reading until the buffer drains; the request is never executed
+ * twice.
+ */
+public class GateServer implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ISlotManager slotManager;
+    private final IReservationManager reservationManager;
+    private final ITicketManager ticketManager;
+    private final ICheckoutManager checkoutManager;
+    private final DirectBufferPool buffers;
+    private final ServerSocketChannel serverChannel;
+    private final Reactor[] reactors;
+    private final AtomicInteger nextReactor = new AtomicInteger();
+    private volatile boolean closed;
+
+    public GateServer(final ISlotManager slotManager, final IReservationManager reservationManager,
+            final ITicketManager ticketManager, final ICheckoutManager checkoutManager,
+            final InetSocketAddress address) throws IOException {
+        this(slotManager, reservationManager, ticketManager, checkoutManager, address,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_BUFFER_SIZE);
+    }
+
+    public GateServer(final ISlotManager slotManager, final IReservationManager reservationManager,
+            final ITicketManager ticketManager, final ICheckoutManager checkoutManager,
+            final InetSocketAddress address, final int reactorCount, final int bufferSize) throws IOException {
+        this.slotManager = slotManager;
+        this.reservationManager = reservationManager;
+        this.ticketManager = ticketManager;
+        this.checkoutManager = checkoutManager;
+        this.buffers = new DirectBufferPool(bufferSize);
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 256);
+        this.reactors = new Reactor[reactorCount];
+        for (int i = 0; i < reactorCount; i++) {
+            reactors[i] = new Reactor(i);
+        }
+        final Thread acceptor = new Thread(this::accept, "gate-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                final SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[Math.floorMod(nextReactor.getAndIncrement(), reactors.length)].register(channel);
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverChannel.close();
+        for (final Reactor reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = buffers.acquire();
+        private final ByteBuffer out = buffers.acquire();
+        private Consumer<ByteBuffer> stalled;
+
+        private Connection(final SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final class Reactor implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        private Reactor(final int index) throws IOException {
+            this.selector = Selector.open();
+            final Thread thread = new Thread(this, "gate-reactor-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void register(final SocketChannel channel) {
+            pending.offer(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = pending.poll()) != null) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    }
+                    for (final SelectionKey key : selector.selectedKeys()) {
+                        service(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                // selector failed; drop this reactor's connections
+            } finally {
+                for (final SelectionKey key : selector.keys()) {
+                    disconnect(key);
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // nothing left to release
+                }
+            }
+        }
+
+        private void service(final SelectionKey key) {
+            final Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable() && connection.channel.read(connection.in) < 0) {
+                    disconnect(key);
+                    return;
+                }
+                flush(connection);
+                process(connection);
+                flush(connection);
+                key.interestOps((connection.stalled == null ? SelectionKey.OP_READ : 0)
+                        | (connection.out.position() > 0 ? SelectionKey.OP_WRITE : 0));
+            } catch (IOException | RuntimeException e) {
+                disconnect(key);
+            }
+        }
+
+        private void process(final Connection connection) throws IOException {
+            final ByteBuffer in = connection.in.flip();
+            try {
+                while (connection.stalled == null && in.remaining() >= 4) {
+                    final int start = in.position();
+                    final int length = in.getInt(start);
+                    if (length < GateFrames.HEADER - 4 || length > in.capacity() - 4) {
+                        throw new IOException("Bad frame length " + length);
+                    }
+                    if (in.remaining() < 4 + length) {
+                        break;
+                    }
+                    final int requestId = in.getInt(start + 4);
+                    final byte op = in.get(start + 8);
+                    final ByteBuffer body = in.slice(start + GateFrames.HEADER, length + 4 - GateFrames.HEADER);
+                    in.position(start + 4 + length);
+                    respond(connection, handle(requestId, op, body));
+                }
+            } finally {
+                in.compact();
+            }
+        }
+
+        private void flush(final Connection connection) throws IOException {
+            final ByteBuffer out = connection.out;
+            if (out.position() > 0) {
+                out.flip();
+                connection.channel.write(out);
+                out.compact();
+            }
+            if (connection.stalled != null) {
+                final Consumer<ByteBuffer> stalled = connection.stalled;
+                connection.stalled = null;
+                respond(connection, stalled);
+            }
+        }
+
+        private void respond(final Connection connection, final Consumer<ByteBuffer> response) {
+            final ByteBuffer out = connection.out;
+            final int mark = out.position();
+            try {
+                response.accept(out);
+            } catch (BufferOverflowException e) {
+                out.position(mark);
+                if (mark > 0) {
+                    connection.stalled = response;
+                } else {
+                    throw new IllegalStateException("Response larger than the connection buffer");
+                }
+            }
+        }
+
+        private void disconnect(final SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            key.cancel();
+            final Connection connection = (Connection) key.attachment();
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                // already closed
+            }
+            buffers.release(connection.in);
+            buffers.release(connection.out);
+        }
+    }
+
+    private Consumer<ByteBuffer> handle(final int requestId, final byte op, final ByteBuffer body) {
+        try {
+            switch (op) {
+                case GateFrames.ALLOCATE -> {
+                    final Optional<Ticket> ticket = slotManager.allocate(readVehicle(body), GateFrames.getString(body));
+                    return ticketResponse(requestId, ticket);
+                }
+                case GateFrames.RESERVE -> {
+                    final Reservation reservation = reservationManager.reserve(readVehicle(body), body.getLong(),
+                            body.getLong());
+                    return out -> {
+                        final int start = GateFrames.begin(out, requestId, GateFrames.OK);
+                        GateFrames.putString(out, reservation.getReservationId());
+                        out.put((byte) reservation.getSlotType().ordinal());
+                        out.putLong(reservation.getStartTime()).putLong(reservation.getEndTime());
+                        GateFrames.end(out, start);
+                    };
+                }
+                case GateFrames.RELEASE -> {
+                    slotManager.release(GateFrames.getString(body));
+                    return out -> GateFrames.end(out, GateFrames.begin(out, requestId, GateFrames.OK));
+                }
+                case GateFrames.CHECKOUT -> {
+                    final Receipt receipt = checkoutManager.checkout(GateFrames.getString(body));
+                    return out -> {
+                        final int start = GateFrames.begin(out, requestId, GateFrames.OK);
+                        GateFrames.putReceipt(out, receipt);
+                        GateFrames.end(out, start);
+                    };
+                }
+                case GateFrames.REPLAY_BATCH -> {
+                    return replay(requestId, body);
+                }
+                case GateFrames.TICKET -> {
+                    return ticketResponse(requestId, ticketManager.getTicket(GateFrames.getString(body)));
+                }
+                default -> throw new IllegalArgumentException("Unknown op " + op);
+            }
+        } catch (BufferUnderflowException e) {
+            return errorResponse(requestId, "Truncated request");
+        } catch (RuntimeException e) {
+            return errorResponse(requestId, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Replays entries a gate buffered while it could not reach the core. Entries that
+     * already hold a ticket are answered from the ticket index without touching slots.
+     */
+    private Consumer<ByteBuffer> replay(final int requestId, final ByteBuffer body) {
+        final int count = body.getShort() & 0xFFFF;
+        final List<Optional<Ticket>> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Vehicle vehicle = readVehicle(body);
+            final String ctx = GateFrames.getString(body);
+            final Optional<Ticket> issued = ticketManager
+                    .getByAllocationKey(AllocationKey.of(vehicle.getLicenseNumber(), ctx));
+            tickets.add(issued.isPresent() ? issued : slotManager.allocate(vehicle, ctx));
+        }
+        return out -> {
+            final int start = GateFrames.begin(out, requestId, GateFrames.OK);
+            out.putShort((short) count);
+            for (final Optional<Ticket> ticket : tickets) {
+                out.put(ticket.isPresent() ? GateFrames.OK : GateFrames.EMPTY);
+                ticket.ifPresent(t -> GateFrames.putTicket(out, t));
+            }
+            GateFrames.end(out, start);
+        };
+    }
+
+    private static Vehicle readVehicle(final ByteBuffer body) {
+        final String license = GateFrames.getString(body);
+        return new Vehicle(license, GateFrames.getVehicleType(body));
+    }
+
+    private static Consumer<ByteBuffer> ticketResponse(final int requestId, final Optional<Ticket> ticket) {
+        return out -> {
+            final int start = GateFrames.begin(out, requestId, ticket.isPresent() ? GateFrames.OK : GateFrames.EMPTY);
+            ticket.ifPresent(t -> GateFrames.putTicket(out, t));
+            GateFrames.end(out, start);
+        };
+    }
+
+    private static Consumer<ByteBuffer> errorResponse(final int requestId, final String message) {
+        return out -> {
+            final int start = GateFrames.begin(out, requestId, GateFrames.ERROR);
+            GateFrames.putString(out, message.length() > 1024 ? message.substring(0, 1024) : message);
+            GateFrames.end(out, start);
+        };
+    }
+}
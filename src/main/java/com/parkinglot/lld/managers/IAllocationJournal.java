@@ -1,13 +1,15 @@
 package com.parkinglot.lld.managers;
 
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.JournalEntry;
 
 public interface IAllocationJournal {
-    String JOURNAL_KEY_FORMAT = "%s_%s";
-    void recordIntent(String slotId, String vehicleId);
-    void commit(String slotId);
-    void rollback(String slotId);
-    Optional<JournalEntry> get(String Id);
+    void recordIntent(AllocationKey key, String slotId);
+    void commit(AllocationKey key);
+    void rollback(AllocationKey key);
+    Optional<JournalEntry> get(AllocationKey key);
+    void forEach(BiConsumer<AllocationKey, JournalEntry> action);
 }
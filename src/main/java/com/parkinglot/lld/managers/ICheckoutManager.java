@@ -0,0 +1,7 @@
+package com.parkinglot.lld.managers;
+
+import com.parkinglot.lld.models.Receipt;
+
+public interface ICheckoutManager {
+    Receipt checkout(final String ticketId);
+}
@@ -0,0 +1,30 @@
+package com.parkinglot.lld.managers;
+
+import java.util.function.ToIntFunction;
+
+import com.parkinglot.lld.enums.SlotType;
+
+public interface IReservationCalendar {
+
+    boolean book(final SlotType slotType, final long startTime, final long endTime);
+
+    /** Whether the window could ever be booked: non-empty, not in the past and within the horizon. */
+    boolean isBookable(final long startTime, final long endTime);
+
+    void release(final SlotType slotType, final long startTime, final long endTime);
+
+    /** Releases the first {@code count} windows under one lock, applying each distinct window once. */
+    void releaseAll(final SlotType slotType, final long[] startTimes, final long[] endTimes, final int count);
+
+    int bookedBetween(final SlotType slotType, final long startTime, final long endTime);
+
+    int availableBetween(final SlotType slotType, final long startTime, final long endTime);
+
+    int heldBack(final SlotType slotType);
+
+    /** Live free-slot counts; once set, windows starting within the lookahead are capped by them. */
+    void trackFreeSlots(final ToIntFunction<SlotType> freeSlots);
+
+    /** Applies a topology change; existing bookings are kept even if they now exceed capacity. */
+    void adjustCapacity(final SlotType slotType, final int delta);
+}
@@ -1,12 +1,41 @@
 package com.parkinglot.lld.managers;
 
+import java.util.List;
+import java.util.Optional;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.Reservation;
+import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
 
 public interface IReservationManager {
 
     Reservation reserve(final Vehicle vehicle, final int startTime);
 
+    Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime);
+
+    /** Retries with the same key return the reservation the first attempt made. */
+    Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime, final AllocationKey key);
+
+    /** Books on behalf of an event so the whole block can later be cancelled together; key may be null. */
+    Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime, final AllocationKey key,
+            final String eventId);
+
+    Optional<Ticket> checkIn(final Vehicle vehicle, final String reservationId);
+
     void cancelReservation(final Reservation reservation);
 
+    void expireReservations();
+
+    /** Cancels every reservation booked for the event and returns how many were removed. */
+    int cancelEvent(final String eventId);
+
+    /** Cancels bookings that started before the cutoff without a check-in and returns how many were removed. */
+    int sweepNoShows(final long startedBefore);
+
+    List<Reservation> reservationsOf(final String licenseNumber);
+
+    int availableSlots(final VehicleType vehicleType, final long startTime, final long endTime);
+
 }
@@ -2,11 +2,15 @@ package com.parkinglot.lld.managers;
 
 import java.util.Optional;
 
+import com.parkinglot.lld.enums.SlotType;
 import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
 
 public interface ISlotManager {
     Optional<Ticket> allocate(final Vehicle vehicle, final String ctx);
+    Optional<Ticket> allocateReserved(final Vehicle vehicle, final String ctx, final SlotType preferredType);
     void release(final String slotId);
     Optional<Ticket> reserve(final Vehicle vehicle, final int startTime);
-} 
\ No newline at end of file
+    int capacity(final SlotType slotType);
+    int freeSlotCount(final SlotType slotType);
+}
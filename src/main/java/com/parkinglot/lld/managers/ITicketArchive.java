@@ -0,0 +1,17 @@
+package com.parkinglot.lld.managers;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.parkinglot.lld.models.Ticket;
+
+/** Cold storage for closed tickets, kept for disputes and reporting. */
+public interface ITicketArchive {
+
+    void append(final Ticket ticket);
+
+    Optional<Ticket> find(final String ticketId);
+
+    /** Archived tickets of the plate, oldest partition first. */
+    List<Ticket> findByPlate(final String plate);
+}
@@ -2,6 +2,7 @@ package com.parkinglot.lld.managers;
 
 import java.util.Optional;
 
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.ParkingSlot;
 import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
@@ -10,10 +11,27 @@ public interface ITicketManager {
     Ticket createTicket(
         Vehicle vehicle,
         ParkingSlot slot,
-        String allocationKey
+        AllocationKey allocationKey
     );
 
-    Optional<Ticket> getByAllocationKey(String allocationKey);
+    Ticket createTicket(
+        Vehicle vehicle,
+        String slotId,
+        AllocationKey allocationKey
+    );
+
+    Optional<Ticket> getByAllocationKey(AllocationKey allocationKey);
+
+    Optional<Ticket> getTicket(String ticketId);
 
     void closeTicket(String ticketId);
+
+    /** Forgets a ticket that was issued but never handed to the driver, so its key can be used again. */
+    void discardTicket(String ticketId);
+
+    /** Moves the ticket from UNPAID to PAID; true only for the one caller that made the move. */
+    boolean markPaid(String ticketId);
+
+    /** As {@link #markPaid(String)}, stamping the ticket with the checkout's exit time so a rescan can rebuild it. */
+    boolean markPaid(String ticketId, long paidAt);
 }
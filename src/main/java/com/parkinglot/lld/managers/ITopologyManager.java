@@ -0,0 +1,24 @@
+package com.parkinglot.lld.managers;
+
+import java.util.Collection;
+
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.SlotTopology;
+
+/**
+ * Online reconfiguration of the slots a manager allocates from. Slots that are in use
+ * when taken out of service drain: they finish their current stay and are retired on
+ * release instead of returning to the free pool.
+ */
+public interface ITopologyManager {
+    SlotTopology topology();
+    void addLevel(final ParkingLevel level);
+    void addSlot(final String levelId, final ParkingSlot slot);
+    /** Returns true if the slot is out of service now, false if it drains on release. */
+    boolean markOutOfService(final String slotId);
+    boolean returnToService(final String slotId);
+    /** Returns how many slots were removed now; the rest are removed as they drain. */
+    int removeSlots(final Collection<String> slotIds);
+    int removeLevel(final String levelId);
+}
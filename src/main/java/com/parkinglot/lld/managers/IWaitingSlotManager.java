@@ -0,0 +1,18 @@
+package com.parkinglot.lld.managers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import com.parkinglot.lld.enums.AdmissionPriority;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/** A slot manager that can queue arrivals for a full lot instead of turning them away. */
+public interface IWaitingSlotManager extends ISlotManager {
+    /**
+     * Allocates now, or queues the vehicle by priority until a slot frees up or the timeout passes.
+     * Cancelling the future gives up the place in the queue, and any slot already assigned.
+     */
+    CompletableFuture<Ticket> allocateOrWait(final Vehicle vehicle, final String ctx,
+            final AdmissionPriority priority, final Duration timeout);
+}
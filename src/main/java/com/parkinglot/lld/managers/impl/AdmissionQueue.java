@@ -0,0 +1,136 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.parkinglot.lld.enums.AdmissionPriority;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Waiting list for a full lot: one lock-free queue per {@link AdmissionPriority},
+ * a hand-off queue of released slots, and a work-in-progress counter so exactly one
+ * thread matches slots to waiters at a time without anybody blocking.
+ */
+final class AdmissionQueue {
+
+    private static final AdmissionPriority[] PRIORITIES = AdmissionPriority.values();
+
+    private final Queue<Waiter>[] queues;
+    private final ConcurrentHashMap<AllocationKey, Waiter> waitersByKey = new ConcurrentHashMap<>();
+    private final Queue<ParkingSlot> releasedSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    AdmissionQueue() {
+        this.queues = new Queue[PRIORITIES.length];
+        for (final AdmissionPriority priority : PRIORITIES) {
+            queues[priority.ordinal()] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /** Returns the waiter already queued for this key, so retries never queue twice. */
+    Waiter enqueue(final Vehicle vehicle, final String ctx, final AllocationKey key,
+            final AdmissionPriority priority, final Duration timeout) {
+        final Waiter fresh = new Waiter(vehicle, ctx, key, priority, System.nanoTime() + timeout.toNanos());
+        final Waiter existing = waitersByKey.putIfAbsent(key, fresh);
+        if (existing != null) {
+            return existing;
+        }
+        waiting.incrementAndGet();
+        queues[priority.ordinal()].offer(fresh);
+        fresh.future.whenComplete((ticket, error) -> remove(fresh));
+        CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(fresh::expire);
+        return fresh;
+    }
+
+    Iterable<Waiter> waiters(final AdmissionPriority priority) {
+        return queues[priority.ordinal()];
+    }
+
+    boolean hasWaiters() {
+        return waiting.get() > 0;
+    }
+
+    void offerReleased(final ParkingSlot slot) {
+        releasedSlots.offer(slot);
+    }
+
+    ParkingSlot pollReleased() {
+        return releasedSlots.poll();
+    }
+
+    boolean enterDrain() {
+        return wip.getAndIncrement() == 0;
+    }
+
+    /** Returns the number of drain requests that arrived meanwhile, 0 when the drainer may stop. */
+    int leaveDrain(final int handled) {
+        return wip.addAndGet(-handled);
+    }
+
+    private void remove(final Waiter waiter) {
+        if (waitersByKey.remove(waiter.key, waiter)) {
+            queues[waiter.priority.ordinal()].remove(waiter);
+            waiting.decrementAndGet();
+        }
+    }
+
+    static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int DONE = 2;
+
+        final Vehicle vehicle;
+        final String ctx;
+        final AllocationKey key;
+        final AdmissionPriority priority;
+        private final long deadline;
+        private final CompletableFuture<Ticket> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(final Vehicle vehicle, final String ctx, final AllocationKey key,
+                final AdmissionPriority priority, final long deadline) {
+            this.vehicle = vehicle;
+            this.ctx = ctx;
+            this.key = key;
+            this.priority = priority;
+            this.deadline = deadline;
+        }
+
+        CompletableFuture<Ticket> getFuture() {
+            return future;
+        }
+
+        boolean claim() {
+            return !future.isDone() && state.compareAndSet(WAITING, CLAIMED);
+        }
+
+        void unclaim() {
+            if (state.compareAndSet(CLAIMED, WAITING) && System.nanoTime() - deadline >= 0) {
+                // the timer fired while we held the claim
+                expire();
+            }
+        }
+
+        boolean complete(final Ticket ticket) {
+            state.set(DONE);
+            return future.complete(ticket);
+        }
+
+        private void expire() {
+            if (state.compareAndSet(WAITING, DONE)) {
+                future.completeExceptionally(new TimeoutException("No slot became available in time"));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.parkinglot.lld.managers.impl;
+
+/**
+ * Segment tree over a fixed number of time buckets supporting range add and range
+ * max in O(log n). Lazy adds are kept on the node and never pushed down, so reads
+ * do not write. Not thread-safe on its own; callers guard it.
+ */
+final class BucketTimeline {
+
+    private final int size;
+    private final int[] max;
+    private final int[] add;
+
+    BucketTimeline(final int size) {
+        if (Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Timeline size must be a power of two");
+        }
+        this.size = size;
+        this.max = new int[2 * size];
+        this.add = new int[2 * size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds delta to buckets [from, to). */
+    void add(final int from, final int to, final int delta) {
+        if (from < to) {
+            add(1, 0, size, from, to, delta);
+        }
+    }
+
+    /** Max over buckets [from, to). */
+    int max(final int from, final int to) {
+        return from < to ? max(1, 0, size, from, to) : 0;
+    }
+
+    private void add(final int node, final int lo, final int hi, final int from, final int to, final int delta) {
+        if (to <= lo || hi <= from) {
+            return;
+        }
+        if (from <= lo && hi <= to) {
+            add[node] += delta;
+            max[node] += delta;
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        add(2 * node, lo, mid, from, to, delta);
+        add(2 * node + 1, mid, hi, from, to, delta);
+        max[node] = add[node] + Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int max(final int node, final int lo, final int hi, final int from, final int to) {
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+        final int mid = (lo + hi) >>> 1;
+        int best = Integer.MIN_VALUE;
+        if (from < mid) {
+            best = Math.max(best, max(2 * node, lo, mid, from, to));
+        }
+        if (to > mid) {
+            best = Math.max(best, max(2 * node + 1, mid, hi, from, to));
+        }
+        return add[node] + best;
+    }
+}
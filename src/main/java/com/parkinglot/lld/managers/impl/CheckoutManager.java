@@ -0,0 +1,92 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import com.parkinglot.lld.managers.IAllocationJournal;
+import com.parkinglot.lld.managers.ICheckoutManager;
+import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.managers.ITicketManager;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Receipt;
+import com.parkinglot.lld.models.Ticket;
+
+/**
+ * Exit-gate checkout. One scan prices the stay, closes the ticket and puts the slot back
+ * in the free index, bracketed by an intent and a commit in the journal under the
+ * ticket's exit key.
+ *
+ * The first scan fixes the receipt; every later scan of the same ticket, concurrent or
+ * not, gets that receipt back. Only the scan that moves the ticket to PAID releases the
+ * slot, so a double scan can never free a slot that a new vehicle has since taken. A
+ * scan that failed before the ticket was paid is completed by the next one. Once the
+ * receipt has left the retry window, or the ticket has been archived, a rescan of a
+ * ticket this checkout paid is priced again from the ticket's entry and payment times.
+ */
+public class CheckoutManager implements ICheckoutManager {
+
+    private static final String EXIT = "EXIT";
+
+    private final ITicketManager ticketManager;
+    private final ISlotManager slotManager;
+    private final IAllocationJournal journal;
+    private final TariffTable tariffTable;
+    private final LongSupplier clock;
+    private final IdempotencyIndex<Receipt> receipts;
+
+    public CheckoutManager(final ITicketManager ticketManager, final ISlotManager slotManager,
+            final IAllocationJournal journal, final TariffTable tariffTable) {
+        this(ticketManager, slotManager, journal, tariffTable, System::currentTimeMillis,
+                IdempotencyIndex.DEFAULT_RETRY_WINDOW);
+    }
+
+    public CheckoutManager(final ITicketManager ticketManager, final ISlotManager slotManager,
+            final IAllocationJournal journal, final TariffTable tariffTable, final LongSupplier clock,
+            final Duration retryWindow) {
+        this.ticketManager = ticketManager;
+        this.slotManager = slotManager;
+        this.journal = journal;
+        this.tariffTable = tariffTable;
+        this.clock = clock;
+        this.receipts = new IdempotencyIndex<>(retryWindow, clock);
+    }
+
+    @Override
+    public Receipt checkout(final String ticketId) {
+        final AllocationKey exitKey = AllocationKey.of(ticketId, EXIT);
+        Receipt receipt = receipts.get(exitKey);
+        if (receipt == null) {
+            final Ticket ticket = ticketManager.getTicket(ticketId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown ticket: " + ticketId));
+            if (ticket.isPaid()) {
+                // only checkout stamps paidAt, so it outlives both the receipt and the journal entry
+                if (ticket.getPaidAt() == 0) {
+                    throw new IllegalStateException("Ticket " + ticketId + " was closed outside checkout");
+                }
+                return price(ticket, ticket.getPaidAt());
+            }
+            final Receipt priced = price(ticket, clock.getAsLong());
+            final Receipt existing = receipts.putIfAbsent(exitKey, priced);
+            receipt = existing != null ? existing : priced;
+        } else if (isCommitted(exitKey)) {
+            return receipt;
+        }
+        // also resumes a scan that failed before the ticket was paid
+        journal.recordIntent(exitKey, receipt.getSlotId());
+        if (ticketManager.markPaid(ticketId, receipt.getExitTime())) {
+            slotManager.release(receipt.getSlotId());
+        }
+        journal.commit(exitKey);
+        return receipt;
+    }
+
+    private boolean isCommitted(final AllocationKey exitKey) {
+        return journal.get(exitKey).map(entry -> entry.isCommitted()).orElse(false);
+    }
+
+    private Receipt price(final Ticket ticket, final long exitTime) {
+        final long duration = Math.max(0, exitTime - ticket.getIssuedAt());
+        return new Receipt(ticket.getTicketId(), ticket.getSlotId(), ticket.getVehicleId(), ticket.getVehicleType(),
+                ticket.getIssuedAt(), exitTime, tariffTable.fee(ticket.getVehicleType(), duration));
+    }
+}
@@ -0,0 +1,165 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.util.Optional;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.managers.IAllocationJournal;
+import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.models.CompactSlotTable;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.JournalEntry;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * {@link ISlotManager} over a {@link CompactSlotTable}. Free slots are tracked in one
+ * bitmap per {@link SlotType} instead of per-slot hash set entries, so the steady
+ * state footprint is a few bytes per slot.
+ */
+public class CompactSlotManager implements ISlotManager {
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private final CompactSlotTable table;
+    private final FreeSlotBitmap[] freeSlotsByType = new FreeSlotBitmap[SLOT_TYPES.length];
+    private final int[] capacityByType = new int[SLOT_TYPES.length];
+    private final IAllocationJournal journal;
+    private final TicketManager ticketManager;
+
+    public CompactSlotManager(final ParkingLot parkingLot, final IAllocationJournal journal,
+            final TicketManager ticketManager) {
+        this(CompactSlotTable.from(parkingLot), journal, ticketManager);
+    }
+
+    public CompactSlotManager(final CompactSlotTable table, final IAllocationJournal journal,
+            final TicketManager ticketManager) {
+        this.table = table;
+        this.journal = journal;
+        this.ticketManager = ticketManager;
+        for (final SlotType slotType : SLOT_TYPES) {
+            freeSlotsByType[slotType.ordinal()] = new FreeSlotBitmap(table.size());
+        }
+        for (int i = 0; i < table.size(); i++) {
+            capacityByType[table.slotType(i).ordinal()]++;
+            if (table.state(i) == SlotState.FREE) {
+                freeSlotsByType[table.slotType(i).ordinal()].add(i);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Ticket> allocate(final Vehicle vehicle, final String ctx) {
+        return allocate(vehicle, ctx, null);
+    }
+
+    @Override
+    public Optional<Ticket> allocateReserved(final Vehicle vehicle, final String ctx, final SlotType preferredType) {
+        return allocate(vehicle, ctx, preferredType);
+    }
+
+    private Optional<Ticket> allocate(final Vehicle vehicle, final String ctx, final SlotType preferredType) {
+        final AllocationKey allocationKey = AllocationKey.of(vehicle.getLicenseNumber(), ctx);
+
+        final Optional<JournalEntry> entryOpt = journal.get(allocationKey);
+        if (entryOpt.isPresent() && entryOpt.get().isCommitted()) {
+            return ticketManager.getByAllocationKey(allocationKey);
+        }
+
+        if (preferredType != null) {
+            final Optional<Ticket> ticket = occupyFrom(preferredType, vehicle, allocationKey);
+            if (ticket.isPresent()) {
+                return ticket;
+            }
+        }
+        for (final SlotType slotType : SLOT_TYPES) {
+            if (!vehicle.getVehicleType().compatibleSlotTypes().contains(slotType)) {
+                continue;
+            }
+            final Optional<Ticket> ticket = occupyFrom(slotType, vehicle, allocationKey);
+            if (ticket.isPresent()) {
+                return ticket;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Ticket> occupyFrom(final SlotType slotType, final Vehicle vehicle,
+            final AllocationKey allocationKey) {
+        final FreeSlotBitmap free = freeSlotsByType[slotType.ordinal()];
+        int index;
+        while ((index = free.next()) >= 0) {
+            journal.recordIntent(allocationKey, table.slotId(index));
+            if (table.occupy(index, vehicle.getLicenseNumber())) {
+                free.remove(index);
+                journal.commit(allocationKey);
+                return Optional.of(ticketManager.createTicket(vehicle, table.slotId(index), allocationKey));
+            }
+            journal.rollback(allocationKey);
+            dropIfNotFree(free, index);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Ticket> reserve(final Vehicle vehicle, final int startTime) {
+        final AllocationKey reservationKey = AllocationKey.of(vehicle.getLicenseNumber(),
+                startTime);
+
+        final Optional<JournalEntry> entryOpt = journal.get(reservationKey);
+        if (entryOpt.isPresent() && entryOpt.get().isCommitted()) {
+            return ticketManager.getByAllocationKey(reservationKey);
+        }
+
+        for (final SlotType slotType : SLOT_TYPES) {
+            if (!vehicle.getVehicleType().compatibleSlotTypes().contains(slotType)) {
+                continue;
+            }
+            final FreeSlotBitmap free = freeSlotsByType[slotType.ordinal()];
+            int index;
+            while ((index = free.next()) >= 0) {
+                journal.recordIntent(reservationKey, table.slotId(index));
+                if (table.reserve(index)) {
+                    free.remove(index);
+                    journal.commit(reservationKey);
+                    return Optional.of(ticketManager.createTicket(vehicle, table.slotId(index), reservationKey));
+                }
+                journal.rollback(reservationKey);
+                dropIfNotFree(free, index);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void release(final String slotId) {
+        final int index = table.indexOf(slotId);
+        if (index < 0) {
+            return;
+        }
+        table.free(index);
+        freeSlotsByType[table.slotType(index).ordinal()].add(index);
+    }
+
+    @Override
+    public int capacity(final SlotType slotType) {
+        return capacityByType[slotType.ordinal()];
+    }
+
+    @Override
+    public int freeSlotCount(final SlotType slotType) {
+        return freeSlotsByType[slotType.ordinal()].size();
+    }
+
+    public CompactSlotTable getTable() {
+        return table;
+    }
+
+    private void dropIfNotFree(final FreeSlotBitmap free, final int index) {
+        // the winner of the CAS clears the bit itself; only stale hints are removed here
+        if (table.state(index) != SlotState.FREE && free.remove(index)
+                && table.state(index) == SlotState.FREE) {
+            free.add(index);
+        }
+    }
+}
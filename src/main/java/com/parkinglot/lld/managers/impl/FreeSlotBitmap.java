@@ -0,0 +1,115 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Two-level concurrent bitmap of free slot indexes. The summary level marks words
+ * that may contain set bits, so a lookup scans n / 4096 summary words at most.
+ * Bits are hints only; the slot state CAS is the source of truth.
+ */
+final class FreeSlotBitmap {
+
+    private final AtomicLongArray words;
+    private final AtomicLongArray summary;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger count = new AtomicInteger();
+
+    FreeSlotBitmap(final int capacity) {
+        final int wordCount = Math.max(1, (capacity + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.summary = new AtomicLongArray((wordCount + 63) >>> 6);
+    }
+
+    void add(final int index) {
+        final int word = index >>> 6;
+        final long bit = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | bit));
+        count.incrementAndGet();
+        setSummary(word);
+    }
+
+    boolean remove(final int index) {
+        final int word = index >>> 6;
+        final long bit = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & bit) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(word, current, current & ~bit));
+        count.decrementAndGet();
+        if ((current & ~bit) == 0) {
+            clearSummary(word);
+        }
+        return true;
+    }
+
+    boolean contains(final int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    int size() {
+        return Math.max(0, count.get());
+    }
+
+    /**
+     * Returns a candidate free index or -1. Scanning starts from a rotating cursor
+     * so concurrent callers spread over different words instead of racing on one.
+     */
+    int next() {
+        if (count.get() <= 0) {
+            return -1;
+        }
+        final int summaryWords = summary.length();
+        final int start = Math.floorMod(cursor.getAndIncrement(), summaryWords);
+        for (int i = 0; i < summaryWords; i++) {
+            final int s = (start + i) % summaryWords;
+            long summaryBits = summary.get(s);
+            while (summaryBits != 0) {
+                final int word = (s << 6) + Long.numberOfTrailingZeros(summaryBits);
+                final long bits = words.get(word);
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                summaryBits &= summaryBits - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void setSummary(final int word) {
+        final int s = word >>> 6;
+        final long bit = 1L << word;
+        long current;
+        do {
+            current = summary.get(s);
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!summary.compareAndSet(s, current, current | bit));
+    }
+
+    private void clearSummary(final int word) {
+        final int s = word >>> 6;
+        final long bit = 1L << word;
+        long current;
+        do {
+            current = summary.get(s);
+            if ((current & bit) == 0) {
+                break;
+            }
+        } while (!summary.compareAndSet(s, current, current & ~bit));
+        // a concurrent add may have landed between our zero check and the clear
+        if (words.get(word) != 0) {
+            setSummary(word);
+        }
+    }
+}
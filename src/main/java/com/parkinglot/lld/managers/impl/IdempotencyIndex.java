@@ -0,0 +1,134 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import com.parkinglot.lld.models.AllocationKey;
+
+/**
+ * Bounded idempotency index. Entries live in a fixed ring of generation maps; every
+ * retryWindow / (GENERATIONS - 1) the oldest map is dropped as a whole, so an entry
+ * survives at least the retry window and nothing ever sweeps individual keys.
+ */
+public final class IdempotencyIndex<V> {
+
+    public static final Duration DEFAULT_RETRY_WINDOW = Duration.ofHours(24);
+    private static final int GENERATIONS = 4;
+
+    private final long generationMillis;
+    private final LongSupplier clock;
+    private final AtomicReference<Generations<V>> generations;
+
+    public IdempotencyIndex(final Duration retryWindow) {
+        this(retryWindow, System::currentTimeMillis);
+    }
+
+    public IdempotencyIndex(final Duration retryWindow, final LongSupplier clock) {
+        if (retryWindow.isNegative() || retryWindow.isZero()) {
+            throw new IllegalArgumentException("Retry window must be positive");
+        }
+        this.generationMillis = Math.max(1, retryWindow.toMillis() / (GENERATIONS - 1));
+        this.clock = clock;
+        this.generations = new AtomicReference<>(new Generations<>(clock.getAsLong(), newMaps()));
+    }
+
+    public V get(final AllocationKey key) {
+        for (final ConcurrentHashMap<AllocationKey, V> map : current().maps) {
+            final V value = map.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public V putIfAbsent(final AllocationKey key, final V value) {
+        final Generations<V> gens = current();
+        for (int i = 1; i < gens.maps.length; i++) {
+            final V existing = gens.maps[i].get(key);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return gens.maps[0].putIfAbsent(key, value);
+    }
+
+    public V computeIfPresent(final AllocationKey key,
+            final BiFunction<? super AllocationKey, ? super V, ? extends V> remapping) {
+        for (final ConcurrentHashMap<AllocationKey, V> map : current().maps) {
+            if (map.containsKey(key)) {
+                return map.computeIfPresent(key, remapping);
+            }
+        }
+        return null;
+    }
+
+    public void remove(final AllocationKey key) {
+        for (final ConcurrentHashMap<AllocationKey, V> map : current().maps) {
+            map.remove(key);
+        }
+    }
+
+    /** Visits every live entry; an entry written to two generations by a race is visited once per copy. */
+    public void forEach(final BiConsumer<? super AllocationKey, ? super V> action) {
+        for (final ConcurrentHashMap<AllocationKey, V> map : current().maps) {
+            map.forEach(action);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (final ConcurrentHashMap<AllocationKey, V> map : current().maps) {
+            size += map.size();
+        }
+        return size;
+    }
+
+    private Generations<V> current() {
+        final long now = clock.getAsLong();
+        Generations<V> gens = generations.get();
+        while (now - gens.startedAt >= generationMillis) {
+            final long elapsed = (now - gens.startedAt) / generationMillis;
+            final Generations<V> next = gens.rotate((int) Math.min(elapsed, GENERATIONS),
+                    gens.startedAt + elapsed * generationMillis);
+            if (generations.compareAndSet(gens, next)) {
+                return next;
+            }
+            gens = generations.get();
+        }
+        return gens;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <V> ConcurrentHashMap<AllocationKey, V>[] newMaps() {
+        final ConcurrentHashMap<AllocationKey, V>[] maps = new ConcurrentHashMap[GENERATIONS];
+        for (int i = 0; i < GENERATIONS; i++) {
+            maps[i] = new ConcurrentHashMap<>();
+        }
+        return maps;
+    }
+
+    private static final class Generations<V> {
+        private final long startedAt;
+        // maps[0] takes new writes, maps[GENERATIONS - 1] is dropped next
+        private final ConcurrentHashMap<AllocationKey, V>[] maps;
+
+        private Generations(final long startedAt, final ConcurrentHashMap<AllocationKey, V>[] maps) {
+            this.startedAt = startedAt;
+            this.maps = maps;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Generations<V> rotate(final int steps, final long startedAt) {
+            final ConcurrentHashMap<AllocationKey, V>[] rotated = new ConcurrentHashMap[GENERATIONS];
+            for (int i = 0; i < GENERATIONS; i++) {
+                rotated[i] = i < steps ? new ConcurrentHashMap<>() : maps[i - steps];
+            }
+            return new Generations<>(startedAt, rotated);
+        }
+    }
+}
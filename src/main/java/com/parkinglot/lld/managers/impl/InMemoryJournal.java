@@ -1,23 +1,37 @@
 package com.parkinglot.lld.managers.impl;
 
+import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
 
 import com.parkinglot.lld.managers.IAllocationJournal;
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.JournalEntry;
 
 public class InMemoryJournal implements IAllocationJournal {
 
-    private final ConcurrentMap<String, JournalEntry> journal = new ConcurrentHashMap<>();
+    private final IdempotencyIndex<JournalEntry> journal;
+
+    public InMemoryJournal() {
+        this(IdempotencyIndex.DEFAULT_RETRY_WINDOW);
+    }
+
+    public InMemoryJournal(final Duration retryWindow) {
+        this.journal = new IdempotencyIndex<>(retryWindow);
+    }
+
+    public InMemoryJournal(final Duration retryWindow, final LongSupplier clock) {
+        this.journal = new IdempotencyIndex<>(retryWindow, clock);
+    }
 
     @Override
-    public void recordIntent(final String key, final String slotId) {
+    public void recordIntent(final AllocationKey key, final String slotId) {
         journal.putIfAbsent(key, JournalEntry.intent(slotId));
     }
 
     @Override
-    public void commit(final String key) {
+    public void commit(final AllocationKey key) {
         journal.computeIfPresent(
             key,
             (k, entry) -> entry.commit()
@@ -25,13 +39,18 @@ public class InMemoryJournal implements IAllocationJournal {
     }
 
     @Override
-    public void rollback(final String key) {
+    public void rollback(final AllocationKey key) {
         journal.remove(key);
     }
 
     @Override
-    public Optional<JournalEntry> get(final String key) {
+    public Optional<JournalEntry> get(final AllocationKey key) {
         return Optional.ofNullable(journal.get(key));
     }
 
+    @Override
+    public void forEach(final BiConsumer<AllocationKey, JournalEntry> action) {
+        journal.forEach(action);
+    }
+
 }
@@ -0,0 +1,241 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.managers.IAllocationJournal;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.CompactSlotTable;
+import com.parkinglot.lld.models.JournalEntry;
+import com.parkinglot.lld.models.ParkingLot;
+
+/**
+ * Compact binary lot description and its loader. Layout, big-endian:
+ *
+ * <pre>
+ * magic "PLOT", version u16, lot id, level count u16
+ * per level: level id, slot count i32, data offset i64, data length i32
+ * per level data, per slot: type u8, state u8, slot id, [vehicle id if not FREE]
+ * </pre>
+ *
+ * Strings are a u16 length followed by UTF-8 bytes. The directory gives every level's
+ * data offset and first slot index, so the loader maps the file and decodes the levels
+ * in parallel straight into the columns of a {@link CompactSlotTable}; no per-slot
+ * objects other than the id strings are created.
+ */
+public final class LotFile {
+
+    private static final int MAGIC = 0x504C4F54;
+    private static final short VERSION = 1;
+    private static final SlotType[] TYPES = SlotType.values();
+    private static final SlotState[] STATES = SlotState.values();
+
+    private LotFile() {
+    }
+
+    public static void write(final Path path, final ParkingLot parkingLot) throws IOException {
+        write(path, parkingLot.getId(), CompactSlotTable.from(parkingLot));
+    }
+
+    /** Snapshots the table, slots grouped by level in index order. */
+    public static void write(final Path path, final String lotId, final CompactSlotTable table) throws IOException {
+        final int levelCount = table.levelCount();
+        final List<List<Integer>> slotsByLevel = new ArrayList<>();
+        for (int l = 0; l < levelCount; l++) {
+            slotsByLevel.add(new ArrayList<>());
+        }
+        for (int i = 0; i < table.size(); i++) {
+            slotsByLevel.get(table.level(i)).add(i);
+        }
+        final byte[][] blobs = new byte[levelCount][];
+        IntStream.range(0, levelCount).parallel().forEach(l -> blobs[l] = encodeLevel(table, slotsByLevel.get(l)));
+
+        long offset = 4 + 2 + utfLength(lotId) + 2;
+        for (int l = 0; l < levelCount; l++) {
+            offset += utfLength(table.levelIdAt(l)) + 4 + 8 + 4;
+        }
+        try (OutputStream file = Files.newOutputStream(path);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            writeString(out, lotId);
+            out.writeShort(levelCount);
+            for (int l = 0; l < levelCount; l++) {
+                writeString(out, table.levelIdAt(l));
+                out.writeInt(slotsByLevel.get(l).size());
+                out.writeLong(offset);
+                out.writeInt(blobs[l].length);
+                offset += blobs[l].length;
+            }
+            for (final byte[] blob : blobs) {
+                out.write(blob);
+            }
+        }
+    }
+
+    public static CompactSlotTable load(final Path path) throws IOException {
+        return load(path, null);
+    }
+
+    /**
+     * Loads the lot and, given the journal that ran against it, resolves the allocations
+     * that were in flight when it was written: an intent whose slot is taken in the file
+     * is committed, any other intent is rolled back so its retry allocates afresh.
+     */
+    public static CompactSlotTable load(final Path path, final IAllocationJournal journal) throws IOException {
+        final MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (file.remaining() < 6 || file.getInt() != MAGIC) {
+            throw new IOException("Not a lot file: " + path);
+        }
+        final short version = file.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported lot file version " + version);
+        }
+        final String[] levelIds;
+        final int[] firstSlot;
+        final long[] offsets;
+        final int[] lengths;
+        try {
+            readString(file);
+            final int levelCount = file.getShort() & 0xFFFF;
+            levelIds = new String[levelCount];
+            firstSlot = new int[levelCount + 1];
+            offsets = new long[levelCount];
+            lengths = new int[levelCount];
+            for (int l = 0; l < levelCount; l++) {
+                levelIds[l] = readString(file);
+                firstSlot[l + 1] = firstSlot[l] + file.getInt();
+                offsets[l] = file.getLong();
+                lengths[l] = file.getInt();
+                if (offsets[l] < 0 || lengths[l] < 0 || offsets[l] + lengths[l] > file.capacity()) {
+                    throw new IOException("Truncated lot file: " + path);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated lot file: " + path, e);
+        }
+        final int levelCount = levelIds.length;
+
+        final int size = firstSlot[levelCount];
+        final String[] slotIds = new String[size];
+        final byte[] slotTypes = new byte[size];
+        final byte[] levels = new byte[size];
+        final int[] states = new int[size];
+        final String[] vehicleIds = new String[size];
+        try {
+            IntStream.range(0, levelCount).parallel().forEach(l -> {
+                final byte[] data = new byte[lengths[l]];
+                file.get((int) offsets[l], data);
+                decodeLevel(data, l, firstSlot[l], firstSlot[l + 1], slotIds, slotTypes, levels, states, vehicleIds);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt level data in " + path, e);
+        }
+
+        final CompactSlotTable table = CompactSlotTable.wrap(slotIds, slotTypes, levels, levelIds, states,
+                vehicleIds);
+        if (journal != null) {
+            resolveIntents(table, journal);
+        }
+        return table;
+    }
+
+    private static void resolveIntents(final CompactSlotTable table, final IAllocationJournal journal) {
+        final List<Map.Entry<AllocationKey, JournalEntry>> pending = new ArrayList<>();
+        journal.forEach((key, entry) -> {
+            if (!entry.isCommitted()) {
+                pending.add(Map.entry(key, entry));
+            }
+        });
+        for (final Map.Entry<AllocationKey, JournalEntry> intent : pending) {
+            final int index = table.indexOf(intent.getValue().getSlotId());
+            if (index >= 0 && table.state(index) != SlotState.FREE) {
+                journal.commit(intent.getKey());
+            } else {
+                journal.rollback(intent.getKey());
+            }
+        }
+    }
+
+    private static byte[] encodeLevel(final CompactSlotTable table, final List<Integer> slots) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(slots.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (final int index : slots) {
+                final SlotState state = table.state(index);
+                out.writeByte(table.slotType(index).ordinal());
+                out.writeByte(state.ordinal());
+                writeString(out, table.slotId(index));
+                if (state != SlotState.FREE) {
+                    final String vehicleId = table.vehicleId(index);
+                    writeString(out, vehicleId == null ? "" : vehicleId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void decodeLevel(final byte[] data, final int level, final int from, final int to,
+            final String[] slotIds, final byte[] slotTypes, final byte[] levels, final int[] states,
+            final String[] vehicleIds) {
+        int pos = 0;
+        for (int i = from; i < to; i++) {
+            final int type = data[pos++];
+            final int state = data[pos++];
+            if (type < 0 || type >= TYPES.length || state < 0 || state >= STATES.length) {
+                throw new UncheckedIOException(new IOException("Corrupt slot record at level " + level));
+            }
+            slotTypes[i] = (byte) type;
+            states[i] = state;
+            levels[i] = (byte) level;
+            int length = ((data[pos] & 0xFF) << 8) | (data[pos + 1] & 0xFF);
+            slotIds[i] = new String(data, pos + 2, length, StandardCharsets.UTF_8);
+            pos += 2 + length;
+            if (state != SlotState.FREE.ordinal()) {
+                length = ((data[pos] & 0xFF) << 8) | (data[pos + 1] & 0xFF);
+                vehicleIds[i] = length == 0 ? null : new String(data, pos + 2, length, StandardCharsets.UTF_8);
+                pos += 2 + length;
+            }
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int utfLength(final String value) {
+        return 2 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,245 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.parkinglot.lld.models.PlateLocation;
+import com.parkinglot.lld.models.PlateMatch;
+
+/**
+ * Reverse index from plate to parked location, plus a trigram index for kiosk search.
+ *
+ * Plates are normalized to upper-case letters and digits, so "ab-12 cd" finds AB12CD.
+ * Exact lookups are one hash probe. A search intersects the postings of the query's
+ * trigrams, rarest first, for substring hits; when those run short it looks up plates
+ * holding an intact piece of the query and keeps those within {@code maxEdits} of it.
+ *
+ * All updates for a plate run inside that plate's map entry, so a park and a leave of
+ * the same plate never interleave their trigram postings.
+ */
+public final class PlateIndex {
+
+    public static final int DEFAULT_MAX_EDITS = 1;
+    private static final int ALPHABET = 36;
+    private static final int GRAM = 3;
+
+    private final Map<String, PlateLocation> byPlate = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Set<String>> postings =
+            new AtomicReferenceArray<>(ALPHABET * ALPHABET * ALPHABET);
+
+    public void park(final String licenseNumber, final String slotId, final String levelId, final String ticketId) {
+        final String plate = normalize(licenseNumber);
+        if (plate.isEmpty()) {
+            return;
+        }
+        byPlate.compute(plate, (key, previous) -> {
+            if (previous == null) {
+                for (final int gram : trigrams(plate)) {
+                    posting(gram).add(plate);
+                }
+            }
+            return new PlateLocation(plate, slotId, levelId, ticketId);
+        });
+    }
+
+    /** Removes the plate if it is still recorded at this slot; a newer stay elsewhere is left alone. */
+    public void leave(final String licenseNumber, final String slotId) {
+        if (licenseNumber == null) {
+            return;
+        }
+        final String plate = normalize(licenseNumber);
+        byPlate.computeIfPresent(plate, (key, current) -> {
+            if (!current.getSlotId().equals(slotId)) {
+                return current;
+            }
+            for (final int gram : trigrams(plate)) {
+                final Set<String> posting = postings.get(gram);
+                if (posting != null) {
+                    posting.remove(plate);
+                }
+            }
+            return null;
+        });
+    }
+
+    public Optional<PlateLocation> find(final String licenseNumber) {
+        return Optional.ofNullable(byPlate.get(normalize(licenseNumber)));
+    }
+
+    public List<PlateMatch> search(final String query, final int limit) {
+        return search(query, limit, DEFAULT_MAX_EDITS);
+    }
+
+    /** Plates containing the query, then plates within maxEdits of it; queries under three characters match nothing. */
+    public List<PlateMatch> search(final String query, final int limit, final int maxEdits) {
+        final String q = normalize(query);
+        final int[] grams = trigrams(q);
+        if (grams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        final List<PlateMatch> matches = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        for (final String plate : substringCandidates(grams)) {
+            final PlateLocation location = byPlate.get(plate);
+            if (location != null && plate.contains(q)) {
+                seen.add(plate);
+                matches.add(new PlateMatch(location, 0));
+            }
+        }
+        if (matches.size() < limit && maxEdits > 0) {
+            for (final String plate : fuzzyCandidates(q, grams, maxEdits)) {
+                if (seen.contains(plate)) {
+                    continue;
+                }
+                final int distance = substringDistance(q, plate, maxEdits);
+                final PlateLocation location = byPlate.get(plate);
+                if (distance <= maxEdits && location != null) {
+                    matches.add(new PlateMatch(location, distance));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(PlateMatch::getDistance)
+                .thenComparing(match -> match.getLocation().getPlate()));
+        return matches.size() <= limit ? matches : new ArrayList<>(matches.subList(0, limit));
+    }
+
+    public int size() {
+        return byPlate.size();
+    }
+
+    public static String normalize(final String licenseNumber) {
+        final StringBuilder plate = new StringBuilder(licenseNumber.length());
+        for (int i = 0; i < licenseNumber.length(); i++) {
+            final char c = Character.toUpperCase(licenseNumber.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                plate.append(c);
+            }
+        }
+        return plate.toString();
+    }
+
+    /**
+     * Split into maxEdits + 1 pieces, a match within maxEdits contains one piece intact,
+     * so the candidates are the plates holding any piece. Pieces shorter than a trigram
+     * cannot be looked up; then keep plates sharing the trigrams the edits cannot all destroy.
+     */
+    private Set<String> fuzzyCandidates(final String query, final int[] grams, final int maxEdits) {
+        final Set<String> candidates = new HashSet<>();
+        final int pieces = maxEdits + 1;
+        if (query.length() >= GRAM * pieces) {
+            for (int p = 0; p < pieces; p++) {
+                final String piece = query.substring(p * query.length() / pieces, (p + 1) * query.length() / pieces);
+                candidates.addAll(substringCandidates(trigrams(piece)));
+            }
+            return candidates;
+        }
+        // every edit destroys at most three of the query's trigrams
+        final int required = Math.max(1, grams.length - GRAM * maxEdits);
+        final Map<String, Integer> shared = new HashMap<>();
+        for (final int gram : grams) {
+            final Set<String> posting = postings.get(gram);
+            if (posting != null) {
+                for (final String plate : posting) {
+                    if (shared.merge(plate, 1, Integer::sum) == required) {
+                        candidates.add(plate);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private List<String> substringCandidates(final int[] grams) {
+        Set<String> rarest = null;
+        for (final int gram : grams) {
+            final Set<String> posting = postings.get(gram);
+            if (posting == null || posting.isEmpty()) {
+                return List.of();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        final List<String> candidates = new ArrayList<>();
+        outer:
+        for (final String plate : rarest) {
+            for (final int gram : grams) {
+                if (!postings.get(gram).contains(plate)) {
+                    continue outer;
+                }
+            }
+            candidates.add(plate);
+        }
+        return candidates;
+    }
+
+    private Set<String> posting(final int gram) {
+        Set<String> posting = postings.get(gram);
+        if (posting == null) {
+            postings.compareAndSet(gram, null, ConcurrentHashMap.newKeySet());
+            posting = postings.get(gram);
+        }
+        return posting;
+    }
+
+    /** Distinct trigram codes of a normalized plate. */
+    private static int[] trigrams(final String plate) {
+        if (plate.length() < GRAM) {
+            return new int[0];
+        }
+        final int[] grams = new int[plate.length() - GRAM + 1];
+        int count = 0;
+        for (int i = 0; i < grams.length; i++) {
+            final int gram = (code(plate.charAt(i)) * ALPHABET + code(plate.charAt(i + 1))) * ALPHABET
+                    + code(plate.charAt(i + 2));
+            boolean duplicate = false;
+            for (int j = 0; j < count && !duplicate; j++) {
+                duplicate = grams[j] == gram;
+            }
+            if (!duplicate) {
+                grams[count++] = gram;
+            }
+        }
+        return count == grams.length ? grams : Arrays.copyOf(grams, count);
+    }
+
+    private static int code(final char c) {
+        return c <= '9' ? c - '0' : c - 'A' + 10;
+    }
+
+    /** Fewest edits turning the query into some substring of the plate, capped at maxEdits + 1. */
+    static int substringDistance(final String query, final String plate, final int maxEdits) {
+        int[] previous = new int[plate.length() + 1];
+        int[] current = new int[plate.length() + 1];
+        // a match may start anywhere in the plate, so the first row is free
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= plate.length(); j++) {
+                final int substitute = previous[j - 1] + (query.charAt(i - 1) == plate.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (final int distance : previous) {
+            best = Math.min(best, distance);
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+}
@@ -0,0 +1,275 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.managers.IReservationCalendar;
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.ParkingSlot;
+
+/**
+ * Per-{@link SlotType} booking calendar. Reservations hold capacity of a type for
+ * their time window instead of pinning a physical slot, so a booking for tomorrow
+ * leaves today's slots to walk-ins. Keeping the peak overlap of bookings at or below
+ * capacity only accounts for other bookings: walk-ins already parked have no end time
+ * and may still hold the slots a booking counted on. Once the slot manager reports its
+ * free counts, windows starting within the lookahead are also capped by what is free
+ * now, less what running bookings still need. Further out nothing is known about who
+ * will still be parked, so a check-in can still find no slot; it then returns no ticket,
+ * the booking keeps its capacity, and the arrival may retry until its window ends.
+ *
+ * Each type keeps a {@link BucketTimeline} over a ring of twice the booking horizon,
+ * so book, release and availability queries are O(log buckets) and independent of
+ * the number of reservations. Buckets are never cleared as time passes: a window must
+ * be released within (ring - horizon) of its end, or it aliases into buckets that are
+ * bookable again. {@link ReservationManager#expireReservations()} does that and has to
+ * run periodically; the application schedules it every minute.
+ */
+public class ReservationCalendar implements IReservationCalendar {
+
+    public static final Duration DEFAULT_BUCKET = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_HORIZON = Duration.ofDays(30);
+    public static final Duration DEFAULT_LOOKAHEAD = Duration.ofMinutes(30);
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private final long bucketMillis;
+    private final long horizonBuckets;
+    private final long lookaheadMillis;
+    private final LongSupplier clock;
+    private final AtomicIntegerArray capacity = new AtomicIntegerArray(SLOT_TYPES.length);
+    private final BucketTimeline[] timelines = new BucketTimeline[SLOT_TYPES.length];
+    private final StampedLock[] locks = new StampedLock[SLOT_TYPES.length];
+    private volatile ToIntFunction<SlotType> freeSlots;
+
+    public ReservationCalendar(final ParkingLot parkingLot) {
+        this(parkingLot, DEFAULT_BUCKET, DEFAULT_HORIZON, DEFAULT_LOOKAHEAD, System::currentTimeMillis);
+    }
+
+    public ReservationCalendar(final ParkingLot parkingLot, final Duration bucket, final Duration horizon,
+            final Duration lookahead, final LongSupplier clock) {
+        this.bucketMillis = bucket.toMillis();
+        this.horizonBuckets = horizon.toMillis() / bucketMillis;
+        this.lookaheadMillis = lookahead.toMillis();
+        this.clock = clock;
+        // at least 2x the horizon, so a window released up to one horizon after it ended never
+        // overlaps a bookable bucket
+        final int ringSize = Integer.highestOneBit((int) Math.max(2, horizonBuckets * 2 - 1)) << 1;
+        for (final SlotType slotType : SLOT_TYPES) {
+            timelines[slotType.ordinal()] = new BucketTimeline(ringSize);
+            locks[slotType.ordinal()] = new StampedLock();
+        }
+        for (final ParkingLevel level : parkingLot.getLevels()) {
+            for (final ParkingSlot slot : level.getParkingSlots()) {
+                if (slot.getState().get() != SlotState.OUT_OF_SERVICE) {
+                    capacity.incrementAndGet(slot.getSlotType().ordinal());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean book(final SlotType slotType, final long startTime, final long endTime) {
+        if (!isBookable(startTime, endTime)) {
+            return false;
+        }
+        final long from = bucketOf(startTime);
+        final long to = bucketEnd(endTime);
+        final int t = slotType.ordinal();
+        final StampedLock lock = locks[t];
+        final long stamp = lock.writeLock();
+        try {
+            if (peak(timelines[t], from, to) + 1 > capacity.get(t)
+                    || nearTermBooked(slotType, to) + 1 > freeNow(slotType, from)) {
+                return false;
+            }
+            apply(timelines[t], from, to, 1);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isBookable(final long startTime, final long endTime) {
+        final long from = bucketOf(startTime);
+        final long to = bucketEnd(endTime);
+        final long now = bucketOf(clock.getAsLong());
+        return to > from && from >= now && to <= now + horizonBuckets;
+    }
+
+    @Override
+    public void release(final SlotType slotType, final long startTime, final long endTime) {
+        final long from = bucketOf(startTime);
+        final long to = bucketEnd(endTime);
+        if (to <= from) {
+            return;
+        }
+        final int t = slotType.ordinal();
+        final StampedLock lock = locks[t];
+        final long stamp = lock.writeLock();
+        try {
+            apply(timelines[t], from, to, -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void releaseAll(final SlotType slotType, final long[] startTimes, final long[] endTimes,
+            final int count) {
+        // event blocks share a handful of windows: pack (from, length) relative to the earliest bucket,
+        // sort, and apply each distinct window once with its multiplicity
+        long base = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            base = Math.min(base, bucketOf(startTimes[i]));
+        }
+        final long[] windows = new long[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            final long from = bucketOf(startTimes[i]);
+            final long length = bucketEnd(endTimes[i]) - from;
+            if (length <= 0) {
+                continue;
+            }
+            if (from - base > Integer.MAX_VALUE || length > Integer.MAX_VALUE) {
+                // not packable; cannot happen for windows the horizon let through
+                release(slotType, startTimes[i], endTimes[i]);
+                continue;
+            }
+            windows[n++] = (from - base) << 32 | length;
+        }
+        if (n == 0) {
+            return;
+        }
+        Arrays.sort(windows, 0, n);
+        final int t = slotType.ordinal();
+        final StampedLock lock = locks[t];
+        final long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < n;) {
+                int j = i + 1;
+                while (j < n && windows[j] == windows[i]) {
+                    j++;
+                }
+                final long from = base + (windows[i] >>> 32);
+                apply(timelines[t], from, from + (windows[i] & 0xFFFFFFFFL), i - j);
+                i = j;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int bookedBetween(final SlotType slotType, final long startTime, final long endTime) {
+        final long now = bucketOf(clock.getAsLong());
+        final long from = Math.max(bucketOf(startTime), now - horizonBuckets);
+        final long to = Math.min(bucketEnd(endTime), now + horizonBuckets);
+        if (to <= from) {
+            return 0;
+        }
+        final int t = slotType.ordinal();
+        final StampedLock lock = locks[t];
+        long stamp = lock.tryOptimisticRead();
+        int booked = peak(timelines[t], from, to);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                booked = peak(timelines[t], from, to);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return booked;
+    }
+
+    @Override
+    public int availableBetween(final SlotType slotType, final long startTime, final long endTime) {
+        int available = capacity.get(slotType.ordinal()) - bookedBetween(slotType, startTime, endTime);
+        final long from = bucketOf(startTime);
+        final int free = freeNow(slotType, from);
+        if (free != Integer.MAX_VALUE) {
+            final long now = clock.getAsLong();
+            available = Math.min(available, free - bookedBetween(slotType, now, Math.max(endTime, now + 1)));
+        }
+        return Math.max(0, available);
+    }
+
+    @Override
+    public void trackFreeSlots(final ToIntFunction<SlotType> freeSlots) {
+        this.freeSlots = freeSlots;
+    }
+
+    @Override
+    public int heldBack(final SlotType slotType) {
+        final long now = clock.getAsLong();
+        return bookedBetween(slotType, now, now + lookaheadMillis);
+    }
+
+    @Override
+    public void adjustCapacity(final SlotType slotType, final int delta) {
+        final int t = slotType.ordinal();
+        final StampedLock lock = locks[t];
+        final long stamp = lock.writeLock();
+        try {
+            capacity.addAndGet(t, delta);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Slots free right now for windows starting within the lookahead, else unbounded. */
+    private int freeNow(final SlotType slotType, final long fromBucket) {
+        final ToIntFunction<SlotType> free = freeSlots;
+        if (free == null || fromBucket >= bucketEnd(clock.getAsLong() + lookaheadMillis)) {
+            return Integer.MAX_VALUE;
+        }
+        return free.applyAsInt(slotType);
+    }
+
+    /** Peak bookings from now to the window's end; called under the type's write lock. */
+    private int nearTermBooked(final SlotType slotType, final long toBucket) {
+        if (freeSlots == null) {
+            return 0;
+        }
+        final long now = bucketOf(clock.getAsLong());
+        return peak(timelines[slotType.ordinal()], now, toBucket);
+    }
+
+    private long bucketOf(final long time) {
+        return Math.floorDiv(time, bucketMillis);
+    }
+
+    private long bucketEnd(final long time) {
+        return Math.floorDiv(time + bucketMillis - 1, bucketMillis);
+    }
+
+    private static int peak(final BucketTimeline timeline, final long from, final long to) {
+        final int size = timeline.size();
+        final int start = (int) Math.floorMod(from, (long) size);
+        final int end = start + (int) (to - from);
+        if (end <= size) {
+            return timeline.max(start, end);
+        }
+        return Math.max(timeline.max(start, size), timeline.max(0, end - size));
+    }
+
+    private static void apply(final BucketTimeline timeline, final long from, final long to, final int delta) {
+        final int size = timeline.size();
+        final int start = (int) Math.floorMod(from, (long) size);
+        final int end = start + (int) (to - from);
+        if (end <= size) {
+            timeline.add(start, end, delta);
+            return;
+        }
+        timeline.add(start, size, delta);
+        timeline.add(0, end - size, delta);
+    }
+}
@@ -1,49 +1,369 @@
 package com.parkinglot.lld.managers.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
+import com.idgen.IdGenerator;
+import com.idgen.impl.SnowflakeIdGenerator;
+
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.IReservationCalendar;
 import com.parkinglot.lld.managers.IReservationManager;
 import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.Reservation;
 import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
 
+/**
+ * Reservations are partitioned into shards by (start hour, slot type). Each shard has its own lock, so
+ * bookings for different hours or slot types never contend, and bulk operations (event cancellation,
+ * no-show sweeps, expiry) fan out across shards in parallel, returning each shard's booked windows to
+ * the calendar in a single batch. Per-vehicle and per-event indexes make those lookups O(1).
+ */
 public class ReservationManager implements IReservationManager {
 
     private static final int RESERVATION_DURATION = 15 * 60 * 1000; // 15 minutes in milliseconds
+    private static final long SHARD_MILLIS = 60 * 60 * 1000; // one shard per slot type per hour
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
     private final ISlotManager slotManager;
+    private final IReservationCalendar calendar;
+    private final LongSupplier clock;
+    private final IdGenerator idGenerator;
     private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final IdempotencyIndex<String> reservationKeys = new IdempotencyIndex<>(
+            IdempotencyIndex.DEFAULT_RETRY_WINDOW);
+    // ordered by start hour first, so sweeps only visit the head of the map
+    private final ConcurrentNavigableMap<Long, Shard> shards = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> byVehicle = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byEvent = new ConcurrentHashMap<>();
 
+    public ReservationManager(final ISlotManager slotManager, final IReservationCalendar calendar) {
+        this(slotManager, calendar, System::currentTimeMillis);
+    }
 
-    public ReservationManager(final ISlotManager slotManager) {
+    public ReservationManager(final ISlotManager slotManager, final IReservationCalendar calendar,
+            final LongSupplier clock) {
+        this(slotManager, calendar, clock, SnowflakeIdGenerator.shared());
+    }
+
+    public ReservationManager(final ISlotManager slotManager, final IReservationCalendar calendar,
+            final LongSupplier clock, final IdGenerator idGenerator) {
         this.slotManager = slotManager;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.idGenerator = idGenerator;
     }
 
     @Override
     public Reservation reserve(final Vehicle vehicle, final int startTime) {
-        final Optional<Ticket> slot = slotManager.reserve(vehicle, startTime);
-        if (slot.isEmpty()) {
-            throw new RuntimeException("No available parking slot");
-        }
-
-        final Reservation reservation = Reservation.builder()
-                .reservationId(UUID.randomUUID().toString())
-                .vehicleLicenseNumber(vehicle.getLicenseNumber())
-                .startTime(startTime - RESERVATION_DURATION)
-                .endTime(startTime + RESERVATION_DURATION)
-                .parkingSlotId(slot.get().getSlotId())
-                .build();
-        reservations.put(reservation.getReservationId(), reservation);
+        final long from = Math.max(clock.getAsLong(), (long) startTime - RESERVATION_DURATION);
+        return reserve(vehicle, from, (long) startTime + RESERVATION_DURATION);
+    }
+
+    @Override
+    public Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime) {
+        return book(vehicle, startTime, endTime, null);
+    }
+
+    private Reservation book(final Vehicle vehicle, final long startTime, final long endTime,
+            final String eventId) {
+        if (!calendar.isBookable(startTime, endTime)) {
+            throw new IllegalArgumentException("Window must not start in the past or end beyond the booking horizon");
+        }
+        for (final SlotType slotType : SLOT_TYPES) {
+            if (!vehicle.getVehicleType().compatibleSlotTypes().contains(slotType)
+                    || !calendar.book(slotType, startTime, endTime)) {
+                continue;
+            }
+            final Reservation reservation = Reservation.builder()
+                    .reservationId(idGenerator.nextIdString())
+                    .vehicleLicenseNumber(vehicle.getLicenseNumber())
+                    .slotType(slotType)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .eventId(eventId)
+                    .build();
+            track(reservation);
+            return reservation;
+        }
+        throw new RuntimeException("No available parking slot");
+    }
+
+    @Override
+    public Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime,
+            final AllocationKey key) {
+        return reserve(vehicle, startTime, endTime, key, null);
+    }
+
+    @Override
+    public Reservation reserve(final Vehicle vehicle, final long startTime, final long endTime,
+            final AllocationKey key, final String eventId) {
+        if (key == null) {
+            return book(vehicle, startTime, endTime, eventId);
+        }
+        final String existing = reservationKeys.get(key);
+        if (existing != null) {
+            return replay(existing);
+        }
+        final Reservation reservation = book(vehicle, startTime, endTime, eventId);
+        final String winner = reservationKeys.putIfAbsent(key, reservation.getReservationId());
+        if (winner != null) {
+            // lost a race with a concurrent retry of the same key
+            cancelReservation(reservation);
+            return replay(winner);
+        }
+        return reservation;
+    }
+
+    private Reservation replay(final String reservationId) {
+        final Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new IllegalStateException("Reservation for this key was cancelled or has expired");
+        }
         return reservation;
     }
 
+    @Override
+    public Optional<Ticket> checkIn(final Vehicle vehicle, final String reservationId) {
+        final Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation not found");
+        }
+        if (!reservation.getVehicleLicenseNumber().equals(vehicle.getLicenseNumber())) {
+            throw new IllegalArgumentException("Reservation belongs to another vehicle");
+        }
+        if (reservation.isCheckedIn()) {
+            // retried check-in: the allocation key is (license, reservationId), so this replays
+            return slotManager.allocateReserved(vehicle, reservationId, reservation.getSlotType());
+        }
+        final long now = clock.getAsLong();
+        if (now < reservation.getStartTime() || now >= reservation.getEndTime()) {
+            throw new IllegalStateException("Reservation is not active");
+        }
+
+        final Optional<Ticket> ticket = slotManager.allocateReserved(vehicle, reservationId, reservation.getSlotType());
+        ticket.ifPresent(t -> {
+            final Reservation checkedIn = reservation.toBuilder().parkingSlotId(t.getSlotId()).build();
+            if (reservations.replace(reservationId, reservation, checkedIn)) {
+                // the vehicle now holds a physical slot, the booked capacity is no longer needed
+                calendar.release(reservation.getSlotType(), reservation.getStartTime(), reservation.getEndTime());
+            }
+        });
+        return ticket;
+    }
+
     @Override
     public void cancelReservation(final Reservation reservation) {
-        reservations.remove(reservation.getReservationId());
-        slotManager.release(reservation.getParkingSlotId());
+        final Reservation current = reservations.get(reservation.getReservationId());
+        if (current == null) {
+            return;
+        }
+        final Shard shard = shards.get(shardKey(current));
+        if (shard != null) {
+            evict(shard, List.of(current), r -> true);
+        }
+    }
+
+    @Override
+    public void expireReservations() {
+        final long now = clock.getAsLong();
+        sweep(now, r -> r.getEndTime() <= now);
+    }
+
+    @Override
+    public int cancelEvent(final String eventId) {
+        // detached up front so the evictions below do not contend on the event's index entry
+        final Set<String> ids = byEvent.remove(eventId);
+        if (ids == null) {
+            return 0;
+        }
+        final Map<Shard, List<Reservation>> byShard = new HashMap<>();
+        for (final String id : ids) {
+            final Reservation current = reservations.get(id);
+            final Shard shard = current == null ? null : shards.get(shardKey(current));
+            if (shard != null) {
+                byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(current);
+            }
+        }
+        return byShard.entrySet().parallelStream()
+                .mapToInt(e -> evict(e.getKey(), e.getValue(), r -> true))
+                .sum();
+    }
+
+    @Override
+    public int sweepNoShows(final long startedBefore) {
+        return sweep(startedBefore, r -> !r.isCheckedIn() && r.getStartTime() < startedBefore);
+    }
+
+    @Override
+    public List<Reservation> reservationsOf(final String licenseNumber) {
+        final Set<String> ids = byVehicle.get(licenseNumber);
+        if (ids == null) {
+            return List.of();
+        }
+        final List<Reservation> result = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            final Reservation reservation = reservations.get(id);
+            if (reservation != null) {
+                result.add(reservation);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int availableSlots(final VehicleType vehicleType, final long startTime, final long endTime) {
+        int available = 0;
+        for (final SlotType slotType : vehicleType.compatibleSlotTypes()) {
+            available += calendar.availableBetween(slotType, startTime, endTime);
+        }
+        return available;
+    }
+
+    public Optional<Reservation> getReservation(final String reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId));
+    }
+
+    private void track(final Reservation reservation) {
+        final String id = reservation.getReservationId();
+        final long key = shardKey(reservation);
+        while (true) {
+            final Shard shard = shards.computeIfAbsent(key, k -> new Shard(k, reservation.getSlotType()));
+            shard.lock.lock();
+            try {
+                if (!shard.retired) {
+                    shard.ids.add(id);
+                    break;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        // indexed before it becomes visible, so a racing cancel always finds the entries to remove
+        index(byVehicle, reservation.getVehicleLicenseNumber(), id);
+        if (reservation.getEventId() != null) {
+            index(byEvent, reservation.getEventId(), id);
+        }
+        reservations.put(id, reservation);
+    }
+
+    /** Visits, in parallel, every shard whose hour starts at or before the cutoff. */
+    private int sweep(final long cutoff, final Predicate<Reservation> evictable) {
+        final long bound = (Math.floorDiv(cutoff, SHARD_MILLIS) + 1) * SLOT_TYPES.length;
+        final Collection<Shard> due = shards.headMap(bound).values();
+        return due.parallelStream().mapToInt(shard -> {
+            final List<Reservation> doomed = new ArrayList<>();
+            shard.lock.lock();
+            try {
+                for (final String id : shard.ids) {
+                    final Reservation current = reservations.get(id);
+                    if (current != null && evictable.test(current)) {
+                        doomed.add(current);
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+            return evict(shard, doomed, evictable);
+        }).sum();
+    }
+
+    /**
+     * Removes already-matched candidates from one shard and hands their windows back to the calendar in one
+     * batch. Checked-in reservations already returned their window at check-in.
+     */
+    private int evict(final Shard shard, final List<Reservation> candidates,
+            final Predicate<Reservation> evictable) {
+        long[] starts = new long[Math.min(candidates.size(), 64)];
+        long[] ends = new long[starts.length];
+        int released = 0;
+        int evicted = 0;
+        shard.lock.lock();
+        try {
+            for (final Reservation candidate : candidates) {
+                final String id = candidate.getReservationId();
+                Reservation current = candidate;
+                if (!reservations.remove(id, current)) {
+                    // changed since it was matched, usually by a check-in
+                    current = reservations.get(id);
+                    if (current == null || !evictable.test(current) || !reservations.remove(id, current)) {
+                        continue;
+                    }
+                }
+                evicted++;
+                shard.ids.remove(id);
+                unindex(byVehicle, current.getVehicleLicenseNumber(), id);
+                if (current.getEventId() != null) {
+                    // finds nothing to lock once cancelEvent has detached the entry
+                    unindex(byEvent, current.getEventId(), id);
+                }
+                if (!current.isCheckedIn()) {
+                    if (released == starts.length) {
+                        starts = Arrays.copyOf(starts, released * 2);
+                        ends = Arrays.copyOf(ends, released * 2);
+                    }
+                    starts[released] = current.getStartTime();
+                    ends[released++] = current.getEndTime();
+                }
+            }
+            if (shard.ids.isEmpty()) {
+                shard.retired = true;
+                shards.remove(shard.key, shard);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        calendar.releaseAll(shard.slotType, starts, ends, released);
+        return evicted;
+    }
+
+    private static long shardKey(final Reservation reservation) {
+        return Math.floorDiv(reservation.getStartTime(), SHARD_MILLIS) * SLOT_TYPES.length
+                + reservation.getSlotType().ordinal();
+    }
+
+    private static void index(final Map<String, Set<String>> index, final String key, final String id) {
+        index.compute(key, (k, ids) -> {
+            final Set<String> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            set.add(id);
+            return set;
+        });
+    }
+
+    private static void unindex(final Map<String, Set<String>> index, final String key, final String id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static final class Shard {
+        private final long key;
+        private final SlotType slotType;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Set<String> ids = new HashSet<>();
+        // set once the shard is emptied and unmapped; bookings then create a fresh shard
+        private boolean retired;
+
+        private Shard(final long key, final SlotType slotType) {
+            this.key = key;
+            this.slotType = slotType;
+        }
     }
 
 }
@@ -1,91 +1,196 @@
 package com.parkinglot.lld.managers.impl;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import com.parkinglot.lld.enums.AdmissionPriority;
+import com.parkinglot.lld.enums.AllocationCounter;
+import com.parkinglot.lld.enums.AllocationPhase;
 import com.parkinglot.lld.enums.SlotState;
 import com.parkinglot.lld.enums.SlotType;
 import com.parkinglot.lld.enums.VehicleType;
 import com.parkinglot.lld.managers.IAllocationJournal;
-import com.parkinglot.lld.managers.ISlotManager;
+import com.parkinglot.lld.managers.IReservationCalendar;
+import com.parkinglot.lld.managers.ITopologyManager;
+import com.parkinglot.lld.managers.IWaitingSlotManager;
+import com.parkinglot.lld.metrics.AllocationMetrics;
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.JournalEntry;
 import com.parkinglot.lld.models.ParkingLevel;
 import com.parkinglot.lld.models.ParkingLot;
 import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.SlotTopology;
 import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.observers.ISlotStateListener;
+import com.parkinglot.lld.observers.impl.CompositeSlotStateListener;
 import com.parkinglot.lld.stratergies.IAllocationStratergy;
 
-public class SlotManager implements ISlotManager {
-    private Map<String, ParkingSlot> parkingSlots = new ConcurrentHashMap<>();
+public class SlotManager implements IWaitingSlotManager, ITopologyManager {
+    // replaced wholesale on reconfiguration, allocation reads it without locking
+    private volatile SlotTopology topology = SlotTopology.empty();
     private Map<SlotType, Set<String>> freeSlotsByType = new ConcurrentHashMap<>();
     private IAllocationStratergy allocationStratergy;
     private IAllocationJournal journal;
     private TicketManager ticketManager;
+    private IReservationCalendar reservationCalendar;
+    private final AdmissionQueue admissionQueue = new AdmissionQueue();
+    private final CompositeSlotStateListener listeners = new CompositeSlotStateListener();
+    private final ParkingLot parkingLot;
+    // slot id -> whether the slot leaves the topology once it is out of service
+    private final Map<String, Boolean> retiring = new ConcurrentHashMap<>();
+    private final Set<String> retiringLevels = ConcurrentHashMap.newKeySet();
+    private final Object topologyLock = new Object();
+    private volatile AllocationMetrics metrics = new AllocationMetrics();
+    private volatile PlateIndex plateIndex = new PlateIndex();
 
     public SlotManager(final ParkingLot parkingLot, final IAllocationStratergy allocationStratergy,
             final IAllocationJournal journal, final TicketManager ticketManager) {
-        populateParkingSlots(parkingLot);
+        this(parkingLot, allocationStratergy, journal, ticketManager, null);
+    }
+
+    public SlotManager(final ParkingLot parkingLot, final IAllocationStratergy allocationStratergy,
+            final IAllocationJournal journal, final TicketManager ticketManager,
+            final IReservationCalendar reservationCalendar) {
+        this.parkingLot = parkingLot;
         this.allocationStratergy = allocationStratergy;
         this.journal = journal;
         this.ticketManager = ticketManager;
+        this.reservationCalendar = reservationCalendar;
+        populateParkingSlots(parkingLot);
+        if (reservationCalendar != null) {
+            // the calendar counted the initial slots itself, only follow changes from here on
+            listeners.add(new CalendarCapacity(reservationCalendar));
+            reservationCalendar.trackFreeSlots(this::freeSlotCount);
+        }
     }
 
     @Override
     public Optional<Ticket> allocate(final Vehicle vehicle, final String ctx) {
+        return allocate(vehicle, ctx, getWalkInSlotTypes(vehicle.getVehicleType()), null);
+    }
 
-        final String allocationkey = IAllocationJournal.JOURNAL_KEY_FORMAT.formatted(vehicle.getLicenseNumber(), ctx);
+    @Override
+    public Optional<Ticket> allocateReserved(final Vehicle vehicle, final String ctx, final SlotType preferredType) {
+        // the booking already holds capacity, so reserved arrivals skip the walk-in holdback
+        return allocate(vehicle, ctx, Set.of(preferredType), vehicle.getVehicleType().compatibleSlotTypes());
+    }
 
-        Optional<JournalEntry> entryOpt = journal.get(allocationkey);
-        if (entryOpt.isPresent() && entryOpt.get().isCommitted()) {
-            // Allocation already happened earlier
-            return ticketManager.getByAllocationKey(allocationkey);
+    /** One timed allocation; {@code fallbackTypes}, when given, is searched if {@code slotTypes} has no free slot. */
+    private Optional<Ticket> allocate(final Vehicle vehicle, final String ctx, final Set<SlotType> slotTypes,
+            final Set<SlotType> fallbackTypes) {
+        final AllocationMetrics metrics = this.metrics;
+        final long start = System.nanoTime();
+        try {
+            return allocate(vehicle, ctx, slotTypes, fallbackTypes, metrics, start);
+        } finally {
+            metrics.lap(AllocationPhase.ALLOCATE, start);
         }
+    }
 
-        final Set<ParkingSlot> availableSlotIds = getSlotByVehicleType(vehicle.getVehicleType());
+    private Optional<Ticket> allocate(final Vehicle vehicle, final String ctx, final Set<SlotType> slotTypes,
+            final Set<SlotType> fallbackTypes, final AllocationMetrics metrics, long t) {
 
-        final Optional<String> slotId = allocationStratergy.findSlot(availableSlotIds);
+        final AllocationKey allocationkey = AllocationKey.of(vehicle.getLicenseNumber(), ctx);
+        // the journal is touched up to three times; they are summed into a single sample
+        long journalNanos = 0;
+        try {
+            Optional<JournalEntry> entryOpt = journal.get(allocationkey);
+            long now = System.nanoTime();
+            journalNanos += now - t;
+            t = now;
+            if (entryOpt.isPresent() && entryOpt.get().isCommitted()) {
+                // Allocation already happened earlier
+                metrics.increment(AllocationCounter.IDEMPOTENT_HIT);
+                return ticketManager.getByAllocationKey(allocationkey);
+            }
 
-        if (slotId.isEmpty()) {
-            return Optional.empty();
-        }
+            final SlotTopology topology = this.topology;
+            Set<ParkingSlot> availableSlotIds = getAvailableSlots(topology, slotTypes);
+            if (availableSlotIds.isEmpty() && fallbackTypes != null) {
+                availableSlotIds = getAvailableSlots(topology, fallbackTypes);
+            }
+            t = metrics.lap(AllocationPhase.FIND_CANDIDATES, t);
 
-        journal.recordIntent(allocationkey, slotId.get());
+            final Optional<String> slotId = allocationStratergy.findSlot(availableSlotIds);
+            t = metrics.lap(AllocationPhase.STRATEGY, t);
 
-        final ParkingSlot slot = parkingSlots.get(slotId.get());
-        if (slot.occupy(vehicle.getLicenseNumber())) {
-            freeSlotsByType.get(slot.getSlotType()).remove(slotId.get());
-            journal.commit(allocationkey);
-            final Ticket ticket = ticketManager.createTicket(vehicle, slot, allocationkey);
-            return Optional.of(ticket);
+            if (slotId.isEmpty()) {
+                metrics.increment(AllocationCounter.EXHAUSTED);
+                return Optional.empty();
+            }
+
+            journal.recordIntent(allocationkey, slotId.get());
+            now = System.nanoTime();
+            journalNanos += now - t;
+            t = now;
+
+            final ParkingSlot slot = topology.slot(slotId.get());
+            final boolean occupied = slot.occupy(vehicle.getLicenseNumber());
+            t = metrics.lap(AllocationPhase.OCCUPY, t);
+            if (occupied) {
+                freeSlotsByType.get(slot.getSlotType()).remove(slotId.get());
+                journal.commit(allocationkey);
+                now = System.nanoTime();
+                journalNanos += now - t;
+                t = now;
+                final Ticket ticket = ticketManager.createTicket(vehicle, slot, allocationkey);
+                parked(vehicle, slot, ticket);
+                metrics.lap(AllocationPhase.TICKET, t);
+                return Optional.of(ticket);
+            }
+            metrics.increment(AllocationCounter.CAS_CONFLICT);
+            journal.rollback(allocationkey);
+            journalNanos += System.nanoTime() - t;
+            return Optional.empty();
+        } finally {
+            metrics.record(AllocationPhase.JOURNAL, journalNanos);
         }
-        journal.rollback(allocationkey);
-        return Optional.empty();
     }
 
     @Override
     public Optional<Ticket> reserve(final Vehicle vehicle, final int startTime) {
-        final String reservationKey = IAllocationJournal.JOURNAL_KEY_FORMAT.formatted(vehicle.getLicenseNumber(),
+        final AllocationMetrics metrics = this.metrics;
+        final long start = System.nanoTime();
+        try {
+            return reserve(vehicle, startTime, metrics);
+        } finally {
+            metrics.lap(AllocationPhase.RESERVE, start);
+        }
+    }
+
+    private Optional<Ticket> reserve(final Vehicle vehicle, final int startTime, final AllocationMetrics metrics) {
+        final AllocationKey reservationKey = AllocationKey.of(vehicle.getLicenseNumber(),
                 startTime);
 
         Optional<JournalEntry> entryOpt = journal.get(reservationKey);
         if (entryOpt.isPresent() && entryOpt.get().isCommitted()) {
+            metrics.increment(AllocationCounter.IDEMPOTENT_HIT);
             return ticketManager.getByAllocationKey(reservationKey);
         }
 
-        final Set<ParkingSlot> candidates = getSlotByVehicleType(vehicle.getVehicleType());
+        final SlotTopology topology = this.topology;
+        final Set<ParkingSlot> candidates = getAvailableSlots(topology,
+                vehicle.getVehicleType().compatibleSlotTypes());
 
         final Optional<String> slotIdOpt = allocationStratergy.findSlot(candidates);
         if (slotIdOpt.isEmpty()) {
+            metrics.increment(AllocationCounter.EXHAUSTED);
             return Optional.empty();
         }
 
         final String slotId = slotIdOpt.get();
 
-        final ParkingSlot slot = parkingSlots.get(slotId);
+        final ParkingSlot slot = topology.slot(slotId);
 
         journal.recordIntent(reservationKey, slotId);
 
@@ -96,48 +201,442 @@ public class SlotManager implements ISlotManager {
             return Optional.of(ticket);
         }
 
+        metrics.increment(AllocationCounter.CAS_CONFLICT);
         journal.rollback(reservationKey);
         return Optional.empty();
 
     }
 
+    @Override
+    public CompletableFuture<Ticket> allocateOrWait(final Vehicle vehicle, final String ctx,
+            final AdmissionPriority priority, final Duration timeout) {
+        final Optional<Ticket> ticket = allocate(vehicle, ctx, admissibleSlotTypes(vehicle, priority), null);
+        if (ticket.isPresent()) {
+            return CompletableFuture.completedFuture(ticket.get());
+        }
+        final AdmissionQueue.Waiter waiter = admissionQueue.enqueue(vehicle, ctx,
+                AllocationKey.of(vehicle.getLicenseNumber(), ctx), priority, timeout);
+        // a slot may have been freed between the attempt above and the enqueue
+        drainAdmissions();
+        return waiter.getFuture();
+    }
+
     @Override
     public void release(String slotId) {
-        final Optional<ParkingSlot> slotOpt = Optional.ofNullable(parkingSlots.get(slotId));
+        final AllocationMetrics metrics = this.metrics;
+        final long start = System.nanoTime();
+        try {
+            releaseSlot(slotId);
+        } finally {
+            metrics.lap(AllocationPhase.RELEASE, start);
+        }
+    }
+
+    private void releaseSlot(final String slotId) {
+        final Optional<ParkingSlot> slotOpt = Optional.ofNullable(topology.slot(slotId));
         if (slotOpt.isEmpty()) {
             return;
         }
         final ParkingSlot slot = slotOpt.get();
+        // free() clears the vehicle, and once it returns the slot may already hold the next one
+        final String vehicleId = slot.getVehicleId();
         slot.free();
-        freeSlotsByType.computeIfAbsent(parkingSlots.get(slotId).getSlotType(), k -> ConcurrentHashMap.newKeySet()).add(slotId);
+        plateIndex.leave(vehicleId, slotId);
+        if (!retiring.isEmpty() && retire(slot)) {
+            return;
+        }
+        returnToPool(slot);
+    }
+
+    private void returnToPool(final ParkingSlot slot) {
+        if (admissionQueue.hasWaiters()) {
+            admissionQueue.offerReleased(slot);
+            drainAdmissions();
+            return;
+        }
+        addFreeSlot(slot);
+        // a waiter may have queued after the check above and missed this slot
+        if (admissionQueue.hasWaiters()) {
+            drainAdmissions();
+        }
     }
 
-    private Set<ParkingSlot> getSlotByVehicleType(final VehicleType vehicleType) {
-        final Set<SlotType> compatibleSlotTypes = vehicleType.compatibleSlotTypes();
-        return getAvailableSlots(compatibleSlotTypes);
+    private void addFreeSlot(final ParkingSlot slot) {
+        final Set<String> free = freeSlotsByType.computeIfAbsent(slot.getSlotType(), k -> ConcurrentHashMap.newKeySet());
+        free.add(slot.getSlotId());
+        if (slot.getState().get() == SlotState.OUT_OF_SERVICE) {
+            // taken out of service while we were adding it
+            free.remove(slot.getSlotId());
+            if (slot.getState().get() == SlotState.FREE) {
+                free.add(slot.getSlotId());
+            }
+        }
     }
 
-    private void populateParkingSlots(final ParkingLot parkingLot) {
-        for (final ParkingLevel level : parkingLot.getLevels()) {
-            for (final ParkingSlot slot : level.getParkingSlots()) {
-                parkingSlots.put(slot.getSlotId(), slot);
-                if (slot.getState().get().compareTo(SlotState.FREE) == 0) {
-                    freeSlotsByType.computeIfAbsent(slot.getSlotType(), k -> ConcurrentHashMap.newKeySet()).add(slot.getSlotId());
+    private void drainAdmissions() {
+        if (!admissionQueue.enterDrain()) {
+            return;
+        }
+        int missed = 1;
+        do {
+            ParkingSlot released;
+            while ((released = admissionQueue.pollReleased()) != null) {
+                if (!handOff(released)) {
+                    addFreeSlot(released);
                 }
             }
+            if (admissionQueue.hasWaiters()) {
+                serveWaitersFromFreeSlots();
+            }
+            missed = admissionQueue.leaveDrain(missed);
+        } while (missed != 0);
+    }
+
+    /** Gives a just-released slot to the highest priority compatible waiter, bypassing the free index. */
+    private boolean handOff(final ParkingSlot slot) {
+        for (final AdmissionPriority priority : AdmissionPriority.values()) {
+            for (final AdmissionQueue.Waiter waiter : admissionQueue.waiters(priority)) {
+                if (!waiter.vehicle.getVehicleType().compatibleSlotTypes().contains(slot.getSlotType())
+                        || (priority == AdmissionPriority.WALK_IN && !walkInMayTake(slot.getSlotType(), 1))
+                        || !waiter.claim()) {
+                    continue;
+                }
+                journal.recordIntent(waiter.key, slot.getSlotId());
+                if (!slot.occupy(waiter.vehicle.getLicenseNumber())) {
+                    metrics.increment(AllocationCounter.CAS_CONFLICT);
+                    journal.rollback(waiter.key);
+                    waiter.unclaim();
+                    return false;
+                }
+                journal.commit(waiter.key);
+                final Ticket ticket = ticketManager.createTicket(waiter.vehicle, slot, waiter.key);
+                parked(waiter.vehicle, slot, ticket);
+                complete(waiter, ticket);
+                return true;
+            }
         }
+        return false;
+    }
+
+    private void serveWaitersFromFreeSlots() {
+        for (final AdmissionPriority priority : AdmissionPriority.values()) {
+            for (final AdmissionQueue.Waiter waiter : admissionQueue.waiters(priority)) {
+                final Set<SlotType> slotTypes = admissibleSlotTypes(waiter.vehicle, priority);
+                if (slotTypes.stream().allMatch(slotType -> freeSlotCount(slotType) == 0) || !waiter.claim()) {
+                    continue;
+                }
+                final Optional<Ticket> ticket = allocate(waiter.vehicle, waiter.ctx, slotTypes, null);
+                if (ticket.isPresent()) {
+                    complete(waiter, ticket.get());
+                } else {
+                    waiter.unclaim();
+                }
+            }
+        }
+    }
+
+    private void complete(final AdmissionQueue.Waiter waiter, final Ticket ticket) {
+        if (!waiter.complete(ticket)) {
+            // the caller gave up on the future: undo the allocation entirely, not just the occupancy, so
+            // a retry under the same key allocates afresh instead of replaying a ticket nobody holds
+            journal.rollback(waiter.key);
+            ticketManager.discardTicket(ticket.getTicketId());
+            release(ticket.getSlotId());
+        }
+    }
+
+    private Set<SlotType> admissibleSlotTypes(final Vehicle vehicle, final AdmissionPriority priority) {
+        return priority == AdmissionPriority.WALK_IN
+                ? getWalkInSlotTypes(vehicle.getVehicleType())
+                : vehicle.getVehicleType().compatibleSlotTypes();
+    }
+
+    private boolean walkInMayTake(final SlotType slotType, final int incoming) {
+        return reservationCalendar == null
+                || freeSlotCount(slotType) + incoming > reservationCalendar.heldBack(slotType);
     }
 
-    private Set<ParkingSlot> getAvailableSlots(final Set<SlotType> slotTypes) {
+    /**
+     * Registers a listener for slot transitions. Existing slots are replayed through
+     * {@link ISlotStateListener#onSlotAdded}; register before gates start allocating.
+     */
+    public void addListener(final ISlotStateListener listener) {
+        synchronized (topologyLock) {
+            listeners.add(listener);
+            topology.getSlots().values().forEach(listener::onSlotAdded);
+        }
+    }
+
+    public AllocationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Lets several managers report into one set of histograms. */
+    public void setMetrics(final AllocationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public PlateIndex getPlateIndex() {
+        return plateIndex;
+    }
+
+    public void setPlateIndex(final PlateIndex plateIndex) {
+        this.plateIndex = plateIndex;
+    }
+
+    private void parked(final Vehicle vehicle, final ParkingSlot slot, final Ticket ticket) {
+        plateIndex.park(vehicle.getLicenseNumber(), slot.getSlotId(), slot.getLevelId(), ticket.getTicketId());
+    }
+
+    @Override
+    public SlotTopology topology() {
+        return topology;
+    }
+
+    @Override
+    public void addLevel(final ParkingLevel level) {
+        synchronized (topologyLock) {
+            if (parkingLot.getLevel(level.getLevelId()).isPresent()) {
+                throw new IllegalArgumentException("Level already exists: " + level.getLevelId());
+            }
+            requireNew(level.getParkingSlots());
+            parkingLot.addParkingLevel(level);
+            addSlots(level.getParkingSlots());
+        }
+        serveWaiters();
+    }
+
+    @Override
+    public void addSlot(final String levelId, final ParkingSlot slot) {
+        synchronized (topologyLock) {
+            final ParkingLevel level = parkingLot.getLevel(levelId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown level: " + levelId));
+            requireNew(List.of(slot));
+            level.addParkingSlot(slot);
+            addSlots(List.of(slot));
+        }
+        serveWaiters();
+    }
+
+    @Override
+    public boolean markOutOfService(final String slotId) {
+        synchronized (topologyLock) {
+            final ParkingSlot slot = requireSlot(slotId);
+            retiring.putIfAbsent(slotId, false);
+            return retire(slot);
+        }
+    }
+
+    @Override
+    public boolean returnToService(final String slotId) {
+        final ParkingSlot slot;
+        synchronized (topologyLock) {
+            slot = requireSlot(slotId);
+            // cancels a pending drain; a slot still in use simply stays in service
+            retiring.remove(slotId);
+            if (!slot.returnToService()) {
+                return slot.getState().get() != SlotState.OUT_OF_SERVICE;
+            }
+        }
+        returnToPool(slot);
+        return true;
+    }
+
+    @Override
+    public int removeSlots(final Collection<String> slotIds) {
+        synchronized (topologyLock) {
+            final List<ParkingSlot> slots = slotIds.stream().map(this::requireSlot).toList();
+            final List<ParkingSlot> removed = new ArrayList<>();
+            for (final ParkingSlot slot : slots) {
+                retiring.put(slot.getSlotId(), true);
+                retire(slot, removed);
+            }
+            removeFromTopology(removed);
+            return removed.size();
+        }
+    }
+
+    @Override
+    public int removeLevel(final String levelId) {
+        synchronized (topologyLock) {
+            final ParkingLevel level = parkingLot.getLevel(levelId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown level: " + levelId));
+            retiringLevels.add(levelId);
+            final SlotTopology current = topology;
+            final int removed = removeSlots(level.getParkingSlots().stream()
+                    .map(ParkingSlot::getSlotId)
+                    .filter(slotId -> current.slot(slotId) != null)
+                    .toList());
+            dropEmptyLevels();
+            return removed;
+        }
+    }
+
+    private boolean retire(final ParkingSlot slot) {
+        final List<ParkingSlot> removed = new ArrayList<>(1);
+        final boolean retired = retire(slot, removed);
+        if (!removed.isEmpty()) {
+            synchronized (topologyLock) {
+                removeFromTopology(removed);
+            }
+        }
+        return retired;
+    }
+
+    /**
+     * Takes a slot that is pending retirement out of service if nobody is using it.
+     * Returns false while it is still in use; the release path retries then. Slots
+     * that should leave the topology are collected into {@code removed}.
+     */
+    private boolean retire(final ParkingSlot slot, final List<ParkingSlot> removed) {
+        final String slotId = slot.getSlotId();
+        if (!retiring.containsKey(slotId)) {
+            return false;
+        }
+        final boolean tookOut = slot.markOutOfService();
+        if (!tookOut && slot.getState().get() != SlotState.OUT_OF_SERVICE) {
+            return false;
+        }
+        final Boolean decommission = retiring.remove(slotId);
+        if (decommission == null) {
+            // returned to service meanwhile, or another thread finished the retirement
+            return !(tookOut && slot.returnToService());
+        }
+        freeSlotsByType.getOrDefault(slot.getSlotType(), Set.of()).remove(slotId);
+        if (decommission) {
+            removed.add(slot);
+        }
+        return true;
+    }
+
+    private void addSlots(final List<ParkingSlot> slots) {
+        slots.forEach(slot -> slot.setListener(listeners));
+        // publish before the slots become allocatable through the free index
+        topology = topology.with(slots, List.of());
+        for (final ParkingSlot slot : slots) {
+            listeners.onSlotAdded(slot);
+            if (slot.getState().get() == SlotState.FREE) {
+                addFreeSlot(slot);
+            }
+        }
+    }
+
+    private void removeFromTopology(final List<ParkingSlot> slots) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        topology = topology.with(List.of(), slots);
+        for (final ParkingSlot slot : slots) {
+            parkingLot.getLevel(slot.getLevelId()).ifPresent(level -> level.removeParkingSlot(slot));
+            listeners.onSlotRemoved(slot);
+            slot.setListener(ISlotStateListener.NOOP);
+        }
+        dropEmptyLevels();
+    }
+
+    private void dropEmptyLevels() {
+        for (final String levelId : retiringLevels) {
+            parkingLot.getLevel(levelId)
+                    .filter(level -> level.getParkingSlots().isEmpty())
+                    .ifPresent(level -> {
+                        parkingLot.removeParkingLevel(level);
+                        retiringLevels.remove(levelId);
+                    });
+        }
+    }
+
+    private void requireNew(final List<ParkingSlot> slots) {
+        for (final ParkingSlot slot : slots) {
+            if (topology.slot(slot.getSlotId()) != null) {
+                throw new IllegalArgumentException("Slot already exists: " + slot.getSlotId());
+            }
+        }
+    }
+
+    private ParkingSlot requireSlot(final String slotId) {
+        final ParkingSlot slot = topology.slot(slotId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Unknown slot: " + slotId);
+        }
+        return slot;
+    }
+
+    private void serveWaiters() {
+        if (admissionQueue.hasWaiters()) {
+            drainAdmissions();
+        }
+    }
+
+    @Override
+    public int capacity(final SlotType slotType) {
+        return topology.capacity(slotType);
+    }
+
+    @Override
+    public int freeSlotCount(final SlotType slotType) {
+        return freeSlotsByType.getOrDefault(slotType, Set.of()).size();
+    }
+
+    private Set<SlotType> getWalkInSlotTypes(final VehicleType vehicleType) {
+        if (reservationCalendar == null) {
+            return vehicleType.compatibleSlotTypes();
+        }
+        // keep enough free slots of each type for bookings that start within the lookahead
+        return vehicleType.compatibleSlotTypes().stream()
+                .filter(slotType -> walkInMayTake(slotType, 0))
+                .collect(Collectors.toSet());
+    }
+
+    private void populateParkingSlots(final ParkingLot parkingLot) {
+        addSlots(parkingLot.getLevels().stream()
+                .flatMap(level -> level.getParkingSlots().stream())
+                .toList());
+    }
+
+    private Set<ParkingSlot> getAvailableSlots(final SlotTopology topology, final Set<SlotType> slotTypes) {
         return slotTypes.stream()
                 .flatMap(slotType -> freeSlotsByType.getOrDefault(slotType, Set.of()).stream())
-                .map(slotId -> parkingSlots.get(slotId))
+                .map(topology::slot)
                 .filter(this::isEligible)
-                .collect(Collectors.toSet());
+                // keep the free index order so a seeded strategy picks the same slot on every run
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private boolean isEligible(final ParkingSlot slot) {
-        return slot.getState().get().compareTo(SlotState.FREE) == 0;
+        // null when the slot was decommissioned after the topology was read
+        return slot != null && slot.getState().get().compareTo(SlotState.FREE) == 0;
+    }
+
+    /** Keeps the calendar's bookable capacity in step with slots entering and leaving service. */
+    private static final class CalendarCapacity implements ISlotStateListener {
+        private final IReservationCalendar calendar;
+
+        private CalendarCapacity(final IReservationCalendar calendar) {
+            this.calendar = calendar;
+        }
+
+        @Override
+        public void onTransition(final ParkingSlot slot, final SlotState from, final SlotState to) {
+            if (to == SlotState.OUT_OF_SERVICE) {
+                calendar.adjustCapacity(slot.getSlotType(), -1);
+            } else if (from == SlotState.OUT_OF_SERVICE) {
+                calendar.adjustCapacity(slot.getSlotType(), 1);
+            }
+        }
+
+        @Override
+        public void onSlotAdded(final ParkingSlot slot) {
+            if (slot.getState().get() != SlotState.OUT_OF_SERVICE) {
+                calendar.adjustCapacity(slot.getSlotType(), 1);
+            }
+        }
+
+        @Override
+        public void onSlotRemoved(final ParkingSlot slot) {
+            if (slot.getState().get() != SlotState.OUT_OF_SERVICE) {
+                calendar.adjustCapacity(slot.getSlotType(), -1);
+            }
+        }
     }
 
 }
@@ -0,0 +1,76 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.parkinglot.lld.enums.VehicleType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Parking fees in cents, precomputed per vehicle type for every billing block of a day.
+ * A fee lookup is one division and two array reads: whole days at the daily cap plus the
+ * table entry for the rest. Stays within the grace period are free.
+ */
+public final class TariffTable {
+
+    public static final long BLOCK_MILLIS = Duration.ofMinutes(15).toMillis();
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int BLOCKS_PER_DAY = (int) (DAY_MILLIS / BLOCK_MILLIS);
+    private static final int BLOCKS_PER_HOUR = (int) (Duration.ofHours(1).toMillis() / BLOCK_MILLIS);
+
+    private final long[][] feeByBlock = new long[VehicleType.values().length][];
+    private final long[] graceMillis = new long[VehicleType.values().length];
+    private final long[] dailyCap = new long[VehicleType.values().length];
+
+    /** Rates for one vehicle type; hours are billed by the started block. */
+    @AllArgsConstructor
+    @Getter
+    public static class Rate {
+        private final Duration grace;
+        private final long firstHourCents;
+        private final long hourlyCents;
+        private final long dailyCapCents;
+    }
+
+    public TariffTable(final Map<VehicleType, Rate> rates) {
+        for (final VehicleType vehicleType : VehicleType.values()) {
+            final Rate rate = rates.get(vehicleType);
+            if (rate == null) {
+                throw new IllegalArgumentException("No rate for " + vehicleType);
+            }
+            final long[] fees = new long[BLOCKS_PER_DAY + 1];
+            for (int block = 1; block <= BLOCKS_PER_DAY; block++) {
+                final long firstHour = Math.min(block, BLOCKS_PER_HOUR) * rate.getFirstHourCents() / BLOCKS_PER_HOUR;
+                final long later = Math.max(0, block - BLOCKS_PER_HOUR) * rate.getHourlyCents() / BLOCKS_PER_HOUR;
+                fees[block] = Math.min(firstHour + later, rate.getDailyCapCents());
+            }
+            feeByBlock[vehicleType.ordinal()] = fees;
+            graceMillis[vehicleType.ordinal()] = rate.getGrace().toMillis();
+            dailyCap[vehicleType.ordinal()] = rate.getDailyCapCents();
+        }
+    }
+
+    public static TariffTable standard() {
+        final Map<VehicleType, Rate> rates = new EnumMap<>(VehicleType.class);
+        final Duration grace = Duration.ofMinutes(10);
+        rates.put(VehicleType.BIKE, new Rate(grace, 100, 50, 500));
+        rates.put(VehicleType.CAR, new Rate(grace, 300, 200, 2_000));
+        rates.put(VehicleType.EV, new Rate(grace, 300, 250, 2_500));
+        rates.put(VehicleType.TRUCK, new Rate(grace, 800, 500, 6_000));
+        return new TariffTable(rates);
+    }
+
+    public long fee(final VehicleType vehicleType, final long durationMillis) {
+        final int type = vehicleType.ordinal();
+        if (durationMillis <= graceMillis[type]) {
+            return 0;
+        }
+        final long days = durationMillis / DAY_MILLIS;
+        final long rest = durationMillis % DAY_MILLIS;
+        final int blocks = (int) ((rest + BLOCK_MILLIS - 1) / BLOCK_MILLIS);
+        return days * dailyCap[type] + feeByBlock[type][blocks];
+    }
+}
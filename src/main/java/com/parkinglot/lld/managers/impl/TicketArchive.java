@@ -0,0 +1,422 @@
+package com.parkinglot.lld.managers.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import com.parkinglot.lld.enums.TicketStatus;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.ITicketArchive;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Ticket;
+
+/**
+ * Append-only, time-partitioned archive of closed tickets. Each partition covers one
+ * {@code partition} window of archive time and is a log of length-prefixed records.
+ * The partition being written keeps an in-memory index; when the window passes it is
+ * sealed: a sidecar file gets its (ticket id, offset) and (plate, offset) pairs sorted by
+ * key, and memory keeps only every {@link #SPARSE_EVERY}th key of each. A lookup binary
+ * searches those sparse keys, then reads at most one block of the sidecar and one record.
+ *
+ * <p>
+ * Partitions left unsealed by a crash are sealed on open; a torn last record is cut off.
+ */
+public class TicketArchive implements ITicketArchive, AutoCloseable {
+
+    static final int SPARSE_EVERY = 32;
+
+    private static final String LOG = ".tickets";
+    private static final String INDEX = ".idx";
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final Path directory;
+    private final long partitionMillis;
+    private final LongSupplier clock;
+    private final TreeMap<Long, SealedPartition> sealed = new TreeMap<>();
+    private long activeStart = Long.MIN_VALUE;
+    private FileChannel activeLog;
+    private final Map<String, Long> activeById = new HashMap<>();
+    private final Map<String, List<Long>> activeByPlate = new HashMap<>();
+
+    public TicketArchive(final Path directory) throws IOException {
+        this(directory, Duration.ofDays(1), System::currentTimeMillis);
+    }
+
+    public TicketArchive(final Path directory, final Duration partition, final LongSupplier clock)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.partitionMillis = partition.toMillis();
+        this.clock = clock;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path log : files.filter(f -> f.toString().endsWith(LOG)).toList()) {
+                final long start = partitionStart(log);
+                final Path index = indexOf(start);
+                if (!Files.exists(index)) {
+                    seal(start, scan(log));
+                }
+                sealed.put(start, SealedPartition.load(log, index));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void append(final Ticket ticket) {
+        try {
+            final long start = Math.floorDiv(clock.getAsLong(), partitionMillis) * partitionMillis;
+            if (start != activeStart) {
+                roll(start);
+            }
+            final byte[] record = encode(ticket);
+            final long offset = activeLog.size();
+            activeLog.write(ByteBuffer.allocate(4 + record.length).putInt(record.length).put(record).flip(),
+                    offset);
+            activeById.put(ticket.getTicketId(), offset);
+            activeByPlate.computeIfAbsent(ticket.getVehicleId(), plate -> new ArrayList<>()).add(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<Ticket> find(final String ticketId) {
+        try {
+            final Long offset = activeById.get(ticketId);
+            if (offset != null) {
+                return Optional.of(read(activeLog, offset));
+            }
+            for (final SealedPartition partition : sealed.descendingMap().values()) {
+                final List<Long> offsets = partition.byId.lookup(ticketId, true);
+                if (!offsets.isEmpty()) {
+                    return Optional.of(read(partition.log, offsets.get(0)));
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized List<Ticket> findByPlate(final String plate) {
+        try {
+            final List<Ticket> tickets = new ArrayList<>();
+            for (final SealedPartition partition : sealed.values()) {
+                for (final long offset : partition.byPlate.lookup(plate, false)) {
+                    tickets.add(read(partition.log, offset));
+                }
+            }
+            for (final long offset : activeByPlate.getOrDefault(plate, List.of())) {
+                tickets.add(read(activeLog, offset));
+            }
+            return tickets;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized int partitionCount() {
+        return sealed.size() + (activeLog == null ? 0 : 1);
+    }
+
+    /** Seals the partition being written, making everything archived so far durable. */
+    @Override
+    public synchronized void close() throws IOException {
+        roll(Long.MIN_VALUE);
+        for (final SealedPartition partition : sealed.values()) {
+            partition.close();
+        }
+        sealed.clear();
+    }
+
+    private void roll(final long start) throws IOException {
+        if (activeLog != null) {
+            activeLog.force(true);
+            activeLog.close();
+            seal(activeStart, new Entries(activeById, activeByPlate));
+            sealed.put(activeStart, SealedPartition.load(logOf(activeStart), indexOf(activeStart)));
+            activeLog = null;
+            activeById.clear();
+            activeByPlate.clear();
+        }
+        if (start == Long.MIN_VALUE) {
+            return;
+        }
+        final SealedPartition reopened = sealed.remove(start);
+        if (reopened != null) {
+            // the clock went back into a sealed window: reopen it and append to its log
+            reopened.close();
+            final Entries entries = scan(logOf(start));
+            activeById.putAll(entries.byId);
+            entries.byPlate.forEach((plate, offsets) -> activeByPlate.put(plate, new ArrayList<>(offsets)));
+            Files.delete(indexOf(start));
+        }
+        activeStart = start;
+        activeLog = FileChannel.open(logOf(start), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /** Writes the sidecar index: both key sets sorted, as (key, offset) pairs. */
+    private void seal(final long start, final Entries entries) throws IOException {
+        final Path tmp = directory.resolve(start + INDEX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            final TreeMap<String, List<Long>> byId = new TreeMap<>();
+            entries.byId.forEach((id, offset) -> byId.put(id, List.of(offset)));
+            writeSection(out, byId);
+            writeSection(out, new TreeMap<>(entries.byPlate));
+        }
+        Files.move(tmp, indexOf(start), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeSection(final DataOutputStream out, final TreeMap<String, List<Long>> keys)
+            throws IOException {
+        int count = 0;
+        for (final List<Long> offsets : keys.values()) {
+            count += offsets.size();
+        }
+        out.writeInt(count);
+        for (final Map.Entry<String, List<Long>> entry : keys.entrySet()) {
+            for (final long offset : entry.getValue()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    /** Rebuilds a partition's entries from its log, truncating a torn trailing record. */
+    private static Entries scan(final Path log) throws IOException {
+        final Entries entries = new Entries(new HashMap<>(), new HashMap<>());
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            long offset = 0;
+            final ByteBuffer length = ByteBuffer.allocate(4);
+            while (offset + 4 <= size) {
+                length.clear();
+                channel.read(length, offset);
+                final int recordLength = length.flip().getInt();
+                if (recordLength <= 0 || offset + 4 + recordLength > size) {
+                    break;
+                }
+                final Ticket ticket = read(channel, offset);
+                entries.byId.put(ticket.getTicketId(), offset);
+                entries.byPlate.computeIfAbsent(ticket.getVehicleId(), plate -> new ArrayList<>()).add(offset);
+                offset += 4 + recordLength;
+            }
+            if (offset < size) {
+                channel.truncate(offset);
+            }
+        }
+        return entries;
+    }
+
+    private static byte[] encode(final Ticket ticket) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(ticket.getTicketId());
+            out.writeUTF(ticket.getSlotId());
+            out.writeUTF(ticket.getVehicleId());
+            out.writeBoolean(ticket.getAllocationKey() != null);
+            if (ticket.getAllocationKey() != null) {
+                out.writeLong(ticket.getAllocationKey().getHi());
+                out.writeLong(ticket.getAllocationKey().getLo());
+            }
+            out.writeByte(ticket.getStatus() == null ? -1 : ticket.getStatus().ordinal());
+            out.writeByte(ticket.getVehicleType() == null ? -1 : ticket.getVehicleType().ordinal());
+            out.writeLong(ticket.getIssuedAt());
+            out.writeLong(ticket.getPaidAt());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Ticket read(final FileChannel log, final long offset) throws IOException {
+        final ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(log, length, offset);
+        final ByteBuffer record = ByteBuffer.allocate(length.flip().getInt());
+        readFully(log, record, offset + 4);
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+        final String ticketId = in.readUTF();
+        final String slotId = in.readUTF();
+        final String vehicleId = in.readUTF();
+        final AllocationKey key = in.readBoolean() ? new AllocationKey(in.readLong(), in.readLong()) : null;
+        final byte status = in.readByte();
+        final byte vehicleType = in.readByte();
+        final long issuedAt = in.readLong();
+        // records archived before payment times were kept end here
+        final long paidAt = in.available() >= Long.BYTES ? in.readLong() : 0;
+        return new Ticket(ticketId, slotId, vehicleId, key, status < 0 ? null : STATUSES[status],
+                vehicleType < 0 ? null : VEHICLE_TYPES[vehicleType], issuedAt, paidAt);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Archive record cut short at " + position);
+            }
+        }
+    }
+
+    private Path logOf(final long start) {
+        return directory.resolve(start + LOG);
+    }
+
+    private Path indexOf(final long start) {
+        return directory.resolve(start + INDEX);
+    }
+
+    private static long partitionStart(final Path log) {
+        final String name = log.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - LOG.length()));
+    }
+
+    private static final class Entries {
+        private final Map<String, Long> byId;
+        private final Map<String, List<Long>> byPlate;
+
+        private Entries(final Map<String, Long> byId, final Map<String, List<Long>> byPlate) {
+            this.byId = byId;
+            this.byPlate = byPlate;
+        }
+    }
+
+    private static final class SealedPartition {
+        private final FileChannel log;
+        private final FileChannel index;
+        private final SparseIndex byId;
+        private final SparseIndex byPlate;
+
+        private SealedPartition(final FileChannel log, final FileChannel index, final SparseIndex byId,
+                final SparseIndex byPlate) {
+            this.log = log;
+            this.index = index;
+            this.byId = byId;
+            this.byPlate = byPlate;
+        }
+
+        private static SealedPartition load(final Path log, final Path index) throws IOException {
+            final FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+                final SparseIndex byId = SparseIndex.read(indexChannel, in, 0);
+                final SparseIndex byPlate = SparseIndex.read(indexChannel, in, byId.end);
+                return new SealedPartition(FileChannel.open(log, StandardOpenOption.READ), indexChannel, byId,
+                        byPlate);
+            } catch (IOException | RuntimeException e) {
+                indexChannel.close();
+                throw e;
+            }
+        }
+
+        private void close() throws IOException {
+            log.close();
+            index.close();
+        }
+    }
+
+    /**
+     * Every {@link #SPARSE_EVERY}th key of one sorted sidecar section, with the file
+     * position of its block. Lookups read only the blocks that can hold the key.
+     */
+    private static final class SparseIndex {
+        private final FileChannel file;
+        private final String[] keys;
+        private final long[] positions;
+        private final String lastKey;
+        private final long end;
+
+        private SparseIndex(final FileChannel file, final String[] keys, final long[] positions,
+                final String lastKey, final long end) {
+            this.file = file;
+            this.keys = keys;
+            this.positions = positions;
+            this.lastKey = lastKey;
+            this.end = end;
+        }
+
+        private static SparseIndex read(final FileChannel file, final DataInputStream in, final long start)
+                throws IOException {
+            final int count = in.readInt();
+            final int blocks = (count + SPARSE_EVERY - 1) / SPARSE_EVERY;
+            final String[] keys = new String[blocks];
+            final long[] positions = new long[blocks];
+            long position = start + 4;
+            String key = null;
+            for (int i = 0; i < count; i++) {
+                final byte[] utf = new byte[in.readUnsignedShort()];
+                in.readFully(utf);
+                in.readLong();
+                key = new String(utf, StandardCharsets.UTF_8);
+                if (i % SPARSE_EVERY == 0) {
+                    keys[i / SPARSE_EVERY] = key;
+                    positions[i / SPARSE_EVERY] = position;
+                }
+                position += 2 + utf.length + 8;
+            }
+            return new SparseIndex(file, keys, positions, key, position);
+        }
+
+        /** Offsets of the key's records; stops at the first hit when {@code first}. */
+        private List<Long> lookup(final String key, final boolean first) throws IOException {
+            if (keys.length == 0 || key.compareTo(keys[0]) < 0 || key.compareTo(lastKey) > 0) {
+                return List.of();
+            }
+            // the last block starting strictly below the key; equal keys may spill from it
+            int low = 0;
+            int high = keys.length - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            final List<Long> offsets = new ArrayList<>();
+            for (int block = low; block < keys.length; block++) {
+                final long from = positions[block];
+                final long to = block + 1 < keys.length ? positions[block + 1] : end;
+                final ByteBuffer bytes = ByteBuffer.allocate((int) (to - from));
+                readFully(file, bytes, from);
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    final byte[] utf = new byte[bytes.getShort() & 0xFFFF];
+                    bytes.get(utf);
+                    final long offset = bytes.getLong();
+                    final int order = new String(utf, StandardCharsets.UTF_8).compareTo(key);
+                    if (order > 0) {
+                        return offsets;
+                    }
+                    if (order == 0) {
+                        offsets.add(offset);
+                        if (first) {
+                            return offsets;
+                        }
+                    }
+                }
+            }
+            return offsets;
+        }
+    }
+}
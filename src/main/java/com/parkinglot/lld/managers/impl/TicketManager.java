@@ -1,63 +1,181 @@
 package com.parkinglot.lld.managers.impl;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+import com.idgen.IdGenerator;
+import com.idgen.impl.SnowflakeIdGenerator;
 
 import com.parkinglot.lld.enums.TicketStatus;
+import com.parkinglot.lld.managers.ITicketArchive;
 import com.parkinglot.lld.managers.ITicketManager;
+import com.parkinglot.lld.models.AllocationKey;
 import com.parkinglot.lld.models.ParkingSlot;
 import com.parkinglot.lld.models.Ticket;
 import com.parkinglot.lld.models.Vehicle;
 
+/**
+ * Issues and tracks tickets. With an archive, paid tickets are queued on close and
+ * {@link #archiveClosed()} moves them to cold storage, so memory holds open tickets
+ * only; lookups fall back to the archive.
+ */
 public class TicketManager implements ITicketManager {
 
     private final Map<String, Ticket> ticketsById = new ConcurrentHashMap<>();
-    private final Map<String, String> allocationKeyIndex = new ConcurrentHashMap<>();
+    private final Queue<String> closed = new ConcurrentLinkedQueue<>();
+    private final IdempotencyIndex<String> allocationKeyIndex;
+    private final LongSupplier clock;
+    private final IdGenerator idGenerator;
+    private final ITicketArchive archive;
+
+    public TicketManager() {
+        this(IdempotencyIndex.DEFAULT_RETRY_WINDOW);
+    }
+
+    public TicketManager(final Duration retryWindow) {
+        this(retryWindow, System::currentTimeMillis);
+    }
+
+    public TicketManager(final Duration retryWindow, final LongSupplier clock) {
+        this(retryWindow, clock, SnowflakeIdGenerator.shared());
+    }
+
+    public TicketManager(final Duration retryWindow, final LongSupplier clock, final IdGenerator idGenerator) {
+        this(retryWindow, clock, idGenerator, null);
+    }
+
+    public TicketManager(final Duration retryWindow, final LongSupplier clock, final IdGenerator idGenerator,
+            final ITicketArchive archive) {
+        this.allocationKeyIndex = new IdempotencyIndex<>(retryWindow, clock);
+        this.clock = clock;
+        this.idGenerator = idGenerator;
+        this.archive = archive;
+    }
 
     @Override
     public Ticket createTicket(
             Vehicle vehicle,
             ParkingSlot slot,
-            String allocationKey) {
+            AllocationKey allocationKey) {
+        return createTicket(vehicle, slot.getSlotId(), allocationKey);
+    }
+
+    @Override
+    public Ticket createTicket(
+            Vehicle vehicle,
+            String slotId,
+            AllocationKey allocationKey) {
         String existingTicketId = allocationKeyIndex.get(allocationKey);
         if (existingTicketId != null) {
-            return ticketsById.get(existingTicketId);
+            return getTicket(existingTicketId).orElse(null);
         }
 
         Ticket ticket = new Ticket(
-                UUID.randomUUID().toString(),
-                slot.getSlotId(),
+                idGenerator.nextIdString(),
+                slotId,
                 vehicle.getLicenseNumber(),
                 allocationKey,
-                TicketStatus.UNPAID);
+                TicketStatus.UNPAID,
+                vehicle.getVehicleType(),
+                clock.getAsLong(),
+                0);
 
         ticketsById.put(ticket.getTicketId(), ticket);
-        allocationKeyIndex.put(allocationKey, ticket.getTicketId());
+        existingTicketId = allocationKeyIndex.putIfAbsent(allocationKey, ticket.getTicketId());
+        if (existingTicketId != null) {
+            // lost a race with a concurrent retry of the same key
+            ticketsById.remove(ticket.getTicketId());
+            return getTicket(existingTicketId).orElse(null);
+        }
 
         return ticket;
     }
 
     @Override
-    public Optional<Ticket> getByAllocationKey(String allocationKey) {
+    public Optional<Ticket> getByAllocationKey(AllocationKey allocationKey) {
         return Optional.ofNullable(allocationKeyIndex.get(allocationKey))
-                .map(ticketsById::get);
+                .flatMap(this::getTicket);
+    }
+
+    @Override
+    public Optional<Ticket> getTicket(String ticketId) {
+        final Ticket ticket = ticketsById.get(ticketId);
+        if (ticket != null || archive == null) {
+            return Optional.ofNullable(ticket);
+        }
+        return archive.find(ticketId);
+    }
+
+    @Override
+    public void discardTicket(String ticketId) {
+        final Ticket ticket = ticketsById.remove(ticketId);
+        if (ticket != null && ticket.getAllocationKey() != null) {
+            allocationKeyIndex.remove(ticket.getAllocationKey());
+        }
     }
 
     @Override
     public void closeTicket(String ticketId) {
-        Ticket ticket = ticketsById.get(ticketId);
-        if (ticket == null)
-            return;
-
-        Ticket closed = new Ticket(
-                ticket.getTicketId(),
-                ticket.getSlotId(),
-                ticket.getVehicleId(),
-                ticket.getAllocationKey(),
-                TicketStatus.PAID);
-
-        ticketsById.put(ticketId, closed);
+        markPaid(ticketId);
+    }
+
+    @Override
+    public boolean markPaid(String ticketId) {
+        return markPaid(ticketId, 0);
+    }
+
+    @Override
+    public boolean markPaid(String ticketId, long paidAt) {
+        final boolean[] won = new boolean[1];
+        ticketsById.computeIfPresent(ticketId, (id, ticket) -> {
+            if (ticket.isPaid()) {
+                return ticket;
+            }
+            won[0] = true;
+            return ticket.paid(paidAt);
+        });
+        if (won[0] && archive != null) {
+            closed.offer(ticketId);
+        }
+        return won[0];
+    }
+
+    /**
+     * Moves tickets paid since the last call to the archive. Each is appended before it
+     * leaves memory, so a concurrent lookup always finds it in one tier or the other.
+     * Called periodically from a background thread.
+     */
+    public int archiveClosed() {
+        if (archive == null) {
+            return 0;
+        }
+        int moved = 0;
+        String ticketId;
+        while ((ticketId = closed.poll()) != null) {
+            final Ticket ticket = ticketsById.get(ticketId);
+            if (ticket == null) {
+                continue;
+            }
+            try {
+                archive.append(ticket);
+            } catch (RuntimeException e) {
+                // keep it hot and retry on the next pass
+                closed.offer(ticketId);
+                throw e;
+            }
+            ticketsById.remove(ticketId, ticket);
+            moved++;
+        }
+        return moved;
+    }
+
+    /** Tickets held in memory: open ones plus paid ones not yet archived. */
+    public int hotTicketCount() {
+        return ticketsById.size();
     }
 }
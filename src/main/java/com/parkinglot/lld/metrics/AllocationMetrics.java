@@ -0,0 +1,61 @@
+package com.parkinglot.lld.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.parkinglot.lld.enums.AllocationCounter;
+import com.parkinglot.lld.enums.AllocationPhase;
+import com.parkinglot.lld.models.HistogramSnapshot;
+import com.parkinglot.lld.models.MetricsSnapshot;
+
+/**
+ * Per-phase latency histograms and outcome counters for the allocation path. All
+ * recording is lock-free; {@link #lap} lets a caller time consecutive phases with one
+ * clock read per phase.
+ */
+public final class AllocationMetrics {
+
+    private static final AllocationPhase[] PHASES = AllocationPhase.values();
+    private static final AllocationCounter[] COUNTERS = AllocationCounter.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final LongAdder[] counters = new LongAdder[COUNTERS.length];
+
+    public AllocationMetrics() {
+        for (final AllocationPhase phase : PHASES) {
+            histograms[phase.ordinal()] = new LatencyHistogram();
+        }
+        for (final AllocationCounter counter : COUNTERS) {
+            counters[counter.ordinal()] = new LongAdder();
+        }
+    }
+
+    /** Records the time since {@code startNanos} against the phase and returns the current time. */
+    public long lap(final AllocationPhase phase, final long startNanos) {
+        final long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    /** Records an already measured duration against the phase. */
+    public void record(final AllocationPhase phase, final long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    public void increment(final AllocationCounter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public MetricsSnapshot snapshot() {
+        final Map<AllocationPhase, HistogramSnapshot> latencies = new EnumMap<>(AllocationPhase.class);
+        for (final AllocationPhase phase : PHASES) {
+            latencies.put(phase, histograms[phase.ordinal()].snapshot());
+        }
+        final Map<AllocationCounter, Long> counts = new EnumMap<>(AllocationCounter.class);
+        for (final AllocationCounter counter : COUNTERS) {
+            counts.put(counter, counters[counter.ordinal()].sum());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), latencies, counts);
+    }
+}
@@ -0,0 +1,87 @@
+package com.parkinglot.lld.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.parkinglot.lld.models.HistogramSnapshot;
+
+/**
+ * Log-linear latency histogram: every power of two is split into eight buckets, so a
+ * value is located with one leading-zero count and recording is a striped
+ * {@link LongAdder} increment. Writers never lock or allocate; readers sum the
+ * stripes, so a snapshot taken under load is approximate by the in-flight records.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40; // ~18 minutes in nanos, larger values are clamped
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        buckets[indexOf(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public HistogramSnapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0);
+        }
+        final long maxValue = max.get();
+        return new HistogramSnapshot(total, sum.sum() / total,
+                percentile(counts, total, 0.50, maxValue),
+                percentile(counts, total, 0.90, maxValue),
+                percentile(counts, total, 0.99, maxValue),
+                percentile(counts, total, 0.999, maxValue),
+                maxValue);
+    }
+
+    private static long percentile(final long[] counts, final long total, final double quantile, final long max) {
+        final long rank = Math.max(1, (long) Math.ceil(total * quantile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        final long sub = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.parkinglot.lld.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.parkinglot.lld.enums.RoutingCounter;
+import com.parkinglot.lld.enums.RoutingPhase;
+import com.parkinglot.lld.models.HistogramSnapshot;
+import com.parkinglot.lld.models.RoutingSnapshot;
+
+/**
+ * Latencies and counters for the federation router: the router's own overhead, and the
+ * end-to-end latency of requests served by the home lot versus those that spilled.
+ */
+public final class RoutingMetrics {
+
+    private static final RoutingPhase[] PHASES = RoutingPhase.values();
+    private static final RoutingCounter[] COUNTERS = RoutingCounter.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final LongAdder[] counters = new LongAdder[COUNTERS.length];
+
+    public RoutingMetrics() {
+        for (final RoutingPhase phase : PHASES) {
+            histograms[phase.ordinal()] = new LatencyHistogram();
+        }
+        for (final RoutingCounter counter : COUNTERS) {
+            counters[counter.ordinal()] = new LongAdder();
+        }
+    }
+
+    public void record(final RoutingPhase phase, final long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    public void increment(final RoutingCounter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public RoutingSnapshot snapshot() {
+        final Map<RoutingPhase, HistogramSnapshot> latencies = new EnumMap<>(RoutingPhase.class);
+        for (final RoutingPhase phase : PHASES) {
+            latencies.put(phase, histograms[phase.ordinal()].snapshot());
+        }
+        final Map<RoutingCounter, Long> counts = new EnumMap<>(RoutingCounter.class);
+        for (final RoutingCounter counter : COUNTERS) {
+            counts.put(counter, counters[counter.ordinal()].sum());
+        }
+        return new RoutingSnapshot(System.currentTimeMillis(), latencies, counts);
+    }
+}
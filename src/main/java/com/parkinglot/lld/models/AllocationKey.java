@@ -0,0 +1,94 @@
+package com.parkinglot.lld.models;
+
+/**
+ * 128-bit hash of (license, ctx) used as the idempotency key for allocations and
+ * reservations. Built straight from the characters, so no intermediate string is
+ * formatted on the hot path.
+ */
+public final class AllocationKey {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long hi;
+    private final long lo;
+
+    public AllocationKey(final long hi, final long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public static AllocationKey of(final String license, final String ctx) {
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = 0xC2B2AE3D27D4EB4FL;
+        for (int i = 0; i < license.length(); i++) {
+            final long c = license.charAt(i);
+            h1 = Long.rotateLeft(h1 ^ (c * C1), 31) * C2;
+            h2 = Long.rotateLeft(h2 ^ (c * C2), 33) * C1;
+        }
+        // separator keeps ("AB", "C") and ("A", "BC") apart
+        h1 = Long.rotateLeft(h1 ^ (license.length() * C1), 27) * C2;
+        h2 = Long.rotateLeft(h2 ^ (license.length() * C2), 29) * C1;
+        for (int i = 0; i < ctx.length(); i++) {
+            final long c = ctx.charAt(i);
+            h1 = Long.rotateLeft(h1 ^ (c * C1), 31) * C2;
+            h2 = Long.rotateLeft(h2 ^ (c * C2), 33) * C1;
+        }
+        return finish(h1, h2, ctx.length());
+    }
+
+    public static AllocationKey of(final String license, final long ctx) {
+        final AllocationKey base = of(license, "");
+        return finish(base.hi ^ Long.rotateLeft(ctx * C1, 31), base.lo ^ Long.rotateLeft(ctx * C2, 33), 8);
+    }
+
+    public long getHi() {
+        return hi;
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    private static AllocationKey finish(long h1, long h2, final int length) {
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new AllocationKey(h1, h2);
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AllocationKey other)) {
+            return false;
+        }
+        return hi == other.hi && lo == other.lo;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (lo ^ (lo >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+}
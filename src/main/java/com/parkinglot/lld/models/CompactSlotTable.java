@@ -0,0 +1,224 @@
+package com.parkinglot.lld.models;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+
+/**
+ * Primitive-array slot store. Every slot is addressed by a dense index; its state
+ * lives in an {@link AtomicIntegerArray} (SlotState ordinal) and follows the same
+ * CAS transitions as {@link ParkingSlot}.
+ */
+public final class CompactSlotTable {
+
+    private static final int FREE = SlotState.FREE.ordinal();
+    private static final int OCCUPIED = SlotState.OCCUPIED.ordinal();
+    private static final int RESERVED = SlotState.RESERVED.ordinal();
+    private static final SlotState[] STATES = SlotState.values();
+    private static final SlotType[] TYPES = SlotType.values();
+
+    private final int size;
+    private final String[] slotIds;
+    private final byte[] slotTypes;
+    private final byte[] levels;
+    private final String[] levelIds;
+    private final AtomicIntegerArray states;
+    private final AtomicReferenceArray<String> vehicleIds;
+
+    // open addressing slotId -> index, immutable after construction
+    private final String[] lookupKeys;
+    private final int[] lookupValues;
+    private final int lookupMask;
+
+    private CompactSlotTable(final Builder builder) {
+        this(Arrays.copyOf(builder.slotIds, builder.size), Arrays.copyOf(builder.slotTypes, builder.size),
+                Arrays.copyOf(builder.levels, builder.size), Arrays.copyOf(builder.levelIds, builder.levelCount),
+                Arrays.copyOf(builder.states, builder.size), new String[builder.size]);
+    }
+
+    private CompactSlotTable(final String[] slotIds, final byte[] slotTypes, final byte[] levels,
+            final String[] levelIds, final int[] states, final String[] vehicleIds) {
+        this.size = slotIds.length;
+        this.slotIds = slotIds;
+        this.slotTypes = slotTypes;
+        this.levels = levels;
+        this.levelIds = levelIds;
+        this.states = new AtomicIntegerArray(states);
+        this.vehicleIds = new AtomicReferenceArray<>(vehicleIds);
+
+        final int tableSize = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        this.lookupKeys = new String[tableSize];
+        this.lookupValues = new int[tableSize];
+        this.lookupMask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int pos = mix(slotIds[i].hashCode()) & lookupMask;
+            while (lookupKeys[pos] != null) {
+                if (lookupKeys[pos].equals(slotIds[i])) {
+                    throw new IllegalArgumentException("Duplicate slot id " + slotIds[i]);
+                }
+                pos = (pos + 1) & lookupMask;
+            }
+            lookupKeys[pos] = slotIds[i];
+            lookupValues[pos] = i;
+        }
+    }
+
+    public static Builder builder(final int expectedSlots) {
+        return new Builder(expectedSlots);
+    }
+
+    /**
+     * Wraps columns filled by a bulk loader without copying them. All arrays are indexed by
+     * slot; types and states hold enum ordinals, levels index into levelIds.
+     */
+    public static CompactSlotTable wrap(final String[] slotIds, final byte[] slotTypes, final byte[] levels,
+            final String[] levelIds, final int[] states, final String[] vehicleIds) {
+        if (slotTypes.length != slotIds.length || levels.length != slotIds.length || states.length != slotIds.length
+                || vehicleIds.length != slotIds.length) {
+            throw new IllegalArgumentException("Slot columns differ in length");
+        }
+        if (levelIds.length > 256) {
+            throw new IllegalArgumentException("At most 256 levels are supported");
+        }
+        return new CompactSlotTable(slotIds, slotTypes, levels, levelIds, states, vehicleIds);
+    }
+
+    public static CompactSlotTable from(final ParkingLot parkingLot) {
+        final int total = parkingLot.getLevels().stream().mapToInt(l -> l.getParkingSlots().size()).sum();
+        final Builder builder = builder(total);
+        for (final ParkingLevel level : parkingLot.getLevels()) {
+            final int levelIndex = builder.addLevel(level.getLevelId());
+            for (final ParkingSlot slot : level.getParkingSlots()) {
+                builder.addSlot(slot.getSlotId(), slot.getSlotType(), levelIndex, slot.getState().get());
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int indexOf(final String slotId) {
+        int pos = mix(slotId.hashCode()) & lookupMask;
+        String key;
+        while ((key = lookupKeys[pos]) != null) {
+            if (key.equals(slotId)) {
+                return lookupValues[pos];
+            }
+            pos = (pos + 1) & lookupMask;
+        }
+        return -1;
+    }
+
+    public String slotId(final int index) {
+        return slotIds[index];
+    }
+
+    public SlotType slotType(final int index) {
+        return TYPES[slotTypes[index]];
+    }
+
+    public int level(final int index) {
+        return levels[index] & 0xFF;
+    }
+
+    public String levelId(final int index) {
+        return levelIds[level(index)];
+    }
+
+    public int levelCount() {
+        return levelIds.length;
+    }
+
+    public String levelIdAt(final int level) {
+        return levelIds[level];
+    }
+
+    public SlotState state(final int index) {
+        return STATES[states.get(index)];
+    }
+
+    public String vehicleId(final int index) {
+        return vehicleIds.get(index);
+    }
+
+    public boolean occupy(final int index, final String vehicleId) {
+        final boolean updated = states.compareAndSet(index, FREE, OCCUPIED)
+                || states.compareAndSet(index, RESERVED, OCCUPIED);
+        if (updated) {
+            vehicleIds.compareAndSet(index, null, vehicleId);
+        }
+        return updated;
+    }
+
+    public boolean reserve(final int index) {
+        return states.compareAndSet(index, FREE, RESERVED);
+    }
+
+    public void free(final int index) {
+        vehicleIds.set(index, null);
+        states.set(index, FREE);
+    }
+
+    private static int mix(final int h) {
+        final int x = h * 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    public static final class Builder {
+        private int size;
+        private int levelCount;
+        private String[] slotIds;
+        private byte[] slotTypes;
+        private byte[] levels;
+        private int[] states;
+        private String[] levelIds = new String[8];
+
+        private Builder(final int expectedSlots) {
+            final int capacity = Math.max(16, expectedSlots);
+            this.slotIds = new String[capacity];
+            this.slotTypes = new byte[capacity];
+            this.levels = new byte[capacity];
+            this.states = new int[capacity];
+        }
+
+        public int addLevel(final String levelId) {
+            if (levelCount == 256) {
+                throw new IllegalStateException("At most 256 levels are supported");
+            }
+            if (levelCount == levelIds.length) {
+                levelIds = Arrays.copyOf(levelIds, levelCount * 2);
+            }
+            levelIds[levelCount] = levelId;
+            return levelCount++;
+        }
+
+        public Builder addSlot(final String slotId, final SlotType slotType, final int levelIndex,
+                final SlotState state) {
+            if (levelIndex < 0 || levelIndex >= levelCount) {
+                throw new IllegalArgumentException("Unknown level index " + levelIndex);
+            }
+            if (size == slotIds.length) {
+                final int capacity = size * 2;
+                slotIds = Arrays.copyOf(slotIds, capacity);
+                slotTypes = Arrays.copyOf(slotTypes, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+                states = Arrays.copyOf(states, capacity);
+            }
+            slotIds[size] = slotId;
+            slotTypes[size] = (byte) slotType.ordinal();
+            levels[size] = (byte) levelIndex;
+            states[size] = state.ordinal();
+            size++;
+            return this;
+        }
+
+        public CompactSlotTable build() {
+            return new CompactSlotTable(this);
+        }
+    }
+}
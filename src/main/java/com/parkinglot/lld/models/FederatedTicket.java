@@ -0,0 +1,13 @@
+package com.parkinglot.lld.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A ticket together with the lot that issued it; spilled when that is not the gate's home lot. */
+@AllArgsConstructor
+@Getter
+public class FederatedTicket {
+    private final String lotId;
+    private final Ticket ticket;
+    private final boolean spilled;
+}
@@ -0,0 +1,12 @@
+package com.parkinglot.lld.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** An entry a gate accepted, possibly while offline, to be replayed as an allocation. */
+@AllArgsConstructor
+@Getter
+public class GateEntry {
+    private final Vehicle vehicle;
+    private final String ctx;
+}
@@ -0,0 +1,17 @@
+package com.parkinglot.lld.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Latency distribution in nanoseconds; percentiles are bucket upper bounds, within 12.5%. */
+@AllArgsConstructor
+@Getter
+public class HistogramSnapshot {
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+}
@@ -0,0 +1,21 @@
+package com.parkinglot.lld.models;
+
+import java.util.Map;
+
+import com.parkinglot.lld.enums.AllocationCounter;
+import com.parkinglot.lld.enums.AllocationPhase;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class MetricsSnapshot {
+    private final long takenAt;
+    private final Map<AllocationPhase, HistogramSnapshot> latencies;
+    private final Map<AllocationCounter, Long> counters;
+
+    public long counter(final AllocationCounter counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+}
@@ -0,0 +1,18 @@
+package com.parkinglot.lld.models;
+
+import com.parkinglot.lld.enums.SlotType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class OccupancyCount {
+    private final String levelId;
+    private final SlotType slotType;
+    private final int capacity;
+    private final int free;
+    private final int occupied;
+    private final int reserved;
+    private final int outOfService;
+}
@@ -0,0 +1,26 @@
+package com.parkinglot.lld.models;
+
+import java.util.List;
+
+import com.parkinglot.lld.enums.SlotType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class OccupancySnapshot {
+    private final long takenAt;
+    private final List<OccupancyCount> counts;
+
+    public int free(final SlotType slotType) {
+        return counts.stream().filter(c -> c.getSlotType() == slotType).mapToInt(OccupancyCount::getFree).sum();
+    }
+
+    public int free(final String levelId, final SlotType slotType) {
+        return counts.stream()
+                .filter(c -> c.getSlotType() == slotType && c.getLevelId().equals(levelId))
+                .mapToInt(OccupancyCount::getFree)
+                .sum();
+    }
+}
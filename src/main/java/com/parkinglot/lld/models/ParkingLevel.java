@@ -1,21 +1,23 @@
 package com.parkinglot.lld.models;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import lombok.Getter;
 
 public class ParkingLevel {
     @Getter
     private final String levelId;
-    private final List<ParkingSlot> parkingSlots = new ArrayList<>();
+    private final List<ParkingSlot> parkingSlots = new CopyOnWriteArrayList<>();
 
     public ParkingLevel(final String levelId, final List<ParkingSlot> slots) {
-        parkingSlots.addAll(slots);
         this.levelId = levelId;
+        slots.forEach(slot -> slot.setLevelId(levelId));
+        parkingSlots.addAll(slots);
     }
 
     public void addParkingSlot(ParkingSlot slot) {
+        slot.setLevelId(levelId);
         parkingSlots.add(slot);
     }
 
@@ -1,17 +1,24 @@
 package com.parkinglot.lld.models;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-@AllArgsConstructor
 @Getter
 public class ParkingLot {
     private final String id;
     private final String name;
+    // levels change rarely and are iterated on every topology rebuild
     private final List<ParkingLevel> levels;
 
+    public ParkingLot(final String id, final String name, final List<ParkingLevel> levels) {
+        this.id = id;
+        this.name = name;
+        this.levels = new CopyOnWriteArrayList<>(levels);
+    }
+
     public void addParkingLevel(ParkingLevel level) {
         levels.add(level);
     }
@@ -19,4 +26,8 @@ public class ParkingLot {
     public void removeParkingLevel(ParkingLevel level) {
         levels.remove(level);
     }
+
+    public Optional<ParkingLevel> getLevel(final String levelId) {
+        return levels.stream().filter(level -> level.getLevelId().equals(levelId)).findFirst();
+    }
 }
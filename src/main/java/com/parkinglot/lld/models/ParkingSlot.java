@@ -6,12 +6,11 @@ import org.apache.logging.log4j.util.Strings;
 
 import com.parkinglot.lld.enums.SlotState;
 import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.observers.ISlotStateListener;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
-@AllArgsConstructor
 @Getter
 @Setter
 public class ParkingSlot {
@@ -19,23 +18,68 @@ public class ParkingSlot {
     private String vehicleId;
     private final SlotType slotType;
     private final AtomicReference<SlotState> state;
+    private String levelId;
+    private volatile ISlotStateListener listener = ISlotStateListener.NOOP;
+
+    public ParkingSlot(final String slotId, final String vehicleId, final SlotType slotType,
+            final AtomicReference<SlotState> state) {
+        this.slotId = slotId;
+        this.vehicleId = vehicleId;
+        this.slotType = slotType;
+        this.state = state;
+    }
 
     public void free() {
-        state.set(SlotState.FREE);
         vehicleId = null;
+        SlotState previous;
+        do {
+            previous = state.get();
+            if (previous == SlotState.FREE || previous == SlotState.OUT_OF_SERVICE) {
+                // only returnToService brings a slot back from maintenance
+                return;
+            }
+        } while (!state.compareAndSet(previous, SlotState.FREE));
+        listener.onTransition(this, previous, SlotState.FREE);
     }
 
     public boolean occupy(String vehicleId) {
-        boolean updated = state.compareAndSet(SlotState.FREE, SlotState.OCCUPIED) || 
-                          state.compareAndSet(SlotState.RESERVED, SlotState.OCCUPIED);
+        SlotState from = SlotState.FREE;
+        boolean updated = state.compareAndSet(SlotState.FREE, SlotState.OCCUPIED);
+        if (!updated) {
+            from = SlotState.RESERVED;
+            updated = state.compareAndSet(SlotState.RESERVED, SlotState.OCCUPIED);
+        }
         if (updated && Strings.isEmpty(this.vehicleId)) {
             this.vehicleId = vehicleId;
         }
+        if (updated) {
+            listener.onTransition(this, from, SlotState.OCCUPIED);
+        }
         return updated;
     }
 
     public boolean reserve() {
-        return state.compareAndSet(SlotState.FREE, SlotState.RESERVED);
+        if (state.compareAndSet(SlotState.FREE, SlotState.RESERVED)) {
+            listener.onTransition(this, SlotState.FREE, SlotState.RESERVED);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean markOutOfService() {
+        if (state.compareAndSet(SlotState.FREE, SlotState.OUT_OF_SERVICE)) {
+            listener.onTransition(this, SlotState.FREE, SlotState.OUT_OF_SERVICE);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean returnToService() {
+        if (state.compareAndSet(SlotState.OUT_OF_SERVICE, SlotState.FREE)) {
+            listener.onTransition(this, SlotState.OUT_OF_SERVICE, SlotState.FREE);
+            return true;
+        }
+        return false;
     }
 
 }
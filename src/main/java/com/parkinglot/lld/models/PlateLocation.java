@@ -0,0 +1,14 @@
+package com.parkinglot.lld.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Where a parked vehicle is: its normalized plate, slot, level and the ticket it holds. */
+@AllArgsConstructor
+@Getter
+public class PlateLocation {
+    private final String plate;
+    private final String slotId;
+    private final String levelId;
+    private final String ticketId;
+}
@@ -0,0 +1,12 @@
+package com.parkinglot.lld.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A search hit; distance is the number of edits between the query and the closest part of the plate. */
+@AllArgsConstructor
+@Getter
+public class PlateMatch {
+    private final PlateLocation location;
+    private final int distance;
+}
@@ -0,0 +1,19 @@
+package com.parkinglot.lld.models;
+
+import com.parkinglot.lld.enums.VehicleType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Outcome of an exit scan; every scan of the same ticket returns the same receipt. */
+@AllArgsConstructor
+@Getter
+public class Receipt {
+    private final String ticketId;
+    private final String slotId;
+    private final String vehicleId;
+    private final VehicleType vehicleType;
+    private final long entryTime;
+    private final long exitTime;
+    private final long feeCents;
+}
@@ -1,16 +1,25 @@
 package com.parkinglot.lld.models;
 
+import com.parkinglot.lld.enums.SlotType;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 @AllArgsConstructor
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class Reservation {
     private final String reservationId;
     private final String parkingSlotId;
     private final String vehicleLicenseNumber;
+    private final SlotType slotType;
     private final long startTime;
     private final long endTime;
+    /** Event the booking was made for, or null for an individual booking. */
+    private final String eventId;
+
+    public boolean isCheckedIn() {
+        return parkingSlotId != null;
+    }
 }
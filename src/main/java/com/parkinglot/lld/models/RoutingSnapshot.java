@@ -0,0 +1,21 @@
+package com.parkinglot.lld.models;
+
+import java.util.Map;
+
+import com.parkinglot.lld.enums.RoutingCounter;
+import com.parkinglot.lld.enums.RoutingPhase;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class RoutingSnapshot {
+    private final long takenAt;
+    private final Map<RoutingPhase, HistogramSnapshot> latencies;
+    private final Map<RoutingCounter, Long> counters;
+
+    public long counter(final RoutingCounter counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+}
@@ -0,0 +1,24 @@
+package com.parkinglot.lld.models;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A slot transition as seen by a subscriber. Coalesced events carry only the latest
+ * state of the slot; intermediate transitions were skipped for a lagging subscriber.
+ */
+@AllArgsConstructor
+@Getter
+public class SlotEvent {
+    private final long sequence;
+    private final String slotId;
+    private final String levelId;
+    private final SlotType slotType;
+    private final SlotState from;
+    private final SlotState to;
+    private final long timestamp;
+    private final boolean coalesced;
+}
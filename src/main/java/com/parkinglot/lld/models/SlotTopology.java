@@ -0,0 +1,49 @@
+package com.parkinglot.lld.models;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.parkinglot.lld.enums.SlotType;
+
+import lombok.Getter;
+
+/**
+ * Immutable view of the slots a manager allocates from. Reconfiguration publishes a
+ * new snapshot with the next epoch instead of mutating this one, so allocating
+ * threads read a consistent topology with a single volatile load.
+ */
+@Getter
+public final class SlotTopology {
+    private final long epoch;
+    private final Map<String, ParkingSlot> slots;
+    private final Map<SlotType, Integer> capacityByType;
+
+    private SlotTopology(final long epoch, final Map<String, ParkingSlot> slots) {
+        this.epoch = epoch;
+        this.slots = Map.copyOf(slots);
+        final Map<SlotType, Integer> capacity = new EnumMap<>(SlotType.class);
+        slots.values().forEach(slot -> capacity.merge(slot.getSlotType(), 1, Integer::sum));
+        this.capacityByType = Map.copyOf(capacity);
+    }
+
+    public static SlotTopology empty() {
+        return new SlotTopology(0, Map.of());
+    }
+
+    public ParkingSlot slot(final String slotId) {
+        return slots.get(slotId);
+    }
+
+    public int capacity(final SlotType slotType) {
+        return capacityByType.getOrDefault(slotType, 0);
+    }
+
+    public SlotTopology with(final Collection<ParkingSlot> added, final Collection<ParkingSlot> removed) {
+        final Map<String, ParkingSlot> next = new HashMap<>(slots);
+        removed.forEach(slot -> next.remove(slot.getSlotId()));
+        added.forEach(slot -> next.put(slot.getSlotId(), slot));
+        return new SlotTopology(epoch + 1, next);
+    }
+}
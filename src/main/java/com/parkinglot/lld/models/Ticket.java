@@ -1,6 +1,7 @@
 package com.parkinglot.lld.models;
 
 import com.parkinglot.lld.enums.TicketStatus;
+import com.parkinglot.lld.enums.VehicleType;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,6 +12,19 @@ public class Ticket {
     private final String ticketId;
     private final String slotId;
     private final String vehicleId;
-    private final String allocationKey;
+    private final AllocationKey allocationKey;
     private final TicketStatus status;
+    private final VehicleType vehicleType;
+    private final long issuedAt;
+    // exit time of the checkout that paid it; 0 while unpaid or when closed outside checkout
+    private final long paidAt;
+
+    public Ticket paid(final long paidAt) {
+        return new Ticket(ticketId, slotId, vehicleId, allocationKey, TicketStatus.PAID, vehicleType, issuedAt,
+                paidAt);
+    }
+
+    public boolean isPaid() {
+        return status == TicketStatus.PAID;
+    }
 }
@@ -0,0 +1,21 @@
+package com.parkinglot.lld.observers;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.models.ParkingSlot;
+
+/**
+ * Called on the allocating thread after a successful slot state CAS, so
+ * implementations must be cheap and must not block.
+ */
+public interface ISlotStateListener {
+
+    ISlotStateListener NOOP = (slot, from, to) -> { };
+
+    void onTransition(ParkingSlot slot, SlotState from, SlotState to);
+
+    default void onSlotAdded(ParkingSlot slot) {
+    }
+
+    default void onSlotRemoved(ParkingSlot slot) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.parkinglot.lld.observers.impl;
+
+import java.util.Arrays;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.observers.ISlotStateListener;
+
+public class CompositeSlotStateListener implements ISlotStateListener {
+
+    private volatile ISlotStateListener[] listeners = new ISlotStateListener[0];
+
+    public synchronized void add(final ISlotStateListener listener) {
+        final ISlotStateListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = listener;
+        listeners = next;
+    }
+
+    @Override
+    public void onTransition(final ParkingSlot slot, final SlotState from, final SlotState to) {
+        for (final ISlotStateListener listener : listeners) {
+            try {
+                listener.onTransition(slot, from, to);
+            } catch (Exception e) {
+                System.err.println("Slot listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onSlotAdded(final ParkingSlot slot) {
+        for (final ISlotStateListener listener : listeners) {
+            listener.onSlotAdded(slot);
+        }
+    }
+
+    @Override
+    public void onSlotRemoved(final ParkingSlot slot) {
+        for (final ISlotStateListener listener : listeners) {
+            listener.onSlotRemoved(slot);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.parkinglot.lld.observers.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.models.OccupancyCount;
+import com.parkinglot.lld.models.OccupancySnapshot;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.observers.ISlotStateListener;
+
+/**
+ * Occupancy counters per (level, {@link SlotType}). Each of the occupied, reserved
+ * and out-of-service counts is its own striped {@link LongAdder}, so concurrent
+ * transitions do not contend on one line and a count that dips below zero (a free
+ * listener running before the matching occupy) cannot borrow from its neighbours.
+ * A read may catch such a dip mid-flight; it is clamped at zero. Readers never write
+ * to the cells; snapshots are cached for a short refresh interval so many polling
+ * boards cost one read pass per interval.
+ */
+public class OccupancyTracker implements ISlotStateListener {
+
+    public static final int MAX_LEVELS = 256;
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+    private static final String UNASSIGNED_LEVEL = "UNASSIGNED";
+    private static final int FIELDS = 3; // occupied, reserved, out of service
+
+    private final LongAdder[] cells = new LongAdder[MAX_LEVELS * SLOT_TYPES.length * FIELDS];
+    private final AtomicIntegerArray capacity = new AtomicIntegerArray(MAX_LEVELS * SLOT_TYPES.length);
+    private final ConcurrentHashMap<String, Integer> levelIndex = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> levelIds = new AtomicReferenceArray<>(MAX_LEVELS);
+    private final long refreshNanos;
+    private final AtomicReference<OccupancySnapshot> cached = new AtomicReference<>();
+    private volatile long cachedAt;
+
+    public OccupancyTracker() {
+        this(250);
+    }
+
+    public OccupancyTracker(final long refreshMillis) {
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onSlotAdded(final ParkingSlot slot) {
+        final int cell = cellOf(slot);
+        capacity.incrementAndGet(cell);
+        add(cell, slot.getState().get(), 1);
+    }
+
+    @Override
+    public void onSlotRemoved(final ParkingSlot slot) {
+        final int cell = cellOf(slot);
+        capacity.decrementAndGet(cell);
+        add(cell, slot.getState().get(), -1);
+    }
+
+    @Override
+    public void onTransition(final ParkingSlot slot, final SlotState from, final SlotState to) {
+        if (from == to) {
+            return;
+        }
+        final int cell = cellOf(slot);
+        // count the new state first so a concurrent read under-reports free, never over-reports
+        add(cell, to, 1);
+        add(cell, from, -1);
+    }
+
+    public OccupancySnapshot snapshot() {
+        final OccupancySnapshot current = cached.get();
+        final long now = System.nanoTime();
+        if (current != null && now - cachedAt < refreshNanos) {
+            return current;
+        }
+        final OccupancySnapshot fresh = read();
+        if (cached.compareAndSet(current, fresh)) {
+            cachedAt = now;
+            return fresh;
+        }
+        return cached.get();
+    }
+
+    private OccupancySnapshot read() {
+        final List<OccupancyCount> counts = new ArrayList<>();
+        for (int level = 0; level < MAX_LEVELS; level++) {
+            final String levelId = levelIds.get(level);
+            if (levelId == null) {
+                break;
+            }
+            for (final SlotType slotType : SLOT_TYPES) {
+                final int cell = level * SLOT_TYPES.length + slotType.ordinal();
+                final int total = capacity.get(cell);
+                if (total == 0) {
+                    continue;
+                }
+                final int occupied = count(cell, SlotState.OCCUPIED);
+                final int reserved = count(cell, SlotState.RESERVED);
+                final int outOfService = count(cell, SlotState.OUT_OF_SERVICE);
+                counts.add(new OccupancyCount(levelId, slotType, total,
+                        Math.max(0, total - occupied - reserved - outOfService), occupied, reserved, outOfService));
+            }
+        }
+        return new OccupancySnapshot(System.currentTimeMillis(), List.copyOf(counts));
+    }
+
+    private int cellOf(final ParkingSlot slot) {
+        return levelOf(slot.getLevelId()) * SLOT_TYPES.length + slot.getSlotType().ordinal();
+    }
+
+    private int levelOf(final String slotLevelId) {
+        final String levelId = slotLevelId == null ? UNASSIGNED_LEVEL : slotLevelId;
+        final Integer index = levelIndex.get(levelId);
+        if (index != null) {
+            return index;
+        }
+        return levelIndex.computeIfAbsent(levelId, id -> {
+            for (int i = 0; i < MAX_LEVELS; i++) {
+                if (levelIds.compareAndSet(i, null, id)) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("At most " + MAX_LEVELS + " levels are supported");
+        });
+    }
+
+    private void add(final int cell, final SlotState state, final long delta) {
+        final int field = field(state);
+        if (field >= 0) {
+            cells[cell * FIELDS + field].add(delta);
+        }
+    }
+
+    private int count(final int cell, final SlotState state) {
+        return (int) Math.max(0, cells[cell * FIELDS + field(state)].sum());
+    }
+
+    private static int field(final SlotState state) {
+        return switch (state) {
+            case OCCUPIED -> 0;
+            case RESERVED -> 1;
+            case OUT_OF_SERVICE -> 2;
+            default -> -1;
+        };
+    }
+}
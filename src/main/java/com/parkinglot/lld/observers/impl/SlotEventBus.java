@@ -0,0 +1,190 @@
+package com.parkinglot.lld.observers.impl;
+
+import java.lang.invoke.VarHandle;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.SlotEvent;
+import com.parkinglot.lld.observers.ISlotStateListener;
+
+/**
+ * Multi-producer ring of slot transitions. Publishing claims a sequence with one
+ * getAndIncrement and writes into preallocated arrays, so allocation threads never
+ * block and never allocate; when the ring is full the oldest entries are
+ * overwritten. Every subscriber reads at its own cursor and detects being lapped
+ * through the per-entry sequence stamp.
+ *
+ * A subscriber with a backlog larger than its poll budget gets one coalesced event
+ * per slot (the latest in the backlog), at most the budget per poll; a lapped
+ * subscriber is resynchronised from the current state of every slot.
+ */
+public class SlotEventBus implements ISlotStateListener {
+
+    private static final SlotState[] STATES = SlotState.values();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    // seq when published, -(seq + 1) while seq is being written
+    private final AtomicLongArray published;
+    private final ParkingSlot[] slots;
+    private final byte[] fromStates;
+    private final byte[] toStates;
+    private final long[] timestamps;
+    private final Set<ParkingSlot> knownSlots = ConcurrentHashMap.newKeySet();
+
+    public SlotEventBus() {
+        this(1 << 16);
+    }
+
+    public SlotEventBus(final int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, Long.MIN_VALUE);
+        }
+        this.slots = new ParkingSlot[capacity];
+        this.fromStates = new byte[capacity];
+        this.toStates = new byte[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    @Override
+    public void onSlotAdded(final ParkingSlot slot) {
+        knownSlots.add(slot);
+    }
+
+    @Override
+    public void onSlotRemoved(final ParkingSlot slot) {
+        knownSlots.remove(slot);
+    }
+
+    @Override
+    public void onTransition(final ParkingSlot slot, final SlotState from, final SlotState to) {
+        final long seq = cursor.getAndIncrement();
+        final int i = (int) seq & mask;
+        published.set(i, -seq - 1);
+        VarHandle.storeStoreFence(); // the claim stamp must be visible before the plain writes
+        slots[i] = slot;
+        fromStates[i] = (byte) from.ordinal();
+        toStates[i] = (byte) to.ordinal();
+        timestamps[i] = System.currentTimeMillis();
+        published.set(i, seq);
+    }
+
+    /** Starts reading at the current end of the stream. */
+    public Subscription subscribe() {
+        return new Subscription(cursor.get());
+    }
+
+    public long published() {
+        return cursor.get();
+    }
+
+    public final class Subscription {
+        private long next;
+
+        private Subscription(final long next) {
+            this.next = next;
+        }
+
+        /**
+         * Delivers pending events to the handler and returns how many were delivered.
+         * Must be called from one thread at a time per subscription.
+         */
+        public int poll(final int maxEvents, final Consumer<SlotEvent> handler) {
+            final long head = cursor.get();
+            if (head - next > capacity) {
+                return resync(head, handler);
+            }
+            if (head - next > maxEvents) {
+                return coalesce(head, maxEvents, handler);
+            }
+            int delivered = 0;
+            while (next < head && delivered < maxEvents) {
+                final SlotEvent event = read(next, false);
+                if (event == null) {
+                    if (isLapped(next)) {
+                        return delivered + resync(cursor.get(), handler);
+                    }
+                    break; // claimed but not yet written
+                }
+                handler.accept(event);
+                next++;
+                delivered++;
+            }
+            return delivered;
+        }
+
+        public long lag() {
+            return cursor.get() - next;
+        }
+
+        private int coalesce(final long head, final int maxEvents, final Consumer<SlotEvent> handler) {
+            final Map<String, SlotEvent> latest = new LinkedHashMap<>();
+            while (next < head) {
+                final SlotEvent event = read(next, true);
+                if (event == null) {
+                    if (isLapped(next)) {
+                        return resync(cursor.get(), handler);
+                    }
+                    break;
+                }
+                if (latest.size() == maxEvents && !latest.containsKey(event.getSlotId())) {
+                    break; // budget spent; the rest waits for the next poll
+                }
+                latest.remove(event.getSlotId());
+                latest.put(event.getSlotId(), event);
+                next++;
+            }
+            latest.values().forEach(handler);
+            return latest.size();
+        }
+
+        private int resync(final long head, final Consumer<SlotEvent> handler) {
+            final long now = System.currentTimeMillis();
+            int delivered = 0;
+            for (final ParkingSlot slot : knownSlots) {
+                handler.accept(new SlotEvent(head, slot.getSlotId(), slot.getLevelId(), slot.getSlotType(), null,
+                        slot.getState().get(), now, true));
+                delivered++;
+            }
+            next = head;
+            return delivered;
+        }
+    }
+
+    private SlotEvent read(final long seq, final boolean coalesced) {
+        final int i = (int) seq & mask;
+        if (published.get(i) != seq) {
+            return null;
+        }
+        final ParkingSlot slot = slots[i];
+        final SlotState from = STATES[fromStates[i]];
+        final SlotState to = STATES[toStates[i]];
+        final long timestamp = timestamps[i];
+        VarHandle.loadLoadFence(); // the plain reads must not move below the re-check
+        if (published.get(i) != seq) {
+            return null; // overwritten while reading
+        }
+        return new SlotEvent(seq, slot.getSlotId(), slot.getLevelId(), slot.getSlotType(), from, to, timestamp,
+                coalesced);
+    }
+
+    private boolean isLapped(final long seq) {
+        final long stamp = published.get((int) seq & mask);
+        final long writer = stamp < 0 && stamp != Long.MIN_VALUE ? -stamp - 1 : stamp;
+        return writer > seq;
+    }
+}
@@ -0,0 +1,28 @@
+package com.parkinglot.lld.resources;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.parkinglot.lld.managers.impl.CheckoutManager;
+import com.parkinglot.lld.models.Receipt;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Checkout API", description = "Exit gate ticket scans")
+public class CheckoutApi {
+
+    private final CheckoutManager checkoutManager;
+
+    public CheckoutApi(final CheckoutManager checkoutManager) {
+        this.checkoutManager = checkoutManager;
+    }
+
+    @PostMapping("/checkout/{ticketId}")
+    @Operation(summary = "Scan a ticket at exit", description = "Closes the ticket, prices the stay and frees the slot; rescans return the same receipt")
+    public Receipt checkout(@PathVariable final String ticketId) {
+        return checkoutManager.checkout(ticketId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.parkinglot.lld.resources;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.parkinglot.lld.metrics.AllocationMetrics;
+import com.parkinglot.lld.models.MetricsSnapshot;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Metrics API", description = "Allocation path latencies and outcome counters")
+public class MetricsApi {
+
+    private final AllocationMetrics allocationMetrics;
+
+    public MetricsApi(final AllocationMetrics allocationMetrics) {
+        this.allocationMetrics = allocationMetrics;
+    }
+
+    @GetMapping("/metrics/allocation")
+    @Operation(summary = "Allocation metrics", description = "Per-phase latency percentiles in nanoseconds and counters since start")
+    public MetricsSnapshot allocation() {
+        return allocationMetrics.snapshot();
+    }
+}
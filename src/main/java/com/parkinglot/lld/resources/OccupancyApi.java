@@ -0,0 +1,27 @@
+package com.parkinglot.lld.resources;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.parkinglot.lld.models.OccupancySnapshot;
+import com.parkinglot.lld.observers.impl.OccupancyTracker;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Occupancy API", description = "Free and occupied counts for display boards")
+public class OccupancyApi {
+
+    private final OccupancyTracker occupancyTracker;
+
+    public OccupancyApi(final OccupancyTracker occupancyTracker) {
+        this.occupancyTracker = occupancyTracker;
+    }
+
+    @GetMapping("/occupancy")
+    @Operation(summary = "Occupancy snapshot", description = "Counts per level and slot type, refreshed at most every 250 ms")
+    public OccupancySnapshot occupancy() {
+        return occupancyTracker.snapshot();
+    }
+}
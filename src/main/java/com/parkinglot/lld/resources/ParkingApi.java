@@ -0,0 +1,153 @@
+package com.parkinglot.lld.resources;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.parkinglot.lld.enums.AdmissionPriority;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.ReservationManager;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Reservation;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Entry, exit and reservations. The Idempotency-Key header is the allocation context,
+ * so a retried request maps onto the same journal allocation key and gets the same
+ * ticket or reservation back.
+ */
+@RestController
+@Tag(name = "Parking API", description = "Entry, exit, ticket lookup and reservations")
+public class ParkingApi {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final Duration MAX_WAIT = Duration.ofMinutes(5);
+
+    private final SlotManager slotManager;
+    private final ReservationManager reservationManager;
+    private final TicketManager ticketManager;
+
+    public ParkingApi(final SlotManager slotManager, final ReservationManager reservationManager,
+            final TicketManager ticketManager) {
+        this.slotManager = slotManager;
+        this.reservationManager = reservationManager;
+        this.ticketManager = ticketManager;
+    }
+
+    @PostMapping(value = "/tickets", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Enter", description = "Allocates a slot and issues a ticket; 503 when the lot is full")
+    public ResponseEntity<byte[]> allocate(@RequestHeader(IDEMPOTENCY_KEY) final String key,
+            @RequestParam final String plate, @RequestParam final VehicleType type) {
+        final Ticket ticket = slotManager.allocate(new Vehicle(plate, type), key)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Lot is full"));
+        return created(ticket);
+    }
+
+    @PostMapping(value = "/tickets/wait", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Enter or queue", description = "Like enter, but waits up to timeoutMillis for a slot without holding a request thread")
+    public DeferredResult<ResponseEntity<byte[]>> allocateOrWait(@RequestHeader(IDEMPOTENCY_KEY) final String key,
+            @RequestParam final String plate, @RequestParam final VehicleType type,
+            @RequestParam(defaultValue = "WALK_IN") final AdmissionPriority priority,
+            @RequestParam(defaultValue = "30000") final long timeoutMillis) {
+        final Duration timeout = Duration.ofMillis(Math.max(0, Math.min(timeoutMillis, MAX_WAIT.toMillis())));
+        final CompletableFuture<Ticket> waiting = slotManager.allocateOrWait(new Vehicle(plate, type), key, priority,
+                timeout);
+        final DeferredResult<ResponseEntity<byte[]>> response = new DeferredResult<>();
+        // once nobody can receive the ticket, cancel the waiter so a slot handed to it is rolled back
+        response.onTimeout(() -> waiting.cancel(false));
+        response.onError(failure -> waiting.cancel(false));
+        waiting.whenComplete((ticket, failure) -> {
+            if (failure == null) {
+                response.setResult(created(ticket));
+            } else if (failure instanceof TimeoutException || failure instanceof CancellationException
+                    || failure.getCause() instanceof TimeoutException) {
+                response.setErrorResult(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "No slot became available"));
+            } else {
+                response.setErrorResult(new ResponseStatusException(HttpStatus.BAD_REQUEST, failure.getMessage()));
+            }
+        });
+        return response;
+    }
+
+    @GetMapping(value = "/tickets/{ticketId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Ticket lookup")
+    public ResponseEntity<byte[]> ticket(@PathVariable final String ticketId) {
+        final Optional<Ticket> ticket = ticketManager.getTicket(ticketId);
+        return ticket.isPresent() ? ResponseEntity.ok(TicketJson.write(ticket.get()))
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/slots/{slotId}/release")
+    @Operation(summary = "Release a slot", description = "Frees the slot; releasing a free slot is a no-op")
+    public ResponseEntity<Void> release(@PathVariable final String slotId) {
+        slotManager.release(slotId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/reservations")
+    @Operation(summary = "Reserve", description = "Books a slot type for the window; 400 for a past or out-of-horizon "
+            + "window, 503 when the window is fully booked")
+    public ResponseEntity<Reservation> reserve(@RequestHeader(IDEMPOTENCY_KEY) final String key,
+            @RequestParam final String plate, @RequestParam final VehicleType type,
+            @RequestParam final long startTime, @RequestParam final long endTime,
+            @RequestParam(required = false) final String event) {
+        if (endTime <= startTime) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endTime must be after startTime");
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservationManager.reserve(new Vehicle(plate, type),
+                    startTime, endTime, AllocationKey.of(plate, key), event));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (RuntimeException e) {
+            // the only other failure is every compatible slot type being fully booked
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @Operation(summary = "Cancel a reservation", description = "Returns the booked window to the calendar")
+    public ResponseEntity<Void> cancel(@PathVariable final String reservationId) {
+        final Optional<Reservation> reservation = reservationManager.getReservation(reservationId);
+        if (reservation.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        reservationManager.cancelReservation(reservation.get());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/events/{eventId}/reservations")
+    @Operation(summary = "Cancel an event", description = "Cancels every reservation booked for the event")
+    public ResponseEntity<Integer> cancelEvent(@PathVariable final String eventId) {
+        return ResponseEntity.ok(reservationManager.cancelEvent(eventId));
+    }
+
+    private static ResponseEntity<byte[]> created(final Ticket ticket) {
+        return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON)
+                .body(TicketJson.write(ticket));
+    }
+}
@@ -0,0 +1,58 @@
+package com.parkinglot.lld.resources;
+
+import java.nio.charset.StandardCharsets;
+
+import com.parkinglot.lld.models.Ticket;
+
+/**
+ * Hand-written JSON for tickets on the entry and lookup endpoints, which answer every
+ * gate scan; skips reflection and the generic serializer. Field names match what
+ * Jackson would emit for {@link Ticket}.
+ */
+final class TicketJson {
+
+    private TicketJson() {
+    }
+
+    static byte[] write(final Ticket ticket) {
+        final StringBuilder json = new StringBuilder(192);
+        json.append("{\"ticketId\":");
+        string(json, ticket.getTicketId());
+        json.append(",\"slotId\":");
+        string(json, ticket.getSlotId());
+        json.append(",\"vehicleId\":");
+        string(json, ticket.getVehicleId());
+        json.append(",\"status\":");
+        string(json, ticket.getStatus() == null ? null : ticket.getStatus().name());
+        json.append(",\"vehicleType\":");
+        string(json, ticket.getVehicleType() == null ? null : ticket.getVehicleType().name());
+        json.append(",\"issuedAt\":").append(ticket.getIssuedAt()).append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void string(final StringBuilder json, final String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,40 @@
+package com.parkinglot.lld.resources;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.parkinglot.lld.managers.impl.PlateIndex;
+import com.parkinglot.lld.models.PlateLocation;
+import com.parkinglot.lld.models.PlateMatch;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Vehicle API", description = "Find a parked vehicle by plate")
+public class VehicleApi {
+
+    private final PlateIndex plateIndex;
+
+    public VehicleApi(final PlateIndex plateIndex) {
+        this.plateIndex = plateIndex;
+    }
+
+    @GetMapping("/vehicles/{plate}")
+    @Operation(summary = "Find my car", description = "Slot and ticket of the vehicle parked under this plate")
+    public ResponseEntity<PlateLocation> find(@PathVariable final String plate) {
+        return ResponseEntity.of(plateIndex.find(plate));
+    }
+
+    @GetMapping("/vehicles")
+    @Operation(summary = "Search plates", description = "Plates containing the query, then plates one typo away")
+    public List<PlateMatch> search(@RequestParam("q") final String query,
+            @RequestParam(defaultValue = "10") final int limit) {
+        return plateIndex.search(query, Math.min(limit, 100));
+    }
+}
@@ -0,0 +1,469 @@
+package com.parkinglot.lld.simulation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.parkinglot.lld.enums.SlotState;
+import com.parkinglot.lld.enums.SlotType;
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.InMemoryJournal;
+import com.parkinglot.lld.managers.impl.ReservationCalendar;
+import com.parkinglot.lld.managers.impl.ReservationManager;
+import com.parkinglot.lld.managers.impl.SlotManager;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.metrics.LatencyHistogram;
+import com.parkinglot.lld.models.ParkingLevel;
+import com.parkinglot.lld.models.ParkingLot;
+import com.parkinglot.lld.models.ParkingSlot;
+import com.parkinglot.lld.models.Reservation;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Open-loop gate traffic simulator. Every gate draws Poisson walk-in arrivals and
+ * bookings from its own random stream split off the seed, so the offered load is
+ * identical for a given seed no matter how the lot performs. Simulated time advances
+ * in fixed windows; the managers see the window start through their clocks, while
+ * call latency is measured on the wall clock.
+ *
+ * Slot picks draw from a generator seeded from the same seed, so with one gate
+ * thread the whole outcome repeats for a given seed (latencies aside); stays draw
+ * from a second stream so allocation outcomes never shift the arrival sequence.
+ * With more than one gate thread the gates of a window run concurrently and only
+ * the offered load (arrivals, bookings, crashes) is reproducible.
+ *
+ * Invariants checked at every sample: no slot is held by two parked vehicles, the
+ * number of OCCUPIED slots equals the number of parked vehicles, and a gate retrying
+ * after a crash gets back the ticket it lost.
+ *
+ * Run: mvn -q exec:java -Dexec.mainClass=com.parkinglot.lld.simulation.GateSimulator
+ * -Dexec.args="seed=7 hours=8 gates=16 gateThreads=4"
+ */
+public class GateSimulator {
+
+    private static final long RESERVATION_HALF_WINDOW = Duration.ofMinutes(15).toMillis();
+    private static final long CHECK_IN_SPREAD = Duration.ofMinutes(10).toMillis();
+    private static final String ENTRY = "ENTRY";
+
+    private final SimulationConfig config;
+    private final AtomicLong clock = new AtomicLong();
+    private final TicketManager ticketManager = new TicketManager();
+    private final SlotManager slotManager;
+    private final ReservationCalendar calendar;
+    private final ReservationManager reservationManager;
+    private final Gate[] gates;
+    private final PriorityQueue<Event> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Event e) -> e.time).thenComparingLong(e -> e.sequence));
+    private long sequence;
+
+    private final Map<String, Ticket> parked = new ConcurrentHashMap<>();
+    // tickets issued to gates that crashed before handing them out
+    private final Map<String, Ticket> lost = new ConcurrentHashMap<>();
+    private final List<String> violations = new CopyOnWriteArrayList<>();
+    private final List<OccupancyPoint> occupancy = new ArrayList<>();
+    private final LatencyHistogram allocateLatency = new LatencyHistogram();
+    private final LatencyHistogram checkInLatency = new LatencyHistogram();
+    private final LatencyHistogram releaseLatency = new LatencyHistogram();
+    private final LongAdder arrivals = new LongAdder();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder crashes = new LongAdder();
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder reservationsRejected = new LongAdder();
+    private final LongAdder checkIns = new LongAdder();
+    private final LongAdder stranded = new LongAdder();
+    private final LongAdder noShows = new LongAdder();
+    private final LongAdder departures = new LongAdder();
+
+    public GateSimulator(final SimulationConfig config) {
+        this.config = config;
+        clock.set(config.getStartTime());
+        final ParkingLot lot = buildLot(config);
+        this.calendar = new ReservationCalendar(lot, ReservationCalendar.DEFAULT_BUCKET,
+                ReservationCalendar.DEFAULT_HORIZON, ReservationCalendar.DEFAULT_LOOKAHEAD, clock::get);
+        final SplittableRandom seeds = new SplittableRandom(config.getSeed());
+        // Random rather than a split stream: gate threads share the strategy
+        this.slotManager = new SlotManager(lot, new RandomizedStratergy(new Random(seeds.nextLong())),
+                new InMemoryJournal(), ticketManager, calendar);
+        this.reservationManager = new ReservationManager(slotManager, calendar, clock::get);
+        this.gates = new Gate[config.getGates()];
+        for (int g = 0; g < gates.length; g++) {
+            gates[g] = new Gate(g, seeds.split(), seeds.split());
+        }
+    }
+
+    public SimulationReport run() {
+        final long start = config.getStartTime();
+        final long end = start + config.getDuration().toMillis();
+        for (final Gate gate : gates) {
+            gate.emit(Kind.ARRIVAL, start + gate.exponential(arrivalGap()), null, null, null);
+            gate.emit(Kind.BOOKING, start + gate.exponential(bookingGap()), null, null, null);
+            merge(gate);
+        }
+        final ExecutorService executor = config.getGateThreads() > 1
+                ? Executors.newFixedThreadPool(config.getGateThreads())
+                : null;
+        try {
+            long nextSample = start;
+            for (long t = start; t < end; t += config.getWindow().toMillis()) {
+                final long windowEnd = Math.min(t + config.getWindow().toMillis(), end);
+                clock.set(t);
+                while (!queue.isEmpty() && queue.peek().time < windowEnd) {
+                    final Event event = queue.poll();
+                    event.gate.inbox.add(event);
+                }
+                runWindow(executor);
+                for (final Gate gate : gates) {
+                    merge(gate);
+                }
+                while (nextSample < windowEnd) {
+                    sample(nextSample);
+                    nextSample += config.getSampleInterval().toMillis();
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        sample(end);
+        return report();
+    }
+
+    private void runWindow(final ExecutorService executor) {
+        if (executor == null) {
+            for (final Gate gate : gates) {
+                gate.drain();
+            }
+            return;
+        }
+        final List<Callable<Void>> lanes = new ArrayList<>();
+        for (final Gate gate : gates) {
+            if (!gate.inbox.isEmpty()) {
+                lanes.add(() -> {
+                    gate.drain();
+                    return null;
+                });
+            }
+        }
+        try {
+            for (final Future<Void> lane : executor.invokeAll(lanes)) {
+                lane.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Gate failed", e.getCause());
+        }
+    }
+
+    private void merge(final Gate gate) {
+        for (final Event event : gate.outbox) {
+            event.sequence = sequence++;
+            queue.add(event);
+        }
+        gate.outbox.clear();
+    }
+
+    private void sample(final long time) {
+        clock.set(time);
+        reservationManager.expireReservations();
+        int occupied = 0;
+        for (final ParkingSlot slot : slotManager.topology().getSlots().values()) {
+            if (slot.getState().get() == SlotState.OCCUPIED) {
+                occupied++;
+            }
+        }
+        if (occupied != parked.size() + lost.size()) {
+            violations.add("t=" + time + " occupied slots " + occupied + " != tickets " + (parked.size() + lost.size()));
+        }
+        int capacity = 0;
+        int booked = 0;
+        for (final SlotType slotType : SlotType.values()) {
+            capacity += slotManager.capacity(slotType);
+            booked += calendar.bookedBetween(slotType, time, time + 1);
+        }
+        occupancy.add(new OccupancyPoint(time, occupied, capacity, booked));
+    }
+
+    private SimulationReport report() {
+        final long sloNanos = config.getSloP99().toNanos();
+        final SimulationReport.SimulationReportBuilder report = SimulationReport.builder()
+                .seed(config.getSeed())
+                .simulatedMillis(config.getDuration().toMillis())
+                .arrivals(arrivals.sum())
+                .admitted(admitted.sum())
+                .rejected(rejected.sum())
+                .crashes(crashes.sum())
+                .reservations(reservations.sum())
+                .reservationsRejected(reservationsRejected.sum())
+                .checkIns(checkIns.sum())
+                .stranded(stranded.sum())
+                .noShows(noShows.sum())
+                .departures(departures.sum())
+                .allocateLatency(allocateLatency.snapshot())
+                .checkInLatency(checkInLatency.snapshot())
+                .releaseLatency(releaseLatency.snapshot())
+                .occupancy(List.copyOf(occupancy))
+                .violations(List.copyOf(violations));
+        return report
+                .sloMet(allocateLatency.snapshot().getP99Nanos() <= sloNanos
+                        && checkInLatency.snapshot().getP99Nanos() <= sloNanos)
+                .build();
+    }
+
+    private void admit(final Gate gate, final long time, final Optional<Ticket> ticket) {
+        if (ticket.isEmpty()) {
+            rejected.increment();
+            return;
+        }
+        final Ticket issued = ticket.get();
+        final Ticket holder = parked.putIfAbsent(issued.getSlotId(), issued);
+        if (holder != null) {
+            violations.add("t=" + time + " slot " + issued.getSlotId() + " given to " + issued.getVehicleId()
+                    + " while " + holder.getVehicleId() + " is parked");
+            return;
+        }
+        admitted.increment();
+        gate.emit(Kind.DEPARTURE, time + gate.stay(), null, null, issued);
+    }
+
+    private void onArrival(final Gate gate, final Event event) {
+        arrivals.increment();
+        gate.emit(Kind.ARRIVAL, event.time + gate.exponential(arrivalGap()), null, null, null);
+        final Vehicle vehicle = gate.nextVehicle();
+        final Optional<Ticket> ticket = timed(allocateLatency, () -> slotManager.allocate(vehicle, ENTRY));
+        if (gate.random.nextDouble() < config.getCrashProbability()) {
+            // the gate dies before printing the ticket and retries the same request on restart
+            crashes.increment();
+            ticket.ifPresent(t -> lost.put(t.getSlotId(), t));
+            gate.emit(Kind.RETRY, event.time + config.getRestartDelay().toMillis(), vehicle, null,
+                    ticket.orElse(null));
+            return;
+        }
+        admit(gate, event.time, ticket);
+    }
+
+    private void onRetry(final Gate gate, final Event event) {
+        if (event.ticket != null) {
+            lost.remove(event.ticket.getSlotId());
+        }
+        final Optional<Ticket> ticket = timed(allocateLatency, () -> slotManager.allocate(event.vehicle, ENTRY));
+        if (event.ticket != null && (ticket.isEmpty()
+                || !ticket.get().getTicketId().equals(event.ticket.getTicketId()))) {
+            violations.add("t=" + event.time + " retry of " + event.vehicle.getLicenseNumber()
+                    + " did not return its ticket " + event.ticket.getTicketId());
+        }
+        admit(gate, event.time, ticket);
+    }
+
+    private void onBooking(final Gate gate, final Event event) {
+        gate.emit(Kind.BOOKING, event.time + gate.exponential(bookingGap()), null, null, null);
+        final Vehicle vehicle = gate.nextVehicle();
+        final long arrival = event.time + RESERVATION_HALF_WINDOW
+                + gate.exponential(config.getMeanBookingLead().toMillis());
+        final boolean noShow = gate.random.nextDouble() < config.getNoShowProbability();
+        final long checkIn = arrival + (long) ((gate.random.nextDouble() * 2 - 1) * CHECK_IN_SPREAD);
+        final Reservation reservation;
+        try {
+            reservation = reservationManager.reserve(vehicle, arrival - RESERVATION_HALF_WINDOW,
+                    arrival + RESERVATION_HALF_WINDOW);
+        } catch (RuntimeException e) {
+            reservationsRejected.increment();
+            return;
+        }
+        reservations.increment();
+        if (noShow) {
+            noShows.increment();
+            return;
+        }
+        gate.emit(Kind.CHECK_IN, checkIn, vehicle, reservation.getReservationId(), null);
+    }
+
+    private void onCheckIn(final Gate gate, final Event event) {
+        final Optional<Ticket> ticket;
+        try {
+            ticket = timed(checkInLatency, () -> reservationManager.checkIn(event.vehicle, event.reservationId));
+        } catch (RuntimeException e) {
+            violations.add("t=" + event.time + " check-in of " + event.vehicle.getLicenseNumber() + " failed: "
+                    + e.getMessage());
+            return;
+        }
+        if (ticket.isEmpty()) {
+            // bookings hold back new walk-ins, not vehicles that are already parked
+            stranded.increment();
+        }
+        checkIns.increment();
+        admit(gate, event.time, ticket);
+    }
+
+    private void onDeparture(final Event event) {
+        final Ticket ticket = event.ticket;
+        if (!parked.remove(ticket.getSlotId(), ticket)) {
+            violations.add("t=" + event.time + " " + ticket.getVehicleId() + " left slot " + ticket.getSlotId()
+                    + " it did not hold");
+        }
+        timed(releaseLatency, () -> {
+            slotManager.release(ticket.getSlotId());
+            return null;
+        });
+        ticketManager.closeTicket(ticket.getTicketId());
+        departures.increment();
+    }
+
+    private long arrivalGap() {
+        return (long) (Duration.ofHours(1).toMillis() / config.getArrivalsPerGatePerHour());
+    }
+
+    private long bookingGap() {
+        return (long) (Duration.ofHours(1).toMillis() / config.getBookingsPerGatePerHour());
+    }
+
+    private static <T> T timed(final LatencyHistogram histogram, final Supplier<T> call) {
+        final long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    private static ParkingLot buildLot(final SimulationConfig config) {
+        final List<ParkingLevel> levels = new ArrayList<>();
+        for (int l = 0; l < config.getLevels(); l++) {
+            final String levelId = "L" + l;
+            final List<ParkingSlot> slots = new ArrayList<>();
+            for (final SlotType slotType : SlotType.values()) {
+                for (int s = 0; s < config.getSlotsPerType(); s++) {
+                    slots.add(new ParkingSlot(levelId + "-" + slotType + "-" + s, null, slotType,
+                            new AtomicReference<>(SlotState.FREE)));
+                }
+            }
+            levels.add(new ParkingLevel(levelId, slots));
+        }
+        return new ParkingLot("SIM", "Simulated lot", levels);
+    }
+
+    private enum Kind {
+        ARRIVAL, RETRY, BOOKING, CHECK_IN, DEPARTURE
+    }
+
+    private static final class Event {
+        final long time;
+        final Gate gate;
+        final Kind kind;
+        final Vehicle vehicle;
+        final String reservationId;
+        final Ticket ticket;
+        long sequence;
+
+        private Event(final long time, final Gate gate, final Kind kind, final Vehicle vehicle,
+                final String reservationId, final Ticket ticket) {
+            this.time = time;
+            this.gate = gate;
+            this.kind = kind;
+            this.vehicle = vehicle;
+            this.reservationId = reservationId;
+            this.ticket = ticket;
+        }
+    }
+
+    private final class Gate {
+        final int id;
+        final SplittableRandom random;
+        private final SplittableRandom stays;
+        final List<Event> inbox = new ArrayList<>();
+        final List<Event> outbox = new ArrayList<>();
+        private int vehicles;
+
+        private Gate(final int id, final SplittableRandom random, final SplittableRandom stays) {
+            this.id = id;
+            this.random = random;
+            this.stays = stays;
+        }
+
+        void drain() {
+            for (final Event event : inbox) {
+                switch (event.kind) {
+                    case ARRIVAL -> onArrival(this, event);
+                    case RETRY -> onRetry(this, event);
+                    case BOOKING -> onBooking(this, event);
+                    case CHECK_IN -> onCheckIn(this, event);
+                    case DEPARTURE -> onDeparture(event);
+                }
+            }
+            inbox.clear();
+        }
+
+        void emit(final Kind kind, final long time, final Vehicle vehicle, final String reservationId,
+                final Ticket ticket) {
+            outbox.add(new Event(time, this, kind, vehicle, reservationId, ticket));
+        }
+
+        long exponential(final long mean) {
+            return (long) (-Math.log(1 - random.nextDouble()) * mean);
+        }
+
+        long stay() {
+            return (long) (-Math.log(1 - stays.nextDouble()) * config.getMeanStay().toMillis());
+        }
+
+        Vehicle nextVehicle() {
+            double pick = random.nextDouble() * config.getVehicleMix().values().stream()
+                    .mapToDouble(Double::doubleValue).sum();
+            VehicleType type = VehicleType.CAR;
+            for (final VehicleType candidate : VehicleType.values()) {
+                pick -= config.getVehicleMix().getOrDefault(candidate, 0.0);
+                if (pick < 0) {
+                    type = candidate;
+                    break;
+                }
+            }
+            return new Vehicle("G" + id + "-" + vehicles++, type);
+        }
+    }
+
+    public static void main(final String[] args) {
+        final SimulationConfig.SimulationConfigBuilder config = SimulationConfig.builder();
+        for (final String arg : args) {
+            final String[] pair = arg.split("=", 2);
+            switch (pair[0]) {
+                case "seed" -> config.seed(Long.parseLong(pair[1]));
+                case "gates" -> config.gates(Integer.parseInt(pair[1]));
+                case "levels" -> config.levels(Integer.parseInt(pair[1]));
+                case "slotsPerType" -> config.slotsPerType(Integer.parseInt(pair[1]));
+                case "hours" -> config.duration(Duration.ofHours(Long.parseLong(pair[1])));
+                case "gateThreads" -> config.gateThreads(Integer.parseInt(pair[1]));
+                case "arrivalsPerGatePerHour" -> config.arrivalsPerGatePerHour(Double.parseDouble(pair[1]));
+                case "crashProbability" -> config.crashProbability(Double.parseDouble(pair[1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + pair[0]);
+            }
+        }
+        final SimulationReport report = new GateSimulator(config.build()).run();
+        System.out.println(report.summary());
+        report.getViolations().forEach(violation -> System.out.println("VIOLATION " + violation));
+        if (!report.isHealthy()) {
+            System.exit(1);
+        }
+    }
+}
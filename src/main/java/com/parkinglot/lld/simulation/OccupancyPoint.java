@@ -0,0 +1,15 @@
+package com.parkinglot.lld.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class OccupancyPoint {
+    private final long time;
+    private final int occupied;
+    private final int capacity;
+    private final int bookedNow;
+}
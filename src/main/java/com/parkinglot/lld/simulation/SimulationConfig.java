@@ -0,0 +1,52 @@
+package com.parkinglot.lld.simulation;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.parkinglot.lld.enums.VehicleType;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder(toBuilder = true)
+@Getter
+public class SimulationConfig {
+    @Builder.Default
+    private final long seed = 42;
+    @Builder.Default
+    private final int gates = 8;
+    @Builder.Default
+    private final int levels = 4;
+    @Builder.Default
+    private final int slotsPerType = 250;
+    @Builder.Default
+    private final long startTime = 1_735_689_600_000L; // 2025-01-01T00:00Z
+    @Builder.Default
+    private final Duration duration = Duration.ofHours(4);
+    @Builder.Default
+    private final double arrivalsPerGatePerHour = 120;
+    @Builder.Default
+    private final double bookingsPerGatePerHour = 20;
+    @Builder.Default
+    private final Duration meanStay = Duration.ofHours(2);
+    @Builder.Default
+    private final Duration meanBookingLead = Duration.ofHours(3);
+    @Builder.Default
+    private final double noShowProbability = 0.1;
+    @Builder.Default
+    private final double crashProbability = 0.01;
+    @Builder.Default
+    private final Duration restartDelay = Duration.ofSeconds(5);
+    @Builder.Default
+    private final Map<VehicleType, Double> vehicleMix = Map.of(
+            VehicleType.BIKE, 0.10, VehicleType.CAR, 0.70, VehicleType.TRUCK, 0.05, VehicleType.EV, 0.15);
+    /** Events inside one window run concurrently when gateThreads > 1. */
+    @Builder.Default
+    private final Duration window = Duration.ofSeconds(1);
+    @Builder.Default
+    private final Duration sampleInterval = Duration.ofMinutes(5);
+    @Builder.Default
+    private final int gateThreads = 1;
+    @Builder.Default
+    private final Duration sloP99 = Duration.ofMillis(50);
+}
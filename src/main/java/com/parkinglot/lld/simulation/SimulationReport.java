@@ -0,0 +1,57 @@
+package com.parkinglot.lld.simulation;
+
+import java.util.List;
+
+import com.parkinglot.lld.models.HistogramSnapshot;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/** Outcome of one simulation run; two reports are equal when everything but the wall-clock latencies matches. */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class SimulationReport {
+    private final long seed;
+    private final long simulatedMillis;
+    private final long arrivals;
+    private final long admitted;
+    private final long rejected;
+    private final long crashes;
+    private final long reservations;
+    private final long reservationsRejected;
+    private final long checkIns;
+    private final long stranded;
+    private final long noShows;
+    private final long departures;
+    @EqualsAndHashCode.Exclude
+    private final HistogramSnapshot allocateLatency;
+    @EqualsAndHashCode.Exclude
+    private final HistogramSnapshot checkInLatency;
+    @EqualsAndHashCode.Exclude
+    private final HistogramSnapshot releaseLatency;
+    private final List<OccupancyPoint> occupancy;
+    private final List<String> violations;
+    @EqualsAndHashCode.Exclude
+    private final boolean sloMet;
+
+    public boolean isHealthy() {
+        return sloMet && violations.isEmpty();
+    }
+
+    public String summary() {
+        return String.format(
+                "seed=%d simulated=%dmin arrivals=%d admitted=%d rejected=%d crashes=%d reservations=%d "
+                        + "(rejected %d, no-shows %d, check-ins %d, stranded %d) departures=%d%n"
+                        + "allocate p50=%dus p99=%dus p999=%dus max=%dus | check-in p99=%dus | release p99=%dus%n"
+                        + "peak occupancy=%d slo=%s violations=%d",
+                seed, simulatedMillis / 60_000, arrivals, admitted, rejected, crashes, reservations,
+                reservationsRejected, noShows, checkIns, stranded, departures,
+                allocateLatency.getP50Nanos() / 1000, allocateLatency.getP99Nanos() / 1000,
+                allocateLatency.getP999Nanos() / 1000, allocateLatency.getMaxNanos() / 1000,
+                checkInLatency.getP99Nanos() / 1000, releaseLatency.getP99Nanos() / 1000,
+                occupancy.stream().mapToInt(OccupancyPoint::getOccupied).max().orElse(0),
+                sloMet ? "met" : "MISSED", violations.size());
+    }
+}
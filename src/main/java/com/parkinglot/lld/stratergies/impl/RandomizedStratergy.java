@@ -2,18 +2,33 @@ package com.parkinglot.lld.stratergies.impl;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import com.parkinglot.lld.models.ParkingSlot;
 import com.parkinglot.lld.stratergies.IAllocationStratergy;
 
 public class RandomizedStratergy implements IAllocationStratergy {
 
+    // null draws from the calling thread's generator
+    private final RandomGenerator random;
+
+    public RandomizedStratergy() {
+        this(null);
+    }
+
+    /** Picks with the given generator, e.g. a seeded one for reproducible runs; it must be thread-safe if shared. */
+    public RandomizedStratergy(final RandomGenerator random) {
+        this.random = random;
+    }
+
     @Override
     public Optional<String> findSlot(Set<ParkingSlot> freeSlots) {
         if (freeSlots == null || freeSlots.isEmpty()) {
             return Optional.empty();
         }
-        int randomIndex = (int) (Math.random() * freeSlots.size());
+        final RandomGenerator random = this.random == null ? ThreadLocalRandom.current() : this.random;
+        int randomIndex = random.nextInt(freeSlots.size());
         return freeSlots.stream().skip(randomIndex).findFirst().map(ParkingSlot::getSlotId);
     }
 
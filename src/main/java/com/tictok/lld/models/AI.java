@@ -5,21 +5,32 @@ import java.util.Optional;
 import com.tictok.lld.enums.PlayerType;
 import com.tictok.lld.stratergy.IAIStratergy;
 import com.tictok.lld.stratergy.impl.AdvancedStratergy;
+import com.tictok.lld.stratergy.impl.MctsStratergy;
 import com.tictok.lld.stratergy.impl.RandomStratergy;
 
 public class AI extends Player {
 
+    // beyond this alpha-beta cannot look far enough ahead within its budget
+    private static final int MAX_ALPHA_BETA_CELLS = 100;
+
     private final IAIStratergy strategy;
+    private final IAIStratergy largeBoardStrategy;
     private final int difficulty;
 
     public AI(String playerId, String name, int difficulty) {
         super(playerId, name, PlayerType.AI);
         this.difficulty = difficulty;
         this.strategy = difficulty < 5 ? new RandomStratergy() : new AdvancedStratergy();
+        // on large boards difficulty sets the number of simulated games per move
+        this.largeBoardStrategy = MctsStratergy.forDifficulty(difficulty);
     }
 
     @Override
     public Optional<Move> getMove(Board board, Piece piece) {
+        final int size = board.getSize();
+        if (size * size > MAX_ALPHA_BETA_CELLS && size <= BitBoard.MAX_SIZE) {
+            return largeBoardStrategy.makeMove(board, piece);
+        }
         return strategy.makeMove(board, piece);
     }
 
@@ -0,0 +1,250 @@
+package com.tictok.lld.models;
+
+/**
+ * Allocation-free board for search and self-play. Each side owns a bit per cell: boards up to 8x8 pack
+ * into one {@code long} per side, larger ones (up to 64 columns) use one {@code long} per row. Moves are
+ * reversible and report whether they completed a line of {@code winLength}. Not thread-safe; each
+ * search or playout owns its board.
+ */
+public abstract class BitBoard {
+
+    public static final int EMPTY = -1;
+    public static final int MAX_SIZE = 64;
+    private static final int PACKED_MAX_SIZE = 8;
+
+    protected final int size;
+    protected final int winLength;
+    protected final int sides;
+    private int filledCells;
+
+    protected BitBoard(final int size, final int winLength, final int sides) {
+        if (size <= 0 || winLength <= 0 || winLength > size || sides <= 0) {
+            throw new IllegalArgumentException("Invalid board or win length");
+        }
+        this.size = size;
+        this.winLength = winLength;
+        this.sides = sides;
+    }
+
+    public static BitBoard create(final int size, final int winLength, final int sides) {
+        if (size <= PACKED_MAX_SIZE) {
+            return new Packed(size, winLength, sides);
+        }
+        if (size <= MAX_SIZE) {
+            return new Rows(size, winLength, sides);
+        }
+        throw new IllegalArgumentException("Bit boards support at most " + MAX_SIZE + " columns");
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Places a stone and returns whether the side now holds a line. Play stops at the first line, so in
+     * a legal game that line runs through this stone.
+     */
+    public final boolean make(final int row, final int col, final int side) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new IllegalArgumentException("Move out of bounds");
+        }
+        if (occupied(row, col)) {
+            throw new IllegalStateException("Cell already occupied");
+        }
+        filledCells++;
+        return place(row, col, side);
+    }
+
+    /** Takes back a stone placed by {@link #make}; moves must be unmade in reverse order. */
+    public final void unmake(final int row, final int col, final int side) {
+        filledCells--;
+        remove(row, col, side);
+    }
+
+    public int sideAt(final int row, final int col) {
+        for (int side = 0; side < sides; side++) {
+            if (has(side, row, col)) {
+                return side;
+            }
+        }
+        return EMPTY;
+    }
+
+    public boolean isFull() {
+        return filledCells == size * size;
+    }
+
+    public int filledCells() {
+        return filledCells;
+    }
+
+    /** Whether the side has a line anywhere on the board. */
+    public abstract boolean hasLine(final int side);
+
+    protected abstract boolean occupied(final int row, final int col);
+
+    protected abstract boolean has(final int side, final int row, final int col);
+
+    protected abstract boolean place(final int row, final int col, final int side);
+
+    protected abstract void remove(final int row, final int col, final int side);
+
+    /** Cell (r, c) is bit r * size + c of a single word; lines are found by shifting the word onto itself. */
+    private static final class Packed extends BitBoard {
+        private final long[] stones;
+        private long occupied;
+        private final long full;
+        private final long notFirstColumn;
+        private final long notLastColumn;
+
+        private Packed(final int size, final int winLength, final int sides) {
+            super(size, winLength, sides);
+            this.stones = new long[sides];
+            final int cells = size * size;
+            this.full = cells == Long.SIZE ? -1L : (1L << cells) - 1;
+            long first = 0;
+            for (int r = 0; r < size; r++) {
+                first |= 1L << (r * size);
+            }
+            this.notFirstColumn = full & ~first;
+            this.notLastColumn = full & ~(first << (size - 1));
+        }
+
+        @Override
+        public boolean hasLine(final int side) {
+            final long b = stones[side];
+            return run(b, 1, notFirstColumn)
+                    || run(b, size, full)
+                    || run(b, size + 1, notFirstColumn)
+                    || run(b, size - 1, notLastColumn);
+        }
+
+        /** Shifts one step further each round; the mask drops bits that wrapped to the next row. */
+        private boolean run(final long b, final int shift, final long mask) {
+            long line = b;
+            long shifted = b;
+            for (int i = 1; i < winLength && line != 0; i++) {
+                shifted = (shifted << shift) & mask;
+                line &= shifted;
+            }
+            return line != 0;
+        }
+
+        @Override
+        protected boolean occupied(final int row, final int col) {
+            return (occupied & bit(row, col)) != 0;
+        }
+
+        @Override
+        protected boolean has(final int side, final int row, final int col) {
+            return (stones[side] & bit(row, col)) != 0;
+        }
+
+        @Override
+        protected boolean place(final int row, final int col, final int side) {
+            final long bit = bit(row, col);
+            occupied |= bit;
+            stones[side] |= bit;
+            return hasLine(side);
+        }
+
+        @Override
+        protected void remove(final int row, final int col, final int side) {
+            final long bit = ~bit(row, col);
+            occupied &= bit;
+            stones[side] &= bit;
+        }
+
+        private long bit(final int row, final int col) {
+            return 1L << (row * size + col);
+        }
+    }
+
+    /** Row r of each side is one word with column c at bit c; lines are found by combining shifted rows. */
+    private static final class Rows extends BitBoard {
+        private final long[][] stones;
+        private final long[] occupied;
+        private final long rowMask;
+
+        private Rows(final int size, final int winLength, final int sides) {
+            super(size, winLength, sides);
+            this.stones = new long[sides][size];
+            this.occupied = new long[size];
+            this.rowMask = size == Long.SIZE ? -1L : (1L << size) - 1;
+        }
+
+        @Override
+        public boolean hasLine(final int side) {
+            final long[] rows = stones[side];
+            for (int r = 0; r < size; r++) {
+                long horizontal = rows[r];
+                long shifted = rows[r];
+                for (int i = 1; i < winLength && horizontal != 0; i++) {
+                    shifted = (shifted << 1) & rowMask;
+                    horizontal &= shifted;
+                }
+                if (horizontal != 0) {
+                    return true;
+                }
+                if (r + winLength > size) {
+                    continue;
+                }
+                long vertical = rows[r];
+                long diagonal = rows[r];
+                long antiDiagonal = rows[r];
+                for (int i = 1; i < winLength; i++) {
+                    vertical &= rows[r + i];
+                    diagonal &= rows[r + i] >>> i;
+                    antiDiagonal &= (rows[r + i] << i) & rowMask;
+                }
+                if ((vertical | diagonal | antiDiagonal) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected boolean occupied(final int row, final int col) {
+            return (occupied[row] & 1L << col) != 0;
+        }
+
+        @Override
+        protected boolean has(final int side, final int row, final int col) {
+            return (stones[side][row] & 1L << col) != 0;
+        }
+
+        @Override
+        protected boolean place(final int row, final int col, final int side) {
+            occupied[row] |= 1L << col;
+            stones[side][row] |= 1L << col;
+            // only lines through the new stone can be new
+            return count(side, row, col, 0, 1) + count(side, row, col, 0, -1) + 1 >= winLength
+                    || count(side, row, col, 1, 0) + count(side, row, col, -1, 0) + 1 >= winLength
+                    || count(side, row, col, 1, 1) + count(side, row, col, -1, -1) + 1 >= winLength
+                    || count(side, row, col, 1, -1) + count(side, row, col, -1, 1) + 1 >= winLength;
+        }
+
+        private int count(final int side, final int row, final int col, final int dr, final int dc) {
+            int n = 0;
+            int r = row + dr;
+            int c = col + dc;
+            while (n < winLength - 1 && r >= 0 && r < size && c >= 0 && c < size && has(side, r, c)) {
+                n++;
+                r += dr;
+                c += dc;
+            }
+            return n;
+        }
+
+        @Override
+        protected void remove(final int row, final int col, final int side) {
+            occupied[row] &= ~(1L << col);
+            stones[side][row] &= ~(1L << col);
+        }
+    }
+}
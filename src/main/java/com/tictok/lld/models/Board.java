@@ -1,5 +1,6 @@
 package com.tictok.lld.models;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -7,16 +8,33 @@ import java.util.Set;
 
 import lombok.Getter;
 
+/** Not thread-safe; a game's board is only changed from that game's mailbox. */
 public final class Board {
 
+    // horizontal, vertical, diagonal, anti-diagonal
+    private static final int DIRECTIONS = 4;
+    private static final int[] ROW_STEP = { 0, 1, 1, 1 };
+    private static final int[] COL_STEP = { 1, 0, 1, -1 };
+    // per applied move: the cell, then the run lengths behind and ahead of it in each direction
+    private static final int HISTORY_STRIDE = 1 + 2 * DIRECTIONS;
+
     @Getter
     private final int size;
+    @Getter
     private final int winLength;
 
-    private final Piece[][] grid;
-    private int filledCells = 0;
+    private final Piece[] cells;
+
+    // run length per (cell, direction) for each piece, exact at both ends of every run and 0 off the piece
+    private final Map<Piece, int[]> counters = new HashMap<>();
 
-    private final Map<Piece, DirectionCount[][]> counters = new HashMap<>();
+    // empty cells in no particular order, and where each one sits, so removal and random picks are O(1)
+    private final int[] empties;
+    private final int[] emptyIndex;
+    private int emptyCount;
+
+    private int[] history;
+    private int moveCount;
 
     public Board(int size, int winLength, Set<Piece> pieces) {
         if (size <= 0 || winLength <= 0 || winLength > size) {
@@ -24,31 +42,68 @@ public final class Board {
         }
         this.size = size;
         this.winLength = winLength;
-        this.grid = new Piece[size][size];
+        this.cells = new Piece[size * size];
+        this.empties = new int[size * size];
+        this.emptyIndex = new int[size * size];
+        for (int cell = 0; cell < cells.length; cell++) {
+            empties[cell] = cell;
+            emptyIndex[cell] = cell;
+        }
+        this.emptyCount = cells.length;
+        this.history = new int[Math.min(cells.length, 4) * HISTORY_STRIDE];
 
         for (Piece piece : pieces) {
-            DirectionCount[][] pieceCounters = new DirectionCount[size][size];
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    pieceCounters[i][j] = new DirectionCount();
-                }
-            }
-            counters.put(piece, pieceCounters);
+            counters.put(piece, new int[cells.length * DIRECTIONS]);
         }
     }
 
 
-    public synchronized void applyMove(Move move) {
+    public void applyMove(Move move) {
         validateMove(move);
 
         int r = move.getRow();
         int c = move.getCol();
         Piece piece = move.getPiece();
+        int cell = r * size + c;
 
-        grid[r][c] = piece;
-        filledCells++;
+        cells[cell] = piece;
+        removeEmpty(cell);
 
-        updateCounters(r, c, piece);
+        if (history.length < (moveCount + 1) * HISTORY_STRIDE) {
+            history = Arrays.copyOf(history, Math.min(history.length * 2, cells.length * HISTORY_STRIDE));
+        }
+        int base = moveCount++ * HISTORY_STRIDE;
+        history[base] = cell;
+        updateCounters(r, c, piece, base + 1);
+    }
+
+    /** Takes back the last applied move, restoring the grid, the counters and the empty-cell index. */
+    public void unmakeMove(Move move) {
+        int r = move.getRow();
+        int c = move.getCol();
+        int base = (moveCount - 1) * HISTORY_STRIDE;
+        if (moveCount == 0 || !isInside(r, c) || history[base] != r * size + c
+                || !cells[r * size + c].equals(move.getPiece())) {
+            throw new IllegalStateException("Only the last move can be undone");
+        }
+        int cell = r * size + c;
+        int[] runs = counters.get(cells[cell]);
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int behind = history[base + 1 + 2 * d];
+            int ahead = history[base + 2 + 2 * d];
+            runs[cell * DIRECTIONS + d] = 0;
+            // the far ends were the ends of the two runs this move joined; their near ends were never touched
+            if (behind > 0) {
+                runs[index(r - behind * ROW_STEP[d], c - behind * COL_STEP[d], d)] = behind;
+            }
+            if (ahead > 0) {
+                runs[index(r + ahead * ROW_STEP[d], c + ahead * COL_STEP[d], d)] = ahead;
+            }
+        }
+        cells[cell] = null;
+        emptyIndex[cell] = emptyCount;
+        empties[emptyCount++] = cell;
+        moveCount--;
     }
 
     private void validateMove(Move move) {
@@ -58,72 +113,90 @@ public final class Board {
         if (r < 0 || r >= size || c < 0 || c >= size) {
             throw new IllegalArgumentException("Move out of bounds");
         }
-        if (grid[r][c] != null) {
+        if (cells[r * size + c] != null) {
             throw new IllegalStateException("Cell already occupied");
         }
     }
 
+    private void removeEmpty(int cell) {
+        int index = emptyIndex[cell];
+        int last = empties[--emptyCount];
+        empties[index] = last;
+        emptyIndex[last] = index;
+    }
 
-    private void updateCounters(int r, int c, Piece piece) {
-        DirectionCount[][] dc = counters.get(piece);
-
-        dc[r][c].horizontal =
-                1 + getHorizontal(dc, r, c - 1)
-                  + getHorizontal(dc, r, c + 1);
-
-        dc[r][c].vertical =
-                1 + getVertical(dc, r - 1, c)
-                  + getVertical(dc, r + 1, c);
-
-        dc[r][c].diagonal =
-                1 + getDiagonal(dc, r - 1, c - 1)
-                  + getDiagonal(dc, r + 1, c + 1);
-
-        dc[r][c].antiDiagonal =
-                1 + getAntiDiagonal(dc, r - 1, c + 1)
-                  + getAntiDiagonal(dc, r + 1, c - 1);
+    // Only the two ends of a run are read when it is extended, so only the ends are kept up to date.
+    private void updateCounters(int r, int c, Piece piece, int historyBase) {
+        int[] runs = counters.get(piece);
+
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int behind = runAt(runs, r - ROW_STEP[d], c - COL_STEP[d], d);
+            int ahead = runAt(runs, r + ROW_STEP[d], c + COL_STEP[d], d);
+            int run = 1 + behind + ahead;
+            runs[index(r, c, d)] = run;
+            runs[index(r - behind * ROW_STEP[d], c - behind * COL_STEP[d], d)] = run;
+            runs[index(r + ahead * ROW_STEP[d], c + ahead * COL_STEP[d], d)] = run;
+            history[historyBase + 2 * d] = behind;
+            history[historyBase + 2 * d + 1] = ahead;
+        }
     }
 
-    private int getHorizontal(DirectionCount[][] dc, int r, int c) {
-        return isInside(r, c) ? dc[r][c].horizontal : 0;
+    private int runAt(int[] runs, int r, int c, int d) {
+        return isInside(r, c) ? runs[index(r, c, d)] : 0;
     }
 
-    private int getVertical(DirectionCount[][] dc, int r, int c) {
-        return isInside(r, c) ? dc[r][c].vertical : 0;
+    private int index(int r, int c, int d) {
+        return (r * size + c) * DIRECTIONS + d;
     }
 
-    private int getDiagonal(DirectionCount[][] dc, int r, int c) {
-        return isInside(r, c) ? dc[r][c].diagonal : 0;
+    private boolean isInside(int r, int c) {
+        return r >= 0 && r < size && c >= 0 && c < size;
     }
 
-    private int getAntiDiagonal(DirectionCount[][] dc, int r, int c) {
-        return isInside(r, c) ? dc[r][c].antiDiagonal : 0;
+    public boolean hasWinner(Move lastMove) {
+        int[] runs = counters.get(lastMove.getPiece());
+        int base = index(lastMove.getRow(), lastMove.getCol(), 0);
+        for (int d = 0; d < DIRECTIONS; d++) {
+            if (runs[base + d] >= winLength) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean isInside(int r, int c) {
-        return r >= 0 && r < size && c >= 0 && c < size;
+
+    public boolean isFull() {
+        return emptyCount == 0;
     }
 
-    public synchronized boolean hasWinner(Move lastMove) {
-        DirectionCount d = counters
-                .get(lastMove.getPiece())
-                [lastMove.getRow()][lastMove.getCol()];
+    public int getEmptyCellCount() {
+        return emptyCount;
+    }
 
-        return d.horizontal >= winLength
-            || d.vertical >= winLength
-            || d.diagonal >= winLength
-            || d.antiDiagonal >= winLength;
+    /** The index-th empty cell as {@code row * size + col}; order changes as moves are made and undone. */
+    public int getEmptyCell(int index) {
+        if (index < 0 || index >= emptyCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return empties[index];
     }
 
+    public int getMoveCount() {
+        return moveCount;
+    }
 
-    public boolean isFull() {
-        return filledCells == size * size;
+    /** The cell of the ply-th applied move, as {@code row * size + col}. */
+    public int getMoveCell(int ply) {
+        if (ply < 0 || ply >= moveCount) {
+            throw new IndexOutOfBoundsException(ply);
+        }
+        return history[ply * HISTORY_STRIDE];
     }
 
     public Optional<Piece> getPieceAt(int row, int col) {
         if (!isInside(row, col)) {
             return Optional.empty();
         }
-        return Optional.ofNullable(grid[row][col]);
+        return Optional.ofNullable(cells[row * size + col]);
     }
 }
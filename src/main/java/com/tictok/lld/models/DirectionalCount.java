@@ -1,8 +0,0 @@
-package com.tictok.lld.models;
-
-final class DirectionCount {
-    int horizontal;
-    int vertical;
-    int diagonal;
-    int antiDiagonal;
-}
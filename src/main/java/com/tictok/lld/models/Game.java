@@ -1,17 +1,21 @@
 package com.tictok.lld.models;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
+import com.idgen.IdGenerator;
+import com.idgen.impl.SnowflakeIdGenerator;
 import com.tictok.lld.enums.GameStatus;
 import com.tictok.lld.enums.GameType;
 import com.tictok.lld.stratergy.IPlayerSelectionStratergy;
 
 import lombok.Getter;
 
+/**
+ * Not thread-safe: a game is built on one thread and, once registered, only touched from its mailbox in
+ * {@link com.tictok.lld.services.GameService}. Status and turn are volatile so other threads can watch.
+ */
 @Getter
 public class Game {
 
@@ -20,19 +24,41 @@ public class Game {
     private final int numberOfPlayers;
     private final GameType gameType;
 
-    private final Map<Player, Piece> playerPieceMap = new ConcurrentHashMap<>();
+    // join order is turn order
+    private final Map<Player, Piece> playerPieceMap = new LinkedHashMap<>();
     private final IPlayerSelectionStratergy playerSelectionStrategy;
 
-    private Player currentTurn;
-    private GameStatus gameStatus;
-    private Player winningPlayer;
+    private volatile Player currentTurn;
+    private volatile GameStatus gameStatus;
+    private volatile Player winningPlayer;
 
+    /** Single-node use: the id comes from the shared node-0 generator. */
     public Game(
             Board board,
             GameType gameType,
             int numberOfPlayers,
             IPlayerSelectionStratergy playerSelectionStrategy) {
-        this.id = UUID.randomUUID().toString();
+        this(SnowflakeIdGenerator.shared(), board, gameType, numberOfPlayers, playerSelectionStrategy);
+    }
+
+    /** Takes its id from the given generator, e.g. one configured with this node's id. */
+    public Game(
+            IdGenerator idGenerator,
+            Board board,
+            GameType gameType,
+            int numberOfPlayers,
+            IPlayerSelectionStratergy playerSelectionStrategy) {
+        this(idGenerator.nextIdString(), board, gameType, numberOfPlayers, playerSelectionStrategy);
+    }
+
+    /** For games restored from a store, which keep the id they were created with. */
+    public Game(
+            String id,
+            Board board,
+            GameType gameType,
+            int numberOfPlayers,
+            IPlayerSelectionStratergy playerSelectionStrategy) {
+        this.id = id;
         this.board = board;
         this.gameType = gameType;
         this.numberOfPlayers = numberOfPlayers;
@@ -40,7 +66,7 @@ public class Game {
         this.gameStatus = GameStatus.LOBBYING;
     }
 
-    public synchronized void start() {
+    public void start() {
         if (gameStatus != GameStatus.LOBBYING) {
             throw new IllegalStateException("Game already started");
         }
@@ -56,16 +82,16 @@ public class Game {
         this.gameStatus = GameStatus.ONGOING;
     }
 
-    public synchronized void complete(Player winner) {
+    public void complete(Player winner) {
         this.winningPlayer = winner;
         this.gameStatus = GameStatus.COMPLETED;
     }
 
-    public synchronized void terminateAsDraw() {
+    public void terminateAsDraw() {
         this.gameStatus = GameStatus.DRAW;
     }
 
-    public synchronized void addPlayer(Player player, Piece piece) {
+    public void addPlayer(Player player, Piece piece) {
         if (gameStatus != GameStatus.LOBBYING) {
             throw new IllegalStateException("Cannot add players after game start");
         }
@@ -75,32 +101,42 @@ public class Game {
         playerPieceMap.put(player, piece);
     }
 
-    public synchronized void removePlayer(Player player) {
+    public void removePlayer(Player player) {
         playerPieceMap.remove(player);
     }
 
-    public synchronized void applyMove(Move move) {
+    public void applyMove(Move move) {
         if (gameStatus != GameStatus.ONGOING) {
             throw new IllegalStateException("Game not in progress");
         }
         board.applyMove(move);
     }
 
-    public synchronized boolean isWinnerDecided(final Move move) {
+    /** Applies the current player's move and settles the game or passes the turn. */
+    public GameStatus playTurn(final Move move) {
+        applyMove(move);
+        if (isWinnerDecided(move)) {
+            complete(currentTurn);
+        } else if (isDraw()) {
+            terminateAsDraw();
+        } else {
+            switchTurn();
+        }
+        return gameStatus;
+    }
+
+    public boolean isWinnerDecided(final Move move) {
         return board.hasWinner(move);
     }
 
-    public synchronized boolean isDraw() {
+    public boolean isDraw() {
         return board.isFull();
     }
 
-    public synchronized void switchTurn() {
-        for (Player player : playerPieceMap.keySet()) {
-            if (!player.equals(currentTurn)) {
-                currentTurn = player;
-                return;
-            }
-        }
+    public void switchTurn() {
+        this.currentTurn = playerSelectionStrategy
+                .selectPlayer(playerPieceMap.keySet(), Optional.of(currentTurn))
+                .orElseThrow(() -> new IllegalStateException("No next player found"));
     }
 
     public Optional<Player> getCurrentTurn() {
@@ -2,9 +2,11 @@ package com.tictok.lld.models;
 
 import com.tictok.lld.enums.PieceType;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @Getter
+@EqualsAndHashCode
 public class Piece {
 
     private final PieceType pieceType;
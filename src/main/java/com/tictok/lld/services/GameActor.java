@@ -0,0 +1,77 @@
+package com.tictok.lld.services;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Supplier;
+
+import com.tictok.lld.models.Game;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One game's mailbox. Messages run one at a time in arrival order on whichever pool thread drains the
+ * box, so the game itself needs no locks; the scheduled flag hands the game's state from one drain to the
+ * next. A game with nothing queued holds no thread.
+ */
+final class GameActor implements Runnable {
+
+    private static final AtomicIntegerFieldUpdater<GameActor> SCHEDULED =
+            AtomicIntegerFieldUpdater.newUpdater(GameActor.class, "scheduled");
+    // a drain hands its thread back after this many messages so one busy game cannot starve the rest
+    static final int BATCH = 64;
+
+    @Getter
+    private final Game game;
+    private final Executor executor;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private volatile int scheduled;
+    // the game's latest append to the store; only messages read or replace it
+    @Getter
+    @Setter
+    private CompletableFuture<?> lastAppend = CompletableFuture.completedFuture(null);
+
+    GameActor(final Game game, final Executor executor) {
+        this.game = game;
+        this.executor = executor;
+    }
+
+    /** Queues the message; the future completes with its result, or its exception, once it has run. */
+    <T> CompletableFuture<T> ask(final Supplier<T> message) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.offer(() -> {
+            try {
+                result.complete(message.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    private void schedule() {
+        if (SCHEDULED.compareAndSet(this, 0, 1)) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            Runnable message;
+            for (int i = 0; i < BATCH && (message = mailbox.poll()) != null; i++) {
+                message.run();
+            }
+        } finally {
+            scheduled = 0;
+            // anything queued after the last poll saw the flag still set and left the drain to us
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -1,52 +1,167 @@
 package com.tictok.lld.services;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.idgen.IdCodec;
 import com.tictok.lld.enums.GameStatus;
 import com.tictok.lld.models.Game;
 import com.tictok.lld.models.Move;
 import com.tictok.lld.models.Player;
+import com.tictok.lld.store.IGameStore;
+
+/**
+ * Runs every game as an actor: each registered game gets a mailbox, and a small shared pool drains the
+ * mailboxes that have work. A game's messages are applied in arrival order by one thread at a time, so
+ * nothing here locks the game or its board. Finished games leave the active set.
+ *
+ * <p>
+ * With a store, starts and accepted moves are recorded from the mailbox and their futures complete
+ * only once the record is durable. A game has one append in flight at a time: a move that arrives
+ * meanwhile is played once the previous record settles, so no record is ever linked past a failed one.
+ * A game that is not active is looked up in the store on first use, so after a restart games come back
+ * one at a time as they are played.
+ */
+public class GameService implements AutoCloseable {
+
+    private final Map<String, GameActor> activeGames = new ConcurrentHashMap<>();
+    private final Executor executor;
+    // null when the caller supplied the executor and owns its lifecycle
+    private final ForkJoinPool ownedPool;
+    // null when games are kept in memory only
+    private final IGameStore store;
+
+    public GameService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameService(final int threads) {
+        this(threads, null);
+    }
 
-public class GameService {
+    public GameService(final int threads, final IGameStore store) {
+        this.ownedPool = newPool(threads);
+        this.executor = ownedPool;
+        this.store = store;
+    }
 
-    private final Map<String, Game> activeGames = new ConcurrentHashMap<>();
+    public GameService(final Executor executor) {
+        this(executor, null);
+    }
+
+    public GameService(final Executor executor, final IGameStore store) {
+        this.executor = executor;
+        this.ownedPool = null;
+        this.store = store;
+    }
 
+    /** Game ids must be Snowflake ids in their text form; the store keys games by the 64-bit value. */
     public void registerGame(Game game) {
-        activeGames.put(game.getId(), game);
+        IdCodec.decode(game.getId());
+        activeGames.put(game.getId(), new GameActor(game, executor));
     }
 
     public void startGame(String gameId) {
-        Game game = getGame(gameId);
+        await(startGameAsync(gameId));
+    }
 
-        synchronized (game) {
+    public CompletableFuture<GameStatus> startGameAsync(String gameId) {
+        final GameActor actor = activeGames.get(gameId);
+        if (actor == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Game not found"));
+        }
+        return actor.ask(() -> {
+            Game game = actor.getGame();
             if (game.getGameStatus() != GameStatus.LOBBYING) {
                 throw new IllegalStateException("Game cannot be started");
             }
             game.start();
-        }
+            if (store == null) {
+                return CompletableFuture.completedFuture(game.getGameStatus());
+            }
+            final CompletableFuture<GameStatus> started = store.started(game)
+                    .thenApply(written -> game.getGameStatus())
+                    .whenComplete((written, failure) -> {
+                        if (failure != null) {
+                            activeGames.remove(game.getId(), actor);
+                        }
+                    });
+            actor.setLastAppend(started);
+            return started;
+        }).thenCompose(started -> started);
     }
 
     public void submitMove(String gameId, String playerId, Move move) {
-        Game game = getGame(gameId);
+        await(submitMoveAsync(gameId, playerId, move));
+    }
 
-        synchronized (game) {
+    /** Completes with the game's status after the move, or exceptionally if the move was rejected. */
+    public CompletableFuture<GameStatus> submitMoveAsync(String gameId, String playerId, Move move) {
+        final GameActor actor = resolve(gameId);
+        if (actor == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Game not found"));
+        }
+        return actor.ask(() -> play(actor, playerId, move)).thenCompose(played -> played);
+    }
 
-            validateTurn(game, playerId);
+    public int activeGameCount() {
+        return activeGames.size();
+    }
 
-            // Idempotency + ordering handled inside Game
-            game.applyMove(move);
+    private GameActor resolve(String gameId) {
+        final GameActor actor = activeGames.get(gameId);
+        if (actor != null || store == null) {
+            return actor;
+        }
+        // loaded outside the map so a slow read holds no bin lock; a racing load of the same game loses
+        final Game game = store.load(gameId)
+                .filter(loaded -> loaded.getGameStatus() == GameStatus.ONGOING)
+                .orElse(null);
+        return game == null ? null : activeGames.computeIfAbsent(gameId, id -> new GameActor(game, executor));
+    }
 
-            Player currentPlayer = game.getCurrentTurn()
-                    .orElseThrow(() -> new IllegalStateException("Current turn missing"));
+    private CompletableFuture<GameStatus> play(GameActor actor, String playerId, Move move) {
+        if (!actor.getLastAppend().isDone()) {
+            // requeued once the previous record settles; if it failed, the game has been evicted by then
+            return actor.getLastAppend().handle((written, failure) -> null)
+                    .thenCompose(settled -> actor.ask(() -> play(actor, playerId, move)))
+                    .thenCompose(played -> played);
+        }
+        Game game = actor.getGame();
+        validateTurn(game, playerId);
+        if (activeGames.get(game.getId()) != actor) {
+            // evicted after a failed append: this copy is ahead of the log
+            throw new IllegalStateException("Game was reset to its last durable move; retry");
+        }
 
-            if (game.isWinnerDecided(move)) {
-                game.complete(currentPlayer);
-            } else if (game.isDraw()) {
-                game.terminateAsDraw();
-            } else {
-                game.switchTurn();
+        final GameStatus status = game.playTurn(move);
+        final CompletableFuture<GameStatus> recorded = record(game, move).thenApply(written -> status);
+        // moves still queued behind this one find the game over and are rejected; the game leaves only
+        // once its last move is durable, so a lookup cannot reload it from before that move. A move that
+        // could not be recorded evicts the game the same way, so the next access reloads the durable state.
+        final CompletableFuture<GameStatus> settled = recorded.whenComplete((written, failure) -> {
+            if (failure != null || status != GameStatus.ONGOING) {
+                activeGames.remove(game.getId(), actor);
             }
+        });
+        actor.setLastAppend(settled);
+        return settled;
+    }
+
+    private CompletableFuture<Void> record(Game game, Move move) {
+        if (store == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return store.moved(game, move);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
@@ -63,11 +178,31 @@ public class GameService {
         }
     }
 
-    private Game getGame(String gameId) {
-        Game game = activeGames.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found");
+    private static ForkJoinPool newPool(final int threads) {
+        final AtomicInteger index = new AtomicInteger();
+        return new ForkJoinPool(threads, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("game-actor-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownedPool != null) {
+            ownedPool.shutdown();
         }
-        return game;
     }
 }
@@ -0,0 +1,18 @@
+package com.tictok.lld.store;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.tictok.lld.models.Game;
+import com.tictok.lld.models.Move;
+
+public interface IGameStore {
+    /** Records a game that has just started; completes once it is durable. */
+    CompletableFuture<Void> started(Game game);
+
+    /** Records a move the game has just accepted; completes once it is durable. */
+    CompletableFuture<Void> moved(Game game, Move move);
+
+    /** Rebuilds a stored game as of its last durable move. */
+    Optional<Game> load(String gameId);
+}
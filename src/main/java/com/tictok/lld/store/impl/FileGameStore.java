@@ -0,0 +1,599 @@
+package com.tictok.lld.store.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+import com.idgen.IdCodec;
+import com.tictok.lld.enums.GameStatus;
+import com.tictok.lld.enums.GameType;
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.enums.PlayerType;
+import com.tictok.lld.models.AIPlayer;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Game;
+import com.tictok.lld.models.HumanPlayer;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+import com.tictok.lld.models.Player;
+import com.tictok.lld.store.IGameStore;
+import com.tictok.lld.stratergy.impl.FifoPlayerStratergy;
+
+/**
+ * Event-sourced game store: one append-only log of binary records, big-endian:
+ *
+ * <pre>
+ * length i32, crc32c i32 of the rest, type u8, game id i64, previous record of this game i64
+ * START:    game header
+ * MOVE:     row u16, col u16, piece u8
+ * SNAPSHOT: game header, stone count u16, per stone in play order: row u16, col u16, piece u8
+ * header:   size u16, win length u16, game type u8, player count u8,
+ *           per player in turn order: player type u8, id, name, email, piece u8
+ * </pre>
+ *
+ * Strings are written as in {@link DataOutputStream#writeUTF}. Every {@link #SNAPSHOT_EVERY}th move of
+ * a game is written as a snapshot, so a game is rebuilt from at most that many records, found by
+ * following the previous-record links back from its latest one.
+ *
+ * <p>
+ * Appends are queued and a single writer commits whatever has queued up with one write and one
+ * {@code force}, completing all of their futures together. The only per-game memory is the offset of
+ * each game's latest record: games written since the last checkpoint sit in a hash table, the rest in a
+ * sorted index file that is memory-mapped and binary searched. Opening maps that file and scans only the
+ * log written after it, cutting off a torn last record; games themselves are read on first access.
+ */
+public class FileGameStore implements IGameStore, AutoCloseable {
+
+    public static final int SNAPSHOT_EVERY = 32;
+    // games written since the last checkpoint before the writer folds them into the index file
+    static final int CHECKPOINT_EVERY = 1 << 18;
+
+    private static final String LOG = "games.log";
+    private static final String INDEX = "games.idx";
+    private static final int INDEX_MAGIC = 0x47494458;
+    private static final int HEADER = 4 + 4;
+    private static final int BODY_PREFIX = 1 + 8 + 8;
+    private static final int MAX_BATCH = 4096;
+    private static final byte START = 1;
+    private static final byte MOVE = 2;
+    private static final byte SNAPSHOT = 3;
+    private static final GameType[] GAME_TYPES = GameType.values();
+    private static final PlayerType[] PLAYER_TYPES = PlayerType.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final Path directory;
+    private final FileChannel log;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final AtomicLong commits = new AtomicLong();
+    private final OffsetTable recent = new OffsetTable();
+    private volatile SortedIndex index;
+    private volatile boolean closed;
+    // only touched by the writer once it has started
+    private long logEnd;
+    private ByteBuffer batch = ByteBuffer.allocateDirect(1 << 20);
+
+    public FileGameStore(final Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.log = FileChannel.open(directory.resolve(LOG), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        final Path indexFile = directory.resolve(INDEX);
+        this.index = Files.exists(indexFile) ? SortedIndex.open(indexFile) : SortedIndex.EMPTY;
+        this.logEnd = recover(index.logPosition);
+        this.writer = new Thread(this::writeLoop, "game-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public CompletableFuture<Void> started(final Game game) {
+        return append(START, game, encodeHeader(game, 0));
+    }
+
+    @Override
+    public CompletableFuture<Void> moved(final Game game, final Move move) {
+        final Board board = game.getBoard();
+        if (board.getMoveCount() % SNAPSHOT_EVERY == 0) {
+            return append(SNAPSHOT, game, encodeHeader(game, board.getMoveCount()));
+        }
+        final ByteBuffer body = ByteBuffer.allocate(BODY_PREFIX + 5);
+        body.position(BODY_PREFIX);
+        body.putShort((short) move.getRow()).putShort((short) move.getCol())
+                .put((byte) move.getPiece().getPieceType().ordinal());
+        return append(MOVE, game, body.array());
+    }
+
+    @Override
+    public Optional<Game> load(final String gameId) {
+        final long id;
+        try {
+            id = IdCodec.decode(gameId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        long offset = latest(id);
+        if (offset < 0) {
+            return Optional.empty();
+        }
+        try {
+            // walk back to the snapshot or start, keeping the moves made since
+            final List<ByteBuffer> moves = new ArrayList<>();
+            ByteBuffer record = read(offset);
+            while (record.get(0) == MOVE) {
+                moves.add(record);
+                record = read(record.getLong(1 + 8));
+            }
+            record.position(BODY_PREFIX);
+            final Game game = decodeHeader(gameId, record);
+            for (int i = moves.size() - 1; i >= 0; i--) {
+                game.playTurn(decodeMove(moves.get(i).position(BODY_PREFIX)));
+            }
+            return Optional.of(game);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Group commits so far; each forced one batch of records to disk. */
+    public long commits() {
+        return commits.get();
+    }
+
+    /** Commits everything queued, folds the offsets into the index file and closes the log. */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(Pending.STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // appends that raced with close and queued behind the stop marker
+        for (Pending pending; (pending = queue.poll()) != null;) {
+            pending.done.completeExceptionally(new IllegalStateException("Game store is closed"));
+        }
+        checkpoint();
+        log.close();
+    }
+
+    private CompletableFuture<Void> append(final byte type, final Game game, final byte[] body) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Game store is closed"));
+        }
+        body[0] = type;
+        final long id = IdCodec.decode(game.getId());
+        for (int i = 0; i < 8; i++) {
+            body[1 + i] = (byte) (id >>> (56 - 8 * i));
+        }
+        final Pending pending = new Pending(id, body);
+        queue.add(pending);
+        return pending.done;
+    }
+
+    private void writeLoop() {
+        final List<Pending> drained = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(drained, MAX_BATCH - 1);
+            stopping = drained.remove(Pending.STOP);
+            try {
+                commit(drained);
+                for (final Pending pending : drained) {
+                    pending.done.complete(null);
+                }
+                if (recent.size() >= CHECKPOINT_EVERY) {
+                    checkpoint();
+                }
+            } catch (IOException | RuntimeException e) {
+                for (final Pending pending : drained) {
+                    pending.done.completeExceptionally(e);
+                }
+            }
+            drained.clear();
+        }
+    }
+
+    /** One write and one force for the whole batch; a game's records link back to its previous one. */
+    private void commit(final List<Pending> pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int bytes = 0;
+        for (final Pending p : pending) {
+            bytes += HEADER + p.body.length;
+        }
+        if (batch.capacity() < bytes) {
+            batch = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes) << 1);
+        }
+        batch.clear();
+        final CRC32C crc = new CRC32C();
+        final long[] ids = new long[pending.size()];
+        final long[] offsets = new long[pending.size()];
+        long offset = logEnd;
+        // a game may appear more than once in a batch; the table is only updated after the write
+        final Map<Long, Long> chained = new HashMap<>();
+        for (int i = 0; i < pending.size(); i++) {
+            final Pending p = pending.get(i);
+            final Long earlier = chained.get(p.id);
+            final long previous = earlier != null ? earlier : latest(p.id);
+            for (int b = 0; b < 8; b++) {
+                p.body[1 + 8 + b] = (byte) (previous >>> (56 - 8 * b));
+            }
+            crc.reset();
+            crc.update(p.body);
+            batch.putInt(p.body.length).putInt((int) crc.getValue()).put(p.body);
+            ids[i] = p.id;
+            offsets[i] = offset;
+            chained.put(p.id, offset);
+            offset += HEADER + p.body.length;
+        }
+        batch.flip();
+        long position = logEnd;
+        while (batch.hasRemaining()) {
+            position += log.write(batch, position);
+        }
+        log.force(false);
+        logEnd = offset;
+        recent.putAll(ids, offsets, pending.size());
+        commits.incrementAndGet();
+    }
+
+    private long latest(final long id) {
+        final long offset = recent.get(id);
+        return offset >= 0 ? offset : index.get(id);
+    }
+
+    /** Merges the recent offsets into a new index file covering the log so far. */
+    private synchronized void checkpoint() throws IOException {
+        if (recent.size() == 0 && index.logPosition == logEnd) {
+            return;
+        }
+        final long[][] snapshot = recent.sortedEntries();
+        final SortedIndex merged = index.merge(snapshot[0], snapshot[1], logEnd);
+        final Path tmp = directory.resolve(INDEX + ".tmp");
+        merged.write(tmp);
+        Files.move(tmp, directory.resolve(INDEX), StandardCopyOption.ATOMIC_MOVE);
+        // readers check the table first, so the index must be complete before the table empties
+        index = SortedIndex.open(directory.resolve(INDEX));
+        recent.clear();
+    }
+
+    /** Indexes the records written after the index file, then cuts off a torn or corrupt tail. */
+    private long recover(final long from) throws IOException {
+        final long size = log.size();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER + BODY_PREFIX);
+        final CRC32C crc = new CRC32C();
+        long offset = from;
+        while (offset + HEADER + BODY_PREFIX <= size) {
+            header.clear();
+            readFully(header, offset);
+            final int length = header.getInt(0);
+            if (length < BODY_PREFIX || offset + HEADER + length > size) {
+                break;
+            }
+            final ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body, offset + HEADER);
+            crc.reset();
+            crc.update(body.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            recent.put(body.getLong(1), offset);
+            offset += HEADER + length;
+        }
+        if (offset < size) {
+            log.truncate(offset);
+        }
+        return offset;
+    }
+
+    private ByteBuffer read(final long offset) throws IOException {
+        final ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(length, offset);
+        final ByteBuffer body = ByteBuffer.allocate(length.getInt(0));
+        readFully(body, offset + HEADER);
+        return body.clear();
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Game log record cut short at " + position);
+            }
+        }
+    }
+
+    private static byte[] encodeHeader(final Game game, final int stones) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + stones * 5);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(new byte[BODY_PREFIX]);
+            final Board board = game.getBoard();
+            out.writeShort(board.getSize());
+            out.writeShort(board.getWinLength());
+            out.writeByte(game.getGameType().ordinal());
+            out.writeByte(game.getPlayerPieceMap().size());
+            for (final Map.Entry<Player, Piece> entry : game.getPlayerPieceMap().entrySet()) {
+                final Player player = entry.getKey();
+                out.writeByte(player.getPlayerType().ordinal());
+                out.writeUTF(player.getPlayerId());
+                out.writeUTF(player.getName());
+                out.writeUTF(player instanceof HumanPlayer human && human.getEmail() != null ? human.getEmail() : "");
+                out.writeByte(entry.getValue().getPieceType().ordinal());
+            }
+            if (stones > 0) {
+                out.writeShort(stones);
+                for (int ply = 0; ply < stones; ply++) {
+                    final int cell = board.getMoveCell(ply);
+                    final int row = cell / board.getSize();
+                    final int col = cell % board.getSize();
+                    out.writeShort(row);
+                    out.writeShort(col);
+                    out.writeByte(board.getPieceAt(row, col).orElseThrow().getPieceType().ordinal());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Rebuilds the started game a START or SNAPSHOT body describes, replaying a snapshot's stones. */
+    private static Game decodeHeader(final String gameId, final ByteBuffer body) {
+        final byte type = body.get(0);
+        final int size = body.getShort() & 0xFFFF;
+        final int winLength = body.getShort() & 0xFFFF;
+        final GameType gameType = GAME_TYPES[body.get()];
+        final int playerCount = body.get();
+        final Map<Player, Piece> players = new LinkedHashMap<>();
+        for (int i = 0; i < playerCount; i++) {
+            final PlayerType playerType = PLAYER_TYPES[body.get()];
+            final String id = readUtf(body);
+            final String name = readUtf(body);
+            final String email = readUtf(body);
+            final Piece piece = new Piece(PIECE_TYPES[body.get()]);
+            players.put(playerType == PlayerType.AI ? new AIPlayer(id) : new HumanPlayer(id, name, email), piece);
+        }
+        final Game game = new Game(gameId, new Board(size, winLength, new HashSet<>(players.values())),
+                gameType, playerCount, new FifoPlayerStratergy());
+        players.forEach(game::addPlayer);
+        game.start();
+        if (type == SNAPSHOT) {
+            final int stones = body.getShort() & 0xFFFF;
+            for (int i = 0; i < stones && game.getGameStatus() == GameStatus.ONGOING; i++) {
+                game.playTurn(decodeMove(body));
+            }
+        }
+        return game;
+    }
+
+    private static Move decodeMove(final ByteBuffer body) {
+        final int row = body.getShort() & 0xFFFF;
+        final int col = body.getShort() & 0xFFFF;
+        return new Move(row, col, new Piece(PIECE_TYPES[body.get()]));
+    }
+
+    /** Reads a string written by {@link DataOutputStream#writeUTF}, which is modified UTF-8, not UTF-8. */
+    private static String readUtf(final ByteBuffer body) {
+        final byte[] utf = new byte[Short.BYTES + (body.getShort(body.position()) & 0xFFFF)];
+        body.get(utf);
+        try {
+            return new DataInputStream(new ByteArrayInputStream(utf)).readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Pending {
+        private static final Pending STOP = new Pending(-1, new byte[0]);
+
+        private final long id;
+        private final byte[] body;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Pending(final long id, final byte[] body) {
+            this.id = id;
+            this.body = body;
+        }
+    }
+
+    /** Game id to latest record offset, open addressing over two long arrays; ids are stored plus one. */
+    private static final class OffsetTable {
+        private long[] keys = new long[1 << 10];
+        private long[] values = new long[1 << 10];
+        private int size;
+
+        private synchronized long get(final long id) {
+            final int mask = keys.length - 1;
+            for (int slot = mix(id) & mask;; slot = (slot + 1) & mask) {
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+                if (keys[slot] == id + 1) {
+                    return values[slot];
+                }
+            }
+        }
+
+        private synchronized void put(final long id, final long offset) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            insert(id, offset);
+        }
+
+        private synchronized void putAll(final long[] ids, final long[] offsets, final int count) {
+            for (int i = 0; i < count; i++) {
+                put(ids[i], offsets[i]);
+            }
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized void clear() {
+            keys = new long[1 << 10];
+            values = new long[1 << 10];
+            size = 0;
+        }
+
+        /** Ids and offsets, sorted by id. */
+        private synchronized long[][] sortedEntries() {
+            final long[] ids = new long[size];
+            int n = 0;
+            for (final long key : keys) {
+                if (key != 0) {
+                    ids[n++] = key - 1;
+                }
+            }
+            Arrays.sort(ids);
+            final long[] offsets = new long[size];
+            for (int i = 0; i < size; i++) {
+                offsets[i] = get(ids[i]);
+            }
+            return new long[][] { ids, offsets };
+        }
+
+        private void insert(final long id, final long offset) {
+            final int mask = keys.length - 1;
+            int slot = mix(id) & mask;
+            while (keys[slot] != 0 && keys[slot] != id + 1) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = id + 1;
+                size++;
+            }
+            values[slot] = offset;
+        }
+
+        private void grow() {
+            final long[] oldKeys = keys;
+            final long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    insert(oldKeys[i] - 1, oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(final long id) {
+            final long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * The index file: log position covered i64, entry count i32, magic i32, then (game id i64, offset i64)
+     * pairs sorted by id. Mapped, not read, so opening costs the same for any number of games.
+     */
+    private static final class SortedIndex {
+        private static final SortedIndex EMPTY = new SortedIndex(LongBuffer.allocate(0), 0, 0);
+
+        private final LongBuffer entries;
+        private final int count;
+        private final long logPosition;
+
+        private SortedIndex(final LongBuffer entries, final int count, final long logPosition) {
+            this.entries = entries;
+            this.count = count;
+            this.logPosition = logPosition;
+        }
+
+        private static SortedIndex open(final Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.getInt(12) != INDEX_MAGIC) {
+                    throw new IOException("Not a game index: " + file);
+                }
+                final int count = mapped.getInt(8);
+                return new SortedIndex(mapped.position(16).slice().asLongBuffer(), count, mapped.getLong(0));
+            }
+        }
+
+        private long get(final long id) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final long key = entries.get(2 * mid);
+                if (key < id) {
+                    low = mid + 1;
+                } else if (key > id) {
+                    high = mid - 1;
+                } else {
+                    return entries.get(2 * mid + 1);
+                }
+            }
+            return -1;
+        }
+
+        /** A merge of this index and the sorted (id, offset) pairs, which win on equal ids. */
+        private SortedIndex merge(final long[] ids, final long[] offsets, final long position) {
+            final LongBuffer merged = LongBuffer.allocate(2 * (count + ids.length));
+            int i = 0;
+            int j = 0;
+            while (i < count || j < ids.length) {
+                final long left = i < count ? entries.get(2 * i) : Long.MAX_VALUE;
+                final long right = j < ids.length ? ids[j] : Long.MAX_VALUE;
+                if (right <= left) {
+                    merged.put(right).put(offsets[j++]);
+                    i += right == left ? 1 : 0;
+                } else {
+                    merged.put(left).put(entries.get(2 * i++ + 1));
+                }
+            }
+            return new SortedIndex(merged.flip(), merged.limit() / 2, position);
+        }
+
+        private void write(final Path file) throws IOException {
+            final ByteBuffer bytes = ByteBuffer.allocate(16 + 16 * count);
+            bytes.putLong(logPosition).putInt(count).putInt(INDEX_MAGIC);
+            bytes.asLongBuffer().put(entries.duplicate().position(0).limit(2 * count));
+            bytes.clear();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+        }
+    }
+}
@@ -1,18 +1,392 @@
 package com.tictok.lld.stratergy.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.SplittableRandom;
 
 import com.tictok.lld.models.Board;
 import com.tictok.lld.models.Move;
 import com.tictok.lld.models.Piece;
 import com.tictok.lld.stratergy.IAIStratergy;
 
+/**
+ * Negamax with alpha-beta pruning over a primitive copy of the board, deepened one ply at a time until
+ * the per-move budget runs out. Positions are Zobrist-hashed into a bounded transposition table shared
+ * across moves. Moves are ordered by the table's best move, then by how many open lines they extend or
+ * block, then by history. Evaluation and win detection are kept incrementally per winLength window, so
+ * a make or unmake costs O(winLength) for any board size.
+ */
 public class AdvancedStratergy implements IAIStratergy {
 
+    public static final long DEFAULT_BUDGET_MILLIS = 100;
+    private static final int DEFAULT_TABLE_BITS = 17;
+
+    private static final int ME = 0;
+    private static final int THEM = 1;
+    private static final int EMPTY = -1;
+    private static final int WIN = 1 << 30;
+    private static final int INFINITY = WIN + 1;
+    // scores this close to WIN are forced results; the distance to WIN is the number of plies to it
+    private static final int DECIDED = WIN - (1 << 16);
+    private static final int NEAR = 2;
+
+    private final long budgetNanos;
+    private final int tableBits;
+    private volatile Geometry geometry;
+    private volatile TranspositionTable table;
+
+    public AdvancedStratergy() {
+        this(DEFAULT_BUDGET_MILLIS);
+    }
+
+    public AdvancedStratergy(final long budgetMillis) {
+        this(budgetMillis, DEFAULT_TABLE_BITS);
+    }
+
+    public AdvancedStratergy(final long budgetMillis, final int tableBits) {
+        if (budgetMillis <= 0 || tableBits < 4 || tableBits > 30) {
+            throw new IllegalArgumentException("Invalid search budget or table size");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.tableBits = tableBits;
+    }
+
     @Override
-    public Optional<Move> makeMove(Board board, Piece piece) {
-        // Advanced strategy implementation
-        return Optional.empty();
+    public Optional<Move> makeMove(final Board board, final Piece piece) {
+        final long deadline = System.nanoTime() + budgetNanos;
+        final int size = board.getSize();
+        final Search search = new Search(geometry(size, board.getWinLength()), table(), deadline);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                final Optional<Piece> occupant = board.getPieceAt(row, col);
+                if (occupant.isPresent()) {
+                    search.make(row * size + col, occupant.get().getPieceType() == piece.getPieceType() ? ME : THEM);
+                }
+            }
+        }
+        final int cell = search.bestMove();
+        return cell < 0 ? Optional.empty() : Optional.of(new Move(cell / size, cell % size, piece));
+    }
+
+    private Geometry geometry(final int size, final int winLength) {
+        Geometry current = geometry;
+        if (current == null || current.size != size || current.winLength != winLength) {
+            current = new Geometry(size, winLength);
+            geometry = current;
+        }
+        return current;
+    }
+
+    private TranspositionTable table() {
+        TranspositionTable current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = new TranspositionTable(tableBits);
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Immutable per-(size, winLength) lookup tables. */
+    private static final class Geometry {
+        private final int size;
+        private final int winLength;
+        private final int cells;
+        private final int windowCount;
+        private final int[][] windowsOf;
+        private final int[][] neighbours;
+        private final long[][] zobrist = new long[2][];
+        private final long sideKey;
+        // value of a window holding k stones of one colour and none of the other
+        private final int[] weight;
+
+        private Geometry(final int size, final int winLength) {
+            this.size = size;
+            this.winLength = winLength;
+            this.cells = size * size;
+
+            final List<List<Integer>> through = new ArrayList<>(cells);
+            for (int cell = 0; cell < cells; cell++) {
+                through.add(new ArrayList<>());
+            }
+            int windows = 0;
+            final int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+            for (final int[] d : directions) {
+                for (int row = 0; row < size; row++) {
+                    for (int col = 0; col < size; col++) {
+                        final int endRow = row + d[0] * (winLength - 1);
+                        final int endCol = col + d[1] * (winLength - 1);
+                        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                            continue;
+                        }
+                        for (int k = 0; k < winLength; k++) {
+                            through.get((row + d[0] * k) * size + col + d[1] * k).add(windows);
+                        }
+                        windows++;
+                    }
+                }
+            }
+            this.windowCount = windows;
+            this.windowsOf = new int[cells][];
+            this.neighbours = new int[cells][];
+            for (int cell = 0; cell < cells; cell++) {
+                windowsOf[cell] = through.get(cell).stream().mapToInt(Integer::intValue).toArray();
+                final List<Integer> near = new ArrayList<>();
+                final int row = cell / size;
+                final int col = cell % size;
+                for (int r = Math.max(0, row - NEAR); r <= Math.min(size - 1, row + NEAR); r++) {
+                    for (int c = Math.max(0, col - NEAR); c <= Math.min(size - 1, col + NEAR); c++) {
+                        near.add(r * size + c);
+                    }
+                }
+                neighbours[cell] = near.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            // fixed seed: keys must not change between moves that share the table
+            final SplittableRandom random = new SplittableRandom(size * 31L + winLength);
+            for (int side = 0; side < 2; side++) {
+                zobrist[side] = new long[cells];
+                for (int cell = 0; cell < cells; cell++) {
+                    zobrist[side][cell] = random.nextLong();
+                }
+            }
+            this.sideKey = random.nextLong();
+
+            this.weight = new int[winLength + 2];
+            for (int k = 1; k < weight.length; k++) {
+                weight[k] = 1 << Math.min(3 * (k - 1), 18);
+            }
+        }
     }
 
+    /** Single-use search state; never shared between threads. */
+    private static final class Search {
+        private final Geometry g;
+        private final TranspositionTable table;
+        private final int generation;
+        private final long deadline;
+        private final int[] cells;
+        private final int[][] counts;
+        private final int[] near;
+        private final int[] history;
+        private final int[][] moves;
+        private final int[][] order;
+        private int stones;
+        private long hash;
+        // sum of window values from ME's point of view
+        private int score;
+        private long nodes;
+        private boolean aborted;
+        private int rootBest = -1;
+
+        private Search(final Geometry g, final TranspositionTable table, final long deadline) {
+            this.g = g;
+            this.table = table;
+            this.generation = table.nextGeneration();
+            this.deadline = deadline;
+            this.cells = new int[g.cells];
+            Arrays.fill(cells, EMPTY);
+            this.counts = new int[2][g.windowCount];
+            this.near = new int[g.cells];
+            this.history = new int[g.cells];
+            this.moves = new int[g.cells + 1][];
+            this.order = new int[g.cells + 1][];
+        }
+
+        private int bestMove() {
+            if (stones == g.cells) {
+                return -1;
+            }
+            // fallback if not even depth one completes in time
+            int best = pick(0, 0, generate(0, -1, ME));
+            for (int depth = 1; depth <= g.cells - stones; depth++) {
+                final int value = negamax(depth, -INFINITY, INFINITY, 0, ME);
+                if (aborted) {
+                    break;
+                }
+                best = rootBest;
+                if (Math.abs(value) >= DECIDED) {
+                    break;
+                }
+            }
+            return best;
+        }
+
+        private int negamax(final int depth, int alpha, final int beta, final int ply, final int side) {
+            if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+                aborted = true;
+            }
+            if (aborted) {
+                return 0;
+            }
+            final long key = side == ME ? hash : hash ^ g.sideKey;
+            final long entry = table.probe(key);
+            int tableMove = -1;
+            if (entry != TranspositionTable.MISS) {
+                tableMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    final int stored = fromTable(TranspositionTable.score(entry), ply);
+                    final int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT
+                            || flag == TranspositionTable.LOWER && stored >= beta
+                            || flag == TranspositionTable.UPPER && stored <= alpha) {
+                        return stored;
+                    }
+                }
+            }
+            if (depth == 0) {
+                return side == ME ? score : -score;
+            }
+
+            final int count = generate(ply, tableMove, side);
+            final int alphaIn = alpha;
+            int best = -INFINITY;
+            int bestMove = -1;
+            for (int i = 0; i < count; i++) {
+                final int move = pick(ply, i, count);
+                final int value;
+                if (make(move, side)) {
+                    value = WIN - ply - 1;
+                } else if (stones == g.cells) {
+                    value = 0;
+                } else {
+                    value = -negamax(depth - 1, -beta, -alpha, ply + 1, 1 - side);
+                }
+                unmake(move, side);
+                if (aborted) {
+                    return 0;
+                }
+                if (value > best) {
+                    best = value;
+                    bestMove = move;
+                    if (ply == 0) {
+                        rootBest = move;
+                    }
+                }
+                if (value > alpha) {
+                    alpha = value;
+                }
+                if (alpha >= beta) {
+                    history[move] += depth * depth;
+                    break;
+                }
+            }
+            final int flag = best <= alphaIn ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, toTable(best, ply), depth, flag, bestMove, generation);
+            return best;
+        }
+
+        /** Fills the move buffer for this ply with candidates and their ordering scores. */
+        private int generate(final int ply, final int tableMove, final int side) {
+            if (moves[ply] == null) {
+                moves[ply] = new int[g.cells];
+                order[ply] = new int[g.cells];
+            }
+            // only cells near existing stones are worth searching, unless there are none left
+            final int n = collect(ply, tableMove, side, stones > 0);
+            return n > 0 ? n : collect(ply, tableMove, side, false);
+        }
+
+        private int collect(final int ply, final int tableMove, final int side, final boolean nearOnly) {
+            final int[] candidates = moves[ply];
+            final int[] scores = order[ply];
+            final int[] own = counts[side];
+            final int[] other = counts[1 - side];
+            int n = 0;
+            for (int cell = 0; cell < g.cells; cell++) {
+                if (cells[cell] != EMPTY || nearOnly && near[cell] == 0) {
+                    continue;
+                }
+                int urgency = history[cell];
+                for (final int w : g.windowsOf[cell]) {
+                    if (other[w] == 0) {
+                        urgency += g.weight[own[w] + 1];
+                    }
+                    if (own[w] == 0) {
+                        urgency += g.weight[other[w] + 1] >> 1;
+                    }
+                }
+                candidates[n] = cell;
+                scores[n++] = cell == tableMove ? Integer.MAX_VALUE : urgency;
+            }
+            return n;
+        }
+
+        /** Selection step: moves the best remaining candidate to index i and returns it. */
+        private int pick(final int ply, final int i, final int count) {
+            final int[] candidates = moves[ply];
+            final int[] scores = order[ply];
+            int best = i;
+            for (int j = i + 1; j < count; j++) {
+                if (scores[j] > scores[best]) {
+                    best = j;
+                }
+            }
+            final int move = candidates[best];
+            candidates[best] = candidates[i];
+            candidates[i] = move;
+            final int s = scores[best];
+            scores[best] = scores[i];
+            scores[i] = s;
+            return move;
+        }
+
+        /** Places a stone and reports whether it completes a line. */
+        private boolean make(final int cell, final int side) {
+            cells[cell] = side;
+            stones++;
+            hash ^= g.zobrist[side][cell];
+            boolean won = false;
+            final int[] own = counts[side];
+            for (final int w : g.windowsOf[cell]) {
+                score -= value(w);
+                won |= ++own[w] == g.winLength;
+                score += value(w);
+            }
+            for (final int n : g.neighbours[cell]) {
+                near[n]++;
+            }
+            return won;
+        }
+
+        private void unmake(final int cell, final int side) {
+            final int[] own = counts[side];
+            for (final int w : g.windowsOf[cell]) {
+                score -= value(w);
+                own[w]--;
+                score += value(w);
+            }
+            for (final int n : g.neighbours[cell]) {
+                near[n]--;
+            }
+            hash ^= g.zobrist[side][cell];
+            stones--;
+            cells[cell] = EMPTY;
+        }
+
+        private int value(final int w) {
+            final int mine = counts[ME][w];
+            final int theirs = counts[THEM][w];
+            if (theirs == 0) {
+                return g.weight[mine];
+            }
+            return mine == 0 ? -g.weight[theirs] : 0;
+        }
+
+        // forced results are stored relative to the node so they stay valid at any ply
+        private static int toTable(final int score, final int ply) {
+            return score >= DECIDED ? score + ply : score <= -DECIDED ? score - ply : score;
+        }
+
+        private static int fromTable(final int score, final int ply) {
+            return score >= DECIDED ? score - ply : score <= -DECIDED ? score + ply : score;
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package com.tictok.lld.stratergy.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tictok.lld.models.BitBoard;
+import com.tictok.lld.models.Board;
+import com.tictok.lld.models.Move;
+import com.tictok.lld.models.Piece;
+import com.tictok.lld.stratergy.IAIStratergy;
+
+/**
+ * Monte Carlo Tree Search for boards too large for alpha-beta to see far enough. Workers share one
+ * lock-free tree: node statistics are updated with atomic field updaters, children are published with
+ * a single CAS, and a visit is counted on the way down (a virtual loss) so concurrent workers spread
+ * over different branches. Each worker replays the root position into its own {@link BitBoard} and
+ * plays uniformly random rollouts from an empty-cell array, undoing every move afterwards, so a playout
+ * allocates nothing outside tree expansion.
+ */
+public class MctsStratergy implements IAIStratergy {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 1_000;
+    private static final double EXPLORATION = 1.4;
+    // a leaf is expanded on its second visit; the first only pays for a rollout
+    private static final int EXPAND_AFTER = 2;
+    private static final int NEAR = 2;
+    private static final int ME = 0;
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+
+    private final long budgetNanos;
+    private final int maxPlayouts;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private final LongAdder playouts = new LongAdder();
+
+    public MctsStratergy(final long budgetMillis, final int maxPlayouts) {
+        this(budgetMillis, maxPlayouts, ForkJoinPool.getCommonPoolParallelism() + 1, ForkJoinPool.commonPool());
+    }
+
+    /** The calling thread runs one of the {@code parallelism} workers; the rest are forked into the pool. */
+    public MctsStratergy(final long budgetMillis, final int maxPlayouts, final int parallelism,
+            final ForkJoinPool pool) {
+        if (budgetMillis <= 0 || maxPlayouts <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid search budget");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.maxPlayouts = maxPlayouts;
+        this.parallelism = parallelism;
+        this.pool = pool;
+    }
+
+    /** Difficulty 1 runs 1 000 playouts a move; each level above doubles it, up to 512 000 at 10. */
+    public static MctsStratergy forDifficulty(final int difficulty) {
+        final int level = Math.max(1, Math.min(difficulty, 10));
+        return new MctsStratergy(DEFAULT_BUDGET_MILLIS, 1_000 << (level - 1));
+    }
+
+    /** Total playouts run by this engine; divide by wall time for playouts per second. */
+    public long playouts() {
+        return playouts.sum();
+    }
+
+    @Override
+    public Optional<Move> makeMove(final Board board, final Piece piece) {
+        final int size = board.getSize();
+        final int[] sides = new int[size * size];
+        int filled = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                final Optional<Piece> occupant = board.getPieceAt(row, col);
+                sides[row * size + col] = occupant.isEmpty() ? BitBoard.EMPTY
+                        : occupant.get().getPieceType() == piece.getPieceType() ? ME : 1 - ME;
+                filled += occupant.isPresent() ? 1 : 0;
+            }
+        }
+        if (filled == sides.length) {
+            return Optional.empty();
+        }
+        final int cell = search(size, board.getWinLength(), sides);
+        return Optional.of(new Move(cell / size, cell % size, piece));
+    }
+
+    private int search(final int size, final int winLength, final int[] sides) {
+        final long deadline = System.nanoTime() + budgetNanos;
+        final Worker scout = new Worker(size, winLength, sides);
+        // forced moves are not left to sampling: win now, else stop the opponent winning now
+        final int win = scout.immediateWin(ME);
+        if (win >= 0) {
+            return win;
+        }
+        final int block = scout.immediateWin(1 - ME);
+        if (block >= 0) {
+            return block;
+        }
+
+        final Node root = new Node(-1);
+        root.expand(scout.candidates());
+        final AtomicInteger started = new AtomicInteger();
+        final List<ForkJoinTask<?>> forked = new ArrayList<>(parallelism - 1);
+        for (int i = 1; i < parallelism; i++) {
+            forked.add(pool.submit(() -> new Worker(size, winLength, sides).run(root, started, deadline)));
+        }
+        scout.run(root, started, deadline);
+        for (final ForkJoinTask<?> task : forked) {
+            task.join();
+        }
+
+        Node best = null;
+        for (final Node child : root.children) {
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+        return best.move;
+    }
+
+    private final class Worker {
+        private final int size;
+        private final BitBoard board;
+        private final int[] empties;
+        private final int[] position;
+        private final int[] played;
+        private final Node[] path;
+        private int emptyCount;
+
+        private Worker(final int size, final int winLength, final int[] sides) {
+            this.size = size;
+            this.board = BitBoard.create(size, winLength, 2);
+            this.empties = new int[sides.length];
+            this.position = new int[sides.length];
+            this.played = new int[sides.length];
+            this.path = new Node[sides.length + 1];
+            for (int cell = 0; cell < sides.length; cell++) {
+                if (sides[cell] == BitBoard.EMPTY) {
+                    position[cell] = emptyCount;
+                    empties[emptyCount++] = cell;
+                } else {
+                    board.make(cell / size, cell % size, sides[cell]);
+                }
+            }
+        }
+
+        private void run(final Node root, final AtomicInteger started, final long deadline) {
+            int sinceClockCheck = 0;
+            while (started.getAndIncrement() < maxPlayouts) {
+                if (++sinceClockCheck == 16) {
+                    sinceClockCheck = 0;
+                    if (System.nanoTime() > deadline) {
+                        return;
+                    }
+                }
+                playout(root);
+                playouts.increment();
+            }
+        }
+
+        /** One selection, expansion, rollout and backup pass; leaves the board as it found it. */
+        private void playout(final Node root) {
+            int depth = 0;
+            int moves = 0;
+            int side = ME;
+            int winner = BitBoard.EMPTY;
+            boolean over = false;
+            Node node = root;
+            root.visit();
+            path[0] = root;
+            while (true) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node.visits < EXPAND_AFTER) {
+                        break;
+                    }
+                    children = node.expand(candidates());
+                }
+                if (children.length == 0) {
+                    break;
+                }
+                node = select(node, children);
+                node.visit();
+                path[++depth] = node;
+                if (play(node.move, side, moves++)) {
+                    winner = side;
+                    over = true;
+                    break;
+                }
+                if (emptyCount == 0) {
+                    over = true;
+                    break;
+                }
+                side = 1 - side;
+            }
+            if (!over) {
+                // the side to move at the leaf is the opponent of whoever made the leaf's move
+                side = depth % 2 == 0 ? ME : 1 - ME;
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (emptyCount > 0) {
+                    if (play(empties[random.nextInt(emptyCount)], side, moves++)) {
+                        winner = side;
+                        break;
+                    }
+                    side = 1 - side;
+                }
+            }
+            // path[i] was played by ME when i is odd
+            for (int i = 1; i <= depth; i++) {
+                final int mover = i % 2 == 1 ? ME : 1 - ME;
+                path[i].score(winner == BitBoard.EMPTY ? DRAW : winner == mover ? WIN : 0);
+            }
+            emptyCount += moves;
+            for (int i = moves - 1; i >= 0; i--) {
+                final int cell = played[i];
+                // plies alternate from ME at the root, through the tree and on into the rollout
+                board.unmake(cell / size, cell % size, i % 2 == 0 ? ME : 1 - ME);
+            }
+        }
+
+        /** Makes the move and swaps the cell out of the empty set; restoring is bumping the count back. */
+        private boolean play(final int cell, final int side, final int ply) {
+            played[ply] = cell;
+            final int index = position[cell];
+            final int last = empties[--emptyCount];
+            empties[index] = last;
+            position[last] = index;
+            empties[emptyCount] = cell;
+            position[cell] = emptyCount;
+            return board.make(cell / size, cell % size, side);
+        }
+
+        private Node select(final Node parent, final Node[] children) {
+            final double logVisits = Math.log(Math.max(1, parent.visits));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (final Node child : children) {
+                final int visits = child.visits;
+                if (visits == 0) {
+                    return child;
+                }
+                final double value = child.value / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /** Empty cells within two of a stone, or every empty cell if none are. */
+        private int[] candidates() {
+            final int[] cells = new int[emptyCount];
+            int n = 0;
+            for (int i = 0; i < emptyCount; i++) {
+                if (nearStone(empties[i])) {
+                    cells[n++] = empties[i];
+                }
+            }
+            if (n == 0) {
+                System.arraycopy(empties, 0, cells, 0, emptyCount);
+                return cells;
+            }
+            return n == cells.length ? cells : Arrays.copyOf(cells, n);
+        }
+
+        private boolean nearStone(final int cell) {
+            final int row = cell / size;
+            final int col = cell % size;
+            for (int r = Math.max(0, row - NEAR); r <= Math.min(size - 1, row + NEAR); r++) {
+                for (int c = Math.max(0, col - NEAR); c <= Math.min(size - 1, col + NEAR); c++) {
+                    if (board.sideAt(r, c) != BitBoard.EMPTY) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private int immediateWin(final int side) {
+            for (int i = 0; i < emptyCount; i++) {
+                final int cell = empties[i];
+                final boolean wins = board.make(cell / size, cell % size, side);
+                board.unmake(cell / size, cell % size, side);
+                if (wins) {
+                    return cell;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Node {
+        private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        private static final AtomicLongFieldUpdater<Node> VALUE =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "value");
+
+        private final int move;
+        private volatile Node[] children;
+        private volatile int visits;
+        // half-points for the side that played this node's move: 2 per win, 1 per draw
+        private volatile long value;
+
+        private Node(final int move) {
+            this.move = move;
+        }
+
+        /** Publishes children for the cells; if another worker got there first, its children win. */
+        private Node[] expand(final int[] cells) {
+            final Node[] created = new Node[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                created[i] = new Node(cells[i]);
+            }
+            return CHILDREN.compareAndSet(this, null, created) ? created : children;
+        }
+
+        /** Counted before the result is known, which reads as a loss to workers passing by meanwhile. */
+        private void visit() {
+            VISITS.incrementAndGet(this);
+        }
+
+        private void score(final int halfPoints) {
+            if (halfPoints != 0) {
+                VALUE.addAndGet(this, halfPoints);
+            }
+        }
+    }
+}
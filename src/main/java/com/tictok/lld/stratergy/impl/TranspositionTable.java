@@ -0,0 +1,75 @@
+package com.tictok.lld.stratergy.impl;
+
+/**
+ * Fixed-size, lock-free transposition table. Each slot holds the Zobrist key XOR-ed with its packed
+ * entry, so a torn write from a concurrent search reads back as a miss instead of a wrong entry.
+ * A slot is overwritten when it is empty, holds the same position, was written by an earlier search,
+ * or was searched to no greater depth; memory never grows past the initial allocation.
+ */
+final class TranspositionTable {
+
+    static final long MISS = 0;
+    static final int EXACT = 1;
+    static final int LOWER = 2;
+    static final int UPPER = 3;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    TranspositionTable(final int bits) {
+        this.keys = new long[1 << bits];
+        this.entries = new long[1 << bits];
+        this.mask = (1 << bits) - 1;
+    }
+
+    /** Starts a new search; entries from earlier searches become preferred victims. */
+    int nextGeneration() {
+        return generation = (generation + 1) & 0x3F;
+    }
+
+    long probe(final long key) {
+        final int i = (int) key & mask;
+        final long entry = entries[i];
+        return entry != MISS && (keys[i] ^ entry) == key ? entry : MISS;
+    }
+
+    void store(final long key, final int score, final int depth, final int flag, final int move,
+            final int generation) {
+        final int i = (int) key & mask;
+        final long old = entries[i];
+        if (old != MISS && (keys[i] ^ old) != key && generation(old) == generation && depth(old) > depth) {
+            return;
+        }
+        final long entry = (score & 0xFFFFFFFFL)
+                | (long) (move & 0xFFFF) << 32
+                | (long) Math.min(depth, 0xFF) << 48
+                | (long) flag << 56
+                | (long) generation << 58;
+        keys[i] = key ^ entry;
+        entries[i] = entry;
+    }
+
+    static int score(final long entry) {
+        return (int) entry;
+    }
+
+    /** Best move recorded for the position, or -1. */
+    static int move(final long entry) {
+        final int move = (int) (entry >>> 32) & 0xFFFF;
+        return move == 0xFFFF ? -1 : move;
+    }
+
+    static int depth(final long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    static int flag(final long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    private static int generation(final long entry) {
+        return (int) (entry >>> 58) & 0x3F;
+    }
+}
@@ -0,0 +1,111 @@
+package com.idgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.idgen.impl.SnowflakeIdGenerator;
+
+/**
+ * Validates time-ordered ID generation:
+ * 1. IDs carry their node and issue time
+ * 2. Concurrent threads get unique IDs, each thread in increasing order
+ * 3. IDs keep increasing when the clock steps back or across a restart from the tail
+ * 4. The text form round-trips and sorts like the numbers
+ * 5. A thread per ID does not push the IDs ahead of the clock
+ */
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    void id_carriesNodeAndTime() {
+        long now = System.currentTimeMillis();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37, () -> now, -1);
+
+        long id = generator.nextId();
+
+        assertEquals(37, SnowflakeIdGenerator.nodeOf(id));
+        assertEquals(now, SnowflakeIdGenerator.timestampOf(id));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1));
+    }
+
+    @Test
+    void concurrentThreads_getUniqueIncreasingIds() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            tasks.add(() -> {
+                long[] ids = new long[10_000];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            });
+        }
+
+        Set<Long> all = new HashSet<>();
+        for (Future<long[]> f : executor.invokeAll(tasks)) {
+            long[] ids = f.get();
+            for (int i = 0; i < ids.length; i++) {
+                assertTrue(i == 0 || ids[i] > ids[i - 1], "Per-thread order");
+                all.add(ids[i]);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(320_000, all.size());
+    }
+
+    @Test
+    void ids_keepIncreasing_acrossClockStepBackAndRestart() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(2, clock::get, -1);
+        long before = generator.nextId();
+
+        clock.addAndGet(-5_000);
+        long afterStepBack = generator.nextId();
+        assertTrue(afterStepBack > before);
+
+        // restart with the clock still behind, resuming from the last durable ID
+        SnowflakeIdGenerator restarted = new SnowflakeIdGenerator(2, clock::get, afterStepBack);
+        assertTrue(restarted.nextId() > afterStepBack);
+    }
+
+    @Test
+    void threadPerId_staysOnTheClock() throws Exception {
+        long now = System.currentTimeMillis();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> now, -1);
+        long[] last = new long[1];
+
+        for (int i = 0; i < 1_000; i++) {
+            Thread thread = new Thread(() -> last[0] = generator.nextId());
+            thread.start();
+            thread.join();
+        }
+
+        assertEquals(now, SnowflakeIdGenerator.timestampOf(last[0]));
+    }
+
+    @Test
+    void textForm_roundTripsAndSorts() {
+        long[] ids = { 0, 1, 31, 32, 1L << 40, new SnowflakeIdGenerator(5).nextId(), Long.MAX_VALUE };
+        String previous = null;
+        for (long id : ids) {
+            String text = IdCodec.encode(id);
+            assertEquals(IdCodec.LENGTH, text.length());
+            assertEquals(id, IdCodec.decode(text));
+            assertEquals(id, IdCodec.decode(text.toLowerCase()));
+            assertTrue(previous == null || previous.compareTo(text) < 0);
+            previous = text;
+        }
+
+        assertEquals(IdCodec.decode("0000000000011"), IdCodec.decode("OOOOOOOOOOOIl"));
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.decode("0000000000U00"));
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.decode("8000000000000"));
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.decode("123"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates the waiting list used when the lot is full:
+ * 1. Released slots go to the highest priority waiter
+ * 2. Waiters time out without polling
+ * 3. Retried requests share one waiter
+ * 4. Concurrent releases never hand one slot to two waiters
+ * 5. A waiter cancelled as its slot is assigned leaves no journal entry or ticket behind
+ */
+public class AdmissionQueueTest {
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(30);
+    private SlotManager slotManager;
+    private InMemoryJournal journal;
+    private TicketManager ticketManager;
+    private List<Ticket> parked;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        journal = new InMemoryJournal();
+        ticketManager = new TicketManager();
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), journal, ticketManager);
+
+        parked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            parked.add(slotManager.allocate(new Vehicle("P" + i, VehicleType.CAR), "ENTRY").get());
+        }
+    }
+
+    @Test
+    void releasedSlot_goesToHighestPriorityWaiter() throws Exception {
+        CompletableFuture<Ticket> walkIn = slotManager.allocateOrWait(
+                new Vehicle("W1", VehicleType.CAR), "ENTRY", AdmissionPriority.WALK_IN, LONG_WAIT);
+        CompletableFuture<Ticket> reservation = slotManager.allocateOrWait(
+                new Vehicle("R1", VehicleType.CAR), "ENTRY", AdmissionPriority.RESERVATION, LONG_WAIT);
+        CompletableFuture<Ticket> monthly = slotManager.allocateOrWait(
+                new Vehicle("M1", VehicleType.CAR), "ENTRY", AdmissionPriority.MONTHLY_PASS, LONG_WAIT);
+
+        slotManager.release(parked.get(0).getSlotId());
+
+        assertEquals(parked.get(0).getSlotId(), monthly.get(1, TimeUnit.SECONDS).getSlotId());
+        assertFalse(reservation.isDone());
+        assertFalse(walkIn.isDone());
+        assertEquals(0, slotManager.freeSlotCount(SlotType.MEDIUM), "Handed-off slot must not enter the free index");
+
+        slotManager.release(parked.get(1).getSlotId());
+
+        assertEquals(parked.get(1).getSlotId(), reservation.get(1, TimeUnit.SECONDS).getSlotId());
+        assertFalse(walkIn.isDone());
+    }
+
+    @Test
+    void waiterTimesOut_whenNoSlotIsReleased() {
+        CompletableFuture<Ticket> waiter = slotManager.allocateOrWait(
+                new Vehicle("W1", VehicleType.CAR), "ENTRY", AdmissionPriority.WALK_IN, Duration.ofMillis(50));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        slotManager.release(parked.get(0).getSlotId());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM), "Expired waiter must not receive a slot");
+    }
+
+    @Test
+    void retriedRequest_sharesWaiter() throws Exception {
+        Vehicle car = new Vehicle("W1", VehicleType.CAR);
+        CompletableFuture<Ticket> first = slotManager.allocateOrWait(car, "ENTRY", AdmissionPriority.WALK_IN, LONG_WAIT);
+        CompletableFuture<Ticket> retry = slotManager.allocateOrWait(car, "ENTRY", AdmissionPriority.WALK_IN, LONG_WAIT);
+
+        assertSame(first, retry);
+
+        slotManager.release(parked.get(2).getSlotId());
+        slotManager.release(parked.get(3).getSlotId());
+
+        assertEquals(first.get(1, TimeUnit.SECONDS).getTicketId(), retry.get().getTicketId());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM), "Retry must not consume a second slot");
+    }
+
+    @Test
+    void cancelledAsSlotIsAssigned_rollsBackTheAllocation() {
+        Vehicle car = new Vehicle("W1", VehicleType.CAR);
+        CompletableFuture<Ticket> waiter = slotManager.allocateOrWait(car, "ENTRY", AdmissionPriority.WALK_IN,
+                LONG_WAIT);
+        // the driver gives up at the moment the released slot is occupied for them
+        slotManager.addListener((slot, from, to) -> {
+            if (to == SlotState.OCCUPIED) {
+                waiter.cancel(false);
+            }
+        });
+
+        slotManager.release(parked.get(0).getSlotId());
+
+        assertTrue(waiter.isCancelled());
+        AllocationKey key = AllocationKey.of("W1", "ENTRY");
+        assertTrue(journal.get(key).isEmpty(), "Journal entry must be rolled back");
+        assertTrue(ticketManager.getByAllocationKey(key).isEmpty(), "Ticket must be discarded");
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+    }
+
+    @Test
+    void concurrentReleases_eachSlotHandedToOneWaiter() throws Exception {
+        List<CompletableFuture<Ticket>> waiters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            waiters.add(slotManager.allocateOrWait(
+                    new Vehicle("W" + i, VehicleType.CAR), "ENTRY", AdmissionPriority.WALK_IN, LONG_WAIT));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        for (Ticket ticket : parked) {
+            executor.submit(() -> slotManager.release(ticket.getSlotId()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Set<String> slots = new HashSet<>();
+        for (CompletableFuture<Ticket> waiter : waiters) {
+            if (waiter.isDone()) {
+                assertTrue(slots.add(waiter.get().getSlotId()), "Slot handed to two waiters");
+            }
+        }
+        assertEquals(5, slots.size());
+    }
+}
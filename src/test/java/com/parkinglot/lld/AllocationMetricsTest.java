@@ -0,0 +1,138 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.metrics.AllocationMetrics;
+import com.parkinglot.lld.metrics.LatencyHistogram;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.IAllocationStratergy;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates allocation instrumentation:
+ * 1. Histogram percentiles are within the bucket precision
+ * 2. Idempotent hits, exhaustion and CAS conflicts are counted
+ * 3. Every allocate, reserve and release records its latency, one sample per phase
+ * 4. Concurrent recording loses no samples
+ */
+public class AllocationMetricsTest {
+
+    private List<ParkingSlot> slots;
+    private AllocationMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        slots = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        metrics = new AllocationMetrics();
+    }
+
+    @Test
+    void percentiles_areWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000, snapshot.getMaxNanos());
+        assertEquals(5_000_000, snapshot.getP50Nanos(), 5_000_000 * 0.125);
+        assertEquals(9_900_000, snapshot.getP99Nanos(), 9_900_000 * 0.125);
+        assertTrue(snapshot.getP50Nanos() >= 5_000_000, "Percentiles report bucket upper bounds");
+    }
+
+    @Test
+    void outcomes_areCounted() {
+        SlotManager slotManager = slotManager(new RandomizedStratergy());
+        Vehicle car = new Vehicle("CAR1", VehicleType.CAR);
+
+        slotManager.allocate(car, "ENTRY");
+        slotManager.allocate(car, "ENTRY");
+        slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY");
+        Ticket third = slotManager.allocate(new Vehicle("CAR3", VehicleType.CAR), "ENTRY").get();
+        slotManager.allocate(new Vehicle("CAR4", VehicleType.CAR), "ENTRY");
+        slotManager.release(third.getSlotId());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.counter(AllocationCounter.IDEMPOTENT_HIT));
+        assertEquals(1, snapshot.counter(AllocationCounter.EXHAUSTED));
+        assertEquals(0, snapshot.counter(AllocationCounter.CAS_CONFLICT));
+        assertEquals(5, snapshot.getLatencies().get(AllocationPhase.ALLOCATE).getCount());
+        assertEquals(3, snapshot.getLatencies().get(AllocationPhase.TICKET).getCount());
+        assertEquals(1, snapshot.getLatencies().get(AllocationPhase.RELEASE).getCount());
+    }
+
+    @Test
+    void lostOccupyRace_countsOneConflict() {
+        // a strategy that loses the race for the slot it picked
+        SlotManager slotManager = slotManager(freeSlots -> {
+            ParkingSlot slot = freeSlots.iterator().next();
+            slot.occupy("RIVAL");
+            return Optional.of(slot.getSlotId());
+        });
+
+        assertTrue(slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").isEmpty());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.counter(AllocationCounter.CAS_CONFLICT));
+        assertEquals(1, snapshot.getLatencies().get(AllocationPhase.OCCUPY).getCount());
+        assertEquals(1, snapshot.getLatencies().get(AllocationPhase.JOURNAL).getCount());
+    }
+
+    @Test
+    void reservedFallback_recordsOneSamplePerPhase() {
+        SlotManager slotManager = slotManager(new RandomizedStratergy());
+
+        assertTrue(slotManager.allocateReserved(new Vehicle("CAR1", VehicleType.CAR), "ENTRY", SlotType.LARGE)
+                .isPresent());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        for (AllocationPhase phase : List.of(AllocationPhase.ALLOCATE, AllocationPhase.FIND_CANDIDATES,
+                AllocationPhase.STRATEGY, AllocationPhase.JOURNAL, AllocationPhase.OCCUPY, AllocationPhase.TICKET)) {
+            assertEquals(1, snapshot.getLatencies().get(phase).getCount(), phase.name());
+        }
+    }
+
+    @Test
+    void concurrentRecording_losesNoSamples() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.lap(AllocationPhase.STRATEGY, System.nanoTime());
+                    metrics.increment(AllocationCounter.EXHAUSTED);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : executor.invokeAll(tasks)) {
+            f.get();
+        }
+        executor.shutdown();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(80_000, snapshot.getLatencies().get(AllocationPhase.STRATEGY).getCount());
+        assertEquals(80_000, snapshot.counter(AllocationCounter.EXHAUSTED));
+    }
+
+    private SlotManager slotManager(final IAllocationStratergy stratergy) {
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        SlotManager slotManager = new SlotManager(lot, stratergy, new InMemoryJournal(), new TicketManager());
+        slotManager.setMetrics(metrics);
+        return slotManager;
+    }
+}
@@ -0,0 +1,138 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates exit checkout:
+ * 1. Fees follow the tariff table by duration and vehicle type
+ * 2. A scan closes the ticket, prices the stay and frees the slot
+ * 3. Rescans return the same receipt and never free the slot again
+ * 4. Concurrent scans of one ticket release the slot once
+ * 5. A rescan after the receipt and journal entry have expired rebuilds it from the paid ticket
+ */
+public class CheckoutTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private TicketManager ticketManager;
+    private SlotManager slotManager;
+    private CheckoutManager checkoutManager;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        slots.add(new ParkingSlot("S0", null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        ticketManager = new TicketManager(Duration.ofHours(24), now::get);
+        slotManager = new SlotManager(lot, new RandomizedStratergy(),
+                new InMemoryJournal(Duration.ofHours(24), now::get), ticketManager);
+        checkoutManager = new CheckoutManager(ticketManager, slotManager,
+                new InMemoryJournal(Duration.ofHours(24), now::get), TariffTable.standard(), now::get,
+                Duration.ofHours(24));
+    }
+
+    @Test
+    void fees_followTariffTable() {
+        TariffTable tariff = TariffTable.standard();
+
+        assertEquals(0, tariff.fee(VehicleType.CAR, Duration.ofMinutes(10).toMillis()));
+        assertEquals(75, tariff.fee(VehicleType.CAR, Duration.ofMinutes(11).toMillis()));
+        assertEquals(300, tariff.fee(VehicleType.CAR, HOUR));
+        assertEquals(350, tariff.fee(VehicleType.CAR, HOUR + 1));
+        assertEquals(2_000, tariff.fee(VehicleType.CAR, 20 * HOUR));
+        assertEquals(2_000 + 300, tariff.fee(VehicleType.CAR, 25 * HOUR));
+        assertEquals(800, tariff.fee(VehicleType.TRUCK, HOUR));
+        assertEquals(100, tariff.fee(VehicleType.BIKE, HOUR));
+    }
+
+    @Test
+    void scan_closesTicketPricesStayAndFreesSlot() {
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        now.addAndGet(2 * HOUR);
+
+        Receipt receipt = checkoutManager.checkout(ticket.getTicketId());
+
+        assertEquals(500, receipt.getFeeCents());
+        assertEquals(2 * HOUR, receipt.getExitTime() - receipt.getEntryTime());
+        assertEquals(VehicleType.CAR, receipt.getVehicleType());
+        assertTrue(ticketManager.getTicket(ticket.getTicketId()).get().isPaid());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertTrue(slotManager.getPlateIndex().find("CAR1").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> checkoutManager.checkout("NO-SUCH-TICKET"));
+    }
+
+    @Test
+    void rescan_returnsSameReceiptWithoutFreeingAgain() {
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        now.addAndGet(HOUR);
+        Receipt first = checkoutManager.checkout(ticket.getTicketId());
+        Ticket next = slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY").get();
+        now.addAndGet(HOUR);
+
+        Receipt second = checkoutManager.checkout(ticket.getTicketId());
+
+        assertSame(first, second);
+        assertEquals(SlotState.OCCUPIED, slotManager.topology().slot(next.getSlotId()).getState().get());
+        assertEquals(0, slotManager.freeSlotCount(SlotType.MEDIUM));
+    }
+
+    @Test
+    void rescanAfterReceiptExpired_rebuildsReceipt() {
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        now.addAndGet(2 * HOUR);
+        Receipt first = checkoutManager.checkout(ticket.getTicketId());
+        now.addAndGet(72 * HOUR);
+
+        Receipt rebuilt = checkoutManager.checkout(ticket.getTicketId());
+
+        assertEquals(first.getEntryTime(), rebuilt.getEntryTime());
+        assertEquals(first.getExitTime(), rebuilt.getExitTime());
+        assertEquals(first.getFeeCents(), rebuilt.getFeeCents());
+        assertEquals(first.getSlotId(), rebuilt.getSlotId());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+
+        Ticket other = slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY").get();
+        ticketManager.closeTicket(other.getTicketId());
+        assertThrows(IllegalStateException.class, () -> checkoutManager.checkout(other.getTicketId()));
+    }
+
+    @Test
+    void concurrentScans_releaseOnce() throws Exception {
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        now.addAndGet(HOUR);
+        ExecutorService gates = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Receipt>> scans = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            scans.add(gates.submit(() -> {
+                start.await();
+                return checkoutManager.checkout(ticket.getTicketId());
+            }));
+        }
+        start.countDown();
+        Set<Receipt> receipts = new HashSet<>();
+        for (Future<Receipt> scan : scans) {
+            receipts.add(scan.get(5, TimeUnit.SECONDS));
+        }
+        gates.shutdown();
+
+        assertEquals(1, receipts.size());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertTrue(slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY").isPresent());
+        assertTrue(slotManager.allocate(new Vehicle("CAR3", VehicleType.CAR), "ENTRY").isEmpty());
+    }
+}
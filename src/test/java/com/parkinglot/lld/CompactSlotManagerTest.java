@@ -0,0 +1,127 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+
+/**
+ * Verifies that the primitive slot table keeps the same guarantees as the
+ * object model:
+ * 1. FREE → RESERVED → OCCUPIED → FREE transitions only
+ * 2. No double allocation under concurrency
+ * 3. Idempotent allocation
+ * 4. Released slots are reused
+ */
+public class CompactSlotManagerTest {
+
+    private CompactSlotManager slotManager;
+
+    @BeforeEach
+    void setup() {
+        CompactSlotTable.Builder builder = CompactSlotTable.builder(12);
+        int level = builder.addLevel("L1");
+        for (int i = 0; i < 10; i++) {
+            builder.addSlot("S" + i, SlotType.MEDIUM, level, SlotState.FREE);
+        }
+        builder.addSlot("B0", SlotType.SMALL, level, SlotState.FREE);
+        builder.addSlot("X0", SlotType.LARGE, level, SlotState.OUT_OF_SERVICE);
+
+        slotManager = new CompactSlotManager(builder.build(), new InMemoryJournal(), new TicketManager());
+    }
+
+    /**
+     * State machine test:
+     * reserve only from FREE, occupy from FREE or RESERVED.
+     */
+    @Test
+    void tableFollowsSlotStateMachine() {
+        CompactSlotTable table = slotManager.getTable();
+        int s0 = table.indexOf("S0");
+        int x0 = table.indexOf("X0");
+
+        assertTrue(table.reserve(s0));
+        assertFalse(table.reserve(s0), "RESERVED slot cannot be reserved again");
+        assertTrue(table.occupy(s0, "KA01"));
+        assertFalse(table.occupy(s0, "KA02"), "OCCUPIED slot cannot be occupied again");
+        assertEquals("KA01", table.vehicleId(s0));
+
+        table.free(s0);
+        assertEquals(SlotState.FREE, table.state(s0));
+        assertNull(table.vehicleId(s0));
+
+        assertFalse(table.occupy(x0, "KA03"), "OUT_OF_SERVICE slot cannot be occupied");
+        assertEquals(-1, table.indexOf("UNKNOWN"));
+        assertEquals("L1", table.levelId(s0));
+    }
+
+    @Test
+    void idempotentAllocation_returnsSameTicket() {
+        Vehicle car = new Vehicle("KA01AB1234", VehicleType.CAR);
+
+        Optional<Ticket> t1 = slotManager.allocate(car, "ENTRY");
+        Optional<Ticket> t2 = slotManager.allocate(car, "ENTRY");
+
+        assertTrue(t1.isPresent());
+        assertEquals(t1.get().getTicketId(), t2.get().getTicketId());
+    }
+
+    /**
+     * Race condition test:
+     * 50 threads compete for 10 MEDIUM slots, exactly 10 win.
+     */
+    @Test
+    void concurrentAllocation_noDuplicateSlots() throws Exception {
+        int threads = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Callable<Optional<Ticket>>> tasks = IntStream.range(0, threads)
+                .mapToObj(i -> (Callable<Optional<Ticket>>) () ->
+                        slotManager.allocate(new Vehicle("CAR-" + i, VehicleType.CAR), "ENTRY"))
+                .toList();
+
+        List<Future<Optional<Ticket>>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        Set<String> allocatedSlots = new HashSet<>();
+        for (Future<Optional<Ticket>> f : results) {
+            f.get().ifPresent(ticket -> assertTrue(
+                    allocatedSlots.add(ticket.getSlotId()),
+                    "Duplicate slot allocated under concurrency"));
+        }
+        assertEquals(10, allocatedSlots.size());
+        assertEquals(0, slotManager.freeSlotCount(SlotType.MEDIUM));
+    }
+
+    /**
+     * Compatibility test:
+     * a BIKE takes the SMALL slot first, a TRUCK finds nothing usable.
+     */
+    @Test
+    void allocationRespectsCompatibility() {
+        Ticket bike = slotManager.allocate(new Vehicle("BIKE1", VehicleType.BIKE), "ENTRY").get();
+
+        assertEquals("B0", bike.getSlotId());
+        assertTrue(slotManager.allocate(new Vehicle("TRUCK1", VehicleType.TRUCK), "ENTRY").isEmpty());
+    }
+
+    @Test
+    void releaseFreesSlotForReuse() {
+        for (int i = 0; i < 10; i++) {
+            slotManager.allocate(new Vehicle("A" + i, VehicleType.CAR), "ENTRY").get();
+        }
+        slotManager.release("S3");
+
+        Ticket reused = slotManager.allocate(new Vehicle("A10", VehicleType.CAR), "ENTRY").get();
+
+        assertEquals("S3", reused.getSlotId(), "Released slot should be reused");
+    }
+}
@@ -0,0 +1,212 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.federation.ILotNode;
+import com.parkinglot.lld.federation.impl.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates the federation router:
+ * 1. Adding a lot only moves the gates that now hash to it
+ * 2. A full home lot spills to its ring neighbour
+ * 3. A lot known to be full is skipped until its cache entry expires
+ * 4. A retried request returns to the lot holding its ticket
+ * 5. Lots served over loopback route like in-process lots
+ */
+public class FederationRouterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void addedLot_movesOnlyItsGates() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(id -> id);
+        for (int l = 0; l < 4; l++) {
+            ring.add("LOT" + l);
+        }
+        Map<String, String> before = new HashMap<>();
+        for (int g = 0; g < 2_000; g++) {
+            before.put("G" + g, ring.preference("G" + g, 1).get(0));
+        }
+
+        ring.add("LOT4");
+
+        int moved = 0;
+        for (Map.Entry<String, String> gate : before.entrySet()) {
+            String owner = ring.preference(gate.getKey(), 1).get(0);
+            if (!owner.equals(gate.getValue())) {
+                assertEquals("LOT4", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > 200 && moved < 700, "Expected about a fifth of the gates to move, got " + moved);
+        assertEquals(3, Set.copyOf(ring.preference("G1", 3)).size());
+    }
+
+    @Test
+    void fullHomeLot_spillsToNeighbour() {
+        FederationRouter router = router();
+        List<CountingNode> nodes = federate(router, 3, 1);
+        String gate = "GATE-1";
+        String home = router.homeLot(gate).get().lotId();
+
+        FederatedTicket first = router.allocate(gate, car(1), "ENTRY").get();
+        FederatedTicket second = router.allocate(gate, car(2), "ENTRY").get();
+
+        assertEquals(home, first.getLotId());
+        assertFalse(first.isSpilled());
+        assertNotEquals(home, second.getLotId());
+        assertTrue(second.isSpilled());
+        RoutingSnapshot snapshot = router.metrics();
+        assertEquals(1, snapshot.counter(RoutingCounter.HOME_HIT));
+        assertEquals(1, snapshot.counter(RoutingCounter.SPILLOVER));
+        assertEquals(2, snapshot.getLatencies().get(RoutingPhase.OVERHEAD).getCount());
+        assertEquals(1, snapshot.getLatencies().get(RoutingPhase.SPILLOVER).getCount());
+        assertEquals(3, nodes.stream().mapToInt(n -> n.allocations.get()).sum());
+    }
+
+    @Test
+    void fullLot_isSkippedUntilCacheExpires() {
+        FederationRouter router = router();
+        List<CountingNode> nodes = federate(router, 2, 1);
+        String gate = "GATE-1";
+        CountingNode home = nodes.stream().filter(n -> n.lotId().equals(router.homeLot(gate).get().lotId()))
+                .findFirst().get();
+        FederatedTicket parked = router.allocate(gate, car(1), "ENTRY").get();
+        router.allocate(gate, car(2), "ENTRY");
+        int homeCalls = home.allocations.get();
+
+        assertTrue(router.allocate(gate, car(3), "ENTRY").isEmpty());
+        assertEquals(homeCalls, home.allocations.get(), "Known-full home lot must not be called");
+        assertTrue(router.metrics().counter(RoutingCounter.CACHE_SKIP) > 0);
+
+        router.release(parked);
+        nanos.addAndGet(FederationRouter.DEFAULT_CACHE_TTL_NANOS);
+
+        FederatedTicket ticket = router.allocate(gate, car(3), "ENTRY").get();
+        assertEquals(home.lotId(), ticket.getLotId());
+    }
+
+    @Test
+    void retry_returnsToLotHoldingTicket() {
+        FederationRouter router = router();
+        federate(router, 2, 1);
+        String gate = "GATE-1";
+        FederatedTicket parked = router.allocate(gate, car(1), "ENTRY").get();
+        FederatedTicket spilled = router.allocate(gate, car(2), "ENTRY").get();
+        router.release(parked);
+        nanos.addAndGet(FederationRouter.DEFAULT_CACHE_TTL_NANOS);
+
+        FederatedTicket retried = router.allocate(gate, car(2), "ENTRY").get();
+
+        assertEquals(spilled.getLotId(), retried.getLotId());
+        assertEquals(spilled.getTicket().getTicketId(), retried.getTicket().getTicketId());
+        assertEquals(1, router.metrics().counter(RoutingCounter.REPLAY));
+    }
+
+    @Test
+    void loopbackLots_routeLikeLocalOnes() throws Exception {
+        FederationRouter router = router();
+        List<LotNodeServer> servers = new ArrayList<>();
+        List<LoopbackLotNode> clients = new ArrayList<>();
+        try {
+            for (CountingNode node : nodes(3, 2)) {
+                LotNodeServer server = new LotNodeServer(node);
+                servers.add(server);
+                LoopbackLotNode client = new LoopbackLotNode(server.getPort());
+                clients.add(client);
+                router.addLot(client);
+            }
+
+            List<FederatedTicket> tickets = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                tickets.add(router.allocate("GATE-1", car(i), "ENTRY").get());
+            }
+            assertTrue(router.allocate("GATE-1", car(6), "ENTRY").isEmpty());
+            assertEquals(tickets.get(0).getTicket().getAllocationKey(), AllocationKey.of("CAR0", "ENTRY"));
+
+            for (FederatedTicket ticket : tickets) {
+                router.release(ticket);
+            }
+            int free = clients.stream().mapToInt(c -> c.freeCapacity().get(SlotType.MEDIUM)).sum();
+            assertEquals(6, free);
+        } finally {
+            for (LoopbackLotNode client : clients) {
+                client.close();
+            }
+            for (LotNodeServer server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    private FederationRouter router() {
+        return new FederationRouter(FederationRouter.DEFAULT_SPILLOVER, FederationRouter.DEFAULT_CACHE_TTL_NANOS,
+                nanos::get);
+    }
+
+    private List<CountingNode> federate(final FederationRouter router, final int lots, final int slotsPerLot) {
+        List<CountingNode> nodes = nodes(lots, slotsPerLot);
+        nodes.forEach(router::addLot);
+        return nodes;
+    }
+
+    private static List<CountingNode> nodes(final int lots, final int slotsPerLot) {
+        List<CountingNode> nodes = new ArrayList<>();
+        for (int l = 0; l < lots; l++) {
+            List<ParkingSlot> slots = new ArrayList<>();
+            for (int s = 0; s < slotsPerLot; s++) {
+                slots.add(new ParkingSlot("LOT" + l + "-S" + s, null, SlotType.MEDIUM,
+                        new AtomicReference<>(SlotState.FREE)));
+            }
+            ParkingLot lot = new ParkingLot("LOT" + l, "Lot " + l, List.of(new ParkingLevel("L1", slots)));
+            nodes.add(new CountingNode(new LocalLotNode("LOT" + l, new SlotManager(lot, new RandomizedStratergy(),
+                    new InMemoryJournal(), new TicketManager()))));
+        }
+        return nodes;
+    }
+
+    private static Vehicle car(final int i) {
+        return new Vehicle("CAR" + i, VehicleType.CAR);
+    }
+
+    private static class CountingNode implements ILotNode {
+        private final ILotNode delegate;
+        private final AtomicInteger allocations = new AtomicInteger();
+
+        CountingNode(final ILotNode delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String lotId() {
+            return delegate.lotId();
+        }
+
+        @Override
+        public Optional<Ticket> allocate(final Vehicle vehicle, final String ctx) {
+            allocations.incrementAndGet();
+            return delegate.allocate(vehicle, ctx);
+        }
+
+        @Override
+        public void release(final String slotId) {
+            delegate.release(slotId);
+        }
+
+        @Override
+        public Map<SlotType, Integer> freeCapacity() {
+            return delegate.freeCapacity();
+        }
+    }
+}
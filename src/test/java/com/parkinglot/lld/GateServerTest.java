@@ -0,0 +1,184 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.gateway.impl.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates the binary gate protocol server:
+ * 1. Allocate, reserve, checkout and ticket lookups round-trip over the wire
+ * 2. Pipelined requests from concurrent clients each get their own answer
+ * 3. Replayed batches return the tickets already issued
+ * 4. Failed requests answer with an error and keep the connection; bad frames drop it
+ * 5. A full write buffer applies backpressure without losing or repeating responses
+ */
+public class GateServerTest {
+
+    private TicketManager ticketManager;
+    private SlotManager slotManager;
+    private ReservationManager reservationManager;
+    private CheckoutManager checkoutManager;
+    private GateServer server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        ReservationCalendar calendar = new ReservationCalendar(lot);
+        ticketManager = new TicketManager();
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), ticketManager, calendar);
+        reservationManager = new ReservationManager(slotManager, calendar);
+        checkoutManager = new CheckoutManager(ticketManager, slotManager, new InMemoryJournal(),
+                TariffTable.standard());
+        server = server(GateServer.DEFAULT_BUFFER_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void operations_roundTripOverTheWire() throws Exception {
+        try (GateClient client = client(server, GateServer.DEFAULT_BUFFER_SIZE)) {
+            Ticket ticket = client.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get().orElseThrow();
+            assertEquals("CAR1", ticket.getVehicleId());
+            assertEquals(AllocationKey.of("CAR1", "ENTRY"), ticket.getAllocationKey());
+            assertEquals(199, slotManager.freeSlotCount(SlotType.MEDIUM));
+            assertEquals(ticket.getSlotId(), client.ticket(ticket.getTicketId()).get().orElseThrow().getSlotId());
+
+            long now = System.currentTimeMillis();
+            String reservationId = client.reserve(new Vehicle("CAR2", VehicleType.CAR), now, now + 60_000).get();
+            assertNotNull(reservationId);
+
+            Receipt receipt = client.checkout(ticket.getTicketId()).get();
+            assertEquals(ticket.getTicketId(), receipt.getTicketId());
+            assertEquals(ticket.getSlotId(), receipt.getSlotId());
+            assertEquals(200, slotManager.freeSlotCount(SlotType.MEDIUM));
+            assertTrue(client.ticket("missing").get().isEmpty());
+        }
+    }
+
+    @Test
+    void pipelinedRequests_fromConcurrentClients_getTheirOwnAnswers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<List<Optional<Ticket>>>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int gate = t;
+            tasks.add(() -> {
+                try (GateClient client = client(server, GateServer.DEFAULT_BUFFER_SIZE)) {
+                    List<CompletableFuture<Optional<Ticket>>> calls = new ArrayList<>();
+                    for (int i = 0; i < 50; i++) {
+                        calls.add(client.allocate(new Vehicle("G" + gate + "-" + i, VehicleType.CAR), "ENTRY"));
+                    }
+                    List<Optional<Ticket>> tickets = new ArrayList<>();
+                    for (int i = 0; i < calls.size(); i++) {
+                        Optional<Ticket> ticket = calls.get(i).get(10, TimeUnit.SECONDS);
+                        ticket.ifPresent(t1 -> assertTrue(t1.getVehicleId().startsWith("G" + gate + "-")));
+                        tickets.add(ticket);
+                    }
+                    return tickets;
+                }
+            });
+        }
+
+        Set<String> slots = new HashSet<>();
+        int granted = 0;
+        for (Future<List<Optional<Ticket>>> f : executor.invokeAll(tasks)) {
+            for (Optional<Ticket> ticket : f.get()) {
+                if (ticket.isPresent()) {
+                    granted++;
+                    assertTrue(slots.add(ticket.get().getSlotId()), "Slot handed out twice");
+                }
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(200, granted);
+        assertEquals(0, slotManager.freeSlotCount(SlotType.MEDIUM));
+    }
+
+    @Test
+    void replayedBatch_returnsIssuedTickets() throws Exception {
+        List<GateEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(new GateEntry(new Vehicle("CAR" + i, VehicleType.CAR), "GATE1-" + i));
+        }
+        entries.add(new GateEntry(new Vehicle("TRUCK1", VehicleType.TRUCK), "GATE1-5"));
+
+        try (GateClient client = client(server, GateServer.DEFAULT_BUFFER_SIZE)) {
+            List<Optional<Ticket>> first = client.replay(entries).get();
+            List<Optional<Ticket>> second = client.replay(entries).get();
+
+            assertEquals(6, first.size());
+            assertTrue(first.get(5).isEmpty(), "No large slots in this lot");
+            for (int i = 0; i < 5; i++) {
+                assertEquals(first.get(i).orElseThrow().getTicketId(), second.get(i).orElseThrow().getTicketId());
+            }
+            assertEquals(195, slotManager.freeSlotCount(SlotType.MEDIUM));
+        }
+    }
+
+    @Test
+    void failures_answerWithError_badFramesDropConnection() throws Exception {
+        try (GateClient client = client(server, GateServer.DEFAULT_BUFFER_SIZE)) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> client.checkout("missing").get());
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertTrue(client.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get().isPresent());
+        }
+
+        try (SocketChannel raw = SocketChannel.open(address(server))) {
+            raw.write(ByteBuffer.allocate(9).putInt(-1).putInt(1).put((byte) 1).flip());
+            raw.socket().setSoTimeout(5_000);
+            assertEquals(-1, raw.socket().getInputStream().read(), "Server closes the connection");
+        }
+    }
+
+    @Test
+    void fullWriteBuffer_appliesBackpressure() throws Exception {
+        try (GateServer small = server(512); GateClient client = client(small, 512)) {
+            Ticket ticket = client.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get().orElseThrow();
+            List<CompletableFuture<Optional<Ticket>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                lookups.add(client.ticket(ticket.getTicketId()));
+            }
+            for (CompletableFuture<Optional<Ticket>> lookup : lookups) {
+                assertEquals(ticket.getTicketId(), lookup.get(10, TimeUnit.SECONDS).orElseThrow().getTicketId());
+            }
+        }
+    }
+
+    private GateServer server(final int bufferSize) throws IOException {
+        return new GateServer(slotManager, reservationManager, ticketManager, checkoutManager,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, bufferSize);
+    }
+
+    private static GateClient client(final GateServer server, final int bufferSize) throws IOException {
+        return new GateClient(address(server), bufferSize);
+    }
+
+    private static InetSocketAddress address(final GateServer server) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+}
@@ -0,0 +1,59 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.simulation.*;
+
+/**
+ * Validates the gate traffic simulator:
+ * 1. A single-threaded run is reproducible from the seed
+ * 2. Invariants hold with crashing gates and concurrent gate threads
+ * 3. An overloaded lot rejects arrivals instead of breaking invariants
+ */
+public class GateSimulatorTest {
+
+    private static final SimulationConfig SMALL = SimulationConfig.builder()
+            .gates(4)
+            .levels(1)
+            .slotsPerType(40)
+            .duration(Duration.ofHours(2))
+            .arrivalsPerGatePerHour(30)
+            .crashProbability(0.05)
+            .build();
+
+    @Test
+    void sameSeed_reproducesTheReport() {
+        SimulationReport first = new GateSimulator(SMALL).run();
+        SimulationReport second = new GateSimulator(SMALL).run();
+
+        assertEquals(first, second);
+        assertNotEquals(first, new GateSimulator(SMALL.toBuilder().seed(SMALL.getSeed() + 1).build()).run());
+        assertTrue(first.getCrashes() > 0);
+        assertTrue(first.getViolations().isEmpty(), () -> first.getViolations().toString());
+    }
+
+    @Test
+    void concurrentGates_keepInvariants() {
+        SimulationReport report = new GateSimulator(SMALL.toBuilder().gates(8).gateThreads(4).build()).run();
+
+        assertTrue(report.getViolations().isEmpty(), () -> report.getViolations().toString());
+        assertEquals(report.getAllocateLatency().getCount(), report.getArrivals() + report.getCrashes());
+    }
+
+    @Test
+    void overloadedLot_rejectsArrivals() {
+        SimulationReport report = new GateSimulator(SMALL.toBuilder()
+                .slotsPerType(5)
+                .arrivalsPerGatePerHour(120)
+                .meanStay(Duration.ofHours(6))
+                .build()).run();
+
+        assertTrue(report.getRejected() > 0);
+        assertTrue(report.getViolations().isEmpty(), () -> report.getViolations().toString());
+        assertTrue(report.getOccupancy().stream().allMatch(p -> p.getOccupied() <= p.getCapacity()));
+    }
+}
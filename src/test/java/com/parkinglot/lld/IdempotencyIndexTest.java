@@ -0,0 +1,85 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.VehicleType;
+import com.parkinglot.lld.managers.impl.IdempotencyIndex;
+import com.parkinglot.lld.managers.impl.TicketManager;
+import com.parkinglot.lld.models.AllocationKey;
+import com.parkinglot.lld.models.Ticket;
+import com.parkinglot.lld.models.Vehicle;
+
+/**
+ * Validates the bounded idempotency index:
+ * 1. Keys hash (license, ctx) without ambiguity
+ * 2. Entries are retained for the whole retry window
+ * 3. Entries are dropped once the window has passed
+ * 4. Ticket replays expire on the ticket manager's clock
+ */
+public class IdempotencyIndexTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void keysAreStableAndUnambiguous() {
+        assertEquals(AllocationKey.of("KA01", "ENTRY"), AllocationKey.of("KA01", "ENTRY"));
+        assertNotEquals(AllocationKey.of("AB", "C"), AllocationKey.of("A", "BC"));
+        assertNotEquals(AllocationKey.of("KA01", 1000), AllocationKey.of("KA01", 1001));
+        assertNotEquals(AllocationKey.of("KA01", "ENTRY"), AllocationKey.of("KA02", "ENTRY"));
+    }
+
+    @Test
+    void replayWithinWindow_returnsSameValue() {
+        IdempotencyIndex<String> index = new IdempotencyIndex<>(Duration.ofMinutes(30), now::get);
+        AllocationKey key = AllocationKey.of("KA01", "ENTRY");
+
+        assertNull(index.putIfAbsent(key, "T1"));
+        now.addAndGet(Duration.ofMinutes(29).toMillis());
+
+        assertEquals("T1", index.putIfAbsent(key, "T2"), "Replay inside the window must see the first value");
+        assertEquals("T1", index.get(key));
+    }
+
+    @Test
+    void entriesExpireAfterWindow() {
+        IdempotencyIndex<String> index = new IdempotencyIndex<>(Duration.ofMinutes(30), now::get);
+        AllocationKey key = AllocationKey.of("KA01", "ENTRY");
+        index.putIfAbsent(key, "T1");
+
+        now.addAndGet(Duration.ofMinutes(41).toMillis());
+
+        assertNull(index.get(key), "Entry must be evicted once the window and one generation have passed");
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void computeIfPresent_updatesOlderGeneration() {
+        IdempotencyIndex<String> index = new IdempotencyIndex<>(Duration.ofMinutes(30), now::get);
+        AllocationKey key = AllocationKey.of("KA01", "ENTRY");
+        index.putIfAbsent(key, "INTENT");
+
+        now.addAndGet(Duration.ofMinutes(15).toMillis());
+        index.computeIfPresent(key, (k, v) -> "COMMIT");
+
+        assertEquals("COMMIT", index.get(key));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void ticketReplays_expireOnTheInjectedClock() {
+        TicketManager ticketManager = new TicketManager(Duration.ofMinutes(30), now::get);
+        AllocationKey key = AllocationKey.of("KA01", "ENTRY");
+        Vehicle car = new Vehicle("KA01", VehicleType.CAR);
+        Ticket first = ticketManager.createTicket(car, "S1", key);
+
+        assertEquals(first.getTicketId(), ticketManager.createTicket(car, "S1", key).getTicketId());
+        now.addAndGet(Duration.ofMinutes(41).toMillis());
+
+        assertNotEquals(first.getTicketId(), ticketManager.createTicket(car, "S1", key).getTicketId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+
+/**
+ * Validates the binary lot file:
+ * 1. A lot round-trips with its levels, types, states and parked vehicles
+ * 2. The loaded table allocates and releases through CompactSlotManager
+ * 3. In-flight intents are committed when their slot is taken, rolled back otherwise
+ * 4. Foreign or truncated files are rejected with an IOException
+ */
+public class LotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lot_roundTrips() throws IOException {
+        Path file = dir.resolve("lot.plot");
+        LotFile.write(file, "LOT1", table());
+
+        CompactSlotTable loaded = LotFile.load(file);
+
+        assertEquals(5, loaded.size());
+        assertEquals(2, loaded.levelCount());
+        assertEquals("L2", loaded.levelIdAt(1));
+        int truck = loaded.indexOf("L2-T1");
+        assertEquals(SlotType.LARGE, loaded.slotType(truck));
+        assertEquals("L2", loaded.levelId(truck));
+        assertEquals(SlotState.OCCUPIED, loaded.state(truck));
+        assertEquals("TRUCK9", loaded.vehicleId(truck));
+        assertEquals(SlotState.RESERVED, loaded.state(loaded.indexOf("L1-C2")));
+        assertEquals(SlotState.FREE, loaded.state(loaded.indexOf("L1-C1")));
+        assertNull(loaded.vehicleId(loaded.indexOf("L1-C1")));
+    }
+
+    @Test
+    void loadedTable_allocates() throws IOException {
+        Path file = dir.resolve("lot.plot");
+        LotFile.write(file, lot());
+        CompactSlotManager slotManager = new CompactSlotManager(LotFile.load(file), new InMemoryJournal(),
+                new TicketManager());
+
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").orElseThrow();
+        assertEquals("L1-C1", ticket.getSlotId());
+        assertTrue(slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY").isEmpty());
+
+        slotManager.release(ticket.getSlotId());
+        assertEquals(1, slotManager.freeSlotCount(SlotType.MEDIUM));
+    }
+
+    @Test
+    void inFlightIntents_areResolvedAgainstFile() throws IOException {
+        Path file = dir.resolve("lot.plot");
+        LotFile.write(file, "LOT1", table());
+        InMemoryJournal journal = new InMemoryJournal();
+        AllocationKey landed = AllocationKey.of("TRUCK9", "ENTRY");
+        AllocationKey lost = AllocationKey.of("CAR7", "ENTRY");
+        AllocationKey done = AllocationKey.of("CAR8", "ENTRY");
+        journal.recordIntent(landed, "L2-T1");
+        journal.recordIntent(lost, "L1-C1");
+        journal.recordIntent(done, "L1-C3");
+        journal.commit(done);
+
+        LotFile.load(file, journal);
+
+        assertTrue(journal.get(landed).orElseThrow().isCommitted());
+        assertTrue(journal.get(lost).isEmpty());
+        assertTrue(journal.get(done).orElseThrow().isCommitted());
+    }
+
+    @Test
+    void foreignOrTruncatedFile_isRejected() throws IOException {
+        Path foreign = dir.resolve("foreign.plot");
+        Files.writeString(foreign, "not a lot file");
+        assertThrows(IOException.class, () -> LotFile.load(foreign));
+
+        Path file = dir.resolve("lot.plot");
+        LotFile.write(file, "LOT1", table());
+        byte[] bytes = Files.readAllBytes(file);
+        for (int length : new int[] { 10, bytes.length - 3 }) {
+            Path truncated = dir.resolve("truncated-" + length + ".plot");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> LotFile.load(truncated));
+        }
+    }
+
+    private static CompactSlotTable table() {
+        CompactSlotTable.Builder builder = CompactSlotTable.builder(5);
+        int l1 = builder.addLevel("L1");
+        int l2 = builder.addLevel("L2");
+        builder.addSlot("L1-C1", SlotType.MEDIUM, l1, SlotState.FREE)
+                .addSlot("L1-C2", SlotType.MEDIUM, l1, SlotState.FREE)
+                .addSlot("L1-C3", SlotType.MEDIUM, l1, SlotState.FREE)
+                .addSlot("L2-B1", SlotType.SMALL, l2, SlotState.FREE)
+                .addSlot("L2-T1", SlotType.LARGE, l2, SlotState.FREE);
+        CompactSlotTable table = builder.build();
+        table.reserve(table.indexOf("L1-C2"));
+        table.occupy(table.indexOf("L1-C3"), "CAR8");
+        table.occupy(table.indexOf("L2-T1"), "TRUCK9");
+        return table;
+    }
+
+    private static ParkingLot lot() {
+        List<ParkingSlot> slots = List.of(
+                new ParkingSlot("L1-C1", null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)),
+                new ParkingSlot("L1-C2", null, SlotType.MEDIUM, new AtomicReference<>(SlotState.OCCUPIED)));
+        return new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.observers.impl.OccupancyTracker;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates occupancy counters:
+ * 1. Initial state is counted per level and slot type
+ * 2. Every transition moves exactly one count
+ * 3. Counts stay exact under concurrent allocation
+ * 4. A free delivered before its occupy never bleeds into other counts
+ */
+public class OccupancyTrackerTest {
+
+    private SlotManager slotManager;
+    private OccupancyTracker tracker;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> level1 = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            level1.add(new ParkingSlot("L1-S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        level1.add(new ParkingSlot("L1-X", null, SlotType.LARGE, new AtomicReference<>(SlotState.OUT_OF_SERVICE)));
+        List<ParkingSlot> level2 = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            level2.add(new ParkingSlot("L2-E" + i, null, SlotType.EV, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot",
+                List.of(new ParkingLevel("L1", level1), new ParkingLevel("L2", level2)));
+
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), new TicketManager());
+        tracker = new OccupancyTracker(0);
+        slotManager.addListener(tracker);
+    }
+
+    @Test
+    void initialState_isCountedPerLevelAndType() {
+        OccupancySnapshot snapshot = tracker.snapshot();
+
+        assertEquals(10, snapshot.free("L1", SlotType.MEDIUM));
+        assertEquals(0, snapshot.free("L1", SlotType.LARGE));
+        assertEquals(4, snapshot.free("L2", SlotType.EV));
+        OccupancyCount large = snapshot.getCounts().stream()
+                .filter(c -> c.getSlotType() == SlotType.LARGE).findFirst().get();
+        assertEquals(1, large.getOutOfService());
+    }
+
+    @Test
+    void transitions_moveCounts() {
+        Ticket parked = slotManager.allocate(new Vehicle("EV1", VehicleType.EV), "ENTRY").get();
+        slotManager.reserve(new Vehicle("EV2", VehicleType.EV), 1000).get();
+
+        OccupancyCount ev = evCount();
+        assertEquals(2, ev.getFree());
+        assertEquals(1, ev.getOccupied());
+        assertEquals(1, ev.getReserved());
+
+        slotManager.release(parked.getSlotId());
+
+        assertEquals(3, evCount().getFree());
+        assertEquals(0, evCount().getOccupied());
+    }
+
+    @Test
+    void concurrentAllocation_keepsCountsExact() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Optional<Ticket>>> tasks = IntStream.range(0, 50)
+                .mapToObj(i -> (Callable<Optional<Ticket>>) () ->
+                        slotManager.allocate(new Vehicle("CAR-" + i, VehicleType.CAR), "ENTRY"))
+                .toList();
+        long allocated = 0;
+        for (Future<Optional<Ticket>> f : executor.invokeAll(tasks)) {
+            allocated += f.get().isPresent() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        OccupancySnapshot snapshot = tracker.snapshot();
+        int occupied = snapshot.getCounts().stream().mapToInt(OccupancyCount::getOccupied).sum();
+        assertEquals(allocated, occupied);
+        assertEquals(14 - allocated, snapshot.free(SlotType.MEDIUM) + snapshot.free(SlotType.EV));
+    }
+
+    @Test
+    void freeBeforeOccupy_doesNotCorruptNeighbouringCounts() {
+        ParkingSlot slot = new ParkingSlot("L2-E0", null, SlotType.EV, new AtomicReference<>(SlotState.FREE));
+        slot.setLevelId("L2");
+        slotManager.reserve(new Vehicle("EV1", VehicleType.EV), 1000).get();
+
+        tracker.onTransition(slot, SlotState.OCCUPIED, SlotState.FREE);
+
+        OccupancyCount ev = evCount();
+        assertEquals(0, ev.getOccupied());
+        assertEquals(1, ev.getReserved());
+        assertEquals(0, ev.getOutOfService());
+
+        tracker.onTransition(slot, SlotState.FREE, SlotState.OCCUPIED);
+
+        assertEquals(0, evCount().getOccupied());
+        assertEquals(1, evCount().getReserved());
+        assertEquals(3, evCount().getFree());
+    }
+
+    private OccupancyCount evCount() {
+        return tracker.snapshot().getCounts().stream()
+                .filter(c -> c.getSlotType() == SlotType.EV).findFirst().get();
+    }
+}
@@ -0,0 +1,175 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Validates the parking REST API over HTTP:
+ * 1. Entry issues a ticket that lookup and release can find
+ * 2. Retries with the same Idempotency-Key return the same ticket or reservation
+ * 3. A full lot answers 503, and a waiting entry completes once a slot frees up
+ * 4. Reservations can be cancelled once
+ * 5. Invalid reservation windows answer 400; only a fully booked window answers 503
+ * 6. A wait the container times out leaves the queue, so a released slot goes to the next entry
+ */
+public class ParkingApiTest {
+
+    private static ConfigurableApplicationContext context;
+    private static HttpClient http;
+    private static String base;
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @BeforeAll
+    static void start() {
+        // one level with a single LARGE slot, so trucks fill the lot
+        context = new SpringApplicationBuilder(LldApplication.class)
+                .properties("server.port=0", "parkinglot.levels=1", "parkinglot.slots-per-type=1")
+                .run();
+        base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        http = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    void entry_lookup_release() throws Exception {
+        HttpResponse<String> entry = post("/tickets?plate=CAR1&type=CAR", "car1-entry");
+        assertEquals(201, entry.statusCode());
+        JsonNode ticket = json.readTree(entry.body());
+        assertEquals("CAR1", ticket.get("vehicleId").asString());
+        assertEquals("UNPAID", ticket.get("status").asString());
+
+        HttpResponse<String> retry = post("/tickets?plate=CAR1&type=CAR", "car1-entry");
+        assertEquals(ticket.get("ticketId").asString(), json.readTree(retry.body()).get("ticketId").asString());
+
+        HttpResponse<String> lookup = get("/tickets/" + ticket.get("ticketId").asString());
+        assertEquals(200, lookup.statusCode());
+        assertEquals(ticket.get("slotId").asString(), json.readTree(lookup.body()).get("slotId").asString());
+        assertEquals(404, get("/tickets/missing").statusCode());
+
+        assertEquals(204, post("/slots/" + ticket.get("slotId").asString() + "/release", null).statusCode());
+    }
+
+    @Test
+    void fullLot_rejectsEntry_waitingEntryCompletesOnRelease() throws Exception {
+        HttpResponse<String> first = post("/tickets?plate=TRUCK1&type=TRUCK", "truck1");
+        assertEquals(201, first.statusCode());
+        assertEquals(503, post("/tickets?plate=TRUCK2&type=TRUCK", "truck2").statusCode());
+
+        CompletableFuture<HttpResponse<String>> waiting = http.sendAsync(
+                request("/tickets/wait?plate=TRUCK3&type=TRUCK&timeoutMillis=10000", "truck3"),
+                HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(200);
+        assertFalse(waiting.isDone());
+
+        post("/slots/" + json.readTree(first.body()).get("slotId").asString() + "/release", null);
+        HttpResponse<String> admitted = waiting.get(10, TimeUnit.SECONDS);
+        assertEquals(201, admitted.statusCode());
+        assertEquals("TRUCK3", json.readTree(admitted.body()).get("vehicleId").asString());
+
+        assertEquals(503, post("/tickets/wait?plate=TRUCK4&type=TRUCK&timeoutMillis=50", "truck4").statusCode());
+        post("/slots/" + json.readTree(admitted.body()).get("slotId").asString() + "/release", null);
+    }
+
+    @Test
+    void reservation_isIdempotent_andCancelledOnce() throws Exception {
+        long start = System.currentTimeMillis() + 3_600_000;
+        String path = "/reservations?plate=BIKE1&type=BIKE&startTime=" + start + "&endTime=" + (start + 3_600_000);
+
+        HttpResponse<String> reserved = post(path, "bike1-booking");
+        assertEquals(201, reserved.statusCode());
+        String reservationId = json.readTree(reserved.body()).get("reservationId").asString();
+        assertEquals(reservationId, json.readTree(post(path, "bike1-booking").body()).get("reservationId").asString());
+
+        assertEquals(204, delete("/reservations/" + reservationId).statusCode());
+        assertEquals(404, delete("/reservations/" + reservationId).statusCode());
+        assertEquals(409, post(path, "bike1-booking").statusCode());
+    }
+
+    @Test
+    void reservation_rejectsInvalidWindowsWith400_fullWindowWith503() throws Exception {
+        long now = System.currentTimeMillis();
+        long hour = 3_600_000;
+
+        assertEquals(400, post("/reservations?plate=TRUCK9&type=TRUCK&startTime=" + (now - 3 * hour)
+                + "&endTime=" + (now - 2 * hour), "past").statusCode());
+        assertEquals(400, post("/reservations?plate=TRUCK9&type=TRUCK&startTime=" + (now + 60 * 24 * hour)
+                + "&endTime=" + (now + 60 * 24 * hour + hour), "too-far").statusCode());
+
+        long start = now + 48 * hour;
+        String window = "&startTime=" + start + "&endTime=" + (start + hour);
+        HttpResponse<String> booked = post("/reservations?plate=TRUCK9&type=TRUCK" + window, "truck9-booking");
+        assertEquals(201, booked.statusCode());
+        assertEquals(503, post("/reservations?plate=TRUCK10&type=TRUCK" + window, "truck10-booking").statusCode());
+
+        delete("/reservations/" + json.readTree(booked.body()).get("reservationId").asString());
+    }
+
+    @Test
+    void containerTimeout_cancelsWaiter() throws Exception {
+        ConfigurableApplicationContext shortTimeout = new SpringApplicationBuilder(LldApplication.class)
+                .properties("server.port=0", "parkinglot.levels=1", "parkinglot.slots-per-type=1")
+                // an argument, since application.properties outranks builder defaults
+                .run("--spring.mvc.async.request-timeout=200ms");
+        try {
+            String root = "http://127.0.0.1:" + shortTimeout.getEnvironment().getProperty("local.server.port");
+            HttpResponse<String> first = http.send(request(root, "/tickets?plate=TRUCK1&type=TRUCK", "truck1"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, first.statusCode());
+
+            HttpResponse<String> abandoned = http.send(
+                    request(root, "/tickets/wait?plate=TRUCK2&type=TRUCK&timeoutMillis=10000", "truck2"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, abandoned.statusCode());
+
+            http.send(request(root, "/slots/" + json.readTree(first.body()).get("slotId").asString() + "/release",
+                    null), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, http.send(request(root, "/tickets?plate=TRUCK3&type=TRUCK", "truck3"),
+                    HttpResponse.BodyHandlers.ofString()).statusCode());
+        } finally {
+            shortTimeout.close();
+        }
+    }
+
+    private HttpRequest request(final String path, final String key) {
+        return request(base, path, key);
+    }
+
+    private HttpRequest request(final String root, final String path, final String key) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(root + path))
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (key != null) {
+            builder.header("Idempotency-Key", key);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> post(final String path, final String key) throws Exception {
+        return http.send(request(path, key), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(final String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> delete(final String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + path)).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
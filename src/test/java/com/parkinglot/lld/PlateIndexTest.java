@@ -0,0 +1,132 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates the plate index:
+ * 1. Parking indexes the plate and leaving removes it, including hand-offs to waiters
+ * 2. Leaving an old slot does not drop the plate's newer stay
+ * 3. Partial plates match as substrings, and one typo still finds the car
+ * 4. Concurrent parks and leaves keep the index in step with the slots
+ */
+public class PlateIndexTest {
+
+    private SlotManager slotManager;
+    private PlateIndex index;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), new TicketManager());
+        index = slotManager.getPlateIndex();
+    }
+
+    @Test
+    void parkAndLeave_maintainIndex() throws Exception {
+        Ticket ticket = slotManager.allocate(new Vehicle("KA-01 AB 1234", VehicleType.CAR), "ENTRY").get();
+        slotManager.allocate(new Vehicle("MH02CD5678", VehicleType.CAR), "ENTRY");
+
+        PlateLocation location = index.find("ka01ab1234").get();
+        assertEquals(ticket.getSlotId(), location.getSlotId());
+        assertEquals("L1", location.getLevelId());
+        assertEquals(ticket.getTicketId(), location.getTicketId());
+
+        CompletableFuture<Ticket> waiting = slotManager.allocateOrWait(new Vehicle("DL03EF9012", VehicleType.CAR),
+                "ENTRY", AdmissionPriority.WALK_IN, Duration.ofSeconds(5));
+        slotManager.release(ticket.getSlotId());
+
+        assertTrue(index.find("KA01AB1234").isEmpty());
+        assertEquals(waiting.get(1, TimeUnit.SECONDS).getSlotId(), index.find("DL03EF9012").get().getSlotId());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void leavingOldSlot_keepsNewerStay() {
+        index.park("AB123", "S0", "L1", "T0");
+        index.park("AB123", "S1", "L1", "T1");
+
+        index.leave("AB123", "S0");
+
+        assertEquals("S1", index.find("AB123").get().getSlotId());
+        assertEquals(1, index.search("B12", 10).size());
+        index.leave("AB123", "S1");
+        assertTrue(index.search("B12", 10).isEmpty());
+    }
+
+    @Test
+    void search_findsPartialAndMistypedPlates() {
+        index.park("KA01AB1234", "S0", "L1", "T0");
+        index.park("KA01AB1284", "S1", "L1", "T1");
+        index.park("MH02CD5678", "S2", "L1", "T2");
+
+        List<PlateMatch> partial = index.search("ab12", 10);
+        assertEquals(List.of("KA01AB1234", "KA01AB1284"), partial.stream().map(m -> m.getLocation().getPlate()).toList());
+        assertTrue(partial.stream().allMatch(m -> m.getDistance() == 0));
+
+        List<PlateMatch> typo = index.search("AB1294", 10);
+        assertEquals(List.of("KA01AB1234", "KA01AB1284"), typo.stream().map(m -> m.getLocation().getPlate()).toList());
+        assertTrue(typo.stream().allMatch(m -> m.getDistance() == 1));
+
+        List<PlateMatch> ranked = index.search("AB1234", 10);
+        assertEquals("KA01AB1234", ranked.get(0).getLocation().getPlate());
+        assertEquals(0, ranked.get(0).getDistance());
+        assertEquals(1, ranked.get(1).getDistance());
+
+        assertTrue(index.search("CD", 10).isEmpty(), "Queries under three characters match nothing");
+        assertTrue(index.search("ZZ99ZZ", 10).isEmpty());
+        assertEquals(1, index.search("AB12", 1).size());
+    }
+
+    @Test
+    void concurrentParkAndLeave_keepIndexInStep() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    String plate = "T" + thread + "V" + (i % 50);
+                    String slot = "S" + thread + "-" + (i % 7);
+                    index.park(plate, slot, "L1", "T");
+                    if (i % 3 != 0) {
+                        index.leave(plate, slot);
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : executor.invokeAll(tasks)) {
+            f.get();
+        }
+        executor.shutdown();
+
+        for (int t = 0; t < 8; t++) {
+            Set<String> indexed = new HashSet<>();
+            for (PlateMatch match : index.search("T" + t + "V", 1_000, 0)) {
+                indexed.add(match.getLocation().getPlate());
+            }
+            Set<String> parked = new HashSet<>();
+            for (int v = 0; v < 50; v++) {
+                index.find("T" + t + "V" + v).ifPresent(location -> parked.add(location.getPlate()));
+            }
+            assertEquals(parked, indexed);
+        }
+    }
+}
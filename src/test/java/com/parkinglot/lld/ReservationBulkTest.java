@@ -0,0 +1,147 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates sharded bulk reservation operations:
+ * 1. Cancelling an event removes exactly its bookings and frees their windows
+ * 2. No-show sweeps skip checked-in and future bookings
+ * 3. Per-vehicle lookups follow reserve, check-in and cancel
+ * 4. Bulk cancels racing single cancels release each window once
+ */
+public class ReservationBulkTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private ReservationCalendar calendar;
+    private ReservationManager reservationManager;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+
+        calendar = new ReservationCalendar(lot, Duration.ofMinutes(5), Duration.ofDays(7), Duration.ofMinutes(30),
+                now::get);
+        SlotManager slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(),
+                new TicketManager(), calendar);
+        reservationManager = new ReservationManager(slotManager, calendar, now::get);
+    }
+
+    @Test
+    void cancelEvent_removesOnlyTheEventsBookings() {
+        long start = now.get() + 24 * HOUR;
+        for (int i = 0; i < 50; i++) {
+            // spread over several hours so the event spans several shards
+            reservationManager.reserve(new Vehicle("E" + i, VehicleType.CAR), start + (i % 5) * HOUR,
+                    start + 6 * HOUR, null, "CONCERT");
+        }
+        Reservation other = reservationManager.reserve(new Vehicle("X", VehicleType.CAR), start, start + HOUR);
+
+        assertEquals(50, reservationManager.cancelEvent("CONCERT"));
+        assertEquals(0, reservationManager.cancelEvent("CONCERT"));
+
+        assertTrue(reservationManager.getReservation(other.getReservationId()).isPresent());
+        assertEquals(1, calendar.bookedBetween(SlotType.MEDIUM, start, start + 6 * HOUR));
+        assertTrue(reservationManager.reservationsOf("E0").isEmpty());
+    }
+
+    @Test
+    void sweepNoShows_keepsCheckedInAndFutureBookings() {
+        long start = now.get() + HOUR;
+        Reservation noShow = reservationManager.reserve(new Vehicle("NS", VehicleType.CAR), start, start + 4 * HOUR);
+        Vehicle arriving = new Vehicle("IN", VehicleType.CAR);
+        Reservation arrived = reservationManager.reserve(arriving, start, start + 4 * HOUR);
+        Reservation later = reservationManager.reserve(new Vehicle("LT", VehicleType.CAR), start + 3 * HOUR,
+                start + 4 * HOUR);
+
+        now.set(start + 10 * 60 * 1000);
+        assertTrue(reservationManager.checkIn(arriving, arrived.getReservationId()).isPresent());
+
+        assertEquals(1, reservationManager.sweepNoShows(now.get()));
+
+        assertTrue(reservationManager.getReservation(noShow.getReservationId()).isEmpty());
+        assertTrue(reservationManager.getReservation(arrived.getReservationId()).isPresent());
+        assertTrue(reservationManager.getReservation(later.getReservationId()).isPresent());
+        assertEquals(1, calendar.bookedBetween(SlotType.MEDIUM, start, start + 4 * HOUR),
+                "Only the future booking still holds capacity");
+    }
+
+    @Test
+    void reservationsOf_tracksTheVehicle() {
+        Vehicle car = new Vehicle("CAR1", VehicleType.CAR);
+        long start = now.get() + 24 * HOUR;
+        Reservation first = reservationManager.reserve(car, start, start + HOUR);
+        Reservation second = reservationManager.reserve(car, start + 48 * HOUR, start + 49 * HOUR);
+
+        assertEquals(Set.of(first.getReservationId(), second.getReservationId()),
+                idsOf(reservationManager.reservationsOf("CAR1")));
+
+        reservationManager.cancelReservation(first);
+        assertEquals(Set.of(second.getReservationId()), idsOf(reservationManager.reservationsOf("CAR1")));
+
+        now.set(second.getEndTime());
+        reservationManager.expireReservations();
+        assertTrue(reservationManager.reservationsOf("CAR1").isEmpty());
+    }
+
+    @Test
+    void concurrentBulkAndSingleCancels_releaseEachWindowOnce() throws Exception {
+        long start = now.get() + 24 * HOUR;
+        List<Reservation> booked = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            booked.add(reservationManager.reserve(new Vehicle("V" + i, VehicleType.CAR), start + (i % 8) * HOUR,
+                    start + 9 * HOUR, null, "EVENT"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            reservationManager.cancelEvent("EVENT");
+            return null;
+        });
+        for (int t = 0; t < 7; t++) {
+            int offset = t;
+            tasks.add(() -> {
+                for (int i = offset; i < booked.size(); i += 7) {
+                    reservationManager.cancelReservation(booked.get(i));
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : executor.invokeAll(tasks)) {
+            f.get();
+        }
+        executor.shutdown();
+
+        assertEquals(0, calendar.bookedBetween(SlotType.MEDIUM, start, start + 9 * HOUR));
+        assertEquals(200, calendar.availableBetween(SlotType.MEDIUM, start, start + 9 * HOUR));
+        assertTrue(reservationManager.reservationsOf("V0").isEmpty());
+    }
+
+    private static Set<String> idsOf(final List<Reservation> reservations) {
+        Set<String> ids = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            ids.add(reservation.getReservationId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,134 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates time-windowed reservations:
+ * 1. Future bookings do not block slots today
+ * 2. Overlapping bookings never exceed capacity
+ * 3. Walk-ins are held back for bookings about to start
+ * 4. Check-in turns a booking into a ticket, no-shows give capacity back
+ * 5. Near-term availability is capped by the slots actually free now
+ */
+public class ReservationWindowTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private SlotManager slotManager;
+    private ReservationManager reservationManager;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+
+        ReservationCalendar calendar = new ReservationCalendar(lot, Duration.ofMinutes(5), Duration.ofDays(7),
+                Duration.ofMinutes(30), now::get);
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), new TicketManager(),
+                calendar);
+        reservationManager = new ReservationManager(slotManager, calendar, now::get);
+    }
+
+    @Test
+    void bookingForTomorrow_doesNotBlockWalkInsToday() {
+        for (int i = 0; i < 5; i++) {
+            reservationManager.reserve(new Vehicle("R" + i, VehicleType.CAR), now.get() + 24 * HOUR,
+                    now.get() + 26 * HOUR);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(slotManager.allocate(new Vehicle("W" + i, VehicleType.CAR), "ENTRY").isPresent(),
+                    "Walk-ins today must not be blocked by tomorrow's bookings");
+        }
+    }
+
+    /**
+     * Reservation contention:
+     * 20 bookings for 5 slots in the same window, exactly 5 succeed,
+     * and a disjoint window still has full capacity.
+     */
+    @Test
+    void overlappingBookings_neverExceedCapacity() {
+        long start = now.get() + 2 * HOUR;
+        int success = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                reservationManager.reserve(new Vehicle("R" + i, VehicleType.CAR), start, start + HOUR);
+                success++;
+            } catch (RuntimeException e) {
+                // capacity exhausted
+            }
+        }
+
+        assertEquals(5, success);
+        assertEquals(0, reservationManager.availableSlots(VehicleType.CAR, start + HOUR / 2, start + HOUR));
+        assertEquals(5, reservationManager.availableSlots(VehicleType.CAR, start + 2 * HOUR, start + 3 * HOUR));
+    }
+
+    @Test
+    void walkInsAreHeldBack_forBookingsAboutToStart() {
+        reservationManager.reserve(new Vehicle("R1", VehicleType.CAR), now.get() + 10 * 60 * 1000,
+                now.get() + HOUR);
+
+        int walkIns = 0;
+        for (int i = 0; i < 5; i++) {
+            if (slotManager.allocate(new Vehicle("W" + i, VehicleType.CAR), "ENTRY").isPresent()) {
+                walkIns++;
+            }
+        }
+
+        assertEquals(4, walkIns, "One slot must stay free for the booking starting in 10 minutes");
+    }
+
+    @Test
+    void checkInAllocatesSlot_andNoShowReleasesCapacity() {
+        Vehicle arriving = new Vehicle("R1", VehicleType.CAR);
+        Reservation kept = reservationManager.reserve(arriving, now.get() + HOUR, now.get() + 2 * HOUR);
+        Reservation missed = reservationManager.reserve(new Vehicle("R2", VehicleType.CAR), now.get() + HOUR,
+                now.get() + 2 * HOUR);
+
+        now.addAndGet(HOUR);
+        Ticket ticket = reservationManager.checkIn(arriving, kept.getReservationId()).get();
+        Ticket replay = reservationManager.checkIn(arriving, kept.getReservationId()).get();
+
+        assertEquals(ticket.getTicketId(), replay.getTicketId(), "Check-in must be idempotent");
+        // one slot is parked in, one is owed to the running booking that has not arrived
+        assertEquals(3, reservationManager.availableSlots(VehicleType.CAR, now.get(), now.get() + HOUR));
+
+        now.addAndGet(HOUR);
+        reservationManager.expireReservations();
+
+        assertTrue(reservationManager.getReservation(missed.getReservationId()).isEmpty());
+        assertEquals(4, reservationManager.availableSlots(VehicleType.CAR, now.get(), now.get() + HOUR));
+    }
+
+    @Test
+    void parkedWalkIns_capNearTermAvailability() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(slotManager.allocate(new Vehicle("W" + i, VehicleType.CAR), "ENTRY").isPresent());
+        }
+
+        assertEquals(0, reservationManager.availableSlots(VehicleType.CAR, now.get(), now.get() + HOUR));
+        assertThrows(RuntimeException.class, () -> reservationManager.reserve(new Vehicle("R1", VehicleType.CAR),
+                now.get() + 10 * 60 * 1000, now.get() + HOUR));
+        assertEquals(5, reservationManager.availableSlots(VehicleType.CAR, now.get() + 24 * HOUR,
+                now.get() + 25 * HOUR), "Beyond the lookahead only bookings count");
+    }
+}
@@ -0,0 +1,160 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.observers.impl.SlotEventBus;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates the slot event stream:
+ * 1. Subscribers see transitions in publish order
+ * 2. Each subscriber reads at its own cursor
+ * 3. A backlog larger than the poll budget is coalesced to the latest state per slot,
+ *    never more than the budget per poll
+ * 4. A lapped subscriber is resynchronised from current slot state
+ * 5. Concurrent publishers lose no events while the ring has room
+ */
+public class SlotEventBusTest {
+
+    private SlotManager slotManager;
+    private SlotEventBus bus;
+
+    @BeforeEach
+    void setup() {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            slots.add(new ParkingSlot("S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        ParkingLot lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots)));
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), new TicketManager());
+        bus = new SlotEventBus(16);
+        slotManager.addListener(bus);
+    }
+
+    @Test
+    void subscriber_seesTransitionsInOrder() {
+        SlotEventBus.Subscription subscription = bus.subscribe();
+
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        slotManager.release(ticket.getSlotId());
+
+        List<SlotEvent> events = new ArrayList<>();
+        assertEquals(2, subscription.poll(10, events::add));
+        assertEquals(SlotState.OCCUPIED, events.get(0).getTo());
+        assertEquals(SlotState.OCCUPIED, events.get(1).getFrom());
+        assertEquals(SlotState.FREE, events.get(1).getTo());
+        assertEquals(ticket.getSlotId(), events.get(1).getSlotId());
+        assertEquals("L1", events.get(1).getLevelId());
+        assertFalse(events.get(1).isCoalesced());
+        assertEquals(0, subscription.poll(10, events::add));
+    }
+
+    @Test
+    void subscribers_haveIndependentCursors() {
+        SlotEventBus.Subscription fast = bus.subscribe();
+        SlotEventBus.Subscription slow = bus.subscribe();
+
+        slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY");
+        assertEquals(1, fast.poll(10, e -> { }));
+        slotManager.allocate(new Vehicle("CAR2", VehicleType.CAR), "ENTRY");
+
+        assertEquals(1, fast.poll(10, e -> { }));
+        assertEquals(2, slow.poll(10, e -> { }));
+    }
+
+    @Test
+    void backlog_isCoalescedPerSlot() {
+        SlotEventBus.Subscription subscription = bus.subscribe();
+        String slotId = null;
+        for (int i = 0; i < 5; i++) {
+            Ticket ticket = slotManager.allocate(new Vehicle("CAR" + i, VehicleType.CAR), "ENTRY").get();
+            slotManager.release(ticket.getSlotId());
+            slotId = ticket.getSlotId();
+        }
+
+        Map<String, SlotEvent> events = new HashMap<>();
+        while (subscription.lag() > 0) {
+            Set<String> batch = new HashSet<>();
+            int delivered = subscription.poll(3, e -> {
+                assertTrue(!e.isCoalesced() || batch.add(e.getSlotId()), "One coalesced event per slot");
+                events.put(e.getSlotId(), e);
+            });
+            assertTrue(delivered > 0 && delivered <= 3);
+        }
+
+        assertTrue(events.values().stream().allMatch(e -> e.getTo() == SlotState.FREE));
+        assertTrue(events.containsKey(slotId));
+    }
+
+    @Test
+    void coalescing_respectsThePollBudget() {
+        SlotEventBus.Subscription subscription = bus.subscribe();
+        for (int i = 0; i < 8; i++) {
+            slotManager.allocate(new Vehicle("CAR" + i, VehicleType.CAR), "ENTRY");
+        }
+
+        List<SlotEvent> events = new ArrayList<>();
+        assertEquals(3, subscription.poll(3, events::add));
+        assertEquals(5, subscription.lag());
+        assertEquals(3, subscription.poll(3, events::add));
+        assertEquals(2, subscription.poll(3, events::add));
+
+        assertEquals(8, events.stream().map(SlotEvent::getSlotId).distinct().count());
+        assertTrue(events.subList(0, 6).stream().allMatch(SlotEvent::isCoalesced));
+    }
+
+    @Test
+    void lappedSubscriber_isResynchronised() {
+        SlotEventBus.Subscription subscription = bus.subscribe();
+        List<Ticket> parked = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 8; i++) {
+                parked.add(slotManager.allocate(new Vehicle("CAR" + round + i, VehicleType.CAR), "ENTRY").get());
+            }
+            if (round < 2) {
+                parked.forEach(t -> slotManager.release(t.getSlotId()));
+                parked.clear();
+            }
+        }
+
+        List<SlotEvent> events = new ArrayList<>();
+        assertEquals(8, subscription.poll(100, events::add));
+        assertTrue(events.stream().allMatch(e -> e.isCoalesced() && e.getTo() == SlotState.OCCUPIED));
+        assertEquals(0, subscription.lag());
+    }
+
+    @Test
+    void concurrentPublishers_loseNoEvents() throws Exception {
+        SlotEventBus wide = new SlotEventBus(1 << 12);
+        slotManager.addListener(wide);
+        SlotEventBus.Subscription subscription = wide.subscribe();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    slotManager.allocate(new Vehicle("CAR" + thread + "-" + i, VehicleType.CAR), "ENTRY")
+                            .ifPresent(ticket -> slotManager.release(ticket.getSlotId()));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        long published = wide.published();
+        Set<Long> sequences = new HashSet<>();
+        subscription.poll(Integer.MAX_VALUE, e -> assertTrue(sequences.add(e.getSequence())));
+        assertEquals(published, sequences.size());
+    }
+}
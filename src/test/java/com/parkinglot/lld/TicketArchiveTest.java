@@ -0,0 +1,153 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.idgen.impl.SnowflakeIdGenerator;
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates tiered ticket storage:
+ * 1. Paid tickets leave memory and stay reachable by id and allocation key
+ * 2. Lookups by id and plate work across sealed and active partitions
+ * 3. A reopened archive finds everything, sealing partitions a crash left open
+ * 4. A torn trailing record is cut off on reopen
+ */
+public class TicketArchiveTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void paidTickets_leaveMemory_andStayReachable() throws IOException {
+        try (TicketArchive archive = archive()) {
+            TicketManager ticketManager = new TicketManager(Duration.ofHours(24), now::get,
+                    SnowflakeIdGenerator.shared(), archive);
+            List<ParkingSlot> slots = List.of(
+                    new ParkingSlot("S0", null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+            SlotManager slotManager = new SlotManager(new ParkingLot("LOT1", "MainLot",
+                    List.of(new ParkingLevel("L1", slots))), new RandomizedStratergy(), new InMemoryJournal(),
+                    ticketManager);
+            CheckoutManager checkoutManager = new CheckoutManager(ticketManager, slotManager, new InMemoryJournal(),
+                    TariffTable.standard(), now::get, Duration.ofHours(24));
+
+            List<Ticket> tickets = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                Ticket ticket = slotManager.allocate(new Vehicle("CAR" + (i % 10), VehicleType.CAR), "E" + i)
+                        .orElseThrow();
+                checkoutManager.checkout(ticket.getTicketId());
+                tickets.add(ticket);
+                if (i % 100 == 99) {
+                    ticketManager.archiveClosed();
+                    assertEquals(0, ticketManager.hotTicketCount(), "Memory holds open tickets only");
+                }
+            }
+
+            Ticket first = tickets.get(0);
+            Ticket archived = ticketManager.getTicket(first.getTicketId()).orElseThrow();
+            assertEquals(TicketStatus.PAID, archived.getStatus());
+            assertEquals(first.getSlotId(), archived.getSlotId());
+            assertEquals(first.getIssuedAt(), archived.getIssuedAt());
+            assertEquals(first.getTicketId(),
+                    ticketManager.getByAllocationKey(AllocationKey.of("CAR0", "E0")).orElseThrow().getTicketId());
+            assertEquals(100, archive.findByPlate("CAR3").size());
+        }
+    }
+
+    @Test
+    void lookups_spanSealedAndActivePartitions() throws IOException {
+        try (TicketArchive archive = archive()) {
+            List<Ticket> tickets = appendAcrossPartitions(archive);
+
+            assertEquals(3, archive.partitionCount());
+            for (Ticket ticket : tickets) {
+                assertEquals(ticket.getSlotId(), archive.find(ticket.getTicketId()).orElseThrow().getSlotId());
+            }
+            assertTrue(archive.find("missing").isEmpty());
+            List<Ticket> regular = archive.findByPlate("REGULAR");
+            assertEquals(150, regular.size());
+            assertEquals(tickets.get(0).getTicketId(), regular.get(0).getTicketId());
+            assertEquals(1, archive.findByPlate("P7").size());
+            assertTrue(archive.findByPlate("NOBODY").isEmpty());
+        }
+    }
+
+    @Test
+    void reopenedArchive_findsEverything_andSealsOpenPartitions() throws IOException {
+        TicketArchive crashed = archive();
+        List<Ticket> tickets = appendAcrossPartitions(crashed);
+        // no close(): the last partition is left without its index, as after a crash
+
+        try (TicketArchive reopened = archive()) {
+            assertEquals(3, reopened.partitionCount());
+            for (Ticket ticket : tickets) {
+                assertTrue(reopened.find(ticket.getTicketId()).isPresent());
+            }
+            assertEquals(150, reopened.findByPlate("REGULAR").size());
+
+            // the clock is still in the last window, so new tickets append to its log
+            reopened.append(ticket("LATE", "REGULAR"));
+            assertEquals(151, reopened.findByPlate("REGULAR").size());
+        }
+        crashed.close();
+    }
+
+    @Test
+    void tornTrailingRecord_isCutOff() throws IOException {
+        TicketArchive crashed = archive();
+        crashed.append(ticket("T1", "CAR1"));
+        crashed.append(ticket("T2", "CAR1"));
+        Path log;
+        try (var files = Files.list(dir)) {
+            log = files.filter(f -> f.toString().endsWith(".tickets")).findFirst().orElseThrow();
+        }
+        Files.write(log, new byte[] { 0, 0, 0, 90, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        try (TicketArchive reopened = archive()) {
+            assertEquals(2, reopened.findByPlate("CAR1").size());
+            reopened.append(ticket("T3", "CAR1"));
+            assertEquals("T3", reopened.find("T3").orElseThrow().getTicketId());
+        }
+        crashed.close();
+    }
+
+    private List<Ticket> appendAcrossPartitions(final TicketArchive archive) {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            for (int i = 0; i < 100; i++) {
+                // half the records share one plate, so its index entries span several blocks
+                Ticket ticket = ticket(String.format("T%d-%03d", p, i), i % 2 == 0 ? "REGULAR" : "P" + (p * 100 + i));
+                archive.append(ticket);
+                tickets.add(ticket);
+            }
+            now.addAndGet(HOUR);
+        }
+        now.addAndGet(-HOUR);
+        return tickets;
+    }
+
+    private TicketArchive archive() throws IOException {
+        return new TicketArchive(dir, Duration.ofHours(1), now::get);
+    }
+
+    private Ticket ticket(final String ticketId, final String plate) {
+        return new Ticket(ticketId, "S-" + ticketId, plate, AllocationKey.of(plate, ticketId), TicketStatus.PAID,
+                VehicleType.CAR, now.get(), now.get());
+    }
+}
@@ -0,0 +1,166 @@
+package com.parkinglot.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.parkinglot.lld.enums.*;
+import com.parkinglot.lld.managers.impl.*;
+import com.parkinglot.lld.models.*;
+import com.parkinglot.lld.observers.impl.OccupancyTracker;
+import com.parkinglot.lld.stratergies.impl.RandomizedStratergy;
+
+/**
+ * Validates online topology changes:
+ * 1. Added levels and slots are allocatable and published under a new epoch
+ * 2. Free slots go out of service at once, occupied slots drain on release
+ * 3. Removed levels leave the lot once their last slot drains
+ * 4. Calendar capacity and occupancy counters follow the topology
+ * 5. Gates keep allocating while the topology changes
+ */
+public class TopologyChangeTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private ParkingLot lot;
+    private ReservationCalendar calendar;
+    private OccupancyTracker tracker;
+    private SlotManager slotManager;
+
+    @BeforeEach
+    void setup() {
+        lot = new ParkingLot("LOT1", "MainLot", List.of(new ParkingLevel("L1", slots("L1", 4))));
+        calendar = new ReservationCalendar(lot, ReservationCalendar.DEFAULT_BUCKET,
+                ReservationCalendar.DEFAULT_HORIZON, ReservationCalendar.DEFAULT_LOOKAHEAD, () -> NOW);
+        slotManager = new SlotManager(lot, new RandomizedStratergy(), new InMemoryJournal(), new TicketManager(),
+                calendar);
+        tracker = new OccupancyTracker(0);
+        slotManager.addListener(tracker);
+    }
+
+    @Test
+    void addedLevel_isAllocatableUnderNewEpoch() {
+        long epoch = slotManager.topology().getEpoch();
+
+        slotManager.addLevel(new ParkingLevel("L2", slots("L2", 2)));
+
+        assertTrue(slotManager.topology().getEpoch() > epoch);
+        assertEquals(6, slotManager.capacity(SlotType.MEDIUM));
+        assertEquals(6, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertEquals(6, calendar.availableBetween(SlotType.MEDIUM, NOW, NOW + 60_000));
+        assertEquals(2, tracker.snapshot().free("L2", SlotType.MEDIUM));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotManager.addSlot("L1", new ParkingSlot("L2-S0", null, SlotType.MEDIUM,
+                        new AtomicReference<>(SlotState.FREE))));
+    }
+
+    @Test
+    void occupiedSlot_drainsOnRelease() {
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+
+        assertFalse(slotManager.markOutOfService(ticket.getSlotId()), "Occupied slot must drain first");
+        assertEquals(SlotState.OCCUPIED, slotManager.topology().slot(ticket.getSlotId()).getState().get());
+
+        slotManager.release(ticket.getSlotId());
+
+        assertEquals(SlotState.OUT_OF_SERVICE, slotManager.topology().slot(ticket.getSlotId()).getState().get());
+        assertEquals(3, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertEquals(3, calendar.availableBetween(SlotType.MEDIUM, NOW, NOW + 60_000));
+
+        assertTrue(slotManager.returnToService(ticket.getSlotId()));
+        assertEquals(4, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertEquals(4, calendar.availableBetween(SlotType.MEDIUM, NOW, NOW + 60_000));
+    }
+
+    @Test
+    void freeSlot_goesOutOfServiceAtOnce() {
+        assertTrue(slotManager.markOutOfService("L1-S0"));
+
+        assertEquals(3, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertEquals(1, tracker.snapshot().getCounts().get(0).getOutOfService());
+        for (int i = 0; i < 4; i++) {
+            slotManager.allocate(new Vehicle("CAR" + i, VehicleType.CAR), "ENTRY")
+                    .ifPresent(t -> assertNotEquals("L1-S0", t.getSlotId()));
+        }
+    }
+
+    @Test
+    void removedLevel_leavesLotAfterLastSlotDrains() {
+        slotManager.addLevel(new ParkingLevel("L2", slots("L2", 2)));
+        slotManager.markOutOfService("L1-S0");
+        slotManager.markOutOfService("L1-S1");
+        slotManager.markOutOfService("L1-S2");
+        slotManager.markOutOfService("L1-S3");
+        Ticket ticket = slotManager.allocate(new Vehicle("CAR1", VehicleType.CAR), "ENTRY").get();
+        slotManager.returnToService("L1-S0");
+
+        assertEquals(1, slotManager.removeLevel("L2"));
+        assertTrue(lot.getLevel("L2").isPresent(), "Level stays while a slot is occupied");
+        assertEquals(5, slotManager.capacity(SlotType.MEDIUM));
+
+        slotManager.release(ticket.getSlotId());
+
+        assertTrue(lot.getLevel("L2").isEmpty());
+        assertNull(slotManager.topology().slot(ticket.getSlotId()));
+        assertEquals(4, slotManager.capacity(SlotType.MEDIUM));
+        assertEquals(0, tracker.snapshot().free("L2", SlotType.MEDIUM));
+    }
+
+    @Test
+    void allocationContinues_whileTopologyChanges() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> violations = new CopyOnWriteArrayList<>();
+        ExecutorService gates = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int g = 0; g < 4; g++) {
+            final int gate = g;
+            futures.add(gates.submit(() -> {
+                int i = 0;
+                while (running.get()) {
+                    Optional<Ticket> ticket = slotManager.allocate(
+                            new Vehicle("G" + gate + "-" + i++, VehicleType.CAR), "ENTRY");
+                    ticket.ifPresent(t -> {
+                        // an occupied slot cannot be removed, so it must still be in the topology
+                        if (slotManager.topology().slot(t.getSlotId()) == null) {
+                            violations.add(t.getSlotId());
+                        }
+                        slotManager.release(t.getSlotId());
+                    });
+                }
+            }));
+        }
+
+        for (int l = 2; l < 12; l++) {
+            String levelId = "L" + l;
+            slotManager.addLevel(new ParkingLevel(levelId, slots(levelId, 8)));
+            slotManager.removeLevel("L" + (l - 1));
+        }
+        TimeUnit.MILLISECONDS.sleep(50);
+        running.set(false);
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        gates.shutdown();
+
+        assertTrue(violations.isEmpty(), "Allocated a decommissioned slot: " + violations);
+        assertEquals(Set.of("L11"), Set.copyOf(lot.getLevels().stream().map(ParkingLevel::getLevelId).toList()));
+        assertEquals(8, slotManager.capacity(SlotType.MEDIUM));
+        assertEquals(8, slotManager.freeSlotCount(SlotType.MEDIUM));
+        assertEquals(8, calendar.availableBetween(SlotType.MEDIUM, NOW, NOW + Duration.ofHours(1).toMillis()));
+        assertEquals(8, tracker.snapshot().free(SlotType.MEDIUM));
+    }
+
+    private static List<ParkingSlot> slots(final String levelId, final int count) {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            slots.add(new ParkingSlot(levelId + "-S" + i, null, SlotType.MEDIUM, new AtomicReference<>(SlotState.FREE)));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.*;
+import com.tictok.lld.stratergy.IAIStratergy;
+import com.tictok.lld.stratergy.impl.AdvancedStratergy;
+import com.tictok.lld.stratergy.impl.RandomStratergy;
+
+/**
+ * Validates the alpha-beta search engine:
+ * 1. It completes its own line before anything else
+ * 2. It blocks the opponent's winning line
+ * 3. Perfect play on 3x3 is a draw and is found instantly
+ * 4. On 7x7 with winLength 4 it stays within budget and never loses to random play
+ */
+public class AdvancedStratergyTest {
+
+    private final Piece x = new Piece(PieceType.X);
+    private final Piece o = new Piece(PieceType.O);
+
+    @Test
+    void takesTheWinningMove() {
+        Board board = board(5, 4);
+        play(board, x, 2, 0, 2, 1, 2, 2);
+        play(board, o, 0, 0, 0, 4, 4, 4);
+
+        Move move = new AdvancedStratergy().makeMove(board, x).orElseThrow();
+
+        board.applyMove(move);
+        assertTrue(board.hasWinner(move), "Expected a winning move, got " + move.getRow() + "," + move.getCol());
+    }
+
+    @Test
+    void blocksTheOpponentsLine() {
+        Board board = board(3, 3);
+        play(board, o, 0, 0, 1, 1);
+        play(board, x, 0, 1);
+
+        Move move = new AdvancedStratergy().makeMove(board, x).orElseThrow();
+
+        assertEquals(2, move.getRow());
+        assertEquals(2, move.getCol());
+    }
+
+    @Test
+    void threeByThree_selfPlayIsADraw() {
+        AdvancedStratergy engine = new AdvancedStratergy();
+        Board board = board(3, 3);
+
+        long start = System.nanoTime();
+        Optional<Piece> winner = playOut(board, engine, engine);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(winner.isEmpty(), "Perfect play on 3x3 must draw");
+        assertTrue(board.isFull());
+        assertTrue(elapsedMillis < 9 * AdvancedStratergy.DEFAULT_BUDGET_MILLIS,
+                "3x3 is solved well inside the budget, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void sevenBySeven_neverLosesToRandomPlay() {
+        AdvancedStratergy engine = new AdvancedStratergy();
+        for (int game = 0; game < 6; game++) {
+            Board board = board(7, 4);
+            boolean engineFirst = game % 2 == 0;
+            Optional<Piece> winner = engineFirst
+                    ? playOut(board, engine, new RandomStratergy())
+                    : playOut(board, new RandomStratergy(), engine);
+            Piece enginePiece = engineFirst ? x : o;
+            assertEquals(Optional.of(enginePiece), winner, "Engine must beat random play in game " + game);
+        }
+
+        // warmed up: a single move stays close to the budget
+        Board board = board(7, 4);
+        play(board, x, 3, 3);
+        play(board, o, 2, 3);
+        long start = System.nanoTime();
+        engine.makeMove(board, x);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 2 * AdvancedStratergy.DEFAULT_BUDGET_MILLIS,
+                "Move took " + elapsedMillis + " ms");
+    }
+
+    private Board board(final int size, final int winLength) {
+        return new Board(size, winLength, Set.of(x, o));
+    }
+
+    private static void play(final Board board, final Piece piece, final int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            board.applyMove(new Move(cells[i], cells[i + 1], piece));
+        }
+    }
+
+    /** Plays x then o alternately until a line is made or the board fills. */
+    private Optional<Piece> playOut(final Board board, final IAIStratergy first, final IAIStratergy second) {
+        for (int turn = 0; !board.isFull(); turn++) {
+            Piece piece = turn % 2 == 0 ? x : o;
+            Move move = (turn % 2 == 0 ? first : second).makeMove(board, piece).orElseThrow();
+            board.applyMove(move);
+            if (board.hasWinner(move)) {
+                return Optional.of(piece);
+            }
+        }
+        return Optional.empty();
+    }
+}
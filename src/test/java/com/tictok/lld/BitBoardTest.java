@@ -0,0 +1,123 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.*;
+
+/**
+ * Validates the bit board against the reference Board:
+ * 1. Random games agree move by move on occupancy, wins and fullness, packed and row layouts alike
+ * 2. Unmaking every move restores an empty board that replays identically
+ * 3. Lines built out of order, across row edges and along both diagonals are detected
+ */
+public class BitBoardTest {
+
+    private final Piece x = new Piece(PieceType.X);
+    private final Piece o = new Piece(PieceType.O);
+
+    @Test
+    void randomGames_agreeWithBoard() {
+        Random random = new Random(7);
+        int[][] shapes = { { 3, 3 }, { 4, 3 }, { 5, 4 }, { 7, 4 }, { 8, 5 }, { 8, 8 }, { 9, 5 }, { 15, 5 }, { 20, 6 } };
+        for (int[] shape : shapes) {
+            for (int game = 0; game < 200; game++) {
+                playAndCompare(shape[0], shape[1], random);
+            }
+        }
+    }
+
+    @Test
+    void unmake_restoresTheBoard() {
+        Random random = new Random(11);
+        for (int size : new int[] { 6, 8, 12 }) {
+            BitBoard board = BitBoard.create(size, 4, 2);
+            int[] order = shuffledCells(size, random);
+            int played = 0;
+            boolean[] wins = new boolean[order.length];
+            for (; played < order.length; played++) {
+                wins[played] = board.make(order[played] / size, order[played] % size, played % 2);
+                if (wins[played]) {
+                    played++;
+                    break;
+                }
+            }
+            for (int i = played - 1; i >= 0; i--) {
+                board.unmake(order[i] / size, order[i] % size, i % 2);
+            }
+
+            assertEquals(0, board.filledCells());
+            assertFalse(board.hasLine(0) || board.hasLine(1));
+            for (int i = 0; i < played; i++) {
+                assertEquals(wins[i], board.make(order[i] / size, order[i] % size, i % 2), "Replay differs at " + i);
+            }
+        }
+    }
+
+    @Test
+    void linesAreFoundInEveryDirection() {
+        for (int size : new int[] { 8, 10 }) {
+            assertTrue(line(size, 4, 0, 0, 0, 3, 0, 1, 0, 2), "horizontal filled out of order");
+            assertFalse(line(size, 4, 0, size - 2, 0, size - 1, 1, 0, 1, 1), "a row edge is not a line");
+            assertTrue(line(size, 3, size - 3, size - 1, size - 2, size - 1, size - 1, size - 1), "vertical");
+            assertTrue(line(size, 3, 2, 2, 4, 4, 3, 3), "diagonal");
+            assertTrue(line(size, 3, 0, size - 1, 2, size - 3, 1, size - 2), "anti-diagonal");
+            assertFalse(line(size, 3, 0, 0, 0, size - 1, 1, size - 2), "anti-diagonal does not wrap");
+        }
+    }
+
+    private boolean line(final int size, final int winLength, final int... cells) {
+        BitBoard board = BitBoard.create(size, winLength, 2);
+        boolean won = false;
+        for (int i = 0; i < cells.length; i += 2) {
+            won = board.make(cells[i], cells[i + 1], 0);
+        }
+        assertEquals(won, board.hasLine(0));
+        return won;
+    }
+
+    private void playAndCompare(final int size, final int winLength, final Random random) {
+        Board reference = new Board(size, winLength, Set.of(x, o));
+        BitBoard board = BitBoard.create(size, winLength, 2);
+        int[] order = shuffledCells(size, random);
+        for (int i = 0; i < order.length; i++) {
+            int row = order[i] / size;
+            int col = order[i] % size;
+            Move move = new Move(row, col, i % 2 == 0 ? x : o);
+            reference.applyMove(move);
+            boolean won = board.make(row, col, i % 2);
+
+            assertEquals(reference.hasWinner(move), won, "Win mismatch on " + size + "x" + size + " at move " + i);
+            assertEquals(reference.isFull(), board.isFull());
+            assertEquals(i % 2, board.sideAt(row, col));
+            if (won) {
+                break;
+            }
+        }
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                Optional<Piece> piece = reference.getPieceAt(row, col);
+                int expected = piece.isEmpty() ? BitBoard.EMPTY : piece.get() == x ? 0 : 1;
+                assertEquals(expected, board.sideAt(row, col));
+            }
+        }
+    }
+
+    private static int[] shuffledCells(final int size, final Random random) {
+        int[] cells = new int[size * size];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = cells[i];
+            cells[i] = cells[j];
+            cells[j] = t;
+        }
+        return cells;
+    }
+}
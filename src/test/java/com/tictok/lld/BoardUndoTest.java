@@ -0,0 +1,131 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.*;
+import com.tictok.lld.stratergy.impl.RandomStratergy;
+
+/**
+ * Validates reversible moves and the empty-cell index on Board:
+ * 1. Unmaking every move restores an empty board that replays with identical wins
+ * 2. Unmaking in the middle of a game restores the counters the next move reads
+ * 3. Only the last move can be undone
+ * 4. The empty-cell index always holds exactly the empty cells, and random play draws from it
+ */
+public class BoardUndoTest {
+
+    private final Piece x = new Piece(PieceType.X);
+    private final Piece o = new Piece(PieceType.O);
+
+    @Test
+    void unmakeAll_restoresAnEmptyBoard() {
+        Random random = new Random(3);
+        for (int size : new int[] { 3, 7, 15 }) {
+            Board board = new Board(size, Math.min(size, 5), Set.of(x, o));
+            List<Boolean> wins = new ArrayList<>();
+            List<Move> moves = randomGame(board, random, wins);
+            for (int i = moves.size() - 1; i >= 0; i--) {
+                board.unmakeMove(moves.get(i));
+            }
+
+            assertEquals(size * size, board.getEmptyCellCount());
+            for (int i = 0; i < moves.size(); i++) {
+                board.applyMove(moves.get(i));
+                assertEquals(wins.get(i), board.hasWinner(moves.get(i)), "Replay differs at " + i);
+            }
+        }
+    }
+
+    @Test
+    void unmake_restoresRunsAcrossTheGap() {
+        Board board = new Board(7, 4, Set.of(x, o));
+        board.applyMove(new Move(3, 0, x));
+        board.applyMove(new Move(3, 1, x));
+        board.applyMove(new Move(3, 3, x));
+        Move bridge = new Move(3, 2, x);
+        board.applyMove(bridge);
+        assertTrue(board.hasWinner(bridge));
+
+        board.unmakeMove(bridge);
+        Move blocked = new Move(3, 2, o);
+        board.applyMove(blocked);
+        assertFalse(board.hasWinner(blocked));
+        Move extended = new Move(3, 4, x);
+        board.applyMove(extended);
+        assertFalse(board.hasWinner(extended), "Run beyond the undone move must not be counted");
+        Move wins = new Move(3, 5, x);
+        board.applyMove(new Move(0, 0, o));
+        board.applyMove(new Move(3, 6, x));
+        board.applyMove(wins);
+        assertTrue(board.hasWinner(wins));
+    }
+
+    @Test
+    void unmake_rejectsAnythingButTheLastMove() {
+        Board board = new Board(3, 3, Set.of(x, o));
+        Move first = new Move(0, 0, x);
+        board.applyMove(first);
+        board.applyMove(new Move(1, 1, o));
+
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove(first));
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove(new Move(1, 1, x)));
+        board.unmakeMove(new Move(1, 1, new Piece(PieceType.O)));
+        board.unmakeMove(first);
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove(first));
+    }
+
+    @Test
+    void emptyCellIndex_tracksTheGrid() {
+        Random random = new Random(5);
+        Board board = new Board(9, 5, Set.of(x, o));
+        Deque<Move> played = new ArrayDeque<>();
+        for (int step = 0; step < 2_000; step++) {
+            if (!played.isEmpty() && (board.isFull() || random.nextInt(3) == 0)) {
+                board.unmakeMove(played.pop());
+            } else {
+                int cell = board.getEmptyCell(random.nextInt(board.getEmptyCellCount()));
+                Move move = new Move(cell / 9, cell % 9, played.size() % 2 == 0 ? x : o);
+                board.applyMove(move);
+                played.push(move);
+            }
+            Set<Integer> indexed = new HashSet<>();
+            for (int i = 0; i < board.getEmptyCellCount(); i++) {
+                indexed.add(board.getEmptyCell(i));
+            }
+            for (int cell = 0; cell < 81; cell++) {
+                assertEquals(board.getPieceAt(cell / 9, cell % 9).isEmpty(), indexed.contains(cell));
+            }
+        }
+
+        Board nearlyFull = new Board(3, 3, Set.of(x, o));
+        nearlyFull.applyMove(new Move(0, 0, x));
+        RandomStratergy stratergy = new RandomStratergy();
+        Set<Integer> picked = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            Move move = stratergy.makeMove(nearlyFull, o).orElseThrow();
+            assertTrue(nearlyFull.getPieceAt(move.getRow(), move.getCol()).isEmpty());
+            picked.add(move.getRow() * 3 + move.getCol());
+        }
+        assertEquals(8, picked.size());
+    }
+
+    private List<Move> randomGame(final Board board, final Random random, final List<Boolean> wins) {
+        List<Move> moves = new ArrayList<>();
+        for (int turn = 0; !board.isFull(); turn++) {
+            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCellCount()));
+            Move move = new Move(cell / board.getSize(), cell % board.getSize(), turn % 2 == 0 ? x : o);
+            board.applyMove(move);
+            moves.add(move);
+            wins.add(board.hasWinner(move));
+            if (wins.get(turn)) {
+                break;
+            }
+        }
+        return moves;
+    }
+}
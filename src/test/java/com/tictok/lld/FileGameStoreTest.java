@@ -0,0 +1,327 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tictok.lld.enums.*;
+import com.tictok.lld.models.*;
+import com.tictok.lld.services.GameService;
+import com.tictok.lld.store.IGameStore;
+import com.tictok.lld.store.impl.FileGameStore;
+import com.tictok.lld.stratergy.impl.FifoPlayerStratergy;
+
+/**
+ * Validates event-sourced game persistence:
+ * 1. Games survive a restart, from their start, their moves and their snapshots, and play on
+ * 2. Games are read lazily on first access, finished ones included
+ * 3. After a crash the log written since the last index is replayed and a torn tail is cut off
+ * 4. Concurrent appends are group committed
+ * 5. Player details round-trip exactly, including characters modified UTF-8 encodes differently
+ * 6. A move that cannot be recorded evicts the game, which reloads from its last durable move
+ * 7. Only Snowflake game ids are accepted
+ * 8. A move waits for the game's previous record, so none is appended past a failed one
+ */
+public class FileGameStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final Player p1 = new HumanPlayer("P1", "Alice", "a@test.com");
+    private final Player p2 = new HumanPlayer("P2", "Bob", "b@test.com");
+
+    @Test
+    void restart_restoresGamesAndTheyPlayOn() throws IOException {
+        List<Game> games = new ArrayList<>();
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(2, store)) {
+            for (int moves : new int[] { 0, 5, FileGameStore.SNAPSHOT_EVERY, FileGameStore.SNAPSHOT_EVERY + 7 }) {
+                Game game = startedGame(service, 15, 5);
+                playSpread(service, game, moves);
+                games.add(game);
+            }
+        }
+
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(2, store)) {
+            assertEquals(0, service.activeGameCount(), "Nothing is loaded until it is used");
+            for (Game original : games) {
+                Game restored = store.load(original.getId()).orElseThrow();
+                assertSameState(original, restored);
+
+                int ply = original.getBoard().getMoveCount();
+                assertThrows(IllegalStateException.class, () -> service.submitMove(original.getId(),
+                        (ply % 2 == 0 ? p2 : p1).getPlayerId(), spreadMove(ply)), "Turn order survives");
+                service.submitMove(original.getId(), (ply % 2 == 0 ? p1 : p2).getPlayerId(), spreadMove(ply));
+            }
+            assertEquals(games.size(), service.activeGameCount());
+        }
+
+        try (FileGameStore store = new FileGameStore(dir)) {
+            for (Game original : games) {
+                assertEquals(original.getBoard().getMoveCount() + 1,
+                        store.load(original.getId()).orElseThrow().getBoard().getMoveCount());
+            }
+        }
+    }
+
+    @Test
+    void finishedGames_areRestoredButNotReactivated() throws IOException {
+        String id;
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(1, store)) {
+            Game game = startedGame(service, 3, 3);
+            int[][] win = { { 0, 0 }, { 1, 0 }, { 0, 1 }, { 1, 1 }, { 0, 2 } };
+            for (int ply = 0; ply < win.length; ply++) {
+                service.submitMove(game.getId(), (ply % 2 == 0 ? p1 : p2).getPlayerId(),
+                        new Move(win[ply][0], win[ply][1], new Piece(ply % 2 == 0 ? PieceType.X : PieceType.O)));
+            }
+            id = game.getId();
+            assertEquals(0, service.activeGameCount());
+            assertThrows(IllegalArgumentException.class, () -> service.submitMove(id, p2.getPlayerId(),
+                    new Move(2, 2, new Piece(PieceType.O))));
+        }
+
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(1, store)) {
+            Game restored = store.load(id).orElseThrow();
+            assertEquals(GameStatus.COMPLETED, restored.getGameStatus());
+            assertEquals("P1", restored.getWinningPlayer().orElseThrow().getPlayerId());
+            assertThrows(IllegalArgumentException.class, () -> service.submitMove(id, p2.getPlayerId(),
+                    new Move(2, 2, new Piece(PieceType.O))));
+            assertTrue(store.load("0000000000000").isEmpty());
+            assertTrue(store.load("not-an-id").isEmpty());
+        }
+    }
+
+    @Test
+    void crash_replaysTheLogTail_andCutsATornRecord() throws IOException {
+        Game game;
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(1, store)) {
+            game = startedGame(service, 9, 5);
+            playSpread(service, game, 10);
+        }
+        Path crashed = Files.createDirectories(dir.resolve("crashed"));
+        FileGameStore store = new FileGameStore(dir);
+        try (GameService service = new GameService(1, store)) {
+            for (int ply = 10; ply < 14; ply++) {
+                service.submitMove(game.getId(), (ply % 2 == 0 ? p1 : p2).getPlayerId(), spreadMove(ply));
+            }
+            // everything acknowledged is on disk; copy it as a crash would leave it, index not rewritten
+            for (String file : new String[] { "games.log", "games.idx" }) {
+                Files.copy(dir.resolve(file), crashed.resolve(file));
+            }
+        } finally {
+            store.close();
+        }
+        Files.write(crashed.resolve("games.log"), new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        long logSize;
+        try (FileGameStore recovered = new FileGameStore(crashed)) {
+            Game restored = recovered.load(game.getId()).orElseThrow();
+            assertEquals(14, restored.getBoard().getMoveCount());
+            logSize = Files.size(crashed.resolve("games.log"));
+        }
+        assertEquals(Files.size(dir.resolve("games.log")), logSize, "Torn tail is cut off");
+    }
+
+    @Test
+    void concurrentAppends_areGroupCommitted() throws Exception {
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(4, store)) {
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                games.add(lobby(service, 3, 3));
+            }
+            List<CompletableFuture<GameStatus>> started = new ArrayList<>();
+            for (Game game : games) {
+                started.add(service.startGameAsync(game.getId()));
+            }
+            List<CompletableFuture<GameStatus>> moved = new ArrayList<>();
+            for (int i = 0; i < games.size(); i++) {
+                started.get(i).join();
+                moved.add(service.submitMoveAsync(games.get(i).getId(), p1.getPlayerId(),
+                        new Move(1, 1, new Piece(PieceType.X))));
+            }
+            for (CompletableFuture<GameStatus> result : moved) {
+                assertEquals(GameStatus.ONGOING, result.join());
+            }
+
+            assertTrue(store.commits() < 2 * games.size(), store.commits() + " commits for " + 2 * games.size());
+            assertEquals(1, store.load(games.get(1_999).getId()).orElseThrow().getBoard().getMoveCount());
+        }
+    }
+
+    @Test
+    void playerDetails_roundTripExactly() throws IOException {
+        Player nul = new HumanPlayer("P\u0000", "Zo\u00eb \uD83D\uDE00", "nul@test.com");
+        Piece x = new Piece(PieceType.X);
+        Piece o = new Piece(PieceType.O);
+        Game game = new Game(new Board(3, 3, Set.of(x, o)), GameType.MULTIPLAYER, 2, new FifoPlayerStratergy());
+        game.addPlayer(nul, x);
+        game.addPlayer(p2, o);
+        try (FileGameStore store = new FileGameStore(dir); GameService service = new GameService(1, store)) {
+            service.registerGame(game);
+            service.startGame(game.getId());
+        }
+
+        try (FileGameStore store = new FileGameStore(dir)) {
+            Player restored = store.load(game.getId()).orElseThrow().getPlayerPieceMap().keySet().iterator().next();
+            assertEquals(nul.getPlayerId(), restored.getPlayerId());
+            assertEquals(nul.getName(), restored.getName());
+        }
+    }
+
+    @Test
+    void failedAppend_evictsTheGame_andItReloadsFromTheLog() throws IOException {
+        AtomicBoolean failing = new AtomicBoolean();
+        try (FileGameStore files = new FileGameStore(dir)) {
+            IGameStore store = new IGameStore() {
+                @Override
+                public CompletableFuture<Void> started(final Game game) {
+                    return files.started(game);
+                }
+
+                @Override
+                public CompletableFuture<Void> moved(final Game game, final Move move) {
+                    if (failing.get()) {
+                        throw new UncheckedIOException(new IOException("disk full"));
+                    }
+                    return files.moved(game, move);
+                }
+
+                @Override
+                public Optional<Game> load(final String gameId) {
+                    return files.load(gameId);
+                }
+            };
+            try (GameService service = new GameService(1, store)) {
+                Game game = startedGame(service, 9, 5);
+                playSpread(service, game, 2);
+
+                failing.set(true);
+                assertThrows(RuntimeException.class,
+                        () -> service.submitMove(game.getId(), p1.getPlayerId(), spreadMove(2)));
+                assertEquals(0, service.activeGameCount());
+
+                failing.set(false);
+                service.submitMove(game.getId(), p1.getPlayerId(), spreadMove(2));
+                assertEquals(3, files.load(game.getId()).orElseThrow().getBoard().getMoveCount());
+            }
+        }
+    }
+
+    @Test
+    void moveBehindAnInFlightRecord_waitsAndIsRejectedIfItFails() throws Exception {
+        List<CompletableFuture<Void>> held = new CopyOnWriteArrayList<>();
+        AtomicBoolean holding = new AtomicBoolean();
+        try (FileGameStore files = new FileGameStore(dir)) {
+            IGameStore store = new IGameStore() {
+                @Override
+                public CompletableFuture<Void> started(final Game game) {
+                    return files.started(game);
+                }
+
+                @Override
+                public CompletableFuture<Void> moved(final Game game, final Move move) {
+                    if (!holding.get()) {
+                        return files.moved(game, move);
+                    }
+                    CompletableFuture<Void> pending = new CompletableFuture<>();
+                    held.add(pending);
+                    return pending;
+                }
+
+                @Override
+                public Optional<Game> load(final String gameId) {
+                    return files.load(gameId);
+                }
+            };
+            try (GameService service = new GameService(1, store)) {
+                Game game = startedGame(service, 9, 5);
+                playSpread(service, game, 2);
+
+                holding.set(true);
+                CompletableFuture<GameStatus> inFlight = service.submitMoveAsync(game.getId(), p1.getPlayerId(),
+                        spreadMove(2));
+                CompletableFuture<GameStatus> behind = service.submitMoveAsync(game.getId(), p2.getPlayerId(),
+                        spreadMove(3));
+                Thread.sleep(100);
+                assertEquals(1, held.size(), "The second move is not recorded while the first is in flight");
+                assertFalse(behind.isDone());
+
+                held.get(0).completeExceptionally(new IOException("disk full"));
+                assertThrows(ExecutionException.class, () -> inFlight.get(5, TimeUnit.SECONDS));
+                ExecutionException rejected = assertThrows(ExecutionException.class,
+                        () -> behind.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, rejected.getCause());
+                assertEquals(1, held.size());
+
+                holding.set(false);
+                service.submitMove(game.getId(), p1.getPlayerId(), spreadMove(2));
+                service.submitMove(game.getId(), p2.getPlayerId(), spreadMove(3));
+                assertEquals(4, files.load(game.getId()).orElseThrow().getBoard().getMoveCount());
+            }
+        }
+    }
+
+    @Test
+    void nonSnowflakeIds_areRejectedOnRegistration() {
+        try (GameService service = new GameService(1)) {
+            Game game = new Game("not-an-id", new Board(3, 3, Set.of(new Piece(PieceType.X), new Piece(PieceType.O))),
+                    GameType.MULTIPLAYER, 2, new FifoPlayerStratergy());
+            assertThrows(IllegalArgumentException.class, () -> service.registerGame(game));
+        }
+    }
+
+    private void assertSameState(final Game original, final Game restored) {
+        assertEquals(original.getGameStatus(), restored.getGameStatus());
+        assertEquals(original.getCurrentTurn().orElseThrow().getPlayerId(),
+                restored.getCurrentTurn().orElseThrow().getPlayerId());
+        Board expected = original.getBoard();
+        Board actual = restored.getBoard();
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        for (int ply = 0; ply < expected.getMoveCount(); ply++) {
+            assertEquals(expected.getMoveCell(ply), actual.getMoveCell(ply));
+        }
+        for (int row = 0; row < expected.getSize(); row++) {
+            for (int col = 0; col < expected.getSize(); col++) {
+                assertEquals(expected.getPieceAt(row, col), actual.getPieceAt(row, col));
+            }
+        }
+    }
+
+    /** Stones spaced out over alternate rows and columns, so no line forms for the first 40 plies. */
+    private static Move spreadMove(final int ply) {
+        int row = (ply / 4) * 2 % 14 + ply % 2;
+        int col = (ply % 4) / 2 * 3 + ply / 28 * 7 % 9;
+        return new Move(row, col, new Piece(ply % 2 == 0 ? PieceType.X : PieceType.O));
+    }
+
+    private void playSpread(final GameService service, final Game game, final int moves) {
+        for (int ply = 0; ply < moves; ply++) {
+            service.submitMove(game.getId(), (ply % 2 == 0 ? p1 : p2).getPlayerId(), spreadMove(ply));
+        }
+        assertEquals(GameStatus.ONGOING, game.getGameStatus());
+    }
+
+    private Game startedGame(final GameService service, final int size, final int winLength) {
+        Game game = lobby(service, size, winLength);
+        service.startGame(game.getId());
+        return game;
+    }
+
+    private Game lobby(final GameService service, final int size, final int winLength) {
+        Piece x = new Piece(PieceType.X);
+        Piece o = new Piece(PieceType.O);
+        Game game = new Game(new Board(size, winLength, Set.of(x, o)), GameType.MULTIPLAYER, 2,
+                new FifoPlayerStratergy());
+        game.addPlayer(p1, x);
+        game.addPlayer(p2, o);
+        service.registerGame(game);
+        return game;
+    }
+}
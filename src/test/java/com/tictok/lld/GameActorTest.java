@@ -0,0 +1,179 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.idgen.IdCodec;
+import com.idgen.impl.SnowflakeIdGenerator;
+import com.tictok.lld.enums.*;
+import com.tictok.lld.models.*;
+import com.tictok.lld.services.GameService;
+import com.tictok.lld.stratergy.impl.FifoPlayerStratergy;
+
+/**
+ * Validates the actor-style game service:
+ * 1. Racing moves on one game are applied one at a time; exactly one wins the turn
+ * 2. Finished games leave the active set and reject later moves
+ * 3. Thousands of games played concurrently all finish with every move's status in order
+ * 4. A game with a long backlog hands its thread back to other games
+ * 5. Game ids come from the injected generator and carry its node
+ */
+public class GameActorTest {
+
+    // the draw pattern from GameServiceFinalTest, X on even plies
+    private static final int[][] DRAW = { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 1 }, { 1, 0 }, { 1, 2 }, { 2, 1 },
+            { 2, 0 }, { 2, 2 } };
+
+    private final Player p1 = new HumanPlayer("P1", "Alice", "a@test.com");
+    private final Player p2 = new HumanPlayer("P2", "Bob", "b@test.com");
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : closeables) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void racingMoves_exactlyOneTakesTheTurn() throws Exception {
+        GameService service = service(new GameService(4));
+        Game game = startedGame(service);
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        closeables.add(clients::shutdownNow);
+        List<Future<CompletableFuture<GameStatus>>> submitted = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int cell = i;
+            submitted.add(clients.submit(() -> service.submitMoveAsync(game.getId(), p1.getPlayerId(),
+                    new Move(cell / 3, cell % 3, new Piece(PieceType.X)))));
+        }
+        int applied = 0;
+        for (Future<CompletableFuture<GameStatus>> future : submitted) {
+            try {
+                assertEquals(GameStatus.ONGOING, future.get().join());
+                applied++;
+            } catch (CompletionException e) {
+                assertEquals("Not player's turn", e.getCause().getMessage());
+            }
+        }
+        assertEquals(1, applied);
+        assertEquals(8, game.getBoard().getEmptyCellCount());
+        assertEquals(p2, game.getCurrentTurn().orElseThrow());
+    }
+
+    @Test
+    void finishedGames_leaveTheActiveSet() {
+        GameService service = service(new GameService(2));
+        Game game = startedGame(service);
+        assertEquals(1, service.activeGameCount());
+
+        List<CompletableFuture<GameStatus>> results = playDraw(service, game);
+        CompletableFuture<GameStatus> late = service.submitMoveAsync(game.getId(), p2.getPlayerId(),
+                new Move(0, 0, new Piece(PieceType.O)));
+
+        assertEquals(GameStatus.DRAW, results.get(8).join());
+        assertEquals(0, service.activeGameCount());
+        CompletionException rejected = assertThrows(CompletionException.class, late::join);
+        // queued behind the last move, or submitted after the game had already left
+        assertTrue(rejected.getCause() instanceof IllegalStateException
+                || rejected.getCause() instanceof IllegalArgumentException);
+        assertThrows(IllegalArgumentException.class, () -> service.submitMove(game.getId(), p2.getPlayerId(),
+                new Move(0, 0, new Piece(PieceType.O))));
+    }
+
+    @Test
+    void manyGames_finishIndependently() {
+        GameService service = service(new GameService(4));
+        List<Game> games = new ArrayList<>();
+        List<List<CompletableFuture<GameStatus>>> results = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            games.add(startedGame(service));
+        }
+        for (Game game : games) {
+            results.add(playDraw(service, game));
+        }
+
+        for (int g = 0; g < games.size(); g++) {
+            for (int ply = 0; ply < DRAW.length; ply++) {
+                GameStatus expected = ply == DRAW.length - 1 ? GameStatus.DRAW : GameStatus.ONGOING;
+                assertEquals(expected, results.get(g).get(ply).join(), "Game " + g + " ply " + ply);
+            }
+            assertTrue(games.get(g).getBoard().isFull());
+        }
+        assertEquals(0, service.activeGameCount());
+    }
+
+    @Test
+    void busyGame_yieldsItsThread() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        closeables.add(single::shutdownNow);
+        GameService service = new GameService(single);
+        Game busy = startedGame(service);
+        Game quiet = startedGame(service);
+
+        CountDownLatch gate = new CountDownLatch(1);
+        single.execute(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<CompletableFuture<GameStatus>> backlog = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            backlog.add(service.submitMoveAsync(busy.getId(), p2.getPlayerId(), new Move(0, 0, new Piece(PieceType.O))));
+        }
+        CompletableFuture<GameStatus> other = service.submitMoveAsync(quiet.getId(), p1.getPlayerId(),
+                new Move(1, 1, new Piece(PieceType.X)));
+        CompletableFuture<Boolean> backlogDoneFirst = other.thenApply(status -> backlog.get(999).isDone());
+        gate.countDown();
+
+        assertFalse(backlogDoneFirst.get(5, TimeUnit.SECONDS));
+        assertEquals(GameStatus.ONGOING, other.join());
+        for (CompletableFuture<GameStatus> rejected : backlog) {
+            assertThrows(CompletionException.class, rejected::join);
+        }
+    }
+
+    @Test
+    void gameIds_carryTheInjectedNode() {
+        Game game = new Game(new SnowflakeIdGenerator(7), new Board(3, 3, Set.of(new Piece(PieceType.X),
+                new Piece(PieceType.O))), GameType.MULTIPLAYER, 2, new FifoPlayerStratergy());
+
+        long id = IdCodec.decode(game.getId());
+        assertEquals(7, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE);
+    }
+
+    private GameService service(final GameService service) {
+        closeables.add(service);
+        return service;
+    }
+
+    private Game startedGame(final GameService service) {
+        Piece x = new Piece(PieceType.X);
+        Piece o = new Piece(PieceType.O);
+        Game game = new Game(new Board(3, 3, Set.of(x, o)), GameType.MULTIPLAYER, 2, new FifoPlayerStratergy());
+        game.addPlayer(p1, x);
+        game.addPlayer(p2, o);
+        service.registerGame(game);
+        service.startGame(game.getId());
+        return game;
+    }
+
+    private List<CompletableFuture<GameStatus>> playDraw(final GameService service, final Game game) {
+        List<CompletableFuture<GameStatus>> results = new ArrayList<>();
+        for (int ply = 0; ply < DRAW.length; ply++) {
+            Player player = ply % 2 == 0 ? p1 : p2;
+            Piece piece = new Piece(ply % 2 == 0 ? PieceType.X : PieceType.O);
+            results.add(service.submitMoveAsync(game.getId(), player.getPlayerId(),
+                    new Move(DRAW[ply][0], DRAW[ply][1], piece)));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,107 @@
+package com.tictok.lld;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.tictok.lld.enums.PieceType;
+import com.tictok.lld.models.*;
+import com.tictok.lld.stratergy.IAIStratergy;
+import com.tictok.lld.stratergy.impl.MctsStratergy;
+import com.tictok.lld.stratergy.impl.RandomStratergy;
+
+/**
+ * Validates the Monte Carlo search engine:
+ * 1. Immediate wins are taken and immediate losses blocked
+ * 2. The playout budget is never exceeded, even with parallel workers
+ * 3. The time budget bounds each move
+ * 4. It beats random play on a board too large for alpha-beta
+ */
+public class MctsStratergyTest {
+
+    private final Piece x = new Piece(PieceType.X);
+    private final Piece o = new Piece(PieceType.O);
+
+    @Test
+    void forcedMoves_areNotLeftToSampling() {
+        MctsStratergy engine = new MctsStratergy(50, 1_000);
+        Board winning = new Board(15, 5, Set.of(x, o));
+        play(winning, x, 7, 3, 7, 4, 7, 5, 7, 6);
+        play(winning, o, 0, 0, 14, 14, 0, 14, 14, 0);
+
+        Move move = engine.makeMove(winning, x).orElseThrow();
+        winning.applyMove(move);
+        assertTrue(winning.hasWinner(move));
+
+        Board defending = new Board(15, 5, Set.of(x, o));
+        play(defending, o, 2, 2, 3, 3, 4, 4, 5, 5);
+        play(defending, x, 0, 14, 14, 0, 1, 13);
+
+        Move block = engine.makeMove(defending, x).orElseThrow();
+        assertTrue(block.getRow() == 1 && block.getCol() == 1 || block.getRow() == 6 && block.getCol() == 6,
+                "Expected a block, got " + block.getRow() + "," + block.getCol());
+    }
+
+    @Test
+    void parallelWorkers_stopAtThePlayoutBudget() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MctsStratergy engine = new MctsStratergy(10_000, 5_000, 4, pool);
+            Board board = new Board(15, 5, Set.of(x, o));
+            play(board, x, 7, 7);
+
+            assertTrue(engine.makeMove(board, o).isPresent());
+            assertEquals(5_000, engine.playouts());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void timeBudget_boundsTheMove() {
+        MctsStratergy engine = new MctsStratergy(100, Integer.MAX_VALUE);
+        Board board = new Board(15, 5, Set.of(x, o));
+        play(board, x, 7, 7);
+
+        long start = System.nanoTime();
+        assertTrue(engine.makeMove(board, o).isPresent());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 300, "Move took " + elapsedMillis + " ms");
+        assertTrue(engine.playouts() > 0);
+    }
+
+    @Test
+    void largeBoard_beatsRandomPlay() {
+        MctsStratergy engine = new MctsStratergy(200, 4_000);
+        for (int game = 0; game < 2; game++) {
+            Board board = new Board(11, 4, Set.of(x, o));
+            boolean engineFirst = game == 0;
+            Optional<Piece> winner = engineFirst
+                    ? playOut(board, engine, new RandomStratergy())
+                    : playOut(board, new RandomStratergy(), engine);
+            assertEquals(Optional.of(engineFirst ? x : o), winner, "Engine must beat random play in game " + game);
+        }
+    }
+
+    private static void play(final Board board, final Piece piece, final int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            board.applyMove(new Move(cells[i], cells[i + 1], piece));
+        }
+    }
+
+    private Optional<Piece> playOut(final Board board, final IAIStratergy first, final IAIStratergy second) {
+        for (int turn = 0; !board.isFull(); turn++) {
+            Piece piece = turn % 2 == 0 ? x : o;
+            Move move = (turn % 2 == 0 ? first : second).makeMove(board, piece).orElseThrow();
+            board.applyMove(move);
+            if (board.hasWinner(move)) {
+                return Optional.of(piece);
+            }
+        }
+        return Optional.empty();
+    }
+}